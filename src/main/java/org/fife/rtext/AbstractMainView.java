@@ -20,8 +20,9 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.*;
 import java.net.URL;
+import java.nio.charset.Charset;
 import java.util.*;
-import java.util.Timer;
+import java.util.function.Consumer;
 import javax.imageio.ImageIO;
 import javax.swing.*;
 import javax.swing.event.EventListenerList;
@@ -37,6 +38,7 @@ import org.fife.rtext.SearchManager.SearchingMode;
 import org.fife.rtext.actions.AbstractSearchAction;
 import org.fife.rtext.actions.CapsLockAction;
 import org.fife.rtext.actions.ToggleTextModeAction;
+import org.fife.rtext.largefile.LargeFileViewer;
 import org.fife.ui.UIUtil;
 import org.fife.ui.app.AbstractGUIApplication;
 import org.fife.ui.app.AppTheme;
@@ -130,7 +132,6 @@ public abstract class AbstractMainView extends JPanel
 	private Color modifiedDocumentDisplayNameColor;	// Color to color display names of modified editors.
 
 	private boolean checkForModification;			// Check for files being changed outside of RText?
-	private long modificationCheckDelay = 10000;		// Delay in milliseconds.
 
 	private boolean overrideEditorStyles;
 	private boolean bracketMatchingEnabled;
@@ -188,6 +189,15 @@ public abstract class AbstractMainView extends JPanel
 	private Color gutterBorderColor;
 
 	private SpellingSupport spellingSupport;
+	private LazyTabSupport lazyTabSupport;
+
+	/**
+	 * Code to run once each editor whose file is being read has read it.
+	 *
+	 * @see #runWhenLoaded(RTextEditorPane, Runnable)
+	 */
+	private Map<RTextEditorPane, ArrayList<Runnable>> loadedActions;
+	private FileModificationWatcher fileModificationWatcher;
 
 	private ToggleTextModeAction toggleTextModeAction;
 	private CapsLockAction capsLockAction;
@@ -208,17 +218,6 @@ public abstract class AbstractMainView extends JPanel
 		listenerList = new EventListenerList();
 
 		checkForModification = true;
-		Timer t = new Timer();
-		// Check for files modified outside the editor
-		// every 30 seconds
-		t.schedule(new TimerTask() {
-				@Override
-				public void run() {
-					checkFilesForOutsideModification();
-				}
-			},
-			modificationCheckDelay,
-			modificationCheckDelay);
 
 	}
 
@@ -296,6 +295,7 @@ public abstract class AbstractMainView extends JPanel
 
 		// Let anybody who cares know we've opened this file.
 		firePropertyChange(TEXT_AREA_ADDED_PROPERTY, null, currentTextArea);
+		fileModificationWatcher.updateWatchedDirectories();
 
 	}
 
@@ -336,6 +336,7 @@ public abstract class AbstractMainView extends JPanel
 
 		// Let anybody who cares know we've opened this file.
 		firePropertyChange(TEXT_AREA_ADDED_PROPERTY, null, currentTextArea);
+		fileModificationWatcher.updateWatchedDirectories();
 		moveToTopOfCurrentDocument();
 
 	}
@@ -371,6 +372,81 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Called on the EDT when a file being read in the background has been
+	 * read.  Its content is installed in its editor; if it couldn't be read,
+	 * the editor is closed and the error is displayed.
+	 *
+	 * @param textArea The editor for the file.
+	 * @param file The file.
+	 * @param caretPosition Where to put the caret.
+	 * @param loaded The file's content, or <code>null</code> if an error
+	 *        occurred.
+	 * @param error The error that occurred, if any.
+	 */
+	private void backgroundLoadCompleted(RTextEditorPane textArea, File file,
+			int caretPosition, BackgroundFileLoader.LoadedFile loaded,
+			Throwable error) {
+
+		int index = -1;
+		for (int i=0; i<getNumDocuments(); i++) {
+			if (getRTextEditorPaneAt(i)==textArea) {
+				index = i;
+				break;
+			}
+		}
+		ArrayList<Runnable> actions = loadedActions.remove(textArea);
+		if (index==-1) { // Closed while being read
+			return;
+		}
+
+		if (error!=null) {
+			// Don't leave an empty editor around that could be saved over
+			// the file.
+			int selected = getSelectedIndex();
+			setSelectedIndex(index);
+			closeCurrentDocument();
+			if (selected!=index && getNumDocuments()>0) {
+				setSelectedIndex(selected>index ? selected - 1 : selected);
+			}
+			if (error instanceof IOException ioe) {
+				handleAddTextFileIOException(FileLocation.create(file), ioe, true);
+			}
+			else {
+				owner.displayException(error);
+			}
+			ensureFilesAreOpened();
+			return;
+		}
+
+		// The tab size is stored in the document, and the syntax style may
+		// have been changed while the file was read.
+		String style = textArea.getSyntaxEditingStyle();
+		int tabSize = textArea.getTabSize();
+		RSyntaxDocument doc = loaded.document();
+		textArea.setDocument(doc);
+		textArea.setSyntaxEditingStyle(style);
+		textArea.setTabSize(tabSize);
+		if (defaultLineTerminator!=null && doc.getLength()==0) {
+			textArea.setLineSeparator(defaultLineTerminator, false);
+		}
+		if (!loaded.encoding().equals(textArea.getEncoding())) {
+			textArea.setEncoding(loaded.encoding());
+		}
+		textArea.setCaretPosition(Math.min(caretPosition, doc.getLength()));
+		textArea.discardAllEdits();
+		textArea.setDirty(false);
+		// The file may have changed since the editor was created.
+		textArea.syncLastSaveOrLoadTimeToActualFile();
+		textArea.setLoadingMessage(null);
+
+		if (actions!=null) {
+			actions.forEach(Runnable::run);
+		}
+
+	}
+
+
 	/**
 	 * Returns whether tabs are emulated with spaces.
 	 *
@@ -384,49 +460,58 @@ public abstract class AbstractMainView extends JPanel
 	/**
 	 * Checks the "modified" timestamps for open files against the last known
 	 * "modified" timestamps to see if any files have been modified outside of
-	 * this RText instance.  This method is synchronized so that it isn't
-	 * called while the user is loading or saving a file.
+	 * this RText instance.  Files are normally checked automatically as soon
+	 * as they change; this checks all of them.  This method should be called
+	 * on the EDT.
 	 */
-	public synchronized void checkFilesForOutsideModification() {
+	public void checkFilesForOutsideModification() {
+		fileModificationWatcher.checkAll();
+	}
 
-		// If we're currently not waiting on the user to decide about a
-		// previous "another program modified..." message...
-		if (checkForModification) {
 
-			// Flag so that if the user takes to long deciding, messages
-			// don't pile up about the same file being modified.
-			// NOTE:  This is theoretically not thread-safe, but the
-			// delay is set at 10 seconds, so it should be more than
-			// enough to get to and complete this line).
-			checkForModification = false;
+	/**
+	 * Checks whether any of a set of open files have been modified outside
+	 * of this RText instance, and if so, prompts the user to reload them.
+	 * This method should be called on the EDT.
+	 *
+	 * @param textAreas The editors whose files to check.
+	 * @return Whether the files were checked.  This is <code>false</code>
+	 *         if the user is still being prompted about other files.
+	 */
+	boolean checkFilesForOutsideModification(Collection<RTextEditorPane> textAreas) {
 
-			StringBuilder sb = new StringBuilder();
-			for (int i=0; i<getNumDocuments(); i++) {
-				RTextEditorPane textArea = getRTextEditorPaneAt(i);
-				if (textArea.isModifiedOutsideEditor()) {
-					sb.append(' ').append(i);
-				}
-			}
+		// If we're currently waiting on the user to decide about a
+		// previous "another program modified..." message, check later.
+		if (!checkForModification) {
+			return false;
+		}
 
-			// If no documents were modified outside the editor, allow the
-			// thread to check again; otherwise, remember to prompt the user
-			// about all of the documents that changed outside of the editor.
-			if (sb.length()==0) {
-				checkForModification = true;
-			}
-			else {
-				final String actionCommand = "FileModified." + sb;
-				SwingUtilities.invokeLater(new Runnable() {
-					@Override
-					public void run() {
-						actionPerformed(new ActionEvent(this,
-							ActionEvent.ACTION_PERFORMED, actionCommand));
-					}
-				});
+		StringBuilder sb = new StringBuilder();
+		for (int i=0; i<getNumDocuments(); i++) {
+			RTextEditorPane textArea = getRTextEditorPaneAt(i);
+			if (textAreas.contains(textArea) && !BackgroundFileSaver.isSaving(textArea) &&
+					textArea.isModifiedOutsideEditor()) {
+				sb.append(' ').append(i);
 			}
+		}
 
+		// Remember to prompt the user about all of the documents that
+		// changed outside of the editor.  Until they're done, messages
+		// about other files don't pile up.
+		if (sb.length()>0) {
+			checkForModification = false;
+			final String actionCommand = "FileModified." + sb;
+			SwingUtilities.invokeLater(new Runnable() {
+				@Override
+				public void run() {
+					actionPerformed(new ActionEvent(this,
+						ActionEvent.ACTION_PERFORMED, actionCommand));
+				}
+			});
+		}
+
+		return true;
 
-		} // End of if (checkForModification==true).
 	}
 
 
@@ -451,6 +536,9 @@ public abstract class AbstractMainView extends JPanel
 	 */
 	public boolean closeAllDocumentsExcept(int except) {
 
+		// Files being saved are still dirty until they're done.
+		BackgroundFileSaver.waitForAll();
+
 		int numDocuments = getNumDocuments();
 		setSelectedIndex(numDocuments-1); // Start at the back.
 
@@ -505,6 +593,7 @@ public abstract class AbstractMainView extends JPanel
 		if (closed) {
 			old.clearParsers();
 			firePropertyChange(TEXT_AREA_REMOVED_PROPERTY, null, old);
+			fileModificationWatcher.updateWatchedDirectories();
 		}
 
 		return closed;
@@ -557,6 +646,13 @@ public abstract class AbstractMainView extends JPanel
 
 		currentTextArea = fromPanel.currentTextArea;
 
+		// Before the editors move over, so tabs not yet loaded stay that way.
+		lazyTabSupport.setIdleUnloadMinutes(0);
+		lazyTabSupport = fromPanel.lazyTabSupport;
+		loadedActions = fromPanel.loadedActions;
+		fileModificationWatcher.dispose();
+		fileModificationWatcher = fromPanel.fileModificationWatcher;
+
 		searchManager		= fromPanel.searchManager;
 		searchContext		= fromPanel.searchContext;
 		lineNumbersEnabled	= fromPanel.lineNumbersEnabled;
@@ -598,7 +694,6 @@ public abstract class AbstractMainView extends JPanel
 		modifiedDocumentDisplayNameColor = fromPanel.modifiedDocumentDisplayNameColor;
 
 		checkForModification = fromPanel.checkForModification;
-		modificationCheckDelay = fromPanel.modificationCheckDelay;
 
 		bracketMatchingEnabled = fromPanel.bracketMatchingEnabled;
 		matchBothBrackets = fromPanel.matchBothBrackets;
@@ -804,7 +899,7 @@ public abstract class AbstractMainView extends JPanel
 
 		// Add any parsers.
 		if (spellingSupport.isSpellCheckingEnabled()) {
-			pane.addParser(spellingSupport.getSpellingParser());
+			spellingSupport.addSpellChecker(pane);
 		}
 
 		// Override the default Insert key action to one that toggles the text
@@ -892,27 +987,31 @@ public abstract class AbstractMainView extends JPanel
 		String desc = owner.getString("FileOpened", fileName);
 		fnfd.setStatusText(desc);
 		int line = e.getLine();
-		if (line!=-1) {
-			try {
+		// currentTextArea is updated here.  Its file may not be read yet.
+		RTextEditorPane textArea = currentTextArea;
+		runWhenLoaded(textArea, () -> {
+			if (line!=-1) {
+				try {
 
-				// currentTextArea is updated here.  Highlight the searched-for
-				// text.
-				int start = currentTextArea.getLineStartOffset(line-1);
-				int end = currentTextArea.getLineEndOffset(line-1) - 1;
-				currentTextArea.setCaretPosition(end);
-				currentTextArea.moveCaretPosition(start);
-				currentTextArea.getCaret().setSelectionVisible(true);
+					// Highlight the searched-for text.
+					int lineIndex = Math.min(line, textArea.getLineCount()) - 1;
+					int start = textArea.getLineStartOffset(lineIndex);
+					int end = textArea.getLineEndOffset(lineIndex) - 1;
+					textArea.setCaretPosition(Math.max(start, end));
+					textArea.moveCaretPosition(start);
+					textArea.getCaret().setSelectionVisible(true);
 
-				// The editor isn't visible initially, must wait to do this
-				SwingUtilities.invokeLater(() -> RTextUtilities.centerSelectionVertically(currentTextArea));
+					// The editor isn't visible initially, must wait to do this
+					SwingUtilities.invokeLater(() -> RTextUtilities.centerSelectionVertically(textArea));
 
-			} catch (Exception exc) {
-				owner.displayException(exc);
-				moveToTopOfCurrentDocument();
+				} catch (Exception exc) {
+					owner.displayException(exc);
+					textArea.setCaretPosition(0);
+				}
 			}
-		}
-		else
-			moveToTopOfCurrentDocument();
+			else
+				textArea.setCaretPosition(0);
+		});
 	}
 
 
@@ -926,6 +1025,9 @@ public abstract class AbstractMainView extends JPanel
 	 */
 	protected void fireCurrentTextAreaEvent(int type, Object oldValue,
 									Object newValue) {
+		if (type==CurrentTextAreaEvent.TEXT_AREA_CHANGED) {
+			updateSaveActions();
+		}
 		// Guaranteed to return a non-null array.
 		Object[] listeners = listenerList.getListenerList();
 		// Process the listeners last to first, notifying
@@ -1135,30 +1237,66 @@ public abstract class AbstractMainView extends JPanel
 	/**
 	 * If the user has set a maximum file size to open, they are prompted
 	 * whether they are "sure" they want to open the file if it is over
-	 * their set size.
+	 * their set size.  If the file's encoding allows it, they may instead
+	 * open it read-only in a {@link LargeFileViewer}.
 	 *
 	 * @param fileName The file to check.
+	 * @param charSet The encoding the file will be opened with, or
+	 *        <code>null</code> if it has not been determined.
 	 * @return If they do not want to check files of a certain size, this
 	 *         method will return <code>false</code>.  Otherwise, it will
 	 *         return <code>true</code> if and only if this file is larger
-	 *         than their threshold and they chose not to open it.
+	 *         than their threshold and they chose not to open it in the
+	 *         editor.
 	 */
-	private boolean getFileIsTooLarge(String fileName) {
+	private boolean getFileIsTooLarge(String fileName, String charSet) {
 		if (getDoFileSizeCheck()) {
 			File file = new File(fileName);
 			float fileSizeMB = file.length() / 1000000.0f;
 			float maxFileSizeMB = getMaxFileSize();
 			if (fileSizeMB>maxFileSizeMB) {
-				String desc = owner.getString("OpeningLargeFile",
+
+				Charset cs = getLargeFileViewerCharset(file, charSet);
+				if (cs==null) {
+					String desc = owner.getString("OpeningLargeFile",
+											file.getAbsolutePath());
+					int rc = JOptionPane.showConfirmDialog(this, desc,
+						owner.getString("ConfDialogTitle"),
+						JOptionPane.YES_NO_OPTION);
+					if (rc!=JOptionPane.YES_OPTION) {
+						// Keep at least 1 document open.
+						ensureFilesAreOpened();
+						return true;
+					}
+					return false;
+				}
+
+				String desc = owner.getString("OpeningLargeFile.Viewer",
 										file.getAbsolutePath());
-				int rc = JOptionPane.showConfirmDialog(this, desc,
+				Object[] options = {
+					owner.getString("OpeningLargeFile.OpenInViewer"),
+					owner.getString("OpeningLargeFile.OpenInEditor"),
+					owner.getString("Cancel"),
+				};
+				int rc = JOptionPane.showOptionDialog(this, desc,
 					owner.getString("ConfDialogTitle"),
-					JOptionPane.YES_NO_OPTION);
-				if (rc!=JOptionPane.YES_OPTION) {
+					JOptionPane.YES_NO_CANCEL_OPTION,
+					JOptionPane.QUESTION_MESSAGE, null, options, options[0]);
+				if (rc==JOptionPane.YES_OPTION) {
+					try {
+						LargeFileViewer.open(owner, file, cs,
+							getSyntaxStyleForFile(file.getName()),
+							getCurrentTextArea());
+					} catch (IOException ioe) {
+						owner.displayException(ioe);
+					}
+				}
+				if (rc!=JOptionPane.NO_OPTION) {
 					// Keep at least 1 document open.
 					ensureFilesAreOpened();
 					return true;
 				}
+
 			}
 		}
 		return false;
@@ -1275,6 +1413,20 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Returns the number of minutes a tab must go unselected before its
+	 * file is unloaded to save memory.  Unloaded files are read again the
+	 * next time their tabs are selected.
+	 *
+	 * @return The number of minutes, or <code>0</code> if tabs are never
+	 *         unloaded.
+	 * @see #setIdleTabUnloadMinutes(int)
+	 */
+	public int getIdleTabUnloadMinutes() {
+		return lazyTabSupport.getIdleUnloadMinutes();
+	}
+
+
 	/**
 	 * Returns whether RText ignores extensions like ".bak", ".old", and
 	 * ".orig" when deciding how to open them.
@@ -1287,6 +1439,44 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Returns the encoding to open a file with in a {@link LargeFileViewer},
+	 * if it can be opened in one.  The viewer only supports encodings in
+	 * which <code>'\n'</code> is a single byte.
+	 *
+	 * @param file The file.
+	 * @param charSet The encoding the file will be opened with, or
+	 *        <code>null</code> if it has not been determined.
+	 * @return The encoding, or <code>null</code> if the file cannot be
+	 *         opened in the viewer.
+	 */
+	private Charset getLargeFileViewerCharset(File file, String charSet) {
+
+		if (charSet==null) {
+			// Don't guess the encoding of UTF-16 files.
+			try (InputStream in = new FileInputStream(file)) {
+				int b1 = in.read();
+				int b2 = in.read();
+				if ((b1==0xfe && b2==0xff) || (b1==0xff && b2==0xfe)) {
+					return null;
+				}
+			} catch (IOException ioe) {
+				return null;
+			}
+			charSet = getDefaultEncoding();
+		}
+
+		try {
+			Charset cs = Charset.forName(charSet);
+			byte[] newline = "\n".getBytes(cs);
+			return newline.length==1 && newline[0]=='\n' ? cs : null;
+		} catch (IllegalArgumentException iae) { // Unsupported encoding
+			return null;
+		}
+
+	}
+
+
 	/**
 	 * Sets the color used for line numbers.
 	 *
@@ -2100,6 +2290,9 @@ public abstract class AbstractMainView extends JPanel
 		// Switch back to the tab that was being edited originally.
 		setSelectedIndex(origTab);
 
+		// Check any files modified while the user was deciding.
+		fileModificationWatcher.checkPending();
+
 	}
 
 
@@ -2231,6 +2424,10 @@ public abstract class AbstractMainView extends JPanel
 		setGutterBorderColor(prefs.gutterBorderColor);
 		spellingSupport = new SpellingSupport(owner);
 		spellingSupport.configure(prefs); // Do this BEFORE opening any files!
+		lazyTabSupport = new LazyTabSupport(owner);
+		lazyTabSupport.setIdleUnloadMinutes(prefs.idleTabUnloadMinutes);
+		loadedActions = new WeakHashMap<>();
+		fileModificationWatcher = new FileModificationWatcher(owner);
 
 		toggleTextModeAction = new ToggleTextModeAction(owner);
 		capsLockAction = new CapsLockAction(owner);
@@ -2255,7 +2452,7 @@ public abstract class AbstractMainView extends JPanel
 		else {
 			for (String s : filesToOpen) {
 				// The "null" encoding means they'll be checked for Unicode.
-				openFile(s, null);
+				openFileInBackground(FileLocation.create(s), null, false);
 			}
 		}
 		setSelectedIndex(0);
@@ -2383,6 +2580,26 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Reads a file into an editor on a background thread.  The editor is
+	 * empty and not editable until the file has been read.
+	 *
+	 * @param textArea The editor, created with a deferred location for
+	 *        <code>file</code>.
+	 * @param file The file to read.
+	 * @param charSet The encoding of the file, or <code>null</code> to
+	 *        check for Unicode.
+	 * @param caretPosition Where to put the caret once the file is read.
+	 */
+	void loadInBackground(RTextEditorPane textArea, File file,
+			String charSet, int caretPosition) {
+		textArea.setLoadingMessage(owner.getString("LoadingFile", file.getName()));
+		BackgroundFileLoader.load(file, charSet, textArea.getSyntaxEditingStyle(),
+				(loaded, error) -> backgroundLoadCompleted(textArea, file,
+						caretPosition, loaded, error));
+	}
+
+
 	/**
 	 * Scrolls to the top of the current document, and places the cursor there.
 	 */
@@ -2408,6 +2625,46 @@ public abstract class AbstractMainView extends JPanel
 	 *         the user chose NOT to create it, for example).
 	 */
 	public boolean openFile(FileLocation loc, String charSet, boolean reuse) {
+		return openFileImpl(loc, charSet, reuse, OpenMode.NOW);
+	}
+
+
+	/**
+	 * Adds a file to this tabbed pane, reading it on a background thread.
+	 * The file's tab is added right away, and its content appears once it
+	 * has been read; this is what should be used when opening many files at
+	 * once.  Remote files are read before this method returns, as in
+	 * {@link #openFile(FileLocation, String, boolean)}.
+	 *
+	 * @param loc The location of the file to add.
+	 * @param charSet The encoding to use when reading/writing this file.
+	 *        If this value is <code>null</code>, the file is checked for
+	 *        Unicode; if it is Unicode, it is opened properly.  If it is not
+	 *        Unicode, a system default encoding is used.
+	 * @param reuse If the file is already open, whether to simply switch
+	 *        focus to that old copy (vs. opening a new copy).
+	 * @return <code>true</code> if the file was opened (or switched to),
+	 *         <code>false</code> otherwise (if the file does not exist and
+	 *         the user chose NOT to create it, for example).
+	 */
+	public boolean openFileInBackground(FileLocation loc, String charSet,
+			boolean reuse) {
+		return openFileImpl(loc, charSet, reuse, OpenMode.BACKGROUND);
+	}
+
+
+	/**
+	 * Adds a file to this tabbed pane.
+	 *
+	 * @param loc The location of the file to add.
+	 * @param charSet The encoding to use when reading/writing this file.
+	 * @param reuse If the file is already open, whether to simply switch
+	 *        focus to that old copy.
+	 * @param mode When to read the file, if it is local.
+	 * @return Whether the file was opened (or switched to).
+	 */
+	private boolean openFileImpl(FileLocation loc, String charSet,
+			boolean reuse, OpenMode mode) {
 
 		// If the only document open is untitled and empty, remove
 		// (and thus replace) replace it.
@@ -2437,14 +2694,29 @@ public abstract class AbstractMainView extends JPanel
 		// If opening a local file that exists, or a remote file...
 		if (loc.isLocalAndExists() || loc.isRemote()) {
 
-			if (loc.isLocal() && getFileIsTooLarge(fileFullPath)) {
+			if (loc.isLocal() && getFileIsTooLarge(fileFullPath, charSet)) {
 				return false;
 			}
 
 			try {
-				RTextEditorPane tempTextArea = createRTextEditorPane(
-								loc, charSet);
-				addTextArea(tempTextArea);
+				if (mode!=OpenMode.NOW && loc.isLocal()) {
+					File file = new File(fileFullPath);
+					RTextEditorPane tempTextArea = createRTextEditorPane(
+							BackgroundFileLoader.createDeferredLocation(file),
+							charSet);
+					addTextArea(tempTextArea);
+					if (mode==OpenMode.LAZY) {
+						lazyTabSupport.addUnloaded(tempTextArea, file, charSet);
+					}
+					else {
+						loadInBackground(tempTextArea, file, charSet, 0);
+					}
+				}
+				else {
+					RTextEditorPane tempTextArea = createRTextEditorPane(
+									loc, charSet);
+					addTextArea(tempTextArea);
+				}
 			} catch (IOException ioe) {
 				handleAddTextFileIOException(loc, ioe, true);
 				ensureFilesAreOpened();
@@ -2516,6 +2788,24 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Adds files to this tabbed pane without reading them.  Each file is
+	 * read in the background the first time its tab is selected, which makes
+	 * opening many files at once, such as at startup, fast.  The file
+	 * selected afterward is read right away.
+	 *
+	 * @param fileNames The files to open.
+	 */
+	public void openFilesLazily(String[] fileNames) {
+		for (String fileName : fileNames) {
+			// The "null" encoding means they'll be checked for Unicode.
+			openFileImpl(FileLocation.create(fileName), null, true,
+					OpenMode.LAZY);
+		}
+		lazyTabSupport.load(currentTextArea);
+	}
+
+
 	/**
 	 * If the current editor is dirty, the user is prompted whether they want
 	 * to save it.  If they choose "yes", the file is saved, otherwise it is
@@ -2579,6 +2869,7 @@ public abstract class AbstractMainView extends JPanel
 			// saved(?))...
 			case RTextEditorPane.FULL_PATH_PROPERTY -> {
 				setDocumentDisplayNameAt(getSelectedIndex(), currentTextArea.getFileName());
+				fileModificationWatcher.updateWatchedDirectories();
 				fireCurrentTextAreaEvent(CurrentTextAreaEvent.FILE_NAME_CHANGED,
 					e.getOldValue(), e.getNewValue());
 			}
@@ -2603,6 +2894,13 @@ public abstract class AbstractMainView extends JPanel
 				CurrentTextAreaEvent.SYNTAX_STYLE_CHANGED,
 				e.getOldValue(), e.getNewValue());
 
+			// If a file started or finished being read in the background...
+			case RTextEditorPane.LOADING_PROPERTY -> {
+				if (e.getSource()==currentTextArea) {
+					updateSaveActions();
+				}
+			}
+
 			case RText.ICON_STYLE_PROPERTY -> {
 				refreshTabIcons();
 				updateBookmarkIcon();
@@ -2722,37 +3020,146 @@ public abstract class AbstractMainView extends JPanel
 
 
 	/**
-	 * Attempts to save all currently-opened files.  If any files have unsaved
-	 * changes, the user is prompted whether to save them.
+	 * Tells the user about files that couldn't be saved.
+	 *
+	 * @param failures The error that occurred saving each file.  If this is
+	 *        empty, nothing happens, so the status bar keeps saying which
+	 *        file was saved last.
+	 * @see #saveAllFiles()
+	 */
+	private void reportSaveFailures(Map<RTextEditorPane, IOException> failures) {
+
+		if (failures.isEmpty()) {
+			return;
+		}
+
+		StringBuilder sb = new StringBuilder();
+		for (Map.Entry<RTextEditorPane, IOException> entry : failures.entrySet()) {
+			sb.append('\n').append(entry.getKey().getFileFullPath()).
+				append(":\n    ").append(entry.getValue().getMessage());
+		}
+		JOptionPane.showMessageDialog(this,
+			owner.getString("ErrorWritingFiles", sb.toString()),
+			owner.getString("ErrorDialogTitle"), JOptionPane.ERROR_MESSAGE);
+		owner.setMessages(null, "ERROR:  Could not save file!");
+
+	}
+
+
+	/**
+	 * Runs code once an editor's file has been read.  Files opened at
+	 * startup and files of idle tabs aren't read until their tabs are
+	 * selected, and then in the background; until then their editors are
+	 * empty.  Code that moves the caret to a line, or otherwise depends on
+	 * the editor's content, should be run with this method.  This should be
+	 * called on the EDT.
+	 *
+	 * @param textArea The editor.
+	 * @param r The code to run.  If the editor's file has been read, this is
+	 *        run immediately.  If it can't be read, this is never run.
+	 */
+	public void runWhenLoaded(RTextEditorPane textArea, Runnable r) {
+		if (!textArea.isLoading()) {
+			r.run();
+			return;
+		}
+		loadedActions.computeIfAbsent(textArea, k -> new ArrayList<>()).add(r);
+		lazyTabSupport.load(textArea); // In case it hasn't started yet
+	}
+
+
+	/**
+	 * Attempts to save all currently-opened files that have unsaved changes.
+	 * This is equivalent to <code>saveAllFiles(null)</code>.
 	 *
-	 * @return Whether all files were successfully saved.  This will be
-	 *         <code>false</code> if an IO error occurs, or if a file has
-	 *         unsaved changes and the user selects "Cancel" when prompted
-	 *         to save them.
+	 * @return Whether all new files were named; see
+	 *         {@link #saveAllFiles(Consumer)}.  Files may still be being
+	 *         written, and fail to be written, after this method returns.
 	 * @see #saveCurrentFile()
 	 * @see #saveCurrentFileAs()
 	 * @see #saveCurrentFileAs(FileLocation)
 	 */
-	public synchronized boolean saveAllFiles() {
+	public boolean saveAllFiles() {
+		return saveAllFiles(null);
+	}
 
-		boolean allSaved = true;
 
-		// Remember the number for the tab they are currently working on.
+	/**
+	 * Attempts to save all currently-opened files that have unsaved changes.
+	 * New files are named and saved right away.  Local files, and remote
+	 * files opened with the remote file chooser, are written in the
+	 * background, several at once, so they're usually still being written
+	 * when this method returns; the user is told about any that couldn't be
+	 * saved once they're all done.  The selected tab only changes if a new
+	 * file needs to be named.
+	 *
+	 * @param callback Called on the EDT once all files have been written,
+	 *        with whether they all were saved.  This is never called before
+	 *        this method returns.  This may be <code>null</code>.
+	 * @return Whether the files saved right away were saved.  This will be
+	 *         <code>false</code> if the user selects "Cancel" when prompted
+	 *         to name a new file, or if one of those files can't be saved.
+	 *         Since other files are written in the background, this being
+	 *         <code>true</code> doesn't mean they were saved; use the
+	 *         callback to find out.
+	 * @see #saveAllFiles()
+	 * @see #saveCurrentFile()
+	 */
+	public boolean saveAllFiles(Consumer<Boolean> callback) {
+
+		boolean allSaved = true;
+		ArrayList<RTextEditorPane> backgroundFiles = new ArrayList<>();
+		Map<RTextEditorPane, IOException> failures = new LinkedHashMap<>();
 		int currentTab = getSelectedIndex();
 
-		// Cycle through each document, one by one.
 		for (int i=0; i<getNumDocuments(); i++) {
-			// Save this document, if it is not read-only
-			if (!getRTextEditorPaneAt(i).isReadOnly()) {
+
+			// Unread and unloaded files are never dirty.
+			RTextEditorPane textArea = getRTextEditorPaneAt(i);
+			if (textArea.isReadOnly() || !textArea.isDirty() || textArea.isLoading()) {
+				continue;
+			}
+
+			// New files must be named, which means showing them.
+			if (textArea.getFileName().equals(owner.getNewFileName())) {
 				setSelectedIndex(i);
-				if (!saveCurrentFile()) {
+				allSaved &= saveCurrentFile();
+			}
+			else if (textArea.isLocal() || textArea.getRemoteFileLocation()!=null) {
+				backgroundFiles.add(textArea);
+			}
+			else { // A remote file RText can't write itself
+				BackgroundFileSaver.waitFor(textArea);
+				try {
+					textArea.save();
+				} catch (IOException ioe) {
+					failures.put(textArea, ioe);
 					allSaved = false;
 				}
 			}
+
 		}
 
-		// Set the active document to the one originally being working on.
-		setSelectedIndex(currentTab);
+		if (getSelectedIndex()!=currentTab) {
+			setSelectedIndex(currentTab);
+		}
+
+		boolean namedAndSaved = allSaved;
+		int count = backgroundFiles.size();
+		BackgroundFileSaver.saveAll(backgroundFiles,
+			(textArea, saved) -> {
+				owner.setMessages(null, owner.getString("SavedFileProgress",
+						textArea.getFileName(), saved, count));
+				// Check for outside changes skipped while it was saved
+				fileModificationWatcher.checkPending();
+			},
+			backgroundFailures -> {
+				failures.putAll(backgroundFailures);
+				reportSaveFailures(failures);
+				if (callback!=null) {
+					callback.accept(namedAndSaved && failures.isEmpty());
+				}
+			});
 		return allSaved;
 
 	}
@@ -2773,11 +3180,19 @@ public abstract class AbstractMainView extends JPanel
 	 */
 	public synchronized boolean saveCurrentFile() {
 
+		// Files not yet read are empty; saving would truncate them.
+		if (currentTextArea.isLoading()) {
+			return false;
+		}
+
 		// If this file is named "Untitled.txt", prompt them for a new name.
 		if (currentTextArea.getFileName().equals(owner.getNewFileName())) {
 			return saveCurrentFileAs();
 		}
 
+		// Don't write the file while a "Save All" is writing it.
+		BackgroundFileSaver.waitFor(currentTextArea);
+
 		// Try and write output to the current filename.
 		try {
 			currentTextArea.save();
@@ -2806,6 +3221,11 @@ public abstract class AbstractMainView extends JPanel
 	 */
 	public synchronized boolean saveCurrentFileAs() {
 
+		// Files not yet read are empty; there's nothing to save yet.
+		if (currentTextArea.isLoading()) {
+			return false;
+		}
+
 		// Ensures text area gets focus after save for saves that don't bring
 		// up an extra window (Save As, etc.).  Without this, the text area
 		// would lose focus.
@@ -2894,6 +3314,12 @@ public abstract class AbstractMainView extends JPanel
 	 */
 	public synchronized boolean saveCurrentFileAs(FileLocation loc) {
 
+		if (currentTextArea.isLoading()) {
+			return false;
+		}
+
+		BackgroundFileSaver.waitFor(currentTextArea);
+
 		// Try and write output to the current filename.
 		try {
 			currentTextArea.saveAs(loc);
@@ -3174,6 +3600,9 @@ public abstract class AbstractMainView extends JPanel
 	 * TODO: Make this method fire the event.
 	 */
 	protected void setCurrentTextArea(RTextEditorPane textArea) {
+		if (lazyTabSupport!=null) { // Null during initialization
+			lazyTabSupport.textAreaSelected(currentTextArea, textArea);
+		}
 		currentTextArea = textArea;
 	}
 
@@ -3359,6 +3788,19 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Sets the number of minutes a tab must go unselected before its file is
+	 * unloaded to save memory.  Only unmodified local files are unloaded.
+	 *
+	 * @param minutes The number of minutes, or <code>0</code> for tabs to
+	 *        never be unloaded.
+	 * @see #getIdleTabUnloadMinutes()
+	 */
+	public void setIdleTabUnloadMinutes(int minutes) {
+		lazyTabSupport.setIdleUnloadMinutes(minutes);
+	}
+
+
 	/**
 	 * Sets whether RText should ignore extensions like ".bak", ".old", and
 	 * ".orig" when deciding how to open them.
@@ -4294,6 +4736,22 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Enables or disables the Save and Save As actions.  They're disabled
+	 * while the current editor's file hasn't been read, since its content
+	 * would be saved over the file.
+	 */
+	private void updateSaveActions() {
+		boolean enabled = currentTextArea==null || !currentTextArea.isLoading();
+		for (String name : new String[] { RText.SAVE_ACTION, RText.SAVE_AS_ACTION }) {
+			Action a = owner.getAction(name);
+			if (a!=null) { // Null during initialization
+				a.setEnabled(enabled);
+			}
+		}
+	}
+
+
 	/**
 	 * Updates the status bar's read-only indicator and line/column indicator.
 	 * This should be called whenever the currently active document changes.
@@ -4310,4 +4768,28 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * When a local file being opened is read.
+	 */
+	private enum OpenMode {
+
+		/**
+		 * The file is read before it's added.
+		 */
+		NOW,
+
+		/**
+		 * The file is read on a background thread after it's added.
+		 */
+		BACKGROUND,
+
+		/**
+		 * The file is read on a background thread the first time it's
+		 * selected.
+		 */
+		LAZY
+
+	}
+
+
 }
@@ -16,8 +16,14 @@ import java.awt.Dimension;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.swing.BorderFactory;
 import javax.swing.Icon;
@@ -26,8 +32,8 @@ import javax.swing.JTable;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 import javax.swing.border.Border;
+import javax.swing.table.AbstractTableModel;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.JTableHeader;
 import javax.swing.table.TableCellRenderer;
 import javax.swing.table.TableColumnModel;
@@ -165,48 +171,210 @@ public abstract class AbstractParserNoticeWindow extends DockableWindow {
 
 
 	/**
-	 * Basic model for tables displaying parser notices.
+	 * Basic model for tables displaying parser notices.<p>
+	 *
+	 * Rows are kept in blocks, one per editor or file, with an index from
+	 * each editor or file to its block.  Replacing an editor's notices when
+	 * it's reparsed only touches that block and fires a single ranged event
+	 * for the rows removed and another for the rows added, instead of
+	 * scanning and removing rows one at a time.  The rows in a block are
+	 * sorted by line the first time they're read, not as they're added.
 	 */
-	protected abstract class ParserNoticeTableModel extends DefaultTableModel {
+	protected abstract class ParserNoticeTableModel extends AbstractTableModel {
+
+		private final String[] colHeaders;
+
+		/**
+		 * The blocks of rows, in the order they're displayed.
+		 */
+		private final List<Block> blocks;
+
+		/**
+		 * Maps each editor, or the full path of each file that isn't open,
+		 * to its block.
+		 */
+		private final Map<Object, Block> index;
+
+		private int rowCount;
+
+		/**
+		 * Rows added by {@link #addNoticesImpl(RTextEditorPane, List)} while
+		 * an update is in progress.
+		 */
+		private List<Object[]> pendingRows;
 
 		public ParserNoticeTableModel(String lastColHeader) {
-			String[] colHeaders = new String[] {
+			colHeaders = new String[] {
 					"",
 					rtext.getString("ParserNoticeList.File"),
 					rtext.getString("ParserNoticeList.Line"),
 					lastColHeader, };
-			setColumnIdentifiers(colHeaders);
+			blocks = new ArrayList<>();
+			index = new HashMap<>();
 		}
 
 		protected abstract void addNoticesImpl(RTextEditorPane textArea,
 												List<ParserNotice> notices);
 
+		/**
+		 * Adds a row.  When called from
+		 * {@link #addNoticesImpl(RTextEditorPane, List)}, the row is added
+		 * along with the rest of the update.
+		 *
+		 * @param data The row's data.  The second element is the
+		 *        {@link RTextEditorPane} the notice is in, or the full path of
+		 *        the file it's in if that file isn't open.
+		 */
+		public void addRow(Object[] data) {
+			if (pendingRows!=null) {
+				pendingRows.add(data);
+			}
+			else {
+				replaceBlocks(Set.of(), List.<Object[]>of(data));
+			}
+		}
+
+		/**
+		 * Removes all rows.
+		 */
+		public void clear() {
+			blocks.clear();
+			index.clear();
+			rowCount = 0;
+			fireTableDataChanged();
+		}
+
+		/**
+		 * Returns the index of the block containing a row.
+		 */
+		private int findBlock(int row) {
+			int low = 0;
+			int high = blocks.size() - 1;
+			while (low<high) {
+				int mid = (low + high + 1) >>> 1;
+				if (blocks.get(mid).start<=row) {
+					low = mid;
+				}
+				else {
+					high = mid - 1;
+				}
+			}
+			return low;
+		}
+
 		@Override
 		public Class<?> getColumnClass(int col) {
 			return switch (col) {
 				case 0 -> Icon.class;
 				case 1 -> TextAreaWrapper.class;
 				case 2 -> Integer.class;
-				default -> super.getColumnClass(col);
+				default -> Object.class;
 			};
 		}
 
 		@Override
-		public void addRow(Object[] data) {
-			// NOTE: It's valid for data[1] to be Strings, in which case
-			// it's taken to be the full path of a file.
-			if (data[1] instanceof RTextEditorPane) {
-				data[1] = new TextAreaWrapper((RTextEditorPane)data[1]);
+		public int getColumnCount() {
+			return colHeaders.length;
+		}
+
+		@Override
+		public String getColumnName(int col) {
+			return colHeaders[col];
+		}
+
+		@Override
+		public int getRowCount() {
+			return rowCount;
+		}
+
+		@Override
+		public Object getValueAt(int row, int col) {
+			Block block = blocks.get(findBlock(row));
+			if (!block.sorted) {
+				block.rows.sort(Comparator.comparingInt(data -> (Integer)data[2]));
+				block.sorted = true;
 			}
-			else if (data[1] instanceof String) {
-				data[1] = new TextAreaWrapper((String)data[1]);
+			Object[] data = block.rows.get(row - block.start);
+			return col==1 ? block.wrapper : data[col];
+		}
+
+		/**
+		 * Removes an editor's or file's rows, firing a single event.
+		 *
+		 * @return Whether the owner had any rows.
+		 */
+		private boolean removeBlock(Object owner, boolean fireEvent) {
+			Block block = index.remove(owner);
+			if (block==null) {
+				return false;
+			}
+			int blockIndex = blocks.indexOf(block);
+			blocks.remove(blockIndex);
+			rowCount -= block.rows.size();
+			updateStarts(blockIndex);
+			if (fireEvent) {
+				fireTableRowsDeleted(block.start, block.start + block.rows.size() - 1);
 			}
-			super.addRow(data);
+			return true;
 		}
 
-		@Override
-		public boolean isCellEditable(int row, int col) {
-			return false;
+		/**
+		 * Replaces the rows of editors and files.  If only a single editor's
+		 * or file's rows change, a ranged event is fired for the rows removed
+		 * and another for the rows added; otherwise, a single event is fired
+		 * for the whole table.
+		 *
+		 * @param owners The editors and file paths whose rows to remove.
+		 * @param rows The rows to add.  Each replaces any existing rows of
+		 *        its editor or file.
+		 */
+		private void replaceBlocks(Set<?> owners, List<Object[]> rows) {
+
+			Map<Object, List<Object[]>> added = new LinkedHashMap<>();
+			for (Object[] data : rows) {
+				added.computeIfAbsent(data[1], k -> new ArrayList<>()).add(data);
+			}
+			Set<Object> changed = new HashSet<>(owners);
+			changed.addAll(added.keySet());
+			boolean single = changed.size()==1;
+			boolean modified = false;
+
+			for (Object owner : changed) {
+				Block old = index.get(owner);
+				int start = old!=null ? old.start : rowCount;
+				int blockIndex = old!=null ? blocks.indexOf(old) : blocks.size();
+				modified |= removeBlock(owner, single);
+				List<Object[]> ownerRows = added.get(owner);
+				if (ownerRows!=null) {
+					Block block = new Block(owner, ownerRows);
+					blocks.add(blockIndex, block);
+					index.put(owner, block);
+					rowCount += ownerRows.size();
+					updateStarts(blockIndex);
+					if (single) {
+						fireTableRowsInserted(start, start + ownerRows.size() - 1);
+					}
+					modified = true;
+				}
+			}
+
+			if (!single && modified) {
+				fireTableDataChanged();
+			}
+
+		}
+
+		/**
+		 * Replaces the notices for files that aren't open.  This is done in
+		 * a single batch, so it's fast even with many thousands of notices.
+		 *
+		 * @param files The full paths of the files whose notices should be
+		 *        removed.
+		 * @param rows The rows to add.  The second element of each should
+		 *        be the full path of the file the notice is in.
+		 */
+		public void replaceFileRows(Set<String> files, List<Object[]> rows) {
+			replaceBlocks(files, rows);
 		}
 
 		/**
@@ -220,23 +388,56 @@ public abstract class AbstractParserNoticeWindow extends DockableWindow {
 				List<ParserNotice> notices) {
 
 			if (textArea == null) {
-				setRowCount(0);
+				clear();
 			}
-			else {
-				for (int i=0; i<getRowCount(); i++) {
-					TextAreaWrapper wrapper = (TextAreaWrapper)getValueAt(i, 1);
-					RTextEditorPane textArea2 = wrapper.textArea;
-					if (textArea2==textArea) {
-						removeRow(i);
-						i--;
-					}
+
+			List<Object[]> rows = new ArrayList<>();
+			if (notices!=null) {
+				pendingRows = rows;
+				try {
+					addNoticesImpl(textArea, notices);
+				} finally {
+					pendingRows = null;
 				}
 			}
 
-			if (notices!=null) {
-				addNoticesImpl(textArea, notices);
+			replaceBlocks(textArea!=null ? Set.of(textArea) : Set.of(), rows);
+
+		}
+
+		/**
+		 * Recomputes the first rows of blocks, starting at a block.
+		 */
+		private void updateStarts(int fromBlock) {
+			int start = fromBlock>0 ? blocks.get(fromBlock - 1).end() : 0;
+			for (int i=fromBlock; i<blocks.size(); i++) {
+				Block block = blocks.get(i);
+				block.start = start;
+				start = block.end();
 			}
+		}
+
+	}
+
+
+	/**
+	 * The rows for a single editor or file.
+	 */
+	private static final class Block {
+
+		private final TextAreaWrapper wrapper;
+		private final List<Object[]> rows;
+		private int start;
+		private boolean sorted;
+
+		Block(Object owner, List<Object[]> rows) {
+			wrapper = owner instanceof RTextEditorPane textArea ?
+					new TextAreaWrapper(textArea) : new TextAreaWrapper((String)owner);
+			this.rows = rows;
+		}
 
+		int end() {
+			return start + rows.size();
 		}
 
 	}
@@ -326,7 +527,8 @@ public abstract class AbstractParserNoticeWindow extends DockableWindow {
 						if (mainView.setSelectedTextArea(textArea)) {
 							Integer i = (Integer)model.getValueAt(row, 2);
 							int line = i - 1; // 0-based
-							focusLine(textArea, line);
+							mainView.runWhenLoaded(textArea,
+									() -> focusLine(textArea, line));
 						}
 					}
 
@@ -336,11 +538,12 @@ public abstract class AbstractParserNoticeWindow extends DockableWindow {
 						if (file.isAbsolute() && file.isFile()) {
 							rtext.openFile(file);
 							SwingUtilities.invokeLater(() -> {
-								RTextEditorPane textArea2 = rtext.
-										getMainView().getCurrentTextArea();
+								AbstractMainView mainView = rtext.getMainView();
+								RTextEditorPane textArea2 = mainView.getCurrentTextArea();
 								Integer i = (Integer)model.getValueAt(row, 2);
 								int line = i - 1; // 0-based
-								focusLine(textArea2, line);
+								mainView.runWhenLoaded(textArea2,
+										() -> focusLine(textArea2, line));
 							});
 						}
 						else {
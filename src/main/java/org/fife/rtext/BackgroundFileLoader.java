@@ -0,0 +1,195 @@
+/*
+ * 10/18/2026
+ *
+ * BackgroundFileLoader.java - Reads files into documents off the EDT.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import javax.swing.SwingUtilities;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.DefaultEditorKit;
+
+import org.fife.io.UnicodeReader;
+import org.fife.ui.rsyntaxtextarea.FileLocation;
+import org.fife.ui.rsyntaxtextarea.RSyntaxDocument;
+
+
+/**
+ * Reads local files into documents on background threads, so opening many
+ * or large files doesn't block the EDT.  Reading, decoding and tokenizing
+ * all happen on a worker thread; only installing the finished document in
+ * its editor happens on the EDT.  Several files are read in parallel, up
+ * to a small limit.<p>
+ *
+ * An editor is created for the file right away, using a
+ * {@link #createDeferredLocation(File) deferred location}, so its tab can
+ * be shown while the file is read.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class BackgroundFileLoader {
+
+	/**
+	 * The maximum number of files read at once.
+	 */
+	private static final int MAX_THREADS = Math.max(2,
+			Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+	private static final ExecutorService EXECUTOR;
+
+	static {
+		AtomicInteger count = new AtomicInteger();
+		EXECUTOR = Executors.newFixedThreadPool(MAX_THREADS, r -> {
+			Thread t = new Thread(r, "FileLoader-" + count.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private BackgroundFileLoader() {
+	}
+
+
+	/**
+	 * Returns a location for a local file whose content isn't read the first
+	 * time it's loaded.  An editor loaded from this location starts out empty
+	 * and has the right file name, path and modification time, and it saves
+	 * to and reloads from the actual file.
+	 *
+	 * @param file The file.
+	 * @return The location.
+	 */
+	static FileLocation createDeferredLocation(File file) {
+		return new DeferredFileLocation(file);
+	}
+
+
+	/**
+	 * Reads a file into a document on a background thread.
+	 *
+	 * @param file The file to read.
+	 * @param encoding The encoding of the file.  If this is
+	 *        <code>null</code>, the file is checked for a Unicode BOM, as
+	 *        is done when loading a file in an editor.
+	 * @param syntaxStyle The syntax style of the document to create.
+	 * @param callback Called on the EDT with the loaded file, or with the
+	 *        error that occurred.
+	 */
+	static void load(File file, String encoding, String syntaxStyle,
+			BiConsumer<LoadedFile, Throwable> callback) {
+		EXECUTOR.execute(() -> {
+			try {
+				LoadedFile loaded = read(file, encoding, syntaxStyle);
+				SwingUtilities.invokeLater(() -> callback.accept(loaded, null));
+			} catch (Throwable t) { // Don't leave the editor loading forever
+				SwingUtilities.invokeLater(() -> callback.accept(null, t));
+			}
+		});
+	}
+
+
+	private static LoadedFile read(File file, String encoding,
+			String syntaxStyle) throws IOException {
+
+		RSyntaxDocument doc = new RSyntaxDocument(syntaxStyle);
+
+		// The same as TextEditorPane.load(), but into a document that isn't
+		// yet displayed.
+		try (UnicodeReader ur = new UnicodeReader(new FileInputStream(file), encoding);
+			BufferedReader r = new BufferedReader(ur)) {
+			new DefaultEditorKit().read(r, doc, 0);
+			return new LoadedFile(doc, ur.getEncoding());
+		} catch (BadLocationException ble) { // Never happens
+			throw new IOException(ble);
+		}
+
+	}
+
+
+	/**
+	 * A location whose first read is empty.
+	 */
+	private static final class DeferredFileLocation extends FileLocation {
+
+		private final File file;
+		private boolean deferred;
+
+		DeferredFileLocation(File file) {
+			this.file = file.getAbsoluteFile();
+			deferred = true;
+		}
+
+		@Override
+		protected long getActualLastModified() {
+			return file.lastModified();
+		}
+
+		@Override
+		public String getFileFullPath() {
+			return file.getAbsolutePath();
+		}
+
+		@Override
+		public String getFileName() {
+			return file.getName();
+		}
+
+		@Override
+		protected InputStream getInputStream() throws IOException {
+			if (deferred) {
+				deferred = false;
+				return new ByteArrayInputStream(new byte[0]);
+			}
+			return new FileInputStream(file);
+		}
+
+		@Override
+		protected OutputStream getOutputStream() throws IOException {
+			return new FileOutputStream(file);
+		}
+
+		@Override
+		public boolean isLocal() {
+			return true;
+		}
+
+		@Override
+		public boolean isLocalAndExists() {
+			return file.exists();
+		}
+
+	}
+
+
+	/**
+	 * A file read by {@link BackgroundFileLoader}.
+	 *
+	 * @param document The document containing the file's content.
+	 * @param encoding The encoding the file was read with.
+	 */
+	record LoadedFile(RSyntaxDocument document, String encoding) {
+	}
+
+
+}
@@ -0,0 +1,329 @@
+/*
+ * 10/18/2026
+ *
+ * BackgroundFileSaver.java - Writes documents to files off the EDT.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.Document;
+
+import org.fife.io.UnicodeWriter;
+
+
+/**
+ * Saves editors' files on background threads, so saving many or large
+ * files, or files on slow remote servers, doesn't block the EDT.  Each
+ * editor's text is copied on the EDT; encoding and writing it happen on a
+ * worker thread, several files in parallel, and only marking the editor as
+ * saved happens back on the EDT.  Local files and remote files opened with
+ * a {@link RemoteFileLocation} can be saved this way.<p>
+ *
+ * The user can keep editing while files are saved.  An editor modified
+ * after its text was copied stays dirty.  Anything else that writes an
+ * editor's file should first call {@link #waitFor(RTextEditorPane)}.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class BackgroundFileSaver {
+
+	/**
+	 * The maximum number of files written at once.
+	 */
+	private static final int MAX_THREADS = Math.max(2,
+			Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+	private static final ExecutorService EXECUTOR;
+
+	/**
+	 * The editors whose files are being saved.  This is only accessed on
+	 * the EDT.
+	 */
+	private static final Map<RTextEditorPane, SaveJob> JOBS = new HashMap<>();
+
+	static {
+		AtomicInteger count = new AtomicInteger();
+		EXECUTOR = Executors.newFixedThreadPool(MAX_THREADS, r -> {
+			Thread t = new Thread(r, "FileSaver-" + count.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private BackgroundFileSaver() {
+	}
+
+
+	/**
+	 * Returns whether an editor's file is being saved.  This should be
+	 * called on the EDT.
+	 *
+	 * @param textArea The editor.
+	 * @return Whether its file is being saved.
+	 */
+	static boolean isSaving(RTextEditorPane textArea) {
+		return JOBS.containsKey(textArea);
+	}
+
+
+	/**
+	 * Saves editors' files in the background.  This should be called on the
+	 * EDT.
+	 *
+	 * @param textAreas The editors.  They should all be editing local files,
+	 *        or have a {@link RTextEditorPane#getRemoteFileLocation() remote
+	 *        location}.
+	 * @param progress Called on the EDT as each file is saved, or fails to
+	 *        be saved, with its editor and the number of files done so far.
+	 *        This may be <code>null</code>.
+	 * @param callback Called on the EDT once all files are saved, with the
+	 *        error that occurred saving each file that couldn't be saved.
+	 *        This is never called before this method returns.
+	 */
+	static void saveAll(List<RTextEditorPane> textAreas,
+			BiConsumer<RTextEditorPane, Integer> progress,
+			Consumer<Map<RTextEditorPane, IOException>> callback) {
+
+		Batch batch = new Batch(textAreas.size(), progress, callback);
+		if (textAreas.isEmpty()) {
+			SwingUtilities.invokeLater(() -> callback.accept(batch.failures));
+			return;
+		}
+
+		for (RTextEditorPane textArea : textAreas) {
+			waitFor(textArea); // Don't write the same file twice at once
+			SaveJob job = new SaveJob(textArea, batch);
+			JOBS.put(textArea, job);
+			job.future = EXECUTOR.submit(() -> {
+				try {
+					job.write();
+				} catch (RuntimeException | Error e) {
+					job.error = new IOException(e);
+				} finally {
+					SwingUtilities.invokeLater(job::finish);
+				}
+			});
+		}
+
+	}
+
+
+	/**
+	 * Waits for an editor's file to be saved, if it's being saved, and marks
+	 * the editor as saved.  This should be called on the EDT.
+	 *
+	 * @param textArea The editor.
+	 */
+	static void waitFor(RTextEditorPane textArea) {
+		SaveJob job = JOBS.get(textArea);
+		if (job!=null) {
+			try {
+				job.future.get();
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				// The file may not be written yet, so it isn't saved
+				job.error = new IOException(ie);
+			} catch (ExecutionException ee) {
+				job.error = new IOException(ee.getCause());
+			}
+			job.finish();
+		}
+	}
+
+
+	/**
+	 * Waits for all files being saved to be saved.  This should be called
+	 * on the EDT.
+	 */
+	static void waitForAll() {
+		for (RTextEditorPane textArea : List.copyOf(JOBS.keySet())) {
+			waitFor(textArea);
+		}
+	}
+
+
+	/**
+	 * Several files being saved at once.  This is only accessed on the EDT.
+	 */
+	private static final class Batch {
+
+		private final int count;
+		private int remaining;
+		private final BiConsumer<RTextEditorPane, Integer> progress;
+		private final Consumer<Map<RTextEditorPane, IOException>> callback;
+		private final Map<RTextEditorPane, IOException> failures;
+
+		Batch(int count, BiConsumer<RTextEditorPane, Integer> progress,
+				Consumer<Map<RTextEditorPane, IOException>> callback) {
+			this.count = count;
+			this.remaining = count;
+			this.progress = progress;
+			this.callback = callback;
+			failures = new LinkedHashMap<>();
+		}
+
+		void fileSaved(SaveJob job) {
+			if (job.error!=null) {
+				failures.put(job.textArea, job.error);
+			}
+			remaining--;
+			if (progress!=null) {
+				progress.accept(job.textArea, count - remaining);
+			}
+			// Don't run the callback, which may show a modal dialog, from
+			// within waitFor(), which may be in the middle of another save.
+			if (remaining==0) {
+				SwingUtilities.invokeLater(() -> callback.accept(failures));
+			}
+		}
+
+	}
+
+
+	/**
+	 * Saves one editor's file.
+	 */
+	private static final class SaveJob implements DocumentListener {
+
+		private final RTextEditorPane textArea;
+		private final Batch batch;
+		private final Document doc;
+		private final File file;
+		private final RemoteFileLocation remoteLocation;
+		private final String text;
+		private final String lineSeparator;
+		private final String encoding;
+		private Future<?> future;
+		private volatile IOException error;
+		private volatile long lastModified;
+		private boolean modified;
+		private boolean finished;
+
+		/**
+		 * Copies the editor's text.  This is called on the EDT.
+		 */
+		SaveJob(RTextEditorPane textArea, Batch batch) {
+			this.textArea = textArea;
+			this.batch = batch;
+			doc = textArea.getDocument();
+			remoteLocation = textArea.getRemoteFileLocation();
+			file = remoteLocation==null ? new File(textArea.getFileFullPath()) : null;
+			text = textArea.getText();
+			Object separator = textArea.getLineSeparator();
+			lineSeparator = separator instanceof String ? (String)separator : "\n";
+			encoding = textArea.getEncoding();
+			doc.addDocumentListener(this);
+		}
+
+		@Override
+		public void changedUpdate(DocumentEvent e) {
+		}
+
+		/**
+		 * Marks the editor as saved, unless it's been modified since its
+		 * text was copied.  If its file was modified by another program
+		 * after it was written, that modification is still reported.  This
+		 * is called on the EDT, and does nothing if it's already been
+		 * called.
+		 */
+		void finish() {
+			if (finished) {
+				return;
+			}
+			finished = true;
+			JOBS.remove(textArea, this);
+			doc.removeDocumentListener(this);
+			if (error==null) {
+				if (file==null || file.lastModified()==lastModified) {
+					textArea.syncLastSaveOrLoadTimeToActualFile();
+				}
+				if (!modified && textArea.getDocument()==doc) {
+					textArea.setDirty(false);
+				}
+			}
+			batch.fileSaved(this);
+		}
+
+		@Override
+		public void insertUpdate(DocumentEvent e) {
+			modified = true;
+		}
+
+		@Override
+		public void removeUpdate(DocumentEvent e) {
+			modified = true;
+		}
+
+		/**
+		 * Opens the stream to write the file to.  This is called on a worker
+		 * thread.
+		 */
+		private OutputStream openOutputStream() throws IOException {
+			return remoteLocation!=null ? remoteLocation.getOutputStream() :
+					new FileOutputStream(file);
+		}
+
+		/**
+		 * Writes the text to the file, as <code>TextEditorPane.save()</code>
+		 * does.  This is called on a worker thread.  An error writing the
+		 * file is recorded in {@link #error}; the caller records anything
+		 * else thrown, such as an <code>OutOfMemoryError</code>.
+		 */
+		void write() {
+			try (Writer w = new BufferedWriter(new UnicodeWriter(
+					openOutputStream(), encoding))) {
+				if ("\n".equals(lineSeparator)) {
+					w.write(text);
+				}
+				else {
+					int start = 0;
+					int newline;
+					while ((newline = text.indexOf('\n', start))>-1) {
+						w.write(text, start, newline - start);
+						w.write(lineSeparator);
+						start = newline + 1;
+					}
+					w.write(text, start, text.length() - start);
+				}
+			} catch (IOException ioe) {
+				error = ioe;
+				return;
+			}
+			// Changes made by other programs after this are still reported.
+			if (file!=null) {
+				lastModified = file.lastModified();
+			}
+		}
+
+	}
+
+
+}
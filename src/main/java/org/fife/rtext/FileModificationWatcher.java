@@ -0,0 +1,478 @@
+/*
+ * 10/18/2026
+ *
+ * FileModificationWatcher.java - Notices open files modified by other programs.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileStore;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+
+/**
+ * Notices when open files are modified by other programs.  The directories
+ * containing open files are watched with a {@link WatchService}, so only
+ * the files that actually change are checked, as soon as they change.<p>
+ *
+ * Directories on network file systems, which usually don't report changes
+ * made by other machines, and directories that can't be watched are polled
+ * instead, on a background thread.  So are directories that don't exist, or
+ * stop being watchable because they're deleted or renamed; they're watched
+ * again once they exist.<p>
+ *
+ * The user is prompted about modified files by
+ * {@link AbstractMainView#checkFilesForOutsideModification(java.util.Collection)}.
+ * Files modified while the user is being prompted about others are checked
+ * once they're done.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class FileModificationWatcher {
+
+	private final RText rtext;
+	private boolean started;
+	private volatile boolean disposed;
+
+	/**
+	 * Watches directories for changes.  This is <code>null</code> if the
+	 * file system doesn't support watching.
+	 */
+	private WatchService watchService;
+
+	/**
+	 * Registers directories and polls files.  This keeps file system access
+	 * off the EDT.
+	 */
+	private ExecutorService worker;
+
+	/**
+	 * The directories being watched.  This is only accessed by the worker.
+	 */
+	private final Map<Path, WatchKey> watchKeys;
+
+	/**
+	 * The directories being polled.
+	 */
+	private final Set<Path> polledDirs;
+
+	/**
+	 * The polled directories that are only polled because they don't exist.
+	 * This is only accessed by the worker.
+	 */
+	private final Set<Path> missingDirs;
+
+	/**
+	 * Editors whose files changed, but that haven't been checked because the
+	 * user is being prompted about other files.
+	 */
+	private final Set<RTextEditorPane> pending;
+
+	private final Timer pollTimer;
+
+	/**
+	 * How often polled directories are checked, in milliseconds.
+	 */
+	private static final int POLL_INTERVAL = 10000;
+
+	/**
+	 * How long to wait for more changes after a file changes, in
+	 * milliseconds.  Programs often write a file in several steps.
+	 */
+	private static final int COALESCE_DELAY = 100;
+
+	/**
+	 * The longest changes are coalesced for, in milliseconds, so a directory
+	 * that changes constantly doesn't delay checking its files forever.
+	 */
+	private static final int MAX_COALESCE_TIME = 1000;
+
+	/**
+	 * The most changed files coalesced at once.
+	 */
+	private static final int MAX_COALESCED_CHANGES = 1000;
+
+	/**
+	 * The types of file stores that are polled rather than watched.
+	 */
+	private static final Set<String> NETWORK_FILE_STORE_TYPES = Set.of(
+			"9p", "afpfs", "cifs", "davfs", "fuse.sshfs", "ncpfs", "nfs", "nfs4",
+			"smb2", "smbfs", "webdav");
+
+
+	/**
+	 * Constructor.  Nothing is watched until
+	 * {@link #updateWatchedDirectories()} is called.
+	 *
+	 * @param rtext The parent application.
+	 */
+	FileModificationWatcher(RText rtext) {
+		this.rtext = rtext;
+		watchKeys = new HashMap<>();
+		polledDirs = ConcurrentHashMap.newKeySet();
+		missingDirs = new HashSet<>();
+		pending = Collections.newSetFromMap(new WeakHashMap<>());
+		pollTimer = new Timer(POLL_INTERVAL, e -> poll());
+	}
+
+
+	/**
+	 * Checks all open files for modifications.  This should be called on
+	 * the EDT.
+	 */
+	void checkAll() {
+		AbstractMainView view = rtext.getMainView();
+		for (int i=0; i<view.getNumDocuments(); i++) {
+			pending.add(view.getRTextEditorPaneAt(i));
+		}
+		checkPending();
+	}
+
+
+	/**
+	 * Checks the open files that changed, if the user isn't being prompted
+	 * about other modified files.  Files being saved aren't checked; they
+	 * stay pending until this is called again after they're saved.  This
+	 * should be called on the EDT.
+	 */
+	void checkPending() {
+		AbstractMainView view = rtext.getMainView();
+		if (!disposed && !pending.isEmpty() && view!=null &&
+				view.checkFilesForOutsideModification(pending)) {
+			pending.removeIf(textArea -> !BackgroundFileSaver.isSaving(textArea));
+		}
+	}
+
+
+	/**
+	 * Stops watching for modifications.
+	 */
+	void dispose() {
+		disposed = true;
+		pollTimer.stop();
+		if (worker!=null) {
+			worker.shutdownNow();
+		}
+		if (watchService!=null) {
+			try {
+				watchService.close(); // Stops the watching thread
+			} catch (IOException ioe) {
+				ioe.printStackTrace();
+			}
+		}
+	}
+
+
+	/**
+	 * Called on the EDT when files change.
+	 *
+	 * @param changed The files that changed.  A directory means that any of
+	 *        the files in it may have changed.
+	 */
+	private void filesChanged(Set<Path> changed) {
+		if (disposed) {
+			return;
+		}
+		AbstractMainView view = rtext.getMainView();
+		for (int i=0; i<view.getNumDocuments(); i++) {
+			RTextEditorPane textArea = view.getRTextEditorPaneAt(i);
+			Path file = getFile(textArea);
+			if (file!=null && (changed.contains(file) ||
+					changed.contains(file.getParent()))) {
+				pending.add(textArea);
+			}
+		}
+		checkPending();
+	}
+
+
+	/**
+	 * Returns the local file being edited.
+	 *
+	 * @param textArea The editor.
+	 * @return The file, or <code>null</code> if it isn't a local file.
+	 */
+	private static Path getFile(RTextEditorPane textArea) {
+		if (textArea.isLocal()) {
+			try {
+				return Paths.get(textArea.getFileFullPath());
+			} catch (InvalidPathException ipe) {
+				// Fall through
+			}
+		}
+		return null;
+	}
+
+
+	/**
+	 * Returns whether a directory is on a network file system.
+	 */
+	private static boolean isNetworkDirectory(Path dir) {
+		if (dir.toString().startsWith("\\\\")) { // Windows UNC path
+			return true;
+		}
+		try {
+			FileStore store = Files.getFileStore(dir);
+			return NETWORK_FILE_STORE_TYPES.contains(store.type().toLowerCase(Locale.ROOT));
+		} catch (IOException ioe) { // Doesn't exist, etc.
+			return false;
+		}
+	}
+
+
+	/**
+	 * Stops watching a directory whose watch key is no longer valid, such as
+	 * because it was deleted or renamed, and watches or polls it again.
+	 * This is called on the worker thread.
+	 *
+	 * @param dir The directory.
+	 * @param key Its invalid watch key.
+	 */
+	private void keyInvalidated(Path dir, WatchKey key) {
+		if (watchKeys.remove(dir, key)) {
+			register(dir);
+		}
+	}
+
+
+	/**
+	 * Checks the files in polled directories for modifications.  This is
+	 * called on the EDT, but the files are checked on the worker thread.
+	 */
+	private void poll() {
+
+		if (polledDirs.isEmpty()) {
+			return;
+		}
+
+		AbstractMainView view = rtext.getMainView();
+		List<PolledFile> files = new ArrayList<>();
+		for (int i=0; i<view.getNumDocuments(); i++) {
+			RTextEditorPane textArea = view.getRTextEditorPaneAt(i);
+			Path file = getFile(textArea);
+			if (file!=null && polledDirs.contains(file.getParent())) {
+				files.add(new PolledFile(file, textArea.getLastSaveOrLoadTime()));
+			}
+		}
+
+		worker.execute(() -> {
+			retryMissingDirectories();
+			Set<Path> changed = new HashSet<>();
+			for (PolledFile file : files) {
+				if (file.file().toFile().lastModified()>file.lastSaveOrLoadTime()) {
+					changed.add(file.file());
+				}
+			}
+			if (!changed.isEmpty()) {
+				SwingUtilities.invokeLater(() -> filesChanged(changed));
+			}
+		});
+
+	}
+
+
+	/**
+	 * Starts watching or polling a directory.  This is called on the worker
+	 * thread.
+	 */
+	private void register(Path dir) {
+		if (watchService!=null && !isNetworkDirectory(dir)) {
+			try {
+				watchKeys.put(dir, dir.register(watchService,
+						StandardWatchEventKinds.ENTRY_CREATE,
+						StandardWatchEventKinds.ENTRY_DELETE,
+						StandardWatchEventKinds.ENTRY_MODIFY));
+				return;
+			} catch (NoSuchFileException nsfe) {
+				// New file in a directory that doesn't exist yet, or the
+				// directory was deleted.  Poll it until it exists.
+				missingDirs.add(dir);
+			} catch (IOException | UnsupportedOperationException e) {
+				// Fall through and poll it
+			}
+		}
+		polledDirs.add(dir);
+	}
+
+
+	/**
+	 * Starts watching directories that were polled because they didn't
+	 * exist, if they now do.  This is called on the worker thread.
+	 */
+	private void retryMissingDirectories() {
+		for (Path dir : List.copyOf(missingDirs)) {
+			if (Files.isDirectory(dir)) {
+				missingDirs.remove(dir);
+				polledDirs.remove(dir);
+				register(dir);
+			}
+		}
+	}
+
+
+	/**
+	 * Watches or polls the directories given, and stops watching any others.
+	 * This is called on the worker thread.
+	 *
+	 * @param dirs The directories.
+	 */
+	private void setWatchedDirectories(Set<Path> dirs) {
+		watchKeys.entrySet().removeIf(entry -> {
+			if (!dirs.contains(entry.getKey())) {
+				entry.getValue().cancel();
+				return true;
+			}
+			return false;
+		});
+		polledDirs.retainAll(dirs);
+		missingDirs.retainAll(dirs);
+		for (Path dir : dirs) {
+			if (!watchKeys.containsKey(dir) && !polledDirs.contains(dir)) {
+				register(dir);
+			}
+		}
+	}
+
+
+	private void start() {
+
+		worker = Executors.newSingleThreadExecutor(r -> {
+			Thread t = new Thread(r, "FileModificationChecker");
+			t.setDaemon(true);
+			return t;
+		});
+
+		try {
+			watchService = FileSystems.getDefault().newWatchService();
+			Thread t = new Thread(this::watch, "FileModificationWatcher");
+			t.setDaemon(true);
+			t.start();
+		} catch (IOException | UnsupportedOperationException e) {
+			watchService = null; // Poll everything
+		}
+
+		pollTimer.start();
+		started = true;
+
+	}
+
+
+	/**
+	 * Watches or polls the directories containing the open files, and stops
+	 * watching any others.  This should be called on the EDT whenever a file
+	 * is opened or closed, or a file is saved under a new name.
+	 */
+	void updateWatchedDirectories() {
+
+		if (disposed) {
+			return;
+		}
+		if (!started) {
+			start();
+		}
+
+		Set<Path> dirs = new HashSet<>();
+		AbstractMainView view = rtext.getMainView();
+		for (int i=0; i<view.getNumDocuments(); i++) {
+			Path file = getFile(view.getRTextEditorPaneAt(i));
+			if (file!=null && file.getParent()!=null) {
+				dirs.add(file.getParent());
+			}
+		}
+
+		worker.execute(() -> setWatchedDirectories(dirs));
+
+	}
+
+
+	/**
+	 * Waits for changes to watched directories.  This is called on a
+	 * dedicated thread.
+	 */
+	private void watch() {
+		try {
+			while (true) {
+
+				Set<Path> changed = new HashSet<>();
+				WatchKey key = watchService.take();
+				long deadline = System.currentTimeMillis() + MAX_COALESCE_TIME;
+
+				while (key!=null) {
+
+					Path dir = (Path)key.watchable();
+					for (WatchEvent<?> event : key.pollEvents()) {
+						if (event.kind()==StandardWatchEventKinds.OVERFLOW) {
+							changed.add(dir); // Any file in it may have changed
+						}
+						else {
+							changed.add(dir.resolve((Path)event.context()));
+						}
+					}
+					if (!key.reset()) {
+						changed.add(dir); // Its files may have been deleted
+						WatchKey invalidKey = key;
+						worker.execute(() -> keyInvalidated(dir, invalidKey));
+					}
+
+					long remaining = deadline - System.currentTimeMillis();
+					if (remaining<=0 || changed.size()>=MAX_COALESCED_CHANGES) {
+						break; // Other signalled keys are handled next time
+					}
+					key = watchService.poll(Math.min(COALESCE_DELAY, remaining),
+							TimeUnit.MILLISECONDS);
+
+				}
+
+				SwingUtilities.invokeLater(() -> filesChanged(changed));
+
+			}
+		} catch (InterruptedException | ClosedWatchServiceException |
+				RejectedExecutionException e) {
+			// Disposed
+		}
+	}
+
+
+	/**
+	 * An open file in a polled directory.
+	 *
+	 * @param file The file.
+	 * @param lastSaveOrLoadTime When the file was last saved or loaded in
+	 *        its editor.
+	 */
+	private record PolledFile(Path file, long lastSaveOrLoadTime) {
+	}
+
+
+}
@@ -0,0 +1,405 @@
+/*
+ * 10/18/2026
+ *
+ * FileNameIndex.java - Fuzzy lookup of files by name.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * An immutable index of file paths that can be searched by name, fuzzily.
+ * A file matches a query if its name contains all of the query's
+ * characters, in order, ignoring case.  If the query contains a path
+ * separator, the file's full path is matched instead.  Matches are ranked
+ * fzf-style: characters at the start of words and runs of consecutive
+ * characters score higher, and shorter names win ties, followed by files
+ * added to the index earlier.<p>
+ *
+ * A mask of the characters in each name is kept, so most files are ruled
+ * out without looking at their names.  When a query extends the previous
+ * one, as it does while the user types, only the previous query's matches
+ * are searched.  Together these keep lookups fast for hundreds of
+ * thousands of files.<p>
+ *
+ * This class is thread-safe.  Searches can be cancelled by interrupting
+ * the thread doing them.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class FileNameIndex {
+
+	private final String[] paths;
+
+	/**
+	 * The offset of the file name in each path.
+	 */
+	private final int[] nameStarts;
+
+	/**
+	 * The masks of the characters in each file's name and path.
+	 */
+	private final long[] nameMasks;
+	private final long[] pathMasks;
+
+	/**
+	 * An index with no files.
+	 */
+	public static final FileNameIndex EMPTY = new FileNameIndex(List.of());
+
+	/**
+	 * How often a search checks whether it's been cancelled.
+	 */
+	private static final int CANCEL_CHECK_INTERVAL = 4096;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param paths The paths of the files to index.  Files added first win
+	 *        ties when ranking matches.
+	 */
+	public FileNameIndex(List<String> paths) {
+
+		this.paths = paths.toArray(new String[0]);
+		int count = this.paths.length;
+		nameStarts = new int[count];
+		nameMasks = new long[count];
+		pathMasks = new long[count];
+
+		for (int i=0; i<count; i++) {
+			String path = this.paths[i];
+			int nameStart = Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\')) + 1;
+			nameStarts[i] = nameStart;
+			nameMasks[i] = getCharMask(path, nameStart);
+			pathMasks[i] = nameMasks[i] | getCharMask(path.substring(0, nameStart), 0);
+		}
+
+	}
+
+
+	/**
+	 * Returns the files that match a query.
+	 *
+	 * @param query The text to search for.  <code>'*'</code> and
+	 *        <code>'?'</code> are ignored, since any characters can appear
+	 *        between those in the query anyway.
+	 * @param previous The result of a previous search of this index, or
+	 *        <code>null</code> for none.  If the query extends that search's
+	 *        query, only its matches are searched.
+	 * @param max The maximum number of files to rank.  This must be at
+	 *        least <code>1</code>.
+	 * @return The matches, or <code>null</code> if the search was cancelled.
+	 * @throws IllegalArgumentException If <code>max</code> is less than
+	 *         <code>1</code>.
+	 */
+	public Matches find(String query, Matches previous, int max) {
+
+		if (max<1) {
+			throw new IllegalArgumentException("max must be at least 1: " + max);
+		}
+
+		query = query.replace("*", "").replace("?", "").trim();
+		int count = paths.length;
+
+		// Every file matches an empty query; keep them in order.
+		if (query.isEmpty()) {
+			int[] best = new int[Math.min(max, count)];
+			Arrays.setAll(best, i -> i);
+			return new Matches(query, null, best);
+		}
+
+		String folded = fold(query);
+		boolean matchPath = folded.indexOf('/')>-1;
+		long[] masks = matchPath ? pathMasks : nameMasks;
+		long queryMask = getCharMask(folded, 0);
+
+		// Only a previous query's matches can match a query extending it,
+		// as long as both matched names, or both matched paths.
+		int[] candidates = null;
+		int candidateCount = count;
+		if (previous!=null && previous.entries!=null &&
+				query.startsWith(previous.query) &&
+				(fold(previous.query).indexOf('/')>-1)==matchPath) {
+			candidates = previous.entries;
+			candidateCount = candidates.length;
+		}
+
+		int[] entries = new int[Math.min(candidateCount, 1024)];
+		int entryCount = 0;
+		int[] best = new int[max];
+		int[] bestScores = new int[best.length];
+		int bestCount = 0;
+
+		for (int i=0; i<candidateCount; i++) {
+
+			if (i%CANCEL_CHECK_INTERVAL==0 && Thread.currentThread().isInterrupted()) {
+				return null;
+			}
+
+			// Most files are ruled out without looking at their names.
+			int entry = candidates==null ? i : candidates[i];
+			if ((masks[entry] & queryMask)!=queryMask) {
+				continue;
+			}
+			int score = score(entry, folded, matchPath);
+			if (score==0) {
+				continue;
+			}
+
+			if (entryCount==entries.length) {
+				entries = Arrays.copyOf(entries, entryCount*2);
+			}
+			entries[entryCount++] = entry;
+
+			// Entries are visited in order, so earlier files win ties.
+			if (bestCount<best.length || score>bestScores[bestCount-1]) {
+				int pos = bestCount<best.length ? bestCount++ : bestCount-1;
+				while (pos>0 && bestScores[pos-1]<score) {
+					best[pos] = best[pos-1];
+					bestScores[pos] = bestScores[pos-1];
+					pos--;
+				}
+				best[pos] = entry;
+				bestScores[pos] = score;
+			}
+
+		}
+
+		return new Matches(query, Arrays.copyOf(entries, entryCount),
+				Arrays.copyOf(best, bestCount));
+
+	}
+
+
+	/**
+	 * Folds a query to lower case, with <code>'/'</code> as its only path
+	 * separator.
+	 *
+	 * @param query The query.
+	 * @return The folded query.
+	 */
+	private static String fold(String query) {
+		StringBuilder sb = new StringBuilder(query.length());
+		for (int i=0; i<query.length(); i++) {
+			char ch = query.charAt(i);
+			sb.append(ch=='\\' ? '/' : Character.toLowerCase(ch));
+		}
+		return sb.toString();
+	}
+
+
+	/**
+	 * Returns a bit mask of the characters in a string, ignoring case.  A
+	 * name can only match a query if its mask includes all of the bits in
+	 * the query's mask.
+	 *
+	 * @param s The string.
+	 * @param start The offset to start at.
+	 * @return The mask.
+	 */
+	private static long getCharMask(String s, int start) {
+		long mask = 0;
+		for (int i=start; i<s.length(); i++) {
+			char ch = s.charAt(i);
+			if (ch!='/' && ch!='\\') {
+				mask |= 1L << (Character.toLowerCase(ch) & 63);
+			}
+		}
+		return mask;
+	}
+
+
+	/**
+	 * Returns the path of a file.
+	 *
+	 * @param entry The file's position in the index.
+	 * @return The path.
+	 */
+	public String getPath(int entry) {
+		return paths[entry];
+	}
+
+
+	/**
+	 * Returns whether a character in a file's path matches a character in a
+	 * query.
+	 *
+	 * @param ch The character in the path.
+	 * @param qch The {@link #fold(String) folded} query character.
+	 * @return Whether they match.
+	 */
+	private static boolean isMatch(char ch, char qch) {
+		return Character.toLowerCase(ch)==qch || (ch=='\\' && qch=='/');
+	}
+
+
+	/**
+	 * Returns whether a character starts a word in a file name.
+	 *
+	 * @param ch The character.
+	 * @param prev The character before it, or <code>0</code> if it's the
+	 *        first character.
+	 * @return Whether the character starts a word.
+	 */
+	private static boolean isWordStart(char ch, char prev) {
+		return prev==0 || prev=='/' || prev=='\\' || prev=='.' || prev=='_' ||
+				prev=='-' || prev==' ' ||
+				(Character.isUpperCase(ch) && Character.isLowerCase(prev));
+	}
+
+
+	/**
+	 * Scores how well a file matches a query, fzf-style.  All of the query's
+	 * characters must appear in the name, in order.<p>
+	 *
+	 * As in fzf's first algorithm, a forward pass finds where the earliest
+	 * match ends, and a backward pass from there finds the shortest match
+	 * ending at the same place.  Both matches are scored, since either may
+	 * have more characters at the starts of words.  The earliest match isn't
+	 * always the best, as with <code>"main"</code> in
+	 * <code>"domain_main.c"</code>, so this is repeated after each match
+	 * found, and the best score is kept.  It stops early if a match can't
+	 * be beaten.
+	 *
+	 * @param entry The file.
+	 * @param query The {@link #fold(String) folded} query.
+	 * @param matchPath Whether to match the full path rather than the name.
+	 * @return The score, or <code>0</code> if the file doesn't match.
+	 */
+	private int score(int entry, String query, boolean matchPath) {
+
+		String path = paths[entry];
+		int start = matchPath ? 0 : nameStarts[entry];
+		int length = path.length() - start;
+		if (length<query.length()) {
+			return 0;
+		}
+
+		int best = 0;
+		int from = start;
+		int last = query.length() - 1;
+		int maxScore = 10 + 14*last; // All consecutive, all starting words
+		while (best<maxScore) {
+
+			// Forward pass: find where the earliest match from here starts
+			// and ends.
+			int first = -1;
+			int end = -1;
+			for (int i=from, q=0; i<path.length(); i++) {
+				if (isMatch(path.charAt(i), query.charAt(q))) {
+					if (q==0) {
+						first = i;
+					}
+					if (q++==last) {
+						end = i;
+						break;
+					}
+				}
+			}
+			if (end==-1) {
+				break;
+			}
+
+			// Backward pass: find the shortest match ending there.
+			int matchStart = end;
+			for (int q=last; q>=0; matchStart--) {
+				if (isMatch(path.charAt(matchStart), query.charAt(q)) && --q<0) {
+					break;
+				}
+			}
+
+			// With fewer than three characters, matches with the same start
+			// and end are the same match.
+			best = Math.max(best, scoreMatch(path, first, query));
+			if (matchStart>first || last>1) {
+				best = Math.max(best, scoreMatch(path, matchStart, query));
+			}
+			from = matchStart + 1;
+
+		}
+
+		// Prefer shorter names among otherwise equal matches.
+		return best>0 ? best*64 + Math.max(0, 63-length) : 0;
+
+	}
+
+
+	/**
+	 * Scores a match of a query in a file's path.  Characters at the start
+	 * of words and runs of consecutive characters score higher.
+	 *
+	 * @param path The file's path.
+	 * @param start The offset to start matching at.  The query must match,
+	 *        in order, from here; the earliest match is scored.
+	 * @param query The {@link #fold(String) folded} query.
+	 * @return The score.
+	 */
+	private static int scoreMatch(String path, int start, String query) {
+		int score = 0;
+		int q = 0;
+		char prev = start>0 ? path.charAt(start - 1) : 0;
+		boolean consecutive = false;
+		for (int i=start; q<query.length(); i++) {
+			char ch = path.charAt(i);
+			if (isMatch(ch, query.charAt(q))) {
+				score += 2;
+				if (isWordStart(ch, prev)) {
+					score += 8;
+				}
+				if (consecutive) {
+					score += 4;
+				}
+				consecutive = true;
+				q++;
+			}
+			else {
+				consecutive = false;
+			}
+			prev = ch;
+		}
+		return score;
+	}
+
+
+	/**
+	 * Returns the number of files in this index.
+	 *
+	 * @return The number of files.
+	 */
+	public int size() {
+		return paths.length;
+	}
+
+
+	/**
+	 * The result of searching a file name index.
+	 *
+	 * @param query The query searched for.
+	 * @param entries All files that matched, in index order, or
+	 *        <code>null</code> if all files matched.
+	 * @param best The best-ranked matches, best first.
+	 */
+	public record Matches(String query, int[] entries, int[] best) {
+
+		/**
+		 * Returns the number of files that matched.
+		 *
+		 * @param index The index searched.
+		 * @return The number of files.
+		 */
+		public int getCount(FileNameIndex index) {
+			return entries==null ? index.size() : entries.length;
+		}
+
+	}
+
+
+}
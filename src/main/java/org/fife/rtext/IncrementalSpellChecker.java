@@ -0,0 +1,603 @@
+/*
+ * 10/18/2026
+ *
+ * IncrementalSpellChecker.java - Spell checks an editor a piece at a time.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.awt.Color;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.swing.JViewport;
+import javax.swing.Timer;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Element;
+import javax.swing.text.Position;
+
+import org.fife.ui.rsyntaxtextarea.RSyntaxDocument;
+import org.fife.ui.rsyntaxtextarea.TokenTypes;
+import org.fife.ui.rsyntaxtextarea.parser.AbstractParser;
+import org.fife.ui.rsyntaxtextarea.parser.DefaultParseResult;
+import org.fife.ui.rsyntaxtextarea.parser.DefaultParserNotice;
+import org.fife.ui.rsyntaxtextarea.parser.ExtendedHyperlinkListener;
+import org.fife.ui.rsyntaxtextarea.parser.ParseResult;
+import org.fife.ui.rsyntaxtextarea.parser.Parser;
+import org.fife.ui.rsyntaxtextarea.parser.ParserNotice;
+import org.fife.ui.rsyntaxtextarea.spell.SpellingParser;
+
+
+/**
+ * Spell checks a single editor a piece at a time, rather than checking its
+ * entire document on every change.  The visible lines are checked first,
+ * then only the lines that change as the document is edited.  The rest of
+ * the document is checked a chunk at a time on a timer, until it's all been
+ * checked or the maximum number of spelling errors has been found.<p>
+ *
+ * Lines are checked with the application's {@link SpellingParser}, by
+ * having it parse a scratch document containing only those lines.  The
+ * errors in each line are cached by the line's content, so unchanged lines
+ * aren't checked again.  Since lines are checked without the lines before
+ * them, a line inside a multi-line comment may be checked as code if the
+ * comment started more than {@link #MAX_CONTEXT_LINES} lines earlier.<p>
+ *
+ * Parsers must report all of their notices each time they're run, so the
+ * errors found so far are kept here, with positions that track edits.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see SpellingSupport#setIncrementalSpellChecking(boolean)
+ */
+final class IncrementalSpellChecker extends AbstractParser
+		implements DocumentListener, ChangeListener {
+
+	private final SpellingSupport support;
+	private final RTextEditorPane textArea;
+	private RSyntaxDocument doc;
+	private String style;
+	private JViewport viewport;
+
+	/**
+	 * The spelling errors found so far.
+	 */
+	private final List<SpellingError> errors;
+
+	/**
+	 * The spelling errors in lines already checked, by their content.
+	 */
+	private final Map<LineKey, List<LineError>> cache;
+
+	/**
+	 * The range of text edited since the last check, or <code>null</code>
+	 * if it hasn't been edited.
+	 */
+	private Position dirtyStart;
+	private Position dirtyEnd;
+
+	/**
+	 * The range of visible text last checked, or <code>null</code> if none
+	 * has been.
+	 */
+	private Position visibleStart;
+	private Position visibleEnd;
+
+	/**
+	 * Everything before this position has been checked.  If this is
+	 * <code>null</code>, nothing has.
+	 */
+	private Position sweepPos;
+
+	private final Timer timer;
+	private boolean sweepRequested;
+
+	/**
+	 * The number of lines checked each time the timer fires.
+	 */
+	private static final int SWEEP_LINES = 500;
+
+	/**
+	 * The delay between checking chunks of the document, in milliseconds.
+	 */
+	private static final int SWEEP_DELAY = 150;
+
+	/**
+	 * The maximum number of lines whose errors are cached.
+	 */
+	private static final int CACHE_SIZE = 20000;
+
+	/**
+	 * The maximum number of earlier lines checked along with a line that
+	 * starts inside a multi-line token, such as a comment.
+	 */
+	private static final int MAX_CONTEXT_LINES = 100;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param support The spelling support whose parser to check with.
+	 * @param textArea The editor to check.
+	 */
+	IncrementalSpellChecker(SpellingSupport support, RTextEditorPane textArea) {
+		this.support = support;
+		this.textArea = textArea;
+		errors = new ArrayList<>();
+		cache = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<LineKey, List<LineError>> eldest) {
+				return size()>CACHE_SIZE;
+			}
+		};
+		timer = new Timer(SWEEP_DELAY, e -> timerFired());
+		timer.setRepeats(false);
+	}
+
+
+	@Override
+	public void changedUpdate(DocumentEvent e) {
+	}
+
+
+	/**
+	 * Checks a range of lines, replacing any errors previously found in
+	 * them.
+	 *
+	 * @param first The first line to check.
+	 * @param last The last line to check.
+	 * @throws BadLocationException If an error occurs.  This shouldn't
+	 *         happen.
+	 */
+	private void checkLines(int first, int last) throws BadLocationException {
+
+		Element root = doc.getDefaultRootElement();
+		first = Math.max(0, first);
+		last = Math.min(last, root.getElementCount() - 1);
+		if (first>last) {
+			return;
+		}
+
+		int startOffs = root.getElement(first).getStartOffset();
+		int endOffs = root.getElement(last).getEndOffset();
+		errors.removeIf(error -> {
+			int offs = error.start().getOffset();
+			return offs>=startOffs && offs<endOffs;
+		});
+
+		List<List<LineError>> results = new ArrayList<>(last - first + 1);
+		for (int line=first; line<=last; line++) {
+			results.add(cache.get(getLineKey(line)));
+		}
+
+		// Check each run of lines that aren't cached.
+		int line = first;
+		while (line<=last) {
+			if (results.get(line - first)!=null) {
+				line++;
+				continue;
+			}
+			int runEnd = line;
+			while (runEnd<last && results.get(runEnd + 1 - first)==null) {
+				runEnd++;
+			}
+			checkUncachedLines(line, runEnd, results, first);
+			line = runEnd + 1;
+		}
+
+		for (int i=first; i<=last; i++) {
+			int lineStart = root.getElement(i).getStartOffset();
+			for (LineError error : results.get(i - first)) {
+				Position start = doc.createPosition(lineStart + error.column());
+				errors.add(new SpellingError(start, error.notice()));
+			}
+		}
+
+	}
+
+
+	/**
+	 * Checks lines that aren't cached, and caches them.
+	 *
+	 * @param first The first line to check.
+	 * @param last The last line to check.
+	 * @param results The errors in each line being checked, starting at
+	 *        <code>resultsStart</code>.  These lines' entries are set.
+	 * @param resultsStart The first line in <code>results</code>.
+	 * @throws BadLocationException If an error occurs.  This shouldn't
+	 *         happen.
+	 */
+	private void checkUncachedLines(int first, int last,
+			List<List<LineError>> results, int resultsStart)
+			throws BadLocationException {
+
+		SpellingParser parser = support.getSpellingParser();
+		int max = support.getMaxSpellingErrors();
+		Element root = doc.getDefaultRootElement();
+
+		int line = first;
+		while (line<=last) {
+
+			// Start outside any multi-line token so the lines are tokenized
+			// as they are in the document.
+			int contextStart = getContextStart(line);
+			int start = root.getElement(contextStart).getStartOffset();
+			int end = Math.min(root.getElement(last).getEndOffset(), doc.getLength());
+			RSyntaxDocument scratch = new RSyntaxDocument(style);
+			scratch.insertString(0, doc.getText(start, end - start), null);
+			List<ParserNotice> notices = parser.parse(scratch, style).getNotices();
+
+			List<List<LineError>> lineErrors = new ArrayList<>();
+			for (int i=contextStart; i<=last; i++) {
+				lineErrors.add(new ArrayList<>(0));
+			}
+			Element scratchRoot = scratch.getDefaultRootElement();
+			for (ParserNotice notice : notices) {
+				int scratchLine = notice.getLine();
+				if (scratchLine<lineErrors.size()) {
+					int column = notice.getOffset() -
+							scratchRoot.getElement(scratchLine).getStartOffset();
+					lineErrors.get(scratchLine).add(new LineError(column, notice));
+				}
+			}
+
+			// The parser stops at the maximum error count, so the line with
+			// the last error found, and those after it, may not have been
+			// completely checked.
+			int checkedCount = lineErrors.size();
+			if (notices.size()>=max && !notices.isEmpty()) {
+				checkedCount = notices.get(notices.size() - 1).getLine();
+			}
+
+			for (int i=0; i<checkedCount; i++) {
+				cache.put(getLineKey(contextStart + i), lineErrors.get(i));
+				if (contextStart + i>=resultsStart) {
+					results.set(contextStart + i - resultsStart, lineErrors.get(i));
+				}
+			}
+
+			if (contextStart + checkedCount>line) {
+				line = contextStart + checkedCount;
+			}
+			else {
+				// The maximum was reached before this line was completely
+				// checked.  Use what was found, but don't cache it.
+				results.set(line - resultsStart, lineErrors.get(line - contextStart));
+				line++;
+			}
+
+		}
+
+	}
+
+
+	/**
+	 * Returns the line to start checking at for a line to be tokenized as it
+	 * is in the document.  This is the closest line at or before it that
+	 * starts outside any multi-line token, such as a comment, but no more
+	 * than {@link #MAX_CONTEXT_LINES} lines before it.
+	 *
+	 * @param line The line.
+	 * @return The line to start checking at.
+	 */
+	private int getContextStart(int line) {
+		int start = line;
+		while (start>0 && line-start<MAX_CONTEXT_LINES &&
+				doc.getLastTokenTypeOnLine(start - 1)!=TokenTypes.NULL) {
+			start--;
+		}
+		return start;
+	}
+
+
+	@Override
+	public ExtendedHyperlinkListener getHyperlinkListener() {
+		// Tool tip links, such as "Add to dictionary", go to the notice's
+		// parser.
+		SpellingParser parser = support.getSpellingParser();
+		return parser!=null ? parser.getHyperlinkListener() : null;
+	}
+
+
+	@Override
+	public URL getImageBase() {
+		SpellingParser parser = support.getSpellingParser();
+		return parser!=null ? parser.getImageBase() : null;
+	}
+
+
+	/**
+	 * Returns the key a line's errors are cached under.
+	 */
+	private LineKey getLineKey(int line) throws BadLocationException {
+		Element elem = doc.getDefaultRootElement().getElement(line);
+		int start = elem.getStartOffset();
+		int end = Math.min(elem.getEndOffset() - 1, doc.getLength());
+		int context = line>0 ? doc.getLastTokenTypeOnLine(line - 1) : TokenTypes.NULL;
+		return new LineKey(doc.getText(start, end - start), context);
+	}
+
+
+	private int getSweepOffset() {
+		return sweepPos!=null ? sweepPos.getOffset() : 0;
+	}
+
+
+	/**
+	 * Returns the range of lines visible in the editor.
+	 *
+	 * @return The first and last visible lines, or <code>null</code> if the
+	 *         editor isn't showing.
+	 */
+	private int[] getVisibleLines() {
+		Rectangle visible = textArea.getVisibleRect();
+		if (!textArea.isShowing() || visible.isEmpty()) {
+			return null;
+		}
+		int start = textArea.viewToModel2D(visible.getLocation());
+		int end = textArea.viewToModel2D(new Point(visible.x + visible.width,
+				visible.y + visible.height));
+		Element root = doc.getDefaultRootElement();
+		return new int[] { root.getElementIndex(start), root.getElementIndex(end) };
+	}
+
+
+	@Override
+	public void insertUpdate(DocumentEvent e) {
+		markDirty(e.getOffset(), e.getOffset() + e.getLength());
+	}
+
+
+	/**
+	 * Returns whether a range of text has been checked, either by the sweep
+	 * or as the last visible text checked.
+	 */
+	private boolean isChecked(int start, int end) {
+		return end<=getSweepOffset() || (visibleStart!=null &&
+				start>=visibleStart.getOffset() && end<=visibleEnd.getOffset());
+	}
+
+
+	/**
+	 * Notes that a range of text was edited, so its lines are checked the
+	 * next time the document is parsed.
+	 */
+	private void markDirty(int start, int end) {
+		if (dirtyStart!=null) {
+			start = Math.min(start, dirtyStart.getOffset());
+			end = Math.max(end, dirtyEnd.getOffset());
+		}
+		try {
+			dirtyStart = doc.createPosition(start);
+			dirtyEnd = doc.createPosition(end);
+		} catch (BadLocationException ble) { // Never happens
+			ble.printStackTrace();
+		}
+	}
+
+
+	@Override
+	public ParseResult parse(RSyntaxDocument doc, String style) {
+
+		DefaultParseResult result = new DefaultParseResult(this);
+		long startTime = System.currentTimeMillis();
+		if (doc!=this.doc || !style.equals(this.style)) {
+			reset(doc, style);
+		}
+		if (viewport==null && textArea.getParent() instanceof JViewport vp) {
+			viewport = vp;
+			viewport.addChangeListener(this);
+		}
+
+		if (support.getSpellingParser()==null || support.getMaxSpellingErrors()<=0) {
+			errors.clear();
+			return result;
+		}
+
+		Element root = doc.getDefaultRootElement();
+		try {
+
+			// Lines that were edited.
+			if (dirtyStart!=null) {
+				checkLines(root.getElementIndex(dirtyStart.getOffset()),
+						root.getElementIndex(dirtyEnd.getOffset()));
+				dirtyStart = dirtyEnd = null;
+			}
+
+			// Visible lines that haven't been checked.
+			int[] visible = getVisibleLines();
+			if (visible!=null) {
+				int start = root.getElement(visible[0]).getStartOffset();
+				int end = root.getElement(visible[1]).getEndOffset() - 1;
+				if (!isChecked(start, end)) {
+					checkLines(visible[0], visible[1]);
+					visibleStart = doc.createPosition(start);
+					visibleEnd = doc.createPosition(end);
+				}
+			}
+
+			// The next chunk of the rest of the document.
+			if (sweepRequested) {
+				sweepRequested = false;
+				int line = root.getElementIndex(getSweepOffset());
+				int last = Math.min(line + SWEEP_LINES, root.getElementCount()) - 1;
+				checkLines(line, last);
+				int end = Math.min(root.getElement(last).getEndOffset(), doc.getLength());
+				sweepPos = doc.createPosition(end);
+			}
+			if (getSweepOffset()<doc.getLength() &&
+					errors.size()<support.getMaxSpellingErrors() && !timer.isRunning()) {
+				timer.start();
+			}
+
+		} catch (BadLocationException ble) { // Never happens
+			ble.printStackTrace();
+			result.setError(ble);
+		}
+
+		for (SpellingError error : errors) {
+			int offs = error.start().getOffset();
+			result.addNotice(new SpellingNotice(this, error.notice(),
+					root.getElementIndex(offs), offs));
+		}
+		result.setParsedLines(0, root.getElementCount() - 1);
+		result.setParseTime(System.currentTimeMillis() - startTime);
+		return result;
+
+	}
+
+
+	/**
+	 * Forgets everything checked so far, including the cached lines, and
+	 * checks the editor again.  This should be called when the spelling
+	 * parser's dictionary or options change.
+	 */
+	void recheck() {
+		cache.clear();
+		if (doc!=null) {
+			reset(doc, style);
+		}
+		textArea.forceReparsing(this);
+	}
+
+
+	@Override
+	public void removeUpdate(DocumentEvent e) {
+		markDirty(e.getOffset(), e.getOffset());
+	}
+
+
+	/**
+	 * Starts checking a document from scratch.
+	 */
+	private void reset(RSyntaxDocument doc, String style) {
+		if (doc!=this.doc) {
+			if (this.doc!=null) {
+				this.doc.removeDocumentListener(this);
+			}
+			doc.addDocumentListener(this);
+			this.doc = doc;
+		}
+		if (!style.equals(this.style)) {
+			cache.clear(); // What's checked depends on the language
+			this.style = style;
+		}
+		errors.clear();
+		dirtyStart = dirtyEnd = null;
+		visibleStart = visibleEnd = null;
+		sweepPos = null;
+	}
+
+
+	/**
+	 * Called when the editor is scrolled.  Any visible text that hasn't been
+	 * checked is checked shortly.
+	 *
+	 * @param e The event.
+	 */
+	@Override
+	public void stateChanged(ChangeEvent e) {
+		if (doc!=null && getVisibleLines()!=null) {
+			timer.restart();
+		}
+	}
+
+
+	private void timerFired() {
+		if (textArea.isDisplayable()) { // Not closed
+			sweepRequested = true;
+			textArea.forceReparsing(this);
+		}
+	}
+
+
+	/**
+	 * Stops checking the editor.  This should be called when this parser is
+	 * removed from it.
+	 */
+	void uninstall() {
+		timer.stop();
+		if (doc!=null) {
+			doc.removeDocumentListener(this);
+		}
+		if (viewport!=null) {
+			viewport.removeChangeListener(this);
+		}
+		errors.clear();
+	}
+
+
+	/**
+	 * A spelling error found in a line, relative to the start of the line.
+	 *
+	 * @param column The offset of the error in the line.
+	 * @param notice The notice from the spelling parser.
+	 */
+	private record LineError(int column, ParserNotice notice) {
+	}
+
+
+	/**
+	 * The content a line's errors are cached by.
+	 *
+	 * @param text The text of the line.
+	 * @param context The type of the last token on the previous line, since
+	 *        it affects how the line is tokenized.
+	 */
+	private record LineKey(String text, int context) {
+	}
+
+
+	/**
+	 * A spelling error in the document.
+	 *
+	 * @param start The start of the misspelled word.
+	 * @param notice The notice from the spelling parser.
+	 */
+	private record SpellingError(Position start, ParserNotice notice) {
+	}
+
+
+	/**
+	 * A notice for a spelling error, at its location in the document rather
+	 * than in the text it was checked in.
+	 */
+	private static final class SpellingNotice extends DefaultParserNotice {
+
+		private final ParserNotice source;
+
+		SpellingNotice(Parser parser, ParserNotice source, int line, int offs) {
+			super(parser, source.getMessage(), line, offs, source.getLength());
+			this.source = source;
+			setLevel(source.getLevel());
+		}
+
+		@Override
+		public Color getColor() {
+			return source.getColor();
+		}
+
+		@Override
+		public String getToolTipText() {
+			// Links to replace the word with a suggestion contain its offset
+			// and length in the text it was checked in.
+			String tip = source.getToolTipText();
+			return tip==null ? null : tip.replace(
+					"://" + source.getOffset() + "," + getLength() + ",",
+					"://" + getOffset() + "," + getLength() + ",");
+		}
+
+	}
+
+
+}
@@ -0,0 +1,245 @@
+/*
+ * 10/18/2026
+ *
+ * LazyTabSupport.java - Defers reading files until their tabs are selected.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.File;
+import java.util.Map;
+import java.util.WeakHashMap;
+import javax.swing.Timer;
+
+import org.fife.ui.rsyntaxtextarea.RSyntaxDocument;
+
+
+/**
+ * Keeps track of editors whose files haven't been read.  When many files
+ * are opened at once, such as at startup, each gets a tab right away but
+ * its file is only read, in the background, the first time the tab is
+ * selected.  Until then, the editor holds an empty document.<p>
+ *
+ * Optionally, files whose tabs haven't been selected in a while are
+ * unloaded the same way, to free the memory their documents use.  Only
+ * unmodified local files are unloaded, and only if nothing would be lost
+ * by doing so: files with undo history, bookmarks or collapsed folds are
+ * kept.  Caret positions are restored when files are read again.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class LazyTabSupport {
+
+	private final RText rtext;
+
+	/**
+	 * Editors whose files haven't been read.
+	 */
+	private final Map<RTextEditorPane, UnloadedFile> unloadedFiles;
+
+	/**
+	 * When each editor was last deselected.
+	 */
+	private final Map<RTextEditorPane, Long> lastSelectedTimes;
+
+	private final Timer idleTimer;
+	private int idleUnloadMinutes;
+
+	/**
+	 * How often to look for idle tabs, in milliseconds.
+	 */
+	private static final int IDLE_CHECK_INTERVAL = 60 * 1000;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param rtext The parent application.
+	 */
+	LazyTabSupport(RText rtext) {
+		this.rtext = rtext;
+		unloadedFiles = new WeakHashMap<>();
+		lastSelectedTimes = new WeakHashMap<>();
+		idleTimer = new Timer(IDLE_CHECK_INTERVAL, e -> unloadIdleTextAreas());
+	}
+
+
+	/**
+	 * Marks an editor as not yet having read its file.  The editor should
+	 * have been loaded from a
+	 * {@link BackgroundFileLoader#createDeferredLocation(File) deferred
+	 * location}.
+	 *
+	 * @param textArea The editor.
+	 * @param file The file.
+	 * @param encoding The encoding of the file, or <code>null</code> to
+	 *        check it for Unicode when it's read.
+	 */
+	void addUnloaded(RTextEditorPane textArea, File file, String encoding) {
+		textArea.setLoadingMessage(rtext.getString("LoadingFile", file.getName()));
+		unloadedFiles.put(textArea, new UnloadedFile(file, encoding, 0));
+	}
+
+
+	/**
+	 * Returns the number of minutes a tab must go unselected before its
+	 * file is unloaded.
+	 *
+	 * @return The number of minutes, or <code>0</code> if tabs are never
+	 *         unloaded.
+	 * @see #setIdleUnloadMinutes(int)
+	 */
+	int getIdleUnloadMinutes() {
+		return idleUnloadMinutes;
+	}
+
+
+	/**
+	 * Returns whether an editor's file hasn't been read.
+	 *
+	 * @param textArea The editor.
+	 * @return Whether the file hasn't been read.
+	 */
+	boolean isUnloaded(RTextEditorPane textArea) {
+		return unloadedFiles.containsKey(textArea);
+	}
+
+
+	/**
+	 * Starts reading an editor's file in the background, if it hasn't been
+	 * read.
+	 *
+	 * @param textArea The editor.  This may be <code>null</code>.
+	 */
+	void load(RTextEditorPane textArea) {
+		UnloadedFile unloaded = unloadedFiles.remove(textArea);
+		if (unloaded!=null) {
+			rtext.getMainView().loadInBackground(textArea, unloaded.file(),
+					unloaded.encoding(), unloaded.caretPosition());
+		}
+	}
+
+
+	/**
+	 * Sets the number of minutes a tab must go unselected before its file
+	 * is unloaded.
+	 *
+	 * @param minutes The number of minutes, or <code>0</code> for tabs to
+	 *        never be unloaded.
+	 * @see #getIdleUnloadMinutes()
+	 */
+	void setIdleUnloadMinutes(int minutes) {
+		idleUnloadMinutes = Math.max(0, minutes);
+		if (idleUnloadMinutes>0) {
+			idleTimer.start();
+		}
+		else {
+			idleTimer.stop();
+		}
+	}
+
+
+	/**
+	 * Called when a different editor is selected.  Its file is read if it
+	 * hasn't been.
+	 *
+	 * @param old The previously selected editor.  This may be
+	 *        <code>null</code>.
+	 * @param textArea The newly selected editor.  This may be
+	 *        <code>null</code>.
+	 */
+	void textAreaSelected(RTextEditorPane old, RTextEditorPane textArea) {
+		if (old!=null && old!=textArea) {
+			lastSelectedTimes.put(old, System.currentTimeMillis());
+		}
+		load(textArea);
+	}
+
+
+	/**
+	 * Replaces an editor's document with an empty one, to be read again the
+	 * next time its tab is selected.
+	 *
+	 * @param textArea The editor.
+	 */
+	private void unload(RTextEditorPane textArea) {
+
+		File file = new File(textArea.getFileFullPath());
+		UnloadedFile unloaded = new UnloadedFile(file,
+				textArea.getEncoding(), textArea.getCaretPosition());
+
+		// The tab size is stored in the document.
+		int tabSize = textArea.getTabSize();
+		textArea.setDocument(new RSyntaxDocument(textArea.getSyntaxEditingStyle()));
+		textArea.setTabSize(tabSize);
+		textArea.discardAllEdits();
+		textArea.setDirty(false);
+
+		textArea.setLoadingMessage(rtext.getString("LoadingFile", file.getName()));
+		unloadedFiles.put(textArea, unloaded);
+
+	}
+
+
+	/**
+	 * Unloads the files of all tabs that haven't been selected in the
+	 * configured number of minutes.
+	 */
+	private void unloadIdleTextAreas() {
+
+		AbstractMainView mainView = rtext.getMainView();
+		if (mainView==null || idleUnloadMinutes<=0) {
+			return;
+		}
+
+		long now = System.currentTimeMillis();
+		long idleMillis = idleUnloadMinutes * 60L * 1000;
+		RTextEditorPane current = mainView.getCurrentTextArea();
+
+		for (int i=0; i<mainView.getNumDocuments(); i++) {
+
+			RTextEditorPane textArea = mainView.getRTextEditorPaneAt(i);
+			if (textArea==current || textArea.isLoading() || textArea.isDirty() ||
+					!textArea.isLocalAndExists() ||
+					textArea.isModifiedOutsideEditor()) {
+				continue;
+			}
+
+			// Unloading discards undo history, bookmarks and folds.
+			if (textArea.canUndo() || textArea.canRedo() ||
+					mainView.getRTextScrollPaneAt(i).getGutter().getBookmarks().length>0 ||
+					textArea.getFoldManager().getHiddenLineCount()>0) {
+				continue;
+			}
+
+			Long lastSelected = lastSelectedTimes.get(textArea);
+			if (lastSelected==null) {
+				lastSelectedTimes.put(textArea, now);
+			}
+			else if (now-lastSelected>=idleMillis) {
+				unload(textArea);
+			}
+
+		}
+
+	}
+
+
+	/**
+	 * A file that hasn't been read into its editor.
+	 *
+	 * @param file The file.
+	 * @param encoding The file's encoding, or <code>null</code> to check it
+	 *        for Unicode when it's read.
+	 * @param caretPosition The caret position to restore once the file has
+	 *        been read.
+	 */
+	private record UnloadedFile(File file, String encoding, int caretPosition) {
+	}
+
+
+}
@@ -17,6 +17,8 @@ import java.util.List;
 import javax.swing.JComponent;
 import javax.swing.TransferHandler;
 
+import org.fife.ui.rsyntaxtextarea.FileLocation;
+
 
 /**
  * A transfer handler for RText's main view capable of receiving files
@@ -136,7 +138,8 @@ class MainPanelTransferHandler extends TransferHandler {
 				for (int i=0; i<count; i++) {
 					File file = files.get(i);
 					// "null" encoding means check for Unicode first.
-					mainView.openFile(file.getAbsolutePath(), null);
+					mainView.openFileInBackground(FileLocation.create(file),
+							null, false);
 				}
 				return true;
 			} catch (Exception e) {
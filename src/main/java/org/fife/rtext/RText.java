@@ -609,13 +609,13 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 
 
 	/**
-	 * Returns the list of most recently opened files, least-recently opened
+	 * Returns the list of most recently opened files, most-recently opened
 	 * first.
 	 *
 	 * @return The list of files.  This may be empty but will never be
 	 *         <code>null</code>.
 	 */
-	java.util.List<FileLocation> getRecentFiles() {
+	public java.util.List<FileLocation> getRecentFiles() {
 		return recentFileManager.getRecentFiles();
 	}
 
@@ -888,10 +888,18 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	 * @see #openFile
 	 */
 	private void openFiles(String[] filesToOpen) {
-		int count = filesToOpen==null ? 0 : filesToOpen.length;
-		for (int i=0; i<count; i++) {
-			openFile(new File(filesToOpen[i]));
+		if (filesToOpen==null || filesToOpen.length==0) {
+			return;
 		}
+		SwingUtilities.invokeLater(() -> {
+			// Files are only read when their tabs are first selected, so
+			// startup stays fast when many are opened.
+			String[] fileNames = new String[filesToOpen.length];
+			for (int i=0; i<fileNames.length; i++) {
+				fileNames[i] = new File(filesToOpen[i]).getAbsolutePath();
+			}
+			mainView.openFilesLazily(fileNames);
+		});
 	}
 
 
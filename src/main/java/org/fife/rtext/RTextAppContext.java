@@ -142,6 +142,7 @@ public class RTextAppContext extends AppContext<RText, RTextPrefs> {
 		prefs.doFileSizeCheck			= mainView.getDoFileSizeCheck();
 		prefs.maxFileSize				= mainView.getMaxFileSize();
 		prefs.maxFileSizeForCodeFolding = mainView.getMaxFileSizeForCodeFolding();
+		prefs.idleTabUnloadMinutes		= mainView.getIdleTabUnloadMinutes();
 		prefs.ignoreBackupExtensions	= mainView.getIgnoreBackupExtensions();
 		prefs.textAreaFont				= mainView.getTextAreaFont();
 		prefs.textAreaUnderline			= mainView.getTextAreaUnderline();
@@ -159,6 +160,7 @@ public class RTextAppContext extends AppContext<RText, RTextPrefs> {
 		prefs.spellingDictionary		= spelling.getSpellingDictionary();
 		prefs.userDictionary			= spelling.getUserDictionary();
 		prefs.maxSpellingErrors			= spelling.getMaxSpellingErrors();
+		prefs.incrementalSpellChecking	= spelling.isIncrementalSpellChecking();
 		prefs.viewSpellingList			= rtext.isSpellingWindowVisible();
 		prefs.searchWindowOpacityEnabled= rtext.isSearchWindowOpacityEnabled();
 		prefs.searchWindowOpacity		= rtext.getSearchWindowOpacity();
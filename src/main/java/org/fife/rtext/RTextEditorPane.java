@@ -10,7 +10,9 @@
 package org.fife.rtext;
 
 import java.awt.Font;
+import java.awt.FontMetrics;
 import java.awt.Graphics;
+import java.awt.Rectangle;
 import java.awt.datatransfer.DataFlavor;
 import java.awt.datatransfer.Transferable;
 import java.awt.print.PageFormat;
@@ -34,6 +36,27 @@ public class RTextEditorPane extends TextEditorPane {
 
 	private RText rtext;
 
+	/**
+	 * Property fired when this editor starts or finishes reading its file
+	 * in the background.
+	 *
+	 * @see #isLoading()
+	 */
+	public static final String LOADING_PROPERTY = "RTextEditorPane.loading";
+
+	/**
+	 * The message displayed while this editor's file is read in the
+	 * background, or <code>null</code> if it isn't being read.
+	 */
+	private String loadingMessage;
+
+	/**
+	 * The location of this editor's file if it's a remote file that RText
+	 * can write itself, or <code>null</code> otherwise.  This is set while
+	 * the superclass constructor runs, so it must not be initialized here.
+	 */
+	private RemoteFileLocation remoteLocation;
+
 
 	/**
 	 * Creates a new <code>RTextEditorPane</code>.  Syntax highlighting will
@@ -72,6 +95,63 @@ public class RTextEditorPane extends TextEditorPane {
 	}
 
 
+	/**
+	 * Returns the location of this editor's file, if it's a remote file that
+	 * RText can write itself.
+	 *
+	 * @return The location, or <code>null</code> if the file is local, or
+	 *         was opened some other way.
+	 * @see BackgroundFileSaver
+	 */
+	RemoteFileLocation getRemoteFileLocation() {
+		return remoteLocation;
+	}
+
+
+	/**
+	 * Returns whether this editor's file is still being read in the
+	 * background.  Until it is, the editor is empty and not editable.
+	 *
+	 * @return Whether the file is being read.
+	 */
+	public boolean isLoading() {
+		return loadingMessage!=null;
+	}
+
+
+	/**
+	 * Overridden to remember the file's location if it's remote.
+	 *
+	 * @param loc The location of the file to load.
+	 * @param defaultEnc The encoding to use when loading/saving the file.
+	 * @throws IOException If an IO error occurs.
+	 */
+	@Override
+	public void load(FileLocation loc, String defaultEnc) throws IOException {
+		super.load(loc, defaultEnc);
+		setRemoteLocation(loc);
+	}
+
+
+	/**
+	 * Overridden to display a message while the file is being read.
+	 *
+	 * @param g The graphics context.
+	 */
+	@Override
+	protected void paintComponent(Graphics g) {
+		super.paintComponent(g);
+		if (loadingMessage!=null) {
+			Rectangle visible = getVisibleRect();
+			FontMetrics fm = g.getFontMetrics();
+			int x = visible.x + (visible.width - fm.stringWidth(loadingMessage))/2;
+			int y = visible.y + visible.height/3;
+			g.setColor(UIManager.getColor("Label.disabledForeground"));
+			g.drawString(loadingMessage, x, y);
+		}
+	}
+
+
 	/**
 	 * Method called when it's time to print this badboy (the old-school, AWT
 	 * way).  This method overrides <code>RTextArea</code>'s <code>print</code>
@@ -91,6 +171,48 @@ public class RTextEditorPane extends TextEditorPane {
 	}
 
 
+	/**
+	 * Overridden to remember the file's new location if it's remote.
+	 *
+	 * @param loc The location to save to.
+	 * @throws IOException If an IO error occurs.
+	 */
+	@Override
+	public void saveAs(FileLocation loc) throws IOException {
+		super.saveAs(loc);
+		setRemoteLocation(loc);
+	}
+
+
+	/**
+	 * Toggles whether this editor's file is being read in the background.
+	 * If this changes whether the file is being read, a property change
+	 * event of type {@link #LOADING_PROPERTY} is fired.
+	 *
+	 * @param message The message to display while the file is read, or
+	 *        <code>null</code> once it has been.
+	 * @see #isLoading()
+	 */
+	void setLoadingMessage(String message) {
+		boolean old = isLoading();
+		loadingMessage = message;
+		setEditable(message==null);
+		repaint();
+		firePropertyChange(LOADING_PROPERTY, old, isLoading());
+	}
+
+
+	/**
+	 * Remembers the location of this editor's file, if it's remote.
+	 *
+	 * @param loc The file's location.
+	 */
+	private void setRemoteLocation(FileLocation loc) {
+		remoteLocation = loc instanceof RemoteFileLocation remote &&
+				!remote.isLocal() ? remote : null;
+	}
+
+
 	/**
 	 * Transfer handler for editor panes.  Overrides the default transfer
 	 * handler so we can drag-and-drop files into a text area, and know to
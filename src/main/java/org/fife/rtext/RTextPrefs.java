@@ -110,6 +110,7 @@ public class RTextPrefs extends AppPrefs implements RTextActionInfo {
 	public boolean doFileSizeCheck;
 	public float maxFileSize;					// In MB
 	public int maxFileSizeForCodeFolding;		// In MB
+	public int idleTabUnloadMinutes;			// 0 => never unload
 	public boolean ignoreBackupExtensions;
 	public Font textAreaFont;					// Default text area font.
 	public boolean textAreaUnderline;				// Is default font underlined?
@@ -127,6 +128,7 @@ public class RTextPrefs extends AppPrefs implements RTextActionInfo {
 	public String spellingDictionary;
 	public File userDictionary;
 	public int maxSpellingErrors;
+	public boolean incrementalSpellChecking;
 	public boolean viewSpellingList;
 	public boolean searchWindowOpacityEnabled;
 	public float searchWindowOpacity;
@@ -241,6 +243,7 @@ public class RTextPrefs extends AppPrefs implements RTextActionInfo {
 		doFileSizeCheck	= true;
 		maxFileSize		= 10f;	// MB
 		maxFileSizeForCodeFolding = 10; // MB
+		idleTabUnloadMinutes = 0;
 		ignoreBackupExtensions = true;
 		textAreaFont		= RTextArea.getDefaultFont();
 		textAreaUnderline	= false;
@@ -259,6 +262,7 @@ public class RTextPrefs extends AppPrefs implements RTextActionInfo {
 		userDictionary       = new File(RTextUtilities.getPreferencesDirectory(),
 										"userDictionary.txt");
 		maxSpellingErrors    = DEFAULT_MAX_SPELLING_ERRORS;
+		incrementalSpellChecking = false;
 		viewSpellingList   = false;
 		searchWindowOpacityEnabled = false;
 		searchWindowOpacity		= 0.6f;
@@ -20,13 +20,20 @@ import java.awt.event.KeyListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.swing.DefaultListModel;
 import javax.swing.JButton;
+import javax.swing.JLabel;
 import javax.swing.JList;
 import javax.swing.JPanel;
 import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
@@ -37,11 +44,13 @@ import org.fife.ui.RScrollPane;
 import org.fife.ui.ResizableFrameContentPane;
 import org.fife.ui.UIUtil;
 import org.fife.ui.rsyntaxtextarea.FileLocation;
-import org.fife.ui.rsyntaxtextarea.RSyntaxUtilities;
 
 
 /**
  * A dialog allowing the user to quickly open a file they have recently opened.
+ * Files are found by fuzzily matching their names with a
+ * {@link FileNameIndex}, on a background thread, so subclasses can offer
+ * many more files than just the recent ones.
  *
  * @author Robert Futrell
  * @version 1.0
@@ -49,18 +58,48 @@ import org.fife.ui.rsyntaxtextarea.RSyntaxUtilities;
 public class RecentFileDialog extends EscapableDialog {
 
 	private RText rtext;
-	private List<FileLocation> files;
+
+	/**
+	 * The recently opened files, keyed by path.
+	 */
+	private Map<String, FileLocation> recentFiles;
+
+	private FileNameIndex index;
+	private FileNameIndex.Matches matches;
+	private Future<?> search;
+	private int searchCount;
+
+	/**
+	 * The path of the file to select once the files listed are refreshed,
+	 * or <code>null</code> to select the first one.
+	 */
+	private String pathToSelect;
 
 	private JList<FileLocation> list;
 	private DefaultListModel<FileLocation> model;
 	private JTextField filterField;
+	private JLabel statusLabel;
 	private JButton okButton;
 
+	/**
+	 * The maximum number of files listed.
+	 */
+	private static final int MAX_FILES = 200;
+
 	/**
 	 * The maximum width of this dialog.
 	 */
 	private static final int MAX_WIDTH = 800;
 
+	/**
+	 * Searches for files off the EDT, for all of these dialogs.
+	 */
+	private static final ExecutorService SEARCHER = Executors.newSingleThreadExecutor(r -> {
+		Thread t = new Thread(r, "FileNameSearcher");
+		t.setDaemon(true);
+		return t;
+	});
+
 
 	/**
 	 * Constructor.
@@ -68,10 +107,30 @@ public class RecentFileDialog extends EscapableDialog {
 	 * @param parent The parent application.
 	 */
 	public RecentFileDialog(RText parent) {
+		this(parent, parent.getString("Dialog.RecentFiles.Title"), null);
+	}
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param parent The parent application.
+	 * @param title The title of this dialog.
+	 * @param index The files to choose from.  If this is <code>null</code>,
+	 *        the recently opened files are used.
+	 */
+	protected RecentFileDialog(RText parent, String title, FileNameIndex index) {
 
-		super(parent, parent.getString("Dialog.RecentFiles.Title"), true);
+		super(parent, title, true);
 		this.rtext = parent;
-		files = rtext.getRecentFiles();
+
+		recentFiles = new HashMap<>();
+		List<String> recentPaths = new ArrayList<>();
+		for (FileLocation loc : rtext.getRecentFiles()) {
+			recentFiles.put(loc.getFileFullPath(), loc);
+			recentPaths.add(loc.getFileFullPath());
+		}
+		this.index = index!=null ? index : new FileNameIndex(recentPaths);
 
 		createUI();
 
@@ -105,12 +164,17 @@ public class RecentFileDialog extends EscapableDialog {
 		cancelButton.setActionCommand("Cancel");
 		cancelButton.addActionListener(listener);
 
+		JPanel bottomPanel = new JPanel(new BorderLayout());
+		statusLabel = new JLabel(" ");
+		statusLabel.setVisible(false);
+		bottomPanel.add(statusLabel, BorderLayout.NORTH);
 		Container buttons = UIUtil.createButtonFooter(okButton, cancelButton);
-		cp.add(buttons, BorderLayout.SOUTH);
+		bottomPanel.add(buttons, BorderLayout.SOUTH);
+		cp.add(bottomPanel, BorderLayout.SOUTH);
 
 		model = new DefaultListModel<>();
 		list = new JList<>(model);
-		setFilter(null); // Do initial population.
+		setFilter(""); // Do initial population.
 		list.addMouseListener(listener);
 		list.setCellRenderer(new RecentFileListCellRenderer());
 		list.setSelectionModel(new RListSelectionModel());
@@ -123,31 +187,51 @@ public class RecentFileDialog extends EscapableDialog {
 
 
 	/**
-	 * Overridden to limit this dialog's width.
+	 * Stops searching for files.
 	 */
 	@Override
-	public Dimension getPreferredSize() {
-		Dimension size = super.getPreferredSize();
-		if (size != null) {
-			size.width = Math.min(MAX_WIDTH, size.width);
+	public void dispose() {
+		if (search!=null) {
+			search.cancel(true);
 		}
-		return size;
+		super.dispose();
 	}
 
 
 	/**
-	 * Returns whether the given file's name matches a pattern.
+	 * Returns the files this dialog is choosing from.
 	 *
-	 * @param loc The file to check.
-	 * @param pattern The pattern for the file name.
-	 * @return Whether the file's name matched the pattern.
+	 * @return The files.
+	 * @see #setIndex(FileNameIndex)
 	 */
-	private static boolean matches(FileLocation loc, Pattern pattern) {
-		if (pattern == null) {
-			return true;
+	protected FileNameIndex getIndex() {
+		return index;
+	}
+
+
+	/**
+	 * Returns a file to list.
+	 *
+	 * @param entry The file's position in the index.
+	 * @return The file.
+	 */
+	private FileLocation getLocation(int entry) {
+		String path = index.getPath(entry);
+		FileLocation loc = recentFiles.get(path);
+		return loc!=null ? loc : FileLocation.create(path);
+	}
+
+
+	/**
+	 * Overridden to limit this dialog's width.
+	 */
+	@Override
+	public Dimension getPreferredSize() {
+		Dimension size = super.getPreferredSize();
+		if (size != null) {
+			size.width = Math.min(MAX_WIDTH, size.width);
 		}
-		String fileName = loc.getFileName();
-		return pattern.matcher(fileName).find();
+		return size;
 	}
 
 
@@ -209,33 +293,96 @@ public class RecentFileDialog extends EscapableDialog {
 
 
 	/**
-	 * Sets the filter for the file list.
+	 * Sets the filter for the file list.  Unless the filter is empty, the
+	 * list is updated once the files are searched in the background.
 	 *
 	 * @param filter The new filter.
 	 */
 	private void setFilter(String filter) {
 
-		model.clear();
+		if (search!=null) {
+			search.cancel(true);
+		}
+		int count = ++searchCount;
+		FileNameIndex index = this.index;
+		FileNameIndex.Matches previous = matches;
 
-		Pattern pattern = filter==null || filter.isEmpty() ? null :
-			RSyntaxUtilities.wildcardToPattern("^" + filter, false, false);
+		if (filter.isEmpty()) { // Quick, and avoids flicker when first shown
+			setMatches(index.find(filter, null, MAX_FILES));
+			return;
+		}
 
-		for (FileLocation loc : files) {
-			if (matches(loc, pattern)) {
-				model.addElement(loc);
+		search = SEARCHER.submit(() -> {
+			FileNameIndex.Matches result = index.find(filter, previous, MAX_FILES);
+			if (result!=null) {
+				SwingUtilities.invokeLater(() -> {
+					if (count==searchCount) {
+						setMatches(result);
+					}
+				});
 			}
+		});
+
+	}
+
+
+	/**
+	 * Changes the files this dialog is choosing from.  The files listed are
+	 * refreshed.
+	 *
+	 * @param index The files.
+	 * @see #getIndex()
+	 */
+	protected void setIndex(FileNameIndex index) {
+		FileLocation selected = list.getSelectedValue();
+		pathToSelect = selected==null ? null : selected.getFileFullPath();
+		this.index = index;
+		matches = null; // From the old index
+		setFilter(filterField.getText());
+	}
+
+
+	/**
+	 * Lists the files matching the filter.
+	 *
+	 * @param matches The files.
+	 */
+	private void setMatches(FileNameIndex.Matches matches) {
+
+		this.matches = matches;
+		List<FileLocation> files = new ArrayList<>(matches.best().length);
+		int selection = 0;
+		for (int entry : matches.best()) {
+			if (index.getPath(entry).equals(pathToSelect)) {
+				selection = files.size();
+			}
+			files.add(getLocation(entry));
 		}
+		pathToSelect = null;
+		model.clear();
+		model.addAll(files);
 
 		boolean modelNotEmpty = model.size() > 0;
 		if (modelNotEmpty) {
-			list.setSelectedIndex(0);
-			list.ensureIndexIsVisible(0);
+			list.setSelectedIndex(selection);
+			list.ensureIndexIsVisible(selection);
 		}
 		okButton.setEnabled(modelNotEmpty);
 
 	}
 
 
+	/**
+	 * Displays a message below the file list.
+	 *
+	 * @param text The message, or <code>null</code> to hide it.
+	 */
+	protected void setStatus(String text) {
+		statusLabel.setText(text);
+		statusLabel.setVisible(text!=null);
+	}
+
+
 	/**
 	 * Toggles whether this dialog is visible.
 	 *
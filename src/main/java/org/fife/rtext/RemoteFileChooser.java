@@ -25,7 +25,6 @@ import org.fife.rsta.ui.RComboBoxModel;
 import org.fife.ui.EscapableDialog;
 import org.fife.ui.UIUtil;
 import org.fife.ui.ResizableFrameContentPane;
-import org.fife.ui.rsyntaxtextarea.FileLocation;
 import org.fife.ui.rtextfilechooser.RTextFileChooser;
 
 
@@ -446,12 +445,12 @@ public class RemoteFileChooser extends EscapableDialog
 						(String)encodingCombo.getSelectedItem() : null;
 
 		if (mode==OPEN_MODE) {
-			if (mainView.openFile(FileLocation.create(url), encoding, false)) {
+			if (mainView.openFile(new RemoteFileLocation(url), encoding, false)) {
 				setVisible(false); // Otherwise, keep dialog up
 			}
 		}
 		else { // SAVE_MODE
-			if (mainView.saveCurrentFileAs(FileLocation.create(url))) {
+			if (mainView.saveCurrentFileAs(new RemoteFileLocation(url))) {
 				setVisible(false); // Otherwise, keep dialog up
 			}
 		}
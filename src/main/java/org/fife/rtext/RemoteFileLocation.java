@@ -0,0 +1,105 @@
+/*
+ * 10/18/2026
+ *
+ * RemoteFileLocation.java - The location of a file on a remote server.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+
+import org.fife.ui.rsyntaxtextarea.FileLocation;
+
+
+/**
+ * The location of a file on a remote server, such as an FTP server.  This
+ * behaves like the locations returned by <code>FileLocation.create(URL)</code>,
+ * but lets RText open streams to the file itself, so remote files can be
+ * saved in the background.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see BackgroundFileSaver
+ */
+final class RemoteFileLocation extends FileLocation {
+
+	private final URL url;
+	private final String fileFullPath;
+	private final String fileName;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param url The URL of the file.
+	 */
+	RemoteFileLocation(URL url) {
+		this.url = url;
+		// Don't show the password
+		fileFullPath = url.toString().replaceFirst("://([^:]+)(?:.+)@", "://$1@");
+		String path = url.getPath();
+		if (path.startsWith("/%2F/")) { // Absolute path
+			path = path.substring(4);
+		}
+		else if (path.startsWith("/")) { // Relative to the user's home
+			path = path.substring(1);
+		}
+		fileName = path;
+	}
+
+
+	/**
+	 * Always returns <code>0</code>, since the time a remote file was
+	 * modified isn't known.
+	 *
+	 * @return <code>0</code>.
+	 */
+	@Override
+	protected long getActualLastModified() {
+		return 0;
+	}
+
+
+	@Override
+	public String getFileFullPath() {
+		return fileFullPath;
+	}
+
+
+	@Override
+	public String getFileName() {
+		return fileName;
+	}
+
+
+	@Override
+	protected InputStream getInputStream() throws IOException {
+		return url.openStream();
+	}
+
+
+	@Override
+	protected OutputStream getOutputStream() throws IOException {
+		return url.openConnection().getOutputStream();
+	}
+
+
+	@Override
+	public boolean isLocal() {
+		return "file".equalsIgnoreCase(url.getProtocol());
+	}
+
+
+	@Override
+	public boolean isLocalAndExists() {
+		return false;
+	}
+
+
+}
@@ -22,7 +22,6 @@ import org.fife.ui.dockablewindows.DockableWindowConstants;
 import org.fife.ui.dockablewindows.DockableWindowScrollPane;
 import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea;
 import org.fife.ui.rsyntaxtextarea.parser.ParserNotice;
-import org.fife.ui.rsyntaxtextarea.spell.SpellingParser;
 
 
 /**
@@ -118,9 +117,9 @@ class SpellingErrorWindow extends AbstractParserNoticeWindow
 		protected void addNoticesImpl(RTextEditorPane textArea,
 				List<ParserNotice> notices) {
 			AbstractMainView view = getRText().getMainView();
-			SpellingParser parser = view.getSpellingSupport().getSpellingParser();
+			SpellingSupport support = view.getSpellingSupport();
 			for (ParserNotice notice : notices) {
-				if (notice.getParser()==parser) {
+				if (support.isSpellingParser(notice.getParser())) {
 					Object[] data = { getIcon(), textArea,
 						notice.getLine() + 1,
 						notice.getMessage() };
@@ -19,6 +19,7 @@ import javax.swing.JMenu;
 import javax.swing.SwingUtilities;
 
 import org.fife.ui.app.AppAction;
+import org.fife.ui.rsyntaxtextarea.parser.Parser;
 import org.fife.ui.rsyntaxtextarea.spell.SpellingParser;
 import org.fife.ui.rsyntaxtextarea.spell.event.SpellingParserEvent;
 import org.fife.ui.rsyntaxtextarea.spell.event.SpellingParserListener;
@@ -47,6 +48,7 @@ public class SpellingSupport implements SpellingParserListener {
 	private String spellingDictionary;
 	private File userDictionary;
 	private int maxSpellingErrors;
+	private boolean incrementalSpellChecking;
 	private ViewSpellingErrorWindowAction viewAction;
 
 	private static final String VIEW_SPELLING_ERROR_WINDOW
@@ -63,6 +65,22 @@ public class SpellingSupport implements SpellingParserListener {
 	}
 
 
+	/**
+	 * Starts spell checking an editor.
+	 *
+	 * @param textArea The editor.
+	 * @see #removeSpellChecker(RTextEditorPane)
+	 */
+	void addSpellChecker(RTextEditorPane textArea) {
+		if (incrementalSpellChecking) {
+			textArea.addParser(new IncrementalSpellChecker(this, textArea));
+		}
+		else {
+			textArea.addParser(spellingParser);
+		}
+	}
+
+
 	/**
 	 * Adds a menu item that toggles whether the spelling error window is
 	 * visible.
@@ -95,6 +113,7 @@ public class SpellingSupport implements SpellingParserListener {
 		setSpellingDictionary(prefs.spellingDictionary);
 		setMaxSpellingErrors(prefs.maxSpellingErrors);
 		setUserDictionary(prefs.userDictionary);
+		setIncrementalSpellChecking(prefs.incrementalSpellChecking);
 
 		// Add menu item later since menu bar not yet created(!)
 		SwingUtilities.invokeLater(this::addViewErrorWindowMenuItem);
@@ -148,7 +167,30 @@ public class SpellingSupport implements SpellingParserListener {
 	 * @param textArea The text area.
 	 */
 	public void forceSpellCheck(RTextEditorPane textArea) {
-		textArea.forceReparsing(spellingParser);
+		IncrementalSpellChecker checker = getIncrementalSpellChecker(textArea);
+		if (checker!=null) {
+			checker.recheck();
+		}
+		else {
+			textArea.forceReparsing(spellingParser);
+		}
+	}
+
+
+	/**
+	 * Returns the incremental spell checker installed in an editor.
+	 *
+	 * @param textArea The editor.
+	 * @return The spell checker, or <code>null</code> if there isn't one.
+	 */
+	private static IncrementalSpellChecker getIncrementalSpellChecker(
+			RTextEditorPane textArea) {
+		for (int i=0; i<textArea.getParserCount(); i++) {
+			if (textArea.getParser(i) instanceof IncrementalSpellChecker checker) {
+				return checker;
+			}
+		}
+		return null;
 	}
 
 
@@ -208,6 +250,17 @@ public class SpellingSupport implements SpellingParserListener {
 	}
 
 
+	/**
+	 * Returns whether editors are spell checked incrementally.
+	 *
+	 * @return Whether editors are spell checked incrementally.
+	 * @see #setIncrementalSpellChecking(boolean)
+	 */
+	public boolean isIncrementalSpellChecking() {
+		return incrementalSpellChecking;
+	}
+
+
 	/**
 	 * Returns whether spell checking is enabled.
 	 *
@@ -219,6 +272,18 @@ public class SpellingSupport implements SpellingParserListener {
 	}
 
 
+	/**
+	 * Returns whether a parser is the one used to spell check editors.
+	 *
+	 * @param parser The parser.
+	 * @return Whether the parser spell checks editors.
+	 */
+	boolean isSpellingParser(Parser parser) {
+		return parser!=null && (parser==spellingParser ||
+				parser instanceof IncrementalSpellChecker);
+	}
+
+
 	/**
 	 * Forces all opened documents to be re-spell checked.
 	 */
@@ -226,7 +291,49 @@ public class SpellingSupport implements SpellingParserListener {
 		AbstractMainView view = rtext.getMainView();
 		for (int i=0; i<view.getNumDocuments(); i++) {
 			RTextEditorPane textArea = view.getRTextEditorPaneAt(i);
-			textArea.forceReparsing(spellingParser);
+			forceSpellCheck(textArea);
+		}
+	}
+
+
+	/**
+	 * Stops spell checking an editor.
+	 *
+	 * @param textArea The editor.
+	 * @see #addSpellChecker(RTextEditorPane)
+	 */
+	void removeSpellChecker(RTextEditorPane textArea) {
+		IncrementalSpellChecker checker = getIncrementalSpellChecker(textArea);
+		if (checker!=null) {
+			checker.uninstall();
+			textArea.removeParser(checker);
+		}
+		textArea.removeParser(spellingParser);
+	}
+
+
+	/**
+	 * Toggles whether editors are spell checked incrementally.  If they
+	 * are, the visible text in an editor is checked first, then only the
+	 * lines that are edited, and the rest of the file is checked a bit at
+	 * a time in the background.  This is much less work for large files.
+	 * Otherwise, an editor's entire file is checked each time it changes.
+	 *
+	 * @param incremental Whether to spell check incrementally.
+	 * @see #isIncrementalSpellChecking()
+	 */
+	public void setIncrementalSpellChecking(boolean incremental) {
+		if (incremental!=incrementalSpellChecking) {
+			incrementalSpellChecking = incremental;
+			AbstractMainView view = rtext.getMainView();
+			// view is null when called from RText's constructor.
+			if (view!=null && spellingParser!=null && isSpellCheckingEnabled()) {
+				for (int i=0; i<view.getNumDocuments(); i++) {
+					RTextEditorPane textArea = view.getRTextEditorPaneAt(i);
+					removeSpellChecker(textArea);
+					addSpellChecker(textArea);
+				}
+			}
 		}
 	}
 
@@ -322,7 +429,7 @@ public class SpellingSupport implements SpellingParserListener {
 			if (view!=null &&spellingParser!=null && isSpellCheckingEnabled()) {
 				for (int i=0; i<view.getNumDocuments(); i++) {
 					RTextEditorPane textArea = view.getRTextEditorPaneAt(i);
-					textArea.removeParser(spellingParser);
+					removeSpellChecker(textArea);
 				}
 			}
 
@@ -346,7 +453,7 @@ public class SpellingSupport implements SpellingParserListener {
 			if (view!=null && isSpellCheckingEnabled()) {
 				for (int i=0; i<view.getNumDocuments(); i++) {
 					RTextEditorPane textArea = view.getRTextEditorPaneAt(i);
-					textArea.addParser(spellingParser);
+					addSpellChecker(textArea);
 				}
 			}
 
@@ -396,8 +503,10 @@ public class SpellingSupport implements SpellingParserListener {
 			AbstractMainView view = rtext.getMainView();
 			for (int i=0; i<view.getNumDocuments(); i++) {
 				RTextEditorPane textArea = view.getRTextEditorPaneAt(i);
-				// currentTextArea already done by the SpellingParser itself
-				if (textArea!=view.getCurrentTextArea()) {
+				// currentTextArea already done by the SpellingParser itself,
+				// unless it's checked incrementally.
+				if (textArea!=view.getCurrentTextArea() ||
+						getIncrementalSpellChecker(textArea)!=null) {
 					forceSpellCheck(textArea);
 				}
 			}
@@ -421,10 +530,10 @@ public class SpellingSupport implements SpellingParserListener {
 			for (int i=0; i<view.getNumDocuments(); i++) {
 				RTextEditorPane textArea = view.getRTextEditorPaneAt(i);
 				if (spellCheckingEnabled) {
-					textArea.addParser(spellingParser);
+					addSpellChecker(textArea);
 				}
 				else {
-					textArea.removeParser(spellingParser);
+					removeSpellChecker(textArea);
 				}
 			}
 		}
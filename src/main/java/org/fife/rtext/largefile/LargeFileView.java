@@ -0,0 +1,563 @@
+/*
+ * 10/18/2026
+ *
+ * LargeFileView.java - Displays the visible lines of a LineIndexedFile.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.largefile;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Toolkit;
+import java.awt.datatransfer.StringSelection;
+import java.awt.event.ActionEvent;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.swing.AbstractAction;
+import javax.swing.InputMap;
+import javax.swing.JComponent;
+import javax.swing.JPanel;
+import javax.swing.JScrollBar;
+import javax.swing.KeyStroke;
+import javax.swing.UIManager;
+import javax.swing.text.Segment;
+
+import org.fife.rtext.RTextEditorPane;
+import org.fife.ui.rsyntaxtextarea.Style;
+import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
+import org.fife.ui.rsyntaxtextarea.SyntaxScheme;
+import org.fife.ui.rsyntaxtextarea.Token;
+import org.fife.ui.rsyntaxtextarea.TokenMaker;
+import org.fife.ui.rsyntaxtextarea.TokenMakerFactory;
+import org.fife.ui.rsyntaxtextarea.TokenTypes;
+
+
+/**
+ * Displays a {@link LineIndexedFile}.  Only the lines that are visible are
+ * read from the file; they're read a page at a time and the most recently
+ * used pages are cached.  Scrolling is done a line at a time rather than a
+ * pixel at a time, so files with any number of lines can be displayed.<p>
+ *
+ * Syntax highlighting, if enabled, is applied to each visible line on its
+ * own.  Since tokenizing starts fresh on each line, constructs spanning
+ * multiple lines, such as block comments, are only partially highlighted.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class LargeFileView extends JPanel {
+
+	private final LineIndexedFile file;
+	private final Canvas canvas;
+	private final JScrollBar vertical;
+	private final JScrollBar horizontal;
+
+	/**
+	 * The most recently read pages of lines, keyed by page index.
+	 */
+	private final Map<Integer, String[]> pages;
+
+	private final SyntaxScheme syntaxScheme;
+	private final String syntaxStyle;
+	private final int tabSize;
+	private final Color selectedLineColor;
+	private final Color matchColor;
+
+	/**
+	 * Tokenizes lines, or <code>null</code> if syntax highlighting is off.
+	 */
+	private TokenMaker tokenMaker;
+
+	private int selectedLine;
+	private LineIndexedFile.Match match;
+	private int maxLineWidth;
+
+	/**
+	 * The number of lines in a page.
+	 */
+	private static final int PAGE_SIZE = LineIndexedFile.LINES_PER_BLOCK;
+
+	private static final int MAX_CACHED_PAGES = 32;
+
+	private static final int GUTTER_PADDING = 6;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param file The file to display.
+	 * @param template The editor whose font, colors and tab size to use.
+	 * @param syntaxStyle The syntax style of the file.
+	 */
+	LargeFileView(LineIndexedFile file, RTextEditorPane template,
+			String syntaxStyle) {
+
+		super(new BorderLayout());
+		this.file = file;
+		this.syntaxStyle = syntaxStyle;
+		syntaxScheme = template.getSyntaxScheme();
+		tabSize = template.getTabSize();
+		selectedLineColor = template.getCurrentLineHighlightColor();
+		matchColor = template.getMarkAllHighlightColor();
+		selectedLine = -1;
+
+		pages = new LinkedHashMap<>(MAX_CACHED_PAGES, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, String[]> eldest) {
+				return size()>MAX_CACHED_PAGES;
+			}
+		};
+
+		canvas = new Canvas();
+		canvas.setFont(template.getFont());
+		canvas.setForeground(template.getForeground());
+		canvas.setBackground(template.getBackground());
+		vertical = new JScrollBar(JScrollBar.VERTICAL);
+		vertical.addAdjustmentListener(e -> canvas.repaint());
+		horizontal = new JScrollBar(JScrollBar.HORIZONTAL);
+		horizontal.addAdjustmentListener(e -> canvas.repaint());
+		horizontal.setUnitIncrement(canvas.getFontMetrics(canvas.getFont()).charWidth('m'));
+
+		add(canvas);
+		add(vertical, BorderLayout.LINE_END);
+		add(horizontal, BorderLayout.PAGE_END);
+		canvas.addComponentListener(new ComponentAdapter() {
+			@Override
+			public void componentResized(ComponentEvent e) {
+				updateScrollBars();
+			}
+		});
+
+		installKeyboardActions();
+		setSyntaxHighlighting(true);
+
+	}
+
+
+	/**
+	 * Copies the selected line to the clipboard.
+	 */
+	private void copySelectedLine() {
+		String line = getLine(selectedLine);
+		if (line!=null) {
+			Toolkit.getDefaultToolkit().getSystemClipboard().setContents(
+					new StringSelection(line), null);
+		}
+	}
+
+
+	/**
+	 * Returns a line with its tabs expanded to spaces.
+	 */
+	private String expandTabs(String line) {
+		if (line.indexOf('\t')==-1) {
+			return line;
+		}
+		StringBuilder sb = new StringBuilder(line.length() + 16);
+		for (int i=0; i<line.length(); i++) {
+			char ch = line.charAt(i);
+			if (ch=='\t') {
+				do {
+					sb.append(' ');
+				} while (sb.length()%tabSize!=0);
+			}
+			else {
+				sb.append(ch);
+			}
+		}
+		return sb.toString();
+	}
+
+
+	/**
+	 * Called when more lines have been indexed.  This should be called on
+	 * the EDT.
+	 */
+	void fileIndexChanged() {
+		updateScrollBars();
+		canvas.repaint();
+	}
+
+
+	/**
+	 * Returns the first line that is visible.
+	 *
+	 * @return The first visible line.
+	 */
+	int getFirstVisibleLine() {
+		return vertical.getValue();
+	}
+
+
+	/**
+	 * Returns a line of the file, reading it if necessary.
+	 *
+	 * @param line The line.
+	 * @return The line, or <code>null</code> if it can't be read.
+	 */
+	private String getLine(int line) {
+
+		if (line<0 || line>=file.getLineCount()) {
+			return null;
+		}
+
+		int page = line / PAGE_SIZE;
+		String[] lines = pages.get(page);
+		if (lines==null || line%PAGE_SIZE>=lines.length) { // Page was partial
+			try {
+				lines = file.getLines(page * PAGE_SIZE, PAGE_SIZE);
+			} catch (IOException ioe) {
+				ioe.printStackTrace();
+				return null;
+			}
+			pages.put(page, lines);
+		}
+
+		return lines[line%PAGE_SIZE];
+
+	}
+
+
+	/**
+	 * Returns the most recent match selected.
+	 *
+	 * @return The match, or <code>null</code> if there isn't one.
+	 * @see #setMatch(LineIndexedFile.Match)
+	 */
+	LineIndexedFile.Match getMatch() {
+		return match;
+	}
+
+
+	/**
+	 * Returns the selected line.
+	 *
+	 * @return The selected line, or <code>-1</code> if no line is selected.
+	 */
+	int getSelectedLine() {
+		return selectedLine;
+	}
+
+
+	private int getVisibleLineCount() {
+		int lineHeight = canvas.getFontMetrics(canvas.getFont()).getHeight();
+		return Math.max(1, canvas.getHeight() / lineHeight);
+	}
+
+
+	/**
+	 * Selects a line and scrolls it into view.
+	 *
+	 * @param line The line.  This should already be indexed.
+	 */
+	void goToLine(int line) {
+		match = null;
+		selectLine(line, true);
+		horizontal.setValue(0);
+	}
+
+
+	private void installKeyboardActions() {
+
+		InputMap im = canvas.getInputMap(JComponent.WHEN_FOCUSED);
+		int ctrl = Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx();
+		im.put(KeyStroke.getKeyStroke(KeyEvent.VK_UP, 0), "up");
+		im.put(KeyStroke.getKeyStroke(KeyEvent.VK_DOWN, 0), "down");
+		im.put(KeyStroke.getKeyStroke(KeyEvent.VK_PAGE_UP, 0), "pageUp");
+		im.put(KeyStroke.getKeyStroke(KeyEvent.VK_PAGE_DOWN, 0), "pageDown");
+		im.put(KeyStroke.getKeyStroke(KeyEvent.VK_HOME, ctrl), "top");
+		im.put(KeyStroke.getKeyStroke(KeyEvent.VK_END, ctrl), "bottom");
+		im.put(KeyStroke.getKeyStroke(KeyEvent.VK_LEFT, 0), "left");
+		im.put(KeyStroke.getKeyStroke(KeyEvent.VK_RIGHT, 0), "right");
+		im.put(KeyStroke.getKeyStroke(KeyEvent.VK_C, ctrl), "copy");
+
+		canvas.getActionMap().put("up", new ScrollAction(() -> moveSelection(-1)));
+		canvas.getActionMap().put("down", new ScrollAction(() -> moveSelection(1)));
+		canvas.getActionMap().put("pageUp", new ScrollAction(() ->
+				moveSelection(-getVisibleLineCount())));
+		canvas.getActionMap().put("pageDown", new ScrollAction(() ->
+				moveSelection(getVisibleLineCount())));
+		canvas.getActionMap().put("top", new ScrollAction(() ->
+				moveSelection(Integer.MIN_VALUE / 2)));
+		canvas.getActionMap().put("bottom", new ScrollAction(() ->
+				moveSelection(Integer.MAX_VALUE / 2)));
+		canvas.getActionMap().put("left", new ScrollAction(() ->
+				horizontal.setValue(horizontal.getValue() - horizontal.getUnitIncrement())));
+		canvas.getActionMap().put("right", new ScrollAction(() ->
+				horizontal.setValue(horizontal.getValue() + horizontal.getUnitIncrement())));
+		canvas.getActionMap().put("copy", new ScrollAction(this::copySelectedLine));
+
+	}
+
+
+	/**
+	 * Moves the selected line.
+	 *
+	 * @param delta The number of lines to move.
+	 */
+	private void moveSelection(int delta) {
+		int line = Math.max(selectedLine, vertical.getValue());
+		long target = (long)line + delta;
+		line = (int)Math.max(0, Math.min(target, file.getLineCount() - 1));
+		match = null;
+		selectLine(line, false);
+	}
+
+
+	/**
+	 * Selects a line.
+	 *
+	 * @param line The line.
+	 * @param center Whether to center the line, as opposed to scrolling
+	 *        only as far as needed to make it visible.
+	 */
+	private void selectLine(int line, boolean center) {
+
+		selectedLine = line;
+		int first = vertical.getValue();
+		int visible = getVisibleLineCount();
+		if (center) {
+			if (line<first || line>=first+visible) {
+				vertical.setValue(Math.max(0, line - visible/2));
+			}
+		}
+		else if (line<first) {
+			vertical.setValue(line);
+		}
+		else if (line>=first+visible) {
+			vertical.setValue(line - visible + 1);
+		}
+
+		canvas.repaint();
+		canvas.requestFocusInWindow();
+
+	}
+
+
+	/**
+	 * Selects a match and scrolls it into view.
+	 *
+	 * @param match The match.  Its line should already be indexed.
+	 * @see #getMatch()
+	 */
+	void setMatch(LineIndexedFile.Match match) {
+
+		this.match = match;
+		selectLine(match.line(), true);
+
+		// Scroll horizontally if necessary.
+		String line = getLine(match.line());
+		if (line!=null) {
+			FontMetrics fm = canvas.getFontMetrics(canvas.getFont());
+			int column = Math.min(match.column(), line.length());
+			int x = fm.stringWidth(expandTabs(line.substring(0, column)));
+			int width = canvas.getWidth() - canvas.getGutterWidth();
+			if (x<horizontal.getValue() || x>=horizontal.getValue()+width) {
+				horizontal.setValue(Math.max(0, x - width/2));
+			}
+		}
+
+	}
+
+
+	/**
+	 * Toggles syntax highlighting.
+	 *
+	 * @param highlight Whether to syntax highlight.
+	 */
+	void setSyntaxHighlighting(boolean highlight) {
+		tokenMaker = null;
+		if (highlight && !SyntaxConstants.SYNTAX_STYLE_NONE.equals(syntaxStyle)) {
+			tokenMaker = TokenMakerFactory.getDefaultInstance().
+					getTokenMaker(syntaxStyle);
+		}
+		canvas.repaint();
+	}
+
+
+	private void updateScrollBars() {
+		int visible = getVisibleLineCount();
+		int lineCount = file.getLineCount();
+		vertical.setValues(Math.min(vertical.getValue(), Math.max(0, lineCount - visible)),
+				visible, 0, Math.max(lineCount, visible));
+		vertical.setBlockIncrement(visible);
+		int width = Math.max(1, canvas.getWidth() - canvas.getGutterWidth());
+		horizontal.setValues(horizontal.getValue(), width, 0,
+				Math.max(maxLineWidth, width));
+		horizontal.setBlockIncrement(width);
+	}
+
+
+	/**
+	 * Paints the visible lines.
+	 */
+	private final class Canvas extends JComponent {
+
+		Canvas() {
+			setFocusable(true);
+			setOpaque(true);
+			addMouseWheelListener(e -> vertical.setValue(
+					vertical.getValue() + e.getUnitsToScroll()));
+			addMouseListener(new MouseAdapter() {
+				@Override
+				public void mousePressed(MouseEvent e) {
+					int lineHeight = getFontMetrics(getFont()).getHeight();
+					int line = vertical.getValue() + e.getY()/lineHeight;
+					if (line<file.getLineCount()) {
+						match = null;
+						selectLine(line, false);
+					}
+					if ((e.getModifiersEx()&InputEvent.BUTTON1_DOWN_MASK)!=0) {
+						requestFocusInWindow();
+					}
+				}
+			});
+		}
+
+		/**
+		 * Returns the width of the line number gutter.
+		 */
+		int getGutterWidth() {
+			FontMetrics fm = getFontMetrics(getFont());
+			return fm.stringWidth(Integer.toString(file.getLineCount())) +
+					2*GUTTER_PADDING;
+		}
+
+		@Override
+		protected void paintComponent(Graphics g) {
+
+			Graphics2D g2d = (Graphics2D)g;
+			g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+					RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+			g.setColor(getBackground());
+			g.fillRect(0, 0, getWidth(), getHeight());
+
+			Font font = getFont();
+			FontMetrics fm = g.getFontMetrics(font);
+			int lineHeight = fm.getHeight();
+			int ascent = fm.getAscent();
+			int gutterWidth = getGutterWidth();
+			int textX = gutterWidth - horizontal.getValue();
+			int first = vertical.getValue();
+			int rows = getHeight()/lineHeight + 1;
+			int lineCount = file.getLineCount();
+			int oldMaxLineWidth = maxLineWidth;
+
+			Graphics textG = g.create(gutterWidth, 0, getWidth() - gutterWidth, getHeight());
+			textG.translate(-gutterWidth, 0);
+			for (int row=0; row<rows && first+row<lineCount; row++) {
+
+				int line = first + row;
+				String text = getLine(line);
+				if (text==null) {
+					break;
+				}
+				int y = row * lineHeight;
+
+				if (line==selectedLine && selectedLineColor!=null) {
+					textG.setColor(selectedLineColor);
+					textG.fillRect(gutterWidth, y, getWidth(), lineHeight);
+				}
+
+				String expanded = expandTabs(text);
+				if (match!=null && match.line()==line && match.column()<text.length()) {
+					int start = match.column();
+					int end = Math.min(start + match.length(), text.length());
+					int x1 = fm.stringWidth(expandTabs(text.substring(0, start)));
+					int x2 = fm.stringWidth(expandTabs(text.substring(0, end)));
+					textG.setColor(matchColor);
+					textG.fillRect(textX + x1, y, x2 - x1, lineHeight);
+				}
+
+				int width = paintLine(textG, expanded, textX, y + ascent, fm);
+				maxLineWidth = Math.max(maxLineWidth, width);
+
+			}
+			textG.dispose();
+
+			// Line numbers
+			Color gutterBG = UIManager.getColor("Panel.background");
+			g.setColor(gutterBG!=null ? gutterBG : getBackground());
+			g.fillRect(0, 0, gutterWidth - GUTTER_PADDING/2, getHeight());
+			g.setColor(Color.GRAY);
+			for (int row=0; row<rows && first+row<lineCount; row++) {
+				String number = Integer.toString(first + row + 1);
+				int x = gutterWidth - GUTTER_PADDING - fm.stringWidth(number);
+				g.drawString(number, x, row*lineHeight + ascent);
+			}
+
+			if (maxLineWidth!=oldMaxLineWidth) {
+				updateScrollBars();
+			}
+
+		}
+
+		/**
+		 * Paints a line, syntax highlighting it if enabled.
+		 *
+		 * @return The width of the line.
+		 */
+		private int paintLine(Graphics g, String text, int x, int y,
+				FontMetrics fm) {
+
+			if (tokenMaker==null) {
+				g.setColor(getForeground());
+				g.drawString(text, x, y);
+				return fm.stringWidth(text);
+			}
+
+			int startX = x;
+			char[] chars = text.toCharArray();
+			Segment segment = new Segment(chars, 0, chars.length);
+			Token t = tokenMaker.getTokenList(segment, TokenTypes.NULL, 0);
+			while (t!=null && t.isPaintable()) {
+				Style style = syntaxScheme.getStyle(t.getType());
+				Color fg = style!=null ? style.foreground : null;
+				g.setColor(fg!=null ? fg : getForeground());
+				String lexeme = t.getLexeme();
+				g.drawString(lexeme, x, y);
+				x += fm.stringWidth(lexeme);
+				t = t.getNextToken();
+			}
+			return x - startX;
+
+		}
+
+	}
+
+
+	/**
+	 * An action that runs a callback.
+	 */
+	private static final class ScrollAction extends AbstractAction {
+
+		private final transient Runnable callback;
+
+		ScrollAction(Runnable callback) {
+			this.callback = callback;
+		}
+
+		@Override
+		public void actionPerformed(ActionEvent e) {
+			callback.run();
+		}
+
+	}
+
+
+}
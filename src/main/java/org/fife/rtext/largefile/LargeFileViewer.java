@@ -0,0 +1,301 @@
+/*
+ * 10/18/2026
+ *
+ * LargeFileViewer.java - A read-only viewer for very large files.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.largefile;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.text.NumberFormat;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+import javax.swing.UIManager;
+
+import org.fife.rtext.RText;
+import org.fife.rtext.RTextEditorPane;
+import org.fife.ui.ResizableFrameContentPane;
+import org.fife.ui.UIUtil;
+
+
+/**
+ * A read-only window for viewing files too large to open in the editor.
+ * The file is memory-mapped rather than loaded, and its lines are indexed
+ * on a background thread; the lines indexed so far can be viewed, and
+ * searched, while indexing continues.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class LargeFileViewer extends JFrame {
+
+	private final transient RText owner;
+	private final transient LineIndexedFile file;
+	private final LargeFileView view;
+
+	private JTextField lineField;
+	private JTextField findField;
+	private JCheckBox matchCaseCB;
+	private JLabel statusLabel;
+
+	private final transient Thread indexer;
+	private final transient ExecutorService searcher;
+	private transient Future<?> search;
+
+
+	/**
+	 * Private constructor; use
+	 * {@link #open(RText, File, Charset, String, RTextEditorPane)}.
+	 */
+	private LargeFileViewer(RText owner, LineIndexedFile file,
+			String syntaxStyle, RTextEditorPane template) {
+
+		super(owner.getString("LargeFile.Title", file.getFile().getName()));
+		this.owner = owner;
+		this.file = file;
+		setIconImages(owner.getIconImages());
+
+		view = new LargeFileView(file, template, syntaxStyle);
+		createUI();
+
+		searcher = Executors.newSingleThreadExecutor(r -> {
+			Thread t = new Thread(r, "LargeFileSearcher");
+			t.setDaemon(true);
+			return t;
+		});
+		indexer = new Thread(this::buildIndex, "LargeFileIndexer");
+		indexer.setDaemon(true);
+		indexer.setPriority(Thread.MIN_PRIORITY);
+
+		setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+		setSize(new Dimension(900, 700));
+		setLocationRelativeTo(owner);
+
+	}
+
+
+	/**
+	 * Indexes the file, updating the view as lines are indexed.  This is
+	 * called on a background thread.
+	 */
+	private void buildIndex() {
+		try {
+			file.buildIndex(() -> SwingUtilities.invokeLater(this::indexChanged));
+		} catch (IOException ioe) {
+			ioe.printStackTrace();
+			SwingUtilities.invokeLater(() -> setStatus(
+					owner.getString("LargeFile.Error", ioe.getMessage())));
+		}
+	}
+
+
+	private void createUI() {
+
+		JPanel cp = new ResizableFrameContentPane(new BorderLayout());
+		setContentPane(cp);
+
+		JPanel toolbar = new JPanel(new FlowLayout(FlowLayout.LEADING));
+		lineField = new JTextField(8);
+		lineField.addActionListener(e -> goToLine());
+		toolbar.add(new JLabel(owner.getString("LargeFile.GoToLine")));
+		toolbar.add(lineField);
+		findField = new JTextField(20);
+		findField.addActionListener(e -> findNext());
+		toolbar.add(new JLabel(owner.getString("LargeFile.Find")));
+		toolbar.add(findField);
+		JButton findButton = new JButton(owner.getString("LargeFile.FindNext"));
+		findButton.addActionListener(e -> findNext());
+		toolbar.add(findButton);
+		matchCaseCB = new JCheckBox(owner.getString("LargeFile.MatchCase"));
+		toolbar.add(matchCaseCB);
+		JCheckBox highlightCB = new JCheckBox(
+				owner.getString("LargeFile.SyntaxHighlighting"), true);
+		highlightCB.addActionListener(e ->
+				view.setSyntaxHighlighting(highlightCB.isSelected()));
+		toolbar.add(highlightCB);
+		cp.add(toolbar, BorderLayout.NORTH);
+
+		cp.add(view);
+
+		statusLabel = new JLabel(" ");
+		statusLabel.setBorder(UIUtil.getEmpty5Border());
+		cp.add(statusLabel, BorderLayout.SOUTH);
+
+	}
+
+
+	/**
+	 * Stops indexing and searching and closes the file.
+	 */
+	@Override
+	public void dispose() {
+		indexer.interrupt();
+		searcher.shutdownNow();
+		try {
+			file.close();
+		} catch (IOException ioe) {
+			ioe.printStackTrace();
+		}
+		super.dispose();
+	}
+
+
+	/**
+	 * Searches for the next occurrence of the text in the Find field, after
+	 * the current match or selected line, wrapping to the start of the file
+	 * if necessary.
+	 */
+	private void findNext() {
+
+		String text = findField.getText();
+		if (text.isEmpty()) {
+			return;
+		}
+		boolean matchCase = matchCaseCB.isSelected();
+
+		int line;
+		int byteColumn;
+		LineIndexedFile.Match match = view.getMatch();
+		if (match!=null) {
+			line = match.line();
+			byteColumn = match.byteColumn() + 1;
+		}
+		else {
+			line = Math.max(view.getSelectedLine(), view.getFirstVisibleLine());
+			byteColumn = 0;
+		}
+
+		if (search!=null) {
+			search.cancel(true);
+		}
+		setStatus(owner.getString("LargeFile.Searching"));
+		search = searcher.submit(() -> {
+			try {
+				LineIndexedFile.Match result = file.find(text, matchCase, line, byteColumn);
+				if (result==null && !Thread.currentThread().isInterrupted() &&
+						(line>0 || byteColumn>0)) {
+					result = file.find(text, matchCase, 0, 0); // Wrap
+				}
+				if (Thread.currentThread().isInterrupted()) {
+					return;
+				}
+				LineIndexedFile.Match found = result;
+				if (found!=null) {
+					// The match may be past what's been indexed so far.
+					while (found.line()>=file.getLineCount() && indexer.isAlive()) {
+						Thread.sleep(100);
+					}
+				}
+				SwingUtilities.invokeLater(() -> searchCompleted(found, text));
+			} catch (IOException ioe) {
+				ioe.printStackTrace();
+				SwingUtilities.invokeLater(() -> setStatus(
+						owner.getString("LargeFile.Error", ioe.getMessage())));
+			} catch (InterruptedException ie) {
+				// Cancelled by another search, or the window closing
+			}
+		});
+
+	}
+
+
+	/**
+	 * Goes to the line number in the Go To Line field.
+	 */
+	private void goToLine() {
+
+		int line;
+		try {
+			line = Integer.parseInt(lineField.getText().trim()) - 1;
+		} catch (NumberFormatException nfe) {
+			provideErrorFeedback();
+			return;
+		}
+
+		int lineCount = file.getLineCount();
+		if (line>=lineCount && !file.isIndexComplete()) {
+			setStatus(owner.getString("LargeFile.LineNotIndexed",
+					NumberFormat.getIntegerInstance().format(line + 1)));
+			return;
+		}
+		view.goToLine(Math.max(0, Math.min(line, lineCount - 1)));
+
+	}
+
+
+	/**
+	 * Called on the EDT when more lines have been indexed.
+	 */
+	private void indexChanged() {
+		String lines = NumberFormat.getIntegerInstance().format(file.getLineCount());
+		setStatus(file.isIndexComplete() ?
+				owner.getString("LargeFile.Indexed", lines) :
+				owner.getString("LargeFile.Indexing", lines));
+		view.fileIndexChanged();
+	}
+
+
+	/**
+	 * Opens a file in a new large file viewer.
+	 *
+	 * @param owner The parent application.
+	 * @param file The file to open.
+	 * @param cs The file's encoding.  <code>'\n'</code> must be a single
+	 *        byte in this encoding.
+	 * @param syntaxStyle The syntax style to highlight the file with.
+	 * @param template The editor whose font, colors and tab size to use.
+	 * @throws IOException If an IO error occurs opening the file.
+	 */
+	public static void open(RText owner, File file, Charset cs,
+			String syntaxStyle, RTextEditorPane template) throws IOException {
+		LargeFileViewer viewer = new LargeFileViewer(owner,
+				new LineIndexedFile(file, cs), syntaxStyle, template);
+		viewer.setVisible(true);
+		viewer.indexer.start();
+	}
+
+
+	private static void provideErrorFeedback() {
+		UIManager.getLookAndFeel().provideErrorFeedback(null);
+	}
+
+
+	/**
+	 * Called on the EDT when a search completes.
+	 *
+	 * @param match The match found, or <code>null</code> if none was.
+	 * @param text The text searched for.
+	 */
+	private void searchCompleted(LineIndexedFile.Match match, String text) {
+		if (match==null) {
+			setStatus(owner.getString("LargeFile.NotFound", text));
+			provideErrorFeedback();
+			return;
+		}
+		indexChanged(); // Restore the status text
+		view.setMatch(match);
+	}
+
+
+	private void setStatus(String text) {
+		statusLabel.setText(text);
+	}
+
+
+}
@@ -0,0 +1,436 @@
+/*
+ * 10/18/2026
+ *
+ * LineIndexedFile.java - A memory-mapped, line-indexed, read-only file.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.largefile;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+
+/**
+ * Read-only access to the lines of a file of any size.  The file is
+ * memory-mapped in chunks, so the operating system pages in only the parts
+ * that are read, and nothing is loaded into the Java heap except the lines
+ * asked for.<p>
+ *
+ * Lines are found with a sparse index holding the offset of every
+ * {@link #LINES_PER_BLOCK}th line, built by {@link #buildIndex(Runnable)},
+ * usually on a background thread.  Lines can be read as soon as the index
+ * covers them, so large files are viewable before indexing finishes.<p>
+ *
+ * The file is assumed to be in an encoding in which <code>'\n'</code> is
+ * always a single byte, such as UTF-8 or any ISO-8859 encoding.  The file's
+ * length is fixed when it's opened; anything appended later isn't seen.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class LineIndexedFile implements Closeable {
+
+	private final File file;
+	private final FileChannel channel;
+	private final long length;
+	private final Charset charset;
+	private final MappedByteBuffer[] chunks;
+
+	/**
+	 * The offset of every <code>LINES_PER_BLOCK</code>th line.  This is
+	 * replaced, never modified, when it grows.
+	 */
+	private volatile long[] blockStarts;
+	private volatile int blockCount;
+
+	/**
+	 * The number of lines indexed so far.
+	 */
+	private volatile int lineCount;
+	private volatile boolean indexComplete;
+
+	/**
+	 * The number of lines between each entry in the index.
+	 */
+	static final int LINES_PER_BLOCK = 64;
+
+	/**
+	 * Lines longer than this many bytes are truncated when read.
+	 */
+	static final int MAX_LINE_LENGTH = 10000;
+
+	/**
+	 * The size of each mapped region of the file.
+	 */
+	private static final int CHUNK_SIZE = 1 << 28;
+
+	/**
+	 * The number of bytes scanned at a time when indexing or searching.
+	 */
+	private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+
+
+	/**
+	 * Opens a file.
+	 *
+	 * @param file The file.
+	 * @param charset The file's encoding.
+	 * @throws IOException If an IO error occurs.
+	 */
+	LineIndexedFile(File file, Charset charset) throws IOException {
+		this.file = file;
+		this.charset = charset;
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		length = channel.size();
+		chunks = new MappedByteBuffer[(int)((length + CHUNK_SIZE - 1) / CHUNK_SIZE)];
+		blockStarts = new long[1024];
+		blockCount = 1; // Line 0 starts at offset 0
+		lineCount = 1;
+	}
+
+
+	/**
+	 * Indexes the file's lines.  This is a long-running operation for large
+	 * files and should be called on a background thread.  It stops early if
+	 * the thread is interrupted.
+	 *
+	 * @param progress Called periodically, on the calling thread, as more
+	 *        lines are indexed.
+	 * @throws IOException If an IO error occurs.
+	 */
+	void buildIndex(Runnable progress) throws IOException {
+
+		byte[] buf = new byte[SCAN_BUFFER_SIZE];
+		int lines = 1;
+		long[] starts = blockStarts;
+		int count = blockCount;
+
+		for (long offs=0; offs<length; offs+=buf.length) {
+
+			if (Thread.currentThread().isInterrupted()) {
+				return;
+			}
+
+			int len = read(offs, buf, (int)Math.min(buf.length, length - offs));
+			for (int i=0; i<len; i++) {
+				if (buf[i]=='\n' && offs + i + 1<length) {
+					if (lines%LINES_PER_BLOCK==0) {
+						if (count==starts.length) {
+							starts = Arrays.copyOf(starts, count*2);
+							blockStarts = starts;
+						}
+						starts[count] = offs + i + 1;
+						blockCount = ++count;
+					}
+					lineCount = ++lines;
+				}
+			}
+
+			if ((offs/SCAN_BUFFER_SIZE)%256==255) { // Every 16 MB
+				progress.run();
+			}
+
+		}
+
+		indexComplete = true;
+		progress.run();
+
+	}
+
+
+	/**
+	 * Closes the file and drops the chunks mapped so far.  Java can't
+	 * safely unmap a buffer while another thread may still be reading it,
+	 * so the chunks' memory is only released once they're garbage
+	 * collected.  Until then, some platforms won't let the file be deleted.
+	 *
+	 * @throws IOException If an IO error occurs.
+	 */
+	@Override
+	public void close() throws IOException {
+		synchronized (chunks) {
+			Arrays.fill(chunks, null);
+		}
+		channel.close();
+	}
+
+
+	/**
+	 * Creates a match, converting its position from bytes to characters.
+	 */
+	private Match createMatch(int line, long lineStart, long matchStart,
+			int length) throws IOException {
+		int byteColumn = (int)(matchStart - lineStart);
+		byte[] prefix = new byte[Math.min(byteColumn, MAX_LINE_LENGTH)];
+		read(lineStart, prefix, prefix.length);
+		int column = new String(prefix, charset).length();
+		return new Match(line, byteColumn, column, length);
+	}
+
+
+	/**
+	 * Searches for text.  This is a long-running operation for large files
+	 * and should be called on a background thread.  It stops early, returning
+	 * <code>null</code>, if the thread is interrupted.
+	 *
+	 * @param text The text to search for.
+	 * @param matchCase Whether the search is case-sensitive.  If it isn't,
+	 *        only ASCII letters are matched regardless of case.
+	 * @param line The line to start searching at.
+	 * @param byteColumn The byte offset into <code>line</code> to start
+	 *        searching at.
+	 * @return The match, or <code>null</code> if the text isn't found
+	 *         before the end of the file.
+	 * @throws IOException If an IO error occurs.
+	 */
+	Match find(String text, boolean matchCase, int line, int byteColumn)
+			throws IOException {
+
+		byte[] needle = text.getBytes(charset);
+		if (!matchCase) {
+			needle = toLowerCase(needle);
+		}
+		if (needle.length==0) {
+			return null;
+		}
+
+		// Lines are counted as we go, so the index isn't needed.
+		long lineStart = getLineStartOffset(line);
+		long start = lineStart + byteColumn;
+		byte[] buf = new byte[SCAN_BUFFER_SIZE + needle.length - 1];
+
+		for (long offs=start; offs<length; offs+=SCAN_BUFFER_SIZE) {
+
+			if (Thread.currentThread().isInterrupted()) {
+				return null;
+			}
+
+			int len = read(offs, buf, (int)Math.min(buf.length, length - offs));
+			int end = Math.min(len - needle.length + 1, SCAN_BUFFER_SIZE);
+			for (int i=0; i<end; i++) {
+				if (regionMatches(buf, i, needle, matchCase)) {
+					return createMatch(line, lineStart, offs + i, text.length());
+				}
+				if (buf[i]=='\n') {
+					line++;
+					lineStart = offs + i + 1;
+				}
+			}
+			// Newlines in the overlap are counted in the next pass.
+
+		}
+
+		return null;
+
+	}
+
+
+	/**
+	 * Returns a mapped region of the file, mapping it if necessary.
+	 */
+	private MappedByteBuffer getChunk(int index) throws IOException {
+		synchronized (chunks) {
+			MappedByteBuffer chunk = chunks[index];
+			if (chunk==null) {
+				long start = (long)index * CHUNK_SIZE;
+				long size = Math.min(CHUNK_SIZE, length - start);
+				chunk = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+				chunks[index] = chunk;
+			}
+			return chunk;
+		}
+	}
+
+
+	/**
+	 * Returns the file being viewed.
+	 *
+	 * @return The file.
+	 */
+	File getFile() {
+		return file;
+	}
+
+
+	/**
+	 * Returns the number of lines indexed so far.
+	 *
+	 * @return The number of lines.  Once indexing is complete, this is the
+	 *         number of lines in the file.
+	 * @see #isIndexComplete()
+	 */
+	int getLineCount() {
+		return lineCount;
+	}
+
+
+	/**
+	 * Returns lines of the file.  The lines must have been indexed.
+	 *
+	 * @param firstLine The first line to return.
+	 * @param count The number of lines to return.  If fewer lines have been
+	 *        indexed, fewer are returned.
+	 * @return The lines, without their line terminators.  Lines longer than
+	 *         {@link #MAX_LINE_LENGTH} bytes are truncated.
+	 * @throws IOException If an IO error occurs.
+	 */
+	String[] getLines(int firstLine, int count) throws IOException {
+
+		count = Math.max(0, Math.min(count, lineCount - firstLine));
+		String[] lines = new String[count];
+		byte[] buf = new byte[MAX_LINE_LENGTH];
+		long offs = count>0 ? getLineStartOffset(firstLine) : 0;
+
+		for (int i=0; i<count; i++) {
+			int len = read(offs, buf, (int)Math.min(buf.length, length - offs));
+			int end = 0;
+			while (end<len && buf[end]!='\n') {
+				end++;
+			}
+			if (end<len) {
+				offs += end + 1;
+			}
+			else { // Long line; find its end
+				offs = skipLine(offs + len);
+			}
+			int textEnd = end>0 && buf[end-1]=='\r' ? end - 1 : end;
+			lines[i] = new String(buf, 0, textEnd, charset);
+		}
+
+		if (firstLine==0 && count>0 && lines[0].startsWith("\uFEFF")) {
+			lines[0] = lines[0].substring(1); // Byte order mark
+		}
+		return lines;
+
+	}
+
+
+	/**
+	 * Returns the offset of the start of a line.
+	 */
+	private long getLineStartOffset(int line) throws IOException {
+		long offs = blockStarts[line/LINES_PER_BLOCK];
+		for (int i=line%LINES_PER_BLOCK; i>0; i--) {
+			offs = skipLine(offs);
+		}
+		return offs;
+	}
+
+
+	/**
+	 * Returns the length of the file.
+	 *
+	 * @return The length of the file, in bytes.
+	 */
+	long getLength() {
+		return length;
+	}
+
+
+	/**
+	 * Returns whether all lines have been indexed.
+	 *
+	 * @return Whether indexing is complete.
+	 */
+	boolean isIndexComplete() {
+		return indexComplete;
+	}
+
+
+	/**
+	 * Reads bytes from the file.
+	 *
+	 * @param offs The offset to read from.
+	 * @param buf The buffer to read into.
+	 * @param len The number of bytes to read.  This must not read past the
+	 *        end of the file.
+	 * @return The number of bytes read, which is <code>len</code>.
+	 * @throws IOException If an IO error occurs, such as the file being
+	 *         truncated after it was opened.
+	 */
+	private int read(long offs, byte[] buf, int len) throws IOException {
+		try {
+			int read = 0;
+			while (read<len) {
+				long pos = offs + read;
+				MappedByteBuffer chunk = getChunk((int)(pos / CHUNK_SIZE));
+				int chunkOffs = (int)(pos % CHUNK_SIZE);
+				int n = Math.min(len - read, chunk.limit() - chunkOffs);
+				chunk.get(chunkOffs, buf, read, n);
+				read += n;
+			}
+			return len;
+		} catch (InternalError e) { // Mapped file was truncated
+			throw new IOException(e);
+		}
+	}
+
+
+	private static boolean regionMatches(byte[] buf, int offs, byte[] needle,
+			boolean matchCase) {
+		for (int i=0; i<needle.length; i++) {
+			byte b = buf[offs + i];
+			if (!matchCase && b>='A' && b<='Z') {
+				b += 'a' - 'A';
+			}
+			if (b!=needle[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	/**
+	 * Returns the offset of the start of the line after the one containing
+	 * an offset.
+	 */
+	private long skipLine(long offs) throws IOException {
+		byte[] buf = new byte[1024];
+		while (offs<length) {
+			int len = read(offs, buf, (int)Math.min(buf.length, length - offs));
+			for (int i=0; i<len; i++) {
+				if (buf[i]=='\n') {
+					return offs + i + 1;
+				}
+			}
+			offs += len;
+		}
+		return length;
+	}
+
+
+	private static byte[] toLowerCase(byte[] bytes) {
+		byte[] lower = new byte[bytes.length];
+		for (int i=0; i<bytes.length; i++) {
+			byte b = bytes[i];
+			lower[i] = b>='A' && b<='Z' ? (byte)(b + 'a' - 'A') : b;
+		}
+		return lower;
+	}
+
+
+	/**
+	 * A match found by {@link #find(String, boolean, int, int)}.
+	 *
+	 * @param line The line containing the match.
+	 * @param byteColumn The byte offset of the match in the line.
+	 * @param column The offset of the match in the line.  If the line is
+	 *        longer than {@link #MAX_LINE_LENGTH} bytes, this may be past
+	 *        the end of the text returned for it.
+	 * @param length The length of the match.
+	 */
+	record Match(int line, int byteColumn, int column, int length) {
+	}
+
+
+}
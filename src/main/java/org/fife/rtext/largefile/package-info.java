@@ -0,0 +1,4 @@
+/**
+ * A read-only viewer for files too large to open in the editor.
+ */
+package org.fife.rtext.largefile;
@@ -51,9 +51,17 @@ class GeneralOptionPanel extends OptionsDialogPanel
 	private final JCheckBox utf8BomCB;
 	private final JCheckBox sizeCheckCB;
 	private final JFormattedTextField sizeField;
+	private final JCheckBox unloadCheckCB;
+	private final JFormattedTextField unloadField;
 	private final JCheckBox dropShadowsInEditorCB;
 
 	private String fileSizeError;
+	private String unloadMinutesError;
+
+	/**
+	 * The number of minutes displayed when unloading idle tabs is disabled.
+	 */
+	private static final int DEFAULT_UNLOAD_MINUTES = 30;
 
 	private static final String TERM_CR		= "\r";
 	private static final String TERM_LF		= "\n";
@@ -71,6 +79,7 @@ class GeneralOptionPanel extends OptionsDialogPanel
 
 		super(msg.getString("OptGenName"));
 		fileSizeError = msg.getString("OptGenFileSizeError");
+		unloadMinutesError = msg.getString("OptGenUnloadMinutesError");
 
 		ComponentOrientation orientation = ComponentOrientation.
 									getOrientation(getLocale());
@@ -184,6 +193,22 @@ class GeneralOptionPanel extends OptionsDialogPanel
 		temp.add(Box.createHorizontalGlue());
 		temp2.add(temp, BorderLayout.LINE_START);
 		otherPanel.add(temp2);
+		temp = new JPanel();
+		temp.setLayout(new BoxLayout(temp, BoxLayout.LINE_AXIS));
+		unloadCheckCB = new JCheckBox(msg.getString("OptUnloadIdleTabs"));
+		unloadCheckCB.setActionCommand("UnloadCheckCB");
+		unloadCheckCB.addActionListener(this);
+		unloadField = new JFormattedTextField(NumberFormat.getIntegerInstance());
+		unloadField.getDocument().addDocumentListener(this);
+		unloadField.setColumns(8);
+		unloadField.setEditable(false);
+		temp2 = new JPanel(new BorderLayout());
+		temp.add(unloadCheckCB);
+		temp.add(Box.createHorizontalStrut(5));
+		temp.add(unloadField);
+		temp.add(Box.createHorizontalGlue());
+		temp2.add(temp, BorderLayout.LINE_START);
+		otherPanel.add(temp2);
 		topPanel.add(otherPanel);
 
 		// A panel for "experimental" options.
@@ -260,6 +285,11 @@ class GeneralOptionPanel extends OptionsDialogPanel
 			setDirty(true);
 		}
 
+		else if ("UnloadCheckCB".equals(command)) {
+			unloadField.setEditable(unloadCheckCB.isSelected());
+			setDirty(true);
+		}
+
 		else if (dropShadowsInEditorCB==e.getSource()) {
 			setDirty(true);
 		}
@@ -279,6 +309,7 @@ class GeneralOptionPanel extends OptionsDialogPanel
 				utf8BomCB.isSelected()!=defaultUtf8BomSelected ||
 				!sizeCheckCB.isSelected() ||
 				!defaultSizeFieldText.equals(sizeField.getText()) ||
+				unloadCheckCB.isSelected() ||
 				dropShadowsInEditorCB.isSelected()!=defaultDropShadowsInEditor) {
 
 				dirField.setText(null);
@@ -288,6 +319,7 @@ class GeneralOptionPanel extends OptionsDialogPanel
 				utf8BomCB.setSelected(defaultUtf8BomSelected);
 				setDoFileSizeCheck(true);
 				sizeField.setText(defaultSizeFieldText);
+				setIdleTabUnloadMinutes(0);
 				dropShadowsInEditorCB.setSelected(defaultDropShadowsInEditor);
 
 				setDirty(true);
@@ -318,6 +350,7 @@ class GeneralOptionPanel extends OptionsDialogPanel
 		mainView.setWriteBOMInUtf8Files(getWriteUtf8BOM()); // Ditto.
 		mainView.setDoFileSizeCheck(getDoFileSizeCheck()); // Ditto.
 		mainView.setMaxFileSize(getMaxFileSize());		// Ditto.
+		mainView.setIdleTabUnloadMinutes(getIdleTabUnloadMinutes());
 
 		// Experimental options
 		RTextUtilities.setDropShadowsEnabledInEditor(
@@ -332,6 +365,10 @@ class GeneralOptionPanel extends OptionsDialogPanel
 		if (maxFileSize<0) {
 			return new OptionsPanelCheckResult(this,sizeField,fileSizeError);
 		}
+		if (unloadCheckCB.isSelected() && getIdleTabUnloadMinutes()<=0) {
+			return new OptionsPanelCheckResult(this, unloadField,
+					unloadMinutesError);
+		}
 		return null;
 	}
 
@@ -358,6 +395,25 @@ class GeneralOptionPanel extends OptionsDialogPanel
 	}
 
 
+	/**
+	 * Returns the number of minutes a tab must go unselected before its
+	 * file is unloaded.
+	 *
+	 * @return The number of minutes, or <code>0</code> if tabs should never
+	 *         be unloaded.  If the value entered is invalid, this will be
+	 *         <code>-1</code>.
+	 * @see #setIdleTabUnloadMinutes(int)
+	 */
+	public int getIdleTabUnloadMinutes() {
+		if (!unloadCheckCB.isSelected()) {
+			return 0;
+		}
+		// JFormattedTextField.getValue() gets last GOOD value.
+		Number num = (Number)unloadField.getValue();
+		return num==null ? -1 : num.intValue();
+	}
+
+
 	/**
 	 * Returns the line terminator selected by the user.
 	 *
@@ -484,6 +540,21 @@ class GeneralOptionPanel extends OptionsDialogPanel
 	}
 
 
+	/**
+	 * Sets the number of minutes a tab must go unselected before its file is
+	 * unloaded.
+	 *
+	 * @param minutes The number of minutes, or <code>0</code> if tabs should
+	 *        never be unloaded.
+	 * @see #getIdleTabUnloadMinutes()
+	 */
+	private void setIdleTabUnloadMinutes(int minutes) {
+		unloadCheckCB.setSelected(minutes>0);
+		unloadField.setEditable(minutes>0);
+		unloadField.setValue(minutes>0 ? minutes : DEFAULT_UNLOAD_MINUTES);
+	}
+
+
 	/**
 	 * Selects the specified line terminator.
 	 *
@@ -521,6 +592,7 @@ class GeneralOptionPanel extends OptionsDialogPanel
 		setWriteUtf8BOM(mainView.getWriteBOMInUtf8Files());
 		setDoFileSizeCheck(mainView.getDoFileSizeCheck());
 		setMaxFileSize(mainView.getMaxFileSize());
+		setIdleTabUnloadMinutes(mainView.getIdleTabUnloadMinutes());
 
 		// Experimental options
 		dropShadowsInEditorCB.setSelected(RTextUtilities.
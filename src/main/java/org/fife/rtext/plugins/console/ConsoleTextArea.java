@@ -16,7 +16,9 @@ import java.awt.event.InputEvent;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.List;
 
 import javax.swing.AbstractAction;
 import javax.swing.Action;
@@ -26,6 +28,7 @@ import javax.swing.JMenuItem;
 import javax.swing.JPopupMenu;
 import javax.swing.KeyStroke;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.UIManager;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
@@ -72,6 +75,28 @@ abstract class ConsoleTextArea extends AbstractConsoleTextArea {
 	 */
 	private RSyntaxDocument shDoc;
 
+	/**
+	 * Text appended off the EDT that hasn't been added to the document yet.
+	 * This is also the lock for <code>pendingLineCount</code>.
+	 */
+	private final List<OutputChunk> pendingOutput = new ArrayList<>();
+
+	/**
+	 * The number of newlines in <code>pendingOutput</code>.
+	 */
+	private int pendingLineCount;
+
+	/**
+	 * Whether a flush of <code>pendingOutput</code> has been scheduled.
+	 */
+	private boolean flushScheduled;
+
+	/**
+	 * Adds pending output to the document.  Output is batched this way so
+	 * processes writing many lines a second don't flood the EDT.
+	 */
+	private final Timer flushTimer;
+
 	/**
 	 * The maximum number of commands the user can recall.
 	 */
@@ -82,6 +107,12 @@ abstract class ConsoleTextArea extends AbstractConsoleTextArea {
 	 */
 	private static final int MAX_LINE_COUNT				= 1500;
 
+	/**
+	 * The delay between pending output arriving and it being added to the
+	 * document.  All output arriving in this window is added at once.
+	 */
+	private static final int FLUSH_DELAY_MILLIS			= 30;
+
 
 	/**
 	 * Constructor.
@@ -93,6 +124,8 @@ abstract class ConsoleTextArea extends AbstractConsoleTextArea {
 		Listener listener = new Listener();
 		addMouseListener(listener);
 		getDocument().addDocumentListener(listener);
+		flushTimer = new Timer(FLUSH_DELAY_MILLIS, e -> flushPendingOutput());
+		flushTimer.setRepeats(false);
 		init();
 		cmdHistory = new LinkedList<>();
 	}
@@ -138,42 +171,30 @@ abstract class ConsoleTextArea extends AbstractConsoleTextArea {
 	void appendImpl(final String text, final String style,
 					final boolean treatAsUserInput) {
 
-		// Ensure the meat of this method is done on the EDT, to prevent
-		// concurrency errors.
-		if (SwingUtilities.isEventDispatchThread()) {
-
-			Document doc = getDocument();
-			int end = doc.getLength();
-			try {
-				doc.insertString(end, text, getStyle(style));
-			} catch (BadLocationException ble) { // Never happens
-				ble.printStackTrace();
+		OutputChunk chunk = new OutputChunk(text, style, treatAsUserInput);
+		boolean scheduleFlush = false;
+
+		// Output from other threads is queued and added to the document in
+		// batches on the EDT.  Text appended on the EDT is added right away,
+		// after anything still queued so the order is kept.
+		synchronized (pendingOutput) {
+			pendingOutput.add(chunk);
+			pendingLineCount += countLines(text);
+			if (pendingLineCount>2*MAX_LINE_COUNT) {
+				// The EDT is falling behind; drop lines that would be
+				// trimmed anyway.
+				pendingLineCount = trimToMaxLineCount(pendingOutput);
 			}
-			setCaretPosition(doc.getLength());
-			if (!treatAsUserInput) {
-				inputMinOffs = getCaretPosition();
-			}
-
-			// Don't let the console's text get too long
-			Element root = doc.getDefaultRootElement();
-			int lineCount = root.getElementCount();
-			if (lineCount>MAX_LINE_COUNT) {
-				int toDelete = lineCount - MAX_LINE_COUNT;
-				int endOffs = root.getElement(toDelete-1).getEndOffset();
-				try {
-					doc.remove(0, endOffs);
-					if (!treatAsUserInput) {
-						inputMinOffs -= endOffs;
-					}
-				} catch (BadLocationException ble) { // Never happens
-					ble.printStackTrace();
-				}
+			if (!flushScheduled) {
+				flushScheduled = scheduleFlush = true;
 			}
-
 		}
 
-		else {
-			SwingUtilities.invokeLater(() -> appendImpl(text, style, treatAsUserInput));
+		if (SwingUtilities.isEventDispatchThread()) {
+			flushPendingOutput();
+		}
+		else if (scheduleFlush) {
+			SwingUtilities.invokeLater(flushTimer::restart);
 		}
 
 	}
@@ -190,6 +211,11 @@ abstract class ConsoleTextArea extends AbstractConsoleTextArea {
 	 * Clears this console.  This should only be called on the EDT.
 	 */
 	public void clear() {
+		synchronized (pendingOutput) { // Output from before the clear
+			pendingOutput.clear();
+			pendingLineCount = 0;
+			flushScheduled = false;
+		}
 		Document doc = getDocument();
 		setSelectionStart(0);
 		setSelectionEnd(doc.getLength());
@@ -211,6 +237,22 @@ abstract class ConsoleTextArea extends AbstractConsoleTextArea {
 	}
 
 
+	/**
+	 * Returns the number of newlines in a string.
+	 *
+	 * @param text The string.
+	 * @return The number of newlines.
+	 */
+	private static int countLines(String text) {
+		int count = 0;
+		int index = -1;
+		while ((index=text.indexOf('\n', index+1))>-1) {
+			count++;
+		}
+		return count;
+	}
+
+
 	/**
 	 * Fixes the keyboard shortcuts for this text component so the user cannot
 	 * accidentally delete any stdout or stderr, only stdin.
@@ -274,6 +316,64 @@ abstract class ConsoleTextArea extends AbstractConsoleTextArea {
 	}
 
 
+	/**
+	 * Adds any pending output to the document.  Consecutive output in the
+	 * same style is inserted at once, and old lines are trimmed in a single
+	 * removal.  This should only be called on the EDT.
+	 */
+	private void flushPendingOutput() {
+
+		List<OutputChunk> chunks;
+		synchronized (pendingOutput) {
+			flushScheduled = false;
+			if (pendingOutput.isEmpty()) {
+				return;
+			}
+			trimToMaxLineCount(pendingOutput);
+			chunks = new ArrayList<>(pendingOutput);
+			pendingOutput.clear();
+			pendingLineCount = 0;
+		}
+
+		Document doc = getDocument();
+		StringBuilder run = new StringBuilder();
+		for (int i=0; i<chunks.size(); i++) {
+			OutputChunk chunk = chunks.get(i);
+			run.append(chunk.text());
+			OutputChunk next = i<chunks.size()-1 ? chunks.get(i+1) : null;
+			if (next==null || !next.style().equals(chunk.style()) ||
+					next.userInput()!=chunk.userInput()) {
+				try {
+					doc.insertString(doc.getLength(), run.toString(),
+							getStyle(chunk.style()));
+				} catch (BadLocationException ble) { // Never happens
+					ble.printStackTrace();
+				}
+				if (!chunk.userInput()) {
+					inputMinOffs = doc.getLength();
+				}
+				run.setLength(0);
+			}
+		}
+		setCaretPosition(doc.getLength());
+
+		// Don't let the console's text get too long
+		Element root = doc.getDefaultRootElement();
+		int lineCount = root.getElementCount();
+		if (lineCount>MAX_LINE_COUNT) {
+			int toDelete = lineCount - MAX_LINE_COUNT;
+			int endOffs = root.getElement(toDelete-1).getEndOffset();
+			try {
+				doc.remove(0, endOffs);
+				inputMinOffs = Math.max(0, inputMinOffs - endOffs);
+			} catch (BadLocationException ble) { // Never happens
+				ble.printStackTrace();
+			}
+		}
+
+	}
+
+
 	/**
 	 * Returns the currently entered text.
 	 *
@@ -450,6 +550,35 @@ abstract class ConsoleTextArea extends AbstractConsoleTextArea {
 	}
 
 
+	/**
+	 * Removes all but the last {@link #MAX_LINE_COUNT} lines from a list of
+	 * output, since any others would be trimmed as soon as they were added.
+	 *
+	 * @param chunks The output.  This is modified in place.
+	 * @return The number of newlines left in <code>chunks</code>.
+	 */
+	private static int trimToMaxLineCount(List<OutputChunk> chunks) {
+
+		int lineCount = 0;
+		for (int i=chunks.size()-1; i>=0; i--) {
+			OutputChunk chunk = chunks.get(i);
+			String text = chunk.text();
+			int index = text.length();
+			while ((index=text.lastIndexOf('\n', index-1))>-1) {
+				if (++lineCount==MAX_LINE_COUNT) {
+					chunks.set(i, new OutputChunk(text.substring(index+1),
+							chunk.style(), chunk.userInput()));
+					chunks.subList(0, i).clear();
+					return lineCount - 1;
+				}
+			}
+		}
+
+		return lineCount;
+
+	}
+
+
 	/**
 	 * Clears all text from this text area.
 	 */
@@ -801,4 +930,15 @@ abstract class ConsoleTextArea extends AbstractConsoleTextArea {
 	}
 
 
+	/**
+	 * Text waiting to be appended to the console.
+	 *
+	 * @param text The text.
+	 * @param style The style to apply to the text.
+	 * @param userInput Whether to treat the text as user input.
+	 */
+	private record OutputChunk(String text, String style, boolean userInput) {
+	}
+
+
 }
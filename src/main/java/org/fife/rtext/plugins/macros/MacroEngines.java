@@ -0,0 +1,297 @@
+/*
+ * 10/18/2026
+ *
+ * MacroEngines.java - The script engines macros are run with.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.macros;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+
+
+/**
+ * Manages the script engines macros are run with.  Each engine is created
+ * once and shared by all macros.  Only engines and compiled scripts are
+ * shared; each run of a macro is given new bindings.<p>
+ *
+ * For engines that support it, macros are compiled once and the compiled
+ * script is reused until the macro's file changes.  Since creating an
+ * engine and compiling the first script can take seconds, engines and
+ * macros can be warmed up in the background when RText starts.<p>
+ *
+ * All methods are thread-safe.  Some engines, such as GraalJS, can't be
+ * used by two threads at once, so compiling and running scripts are
+ * synchronized on the engine.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class MacroEngines {
+
+	/**
+	 * Engines created so far, keyed by short name.  Engines that couldn't be
+	 * created map to <code>null</code>.
+	 */
+	private static final Map<String, ScriptEngine> ENGINES = new HashMap<>();
+
+	/**
+	 * Compiled macros, keyed by file path.  Access to this is synchronized
+	 * on it.
+	 */
+	private static final Map<String, CompiledMacro> COMPILED_MACROS = new HashMap<>();
+
+	private static final Pattern GROOVY_JAR_NAME_PATTERN =
+			Pattern.compile("^groovy-[\\d.]+\\.jar$");
+
+	static final String GROOVY = "Groovy";
+	static final String JAVASCRIPT = "JavaScript";
+
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private MacroEngines() {
+	}
+
+
+	/**
+	 * Creates a script engine.
+	 *
+	 * @param shortName The engine's short name.
+	 * @return The engine, or <code>null</code> if it can't be created.
+	 */
+	private static ScriptEngine createEngine(String shortName) {
+
+		ScriptEngine engine = null;
+
+		try {
+
+			ScriptEngineManager sem = new ScriptEngineManager(
+					MacroEngines.class.getClassLoader());
+			engine = sem.getEngineByName(shortName);
+			if (engine==null) {
+				return null;
+			}
+
+			// Engine-specific bindings that must be set *before* any other
+			// calls that update the context
+			Bindings bindings = engine.getBindings(ScriptContext.ENGINE_SCOPE);
+			bindings.put("polyglot.js.allowAllAccess", true); // Graal-specific
+			bindings.put("polyglot.engine.WarnInterpreterOnly", "false"); // Graal-specific
+
+			ScriptContext context = engine.getContext();
+			PrintWriter w = new PrintWriter(new OutputStreamWriter(System.out));
+			context.setWriter(w);
+			w = new PrintWriter(new OutputStreamWriter(System.err));
+			context.setErrorWriter(w);
+
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+
+		return engine;
+
+	}
+
+
+	/**
+	 * Returns a macro, compiled.  If it has been compiled before and its
+	 * file hasn't changed since, the previously compiled script is returned.
+	 * The script should only be run while synchronized on the engine.
+	 *
+	 * @param engine The engine to compile with.
+	 * @param file The macro's file.
+	 * @return The compiled script, or <code>null</code> if the engine
+	 *         doesn't support compilation.
+	 * @throws IOException If an IO error occurs reading the file.
+	 * @throws ScriptException If the macro can't be compiled.
+	 */
+	static CompiledScript getCompiledScript(ScriptEngine engine, File file)
+			throws IOException, ScriptException {
+
+		if (!(engine instanceof Compilable compilable)) {
+			return null;
+		}
+
+		synchronized (engine) {
+
+			String path = file.getAbsolutePath();
+			long lastModified = file.lastModified();
+			long length = file.length();
+			CompiledMacro compiled;
+			synchronized (COMPILED_MACROS) {
+				compiled = COMPILED_MACROS.get(path);
+			}
+			if (compiled!=null && compiled.script().getEngine()==engine &&
+					compiled.lastModified()==lastModified && compiled.length()==length) {
+				return compiled.script();
+			}
+
+			CompiledScript script;
+			try (BufferedReader r = new BufferedReader(new FileReader(file))) {
+				script = compilable.compile(r);
+			}
+			synchronized (COMPILED_MACROS) {
+				COMPILED_MACROS.put(path, new CompiledMacro(lastModified, length, script));
+			}
+			return script;
+
+		}
+
+	}
+
+
+	/**
+	 * Returns the engine to run a macro file with.
+	 *
+	 * @param file The macro file.
+	 * @return The engine's short name, or <code>null</code> if the file
+	 *         isn't a supported type.
+	 */
+	static String getEngineName(File file) {
+		String name = file.getName();
+		if (name.endsWith(".js")) {
+			return JAVASCRIPT;
+		}
+		else if (name.endsWith(".groovy")) {
+			return GROOVY;
+		}
+		return null;
+	}
+
+
+	/**
+	 * Returns the Groovy jar, which must be installed for Groovy macros to
+	 * be run.
+	 *
+	 * @param pluginDir The directory containing plugin jars.
+	 * @return The Groovy jar, or <code>null</code> if it isn't installed.
+	 */
+	static File getGroovyJar(File pluginDir) {
+		File[] pluginFiles = pluginDir.listFiles();
+		if (pluginFiles!=null) {
+			for (File file : pluginFiles) {
+				if (GROOVY_JAR_NAME_PATTERN.matcher(file.getName()).matches() &&
+						file.isFile()) {
+					return file;
+				}
+			}
+		}
+		return null;
+	}
+
+
+	/**
+	 * Returns a script engine, creating it if necessary.
+	 *
+	 * @param shortName The engine's short name, such as {@link #GROOVY}.
+	 * @return The engine, or <code>null</code> if it can't be created.
+	 */
+	static synchronized ScriptEngine getEngine(String shortName) {
+		if (!ENGINES.containsKey(shortName)) {
+			ENGINES.put(shortName, createEngine(shortName));
+		}
+		return ENGINES.get(shortName);
+	}
+
+
+	/**
+	 * Runs a macro.  It's compiled first if the engine supports it, and
+	 * isn't run while the engine is being used on another thread, such as
+	 * to warm it up.
+	 *
+	 * @param engine The engine to run the macro with.
+	 * @param file The macro's file.
+	 * @param variables The variables to give the macro.
+	 * @throws IOException If an IO error occurs reading the file.
+	 * @throws ScriptException If an error occurs compiling or running the
+	 *         macro.
+	 * @see #getCompiledScript(ScriptEngine, File)
+	 */
+	static void run(ScriptEngine engine, File file,
+			Map<String, Object> variables) throws IOException, ScriptException {
+		synchronized (engine) {
+			// Each run gets its own bindings, so top-level declarations (such
+			// as JavaScript's "const" and "let") don't clash with earlier runs.
+			Bindings bindings = engine.createBindings();
+			bindings.putAll(variables);
+			// Macros are only recompiled when their files change.
+			CompiledScript script = getCompiledScript(engine, file);
+			if (script!=null) {
+				script.eval(bindings);
+			}
+			else {
+				try (BufferedReader r = new BufferedReader(new FileReader(file))) {
+					engine.eval(r, bindings);
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Creates the engines for, and compiles, macros on a background thread,
+	 * so the first time they're run is fast.  Errors are ignored; they'll
+	 * be reported when the macros are run.
+	 *
+	 * @param files The macro files.
+	 * @param groovyAvailable Whether the Groovy engine is available.
+	 */
+	static void warmUp(List<File> files, boolean groovyAvailable) {
+
+		if (files.isEmpty()) {
+			return;
+		}
+
+		Thread t = new Thread(() -> {
+			for (File file : files) {
+				String engineName = getEngineName(file);
+				if (engineName==null || (GROOVY.equals(engineName) && !groovyAvailable)) {
+					continue;
+				}
+				ScriptEngine engine = getEngine(engineName);
+				if (engine!=null && file.isFile()) {
+					try {
+						getCompiledScript(engine, file);
+					} catch (IOException | ScriptException e) {
+						// Reported if the macro is run
+					}
+				}
+			}
+		}, "MacroWarmUp");
+		t.setDaemon(true);
+		t.setPriority(Thread.MIN_PRIORITY);
+		t.start();
+
+	}
+
+
+	/**
+	 * A compiled macro, along with the state of its file when it was
+	 * compiled.
+	 */
+	private record CompiledMacro(long lastModified, long length,
+			CompiledScript script) {
+	}
+
+
+}
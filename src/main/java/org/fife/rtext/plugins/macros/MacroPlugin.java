@@ -14,7 +14,9 @@ import java.beans.PropertyChangeListener;
 import java.io.File;
 import java.io.IOException;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.ResourceBundle;
 import javax.swing.Action;
 import javax.swing.Icon;
@@ -113,6 +115,16 @@ public class MacroPlugin extends AbstractPlugin<RText>
 	}
 
 
+	/**
+	 * Returns the directory in which to look for plugin jars.
+	 *
+	 * @return The plugin jar directory.
+	 */
+	File getPluginDir() {
+		return new File(getApplication().getInstallLocation(), "plugins");
+	}
+
+
 	@Override
 	public Icon getPluginIcon() {
 		// This allows us to get a theme-specific icon if there is one
@@ -195,6 +207,7 @@ public class MacroPlugin extends AbstractPlugin<RText>
 		mb.revalidate();
 
 		loadMacros(); // Do after menu has been added
+		warmUpMacros();
 
 	}
 
@@ -354,4 +367,20 @@ public class MacroPlugin extends AbstractPlugin<RText>
 			editMacrosAction.restoreDefaultIcon();
 		}
 	}
+
+
+	/**
+	 * Creates the script engines for, and compiles, the loaded macros in
+	 * the background, so running a macro the first time doesn't stall.
+	 */
+	private void warmUpMacros() {
+		List<File> files = new ArrayList<>();
+		Iterator<Macro> i = MacroManager.get().getMacroIterator();
+		while (i.hasNext()) {
+			files.add(new File(i.next().getFile()));
+		}
+		MacroEngines.warmUp(files, MacroEngines.getGroovyJar(getPluginDir())!=null);
+	}
+
+
 }
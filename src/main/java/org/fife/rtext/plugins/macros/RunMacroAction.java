@@ -11,8 +11,8 @@ package org.fife.rtext.plugins.macros;
 
 import java.awt.event.ActionEvent;
 import java.io.*;
-import java.util.regex.Pattern;
-
+import java.util.HashMap;
+import java.util.Map;
 import javax.script.*;
 import javax.swing.JOptionPane;
 import javax.swing.KeyStroke;
@@ -39,21 +39,6 @@ class RunMacroAction extends AppAction<RText> {
 	 */
 	private final Macro macro;
 
-	/**
-	 * The script engine for JavaScript, shared across all instances of this
-	 * action.
-	 */
-	private static ScriptEngine jsEngine;
-
-	/**
-	 * The script engine for Groovy, shared across all instances of this
-	 * action.
-	 */
-	private static ScriptEngine groovyEngine;
-
-	private static final Pattern GROOVY_JAR_NAME_PATTERN =
-			Pattern.compile("^groovy-[\\d.]+\\.jar$");
-
 
 	/**
 	 * Constructor.
@@ -80,27 +65,6 @@ class RunMacroAction extends AppAction<RText> {
 	}
 
 
-	private File getGroovyJar() {
-		File[] pluginFiles = getPluginDir().listFiles();
-		for (File file : pluginFiles) {
-			if (GROOVY_JAR_NAME_PATTERN.matcher(file.getName()).matches()) {
-				return file;
-			}
-		}
-		return null;
-	}
-
-
-	/**
-	 * Returns the directory in which to look for plugin jars.
-	 *
-	 * @return The plugin jar directory.
-	 */
-	private File getPluginDir() {
-		return new File(getApplication().getInstallLocation(), "plugins");
-	}
-
-
 	private void handleSubmit(Macro macro) {
 
 		// Verify that the file exists before trying to run it.
@@ -119,9 +83,7 @@ class RunMacroAction extends AppAction<RText> {
 		}
 
 		try {
-			try (BufferedReader r = new BufferedReader(new FileReader(file))) {
-				handleSubmit(file.getName(), r);
-			}
+			handleSubmit(file);
 		} catch (IOException | ScriptException e) {
 			getApplication().displayException(e);
 		}
@@ -129,51 +91,42 @@ class RunMacroAction extends AppAction<RText> {
 	}
 
 
-	private void handleSubmit(String sourceName, BufferedReader r)
-			throws ScriptException {
+	private void handleSubmit(File file) throws IOException, ScriptException {
 
 		RText app = getApplication();
 
-		ScriptEngine engine;
-		if (sourceName.endsWith(".js")) {
-			engine = initJavaScriptEngine();
-		}
-		else if (sourceName.endsWith(".groovy")) {
-			engine = initGroovyEngine();
-		}
-		else {
-			app.displayException(new Exception("Bad macro type: " + sourceName));
+		String engineName = MacroEngines.getEngineName(file);
+		if (engineName==null) {
+			app.displayException(new Exception("Bad macro type: " + file.getName()));
 			return;
 		}
 
+		ScriptEngine engine = initEngine(engineName);
 		if (engine==null) { // An error message was already displayed
 			return;
 		}
 
-		// Create our bindings and cache them for later.
-		Bindings bindings = engine.createBindings();//getBindings(ScriptContext.ENGINE_SCOPE);
-
-		// We always reset the value of "rtext" and "textArea", but
-		// all other variables they've modified are persistent.
-		bindings.put("rtext", app);
-		bindings.put("textArea", app.getMainView().getCurrentTextArea());
-
-		engine.eval(r, bindings);
+		Map<String, Object> variables = new HashMap<>();
+		variables.put("rtext", app);
+		variables.put("textArea", app.getMainView().getCurrentTextArea());
+		MacroEngines.run(engine, file, variables);
 
 	}
 
 
 	/**
-	 * Returns the Groovy engine, lazily creating it if necessary.
+	 * Returns a script engine, lazily creating it if necessary.  If it
+	 * cannot be created, an error is displayed.
 	 *
+	 * @param engineName The engine's short name.
 	 * @return The script engine, or <code>null</code> if it cannot be created.
 	 */
-	private ScriptEngine initGroovyEngine() {
+	private ScriptEngine initEngine(String engineName) {
 
-		File groovyJar = getGroovyJar();
-		if (groovyJar==null || !groovyJar.isFile()) {
+		if (MacroEngines.GROOVY.equals(engineName) &&
+				MacroEngines.getGroovyJar(plugin.getPluginDir())==null) {
 			String message = plugin.getString("Error.NoGroovyJar",
-					getPluginDir().getAbsolutePath());
+					plugin.getPluginDir().getAbsolutePath());
 			RText app = getApplication();
 			String title = app.getString("ErrorDialogTitle");
 			JOptionPane.showMessageDialog(app, message, title,
@@ -181,58 +134,10 @@ class RunMacroAction extends AppAction<RText> {
 			return null;
 		}
 
-		if (groovyEngine==null) {
-			groovyEngine = initScriptEngineImpl("Groovy");
+		ScriptEngine engine = MacroEngines.getEngine(engineName);
+		if (engine==null) {
+			showLoadingEngineError(engineName);
 		}
-
-		return groovyEngine;
-
-	}
-
-
-	/**
-	 * Returns the JS engine, lazily creating it if necessary.
-	 *
-	 * @return The script engine, or <code>null</code> if it cannot be created.
-	 */
-	private ScriptEngine initJavaScriptEngine() {
-		if (jsEngine==null) {
-			jsEngine = initScriptEngineImpl("JavaScript");
-		}
-		return jsEngine;
-	}
-
-
-	private ScriptEngine initScriptEngineImpl(String shortName) {
-
-		ScriptEngine engine = null;
-
-		try {
-
-			ScriptEngineManager sem = new ScriptEngineManager(
-					this.getClass().getClassLoader());
-			engine = sem.getEngineByName(shortName);
-			if (engine==null) {
-				showLoadingEngineError(shortName);
-				return null;
-			}
-
-			// Engine-specific bindings that must be set *before* any other
-			// calls that update the context
-			Bindings bindings = engine.getBindings(ScriptContext.ENGINE_SCOPE);
-			bindings.put("polyglot.js.allowAllAccess", true); // Graal-specific
-			bindings.put("polyglot.engine.WarnInterpreterOnly", "false"); // Graal-specific
-
-			ScriptContext context = engine.getContext();
-			PrintWriter w = new PrintWriter(new OutputStreamWriter(System.out));
-			context.setWriter(w);
-			w = new PrintWriter(new OutputStreamWriter(System.err));
-			context.setErrorWriter(w);
-
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
-
 		return engine;
 
 	}
@@ -0,0 +1,60 @@
+/*
+ * 10/18/2026
+ *
+ * GoToSymbolAction.java - Opens the "Go to Symbol in Project" dialog.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.project;
+
+import java.awt.event.ActionEvent;
+
+import org.fife.rtext.RText;
+import org.fife.ui.app.AppAction;
+
+
+/**
+ * Opens a dialog allowing the user to jump to a symbol anywhere in the
+ * active workspace.  The workspace's symbol index is brought up to date in
+ * the background each time the dialog is opened.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class GoToSymbolAction extends AppAction<RText> {
+
+	/**
+	 * The parent plugin.
+	 */
+	private final ProjectPlugin plugin;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param owner The parent RText instance.
+	 * @param plugin The parent plugin.
+	 */
+	GoToSymbolAction(RText owner, ProjectPlugin plugin) {
+		super(owner, Messages.getBundle(), "Action.GoToSymbol");
+		this.plugin = plugin;
+	}
+
+
+	/**
+	 * Called when this action is performed.
+	 *
+	 * @param e The event.
+	 */
+	@Override
+	public void actionPerformed(ActionEvent e) {
+		boolean ctagsConfigured = plugin.updateSymbolIndex();
+		GoToSymbolDialog dialog = new GoToSymbolDialog(getApplication(),
+				plugin.getSymbolIndexer(), ctagsConfigured);
+		dialog.setVisible(true);
+	}
+
+
+}
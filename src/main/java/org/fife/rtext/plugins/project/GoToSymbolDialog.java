@@ -0,0 +1,387 @@
+/*
+ * 10/18/2026
+ *
+ * GoToSymbolDialog.java - Lets the user jump to a symbol in the workspace.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.project;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Dimension;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.File;
+import java.util.List;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.DefaultListModel;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+import javax.swing.UIManager;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+import org.fife.rtext.AbstractMainView;
+import org.fife.rtext.RText;
+import org.fife.rtext.RTextEditorPane;
+import org.fife.rtext.RTextUtilities;
+import org.fife.rtext.plugins.project.SymbolIndex.Symbol;
+import org.fife.ui.EscapableDialog;
+import org.fife.ui.RListSelectionModel;
+import org.fife.ui.RScrollPane;
+import org.fife.ui.ResizableFrameContentPane;
+import org.fife.ui.UIUtil;
+
+
+/**
+ * A dialog allowing the user to jump to a function, class, or other symbol
+ * anywhere in the folders of the active workspace.  Symbols whose names
+ * start with the text typed are listed first, followed by symbols whose
+ * names contain its characters in order.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class GoToSymbolDialog extends EscapableDialog {
+
+	private final RText rtext;
+	private final SymbolIndexer indexer;
+
+	private JList<Symbol> list;
+	private DefaultListModel<Symbol> model;
+	private JTextField filterField;
+	private JLabel statusLabel;
+	private JButton okButton;
+
+	/**
+	 * The maximum number of symbols listed.
+	 */
+	private static final int MAX_SYMBOLS = 200;
+
+	/**
+	 * The maximum width of this dialog.
+	 */
+	private static final int MAX_WIDTH = 800;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param parent The parent application.
+	 * @param indexer The index of the workspace's symbols.
+	 * @param ctagsConfigured Whether ctags is configured, so the index can
+	 *        be updated.
+	 */
+	GoToSymbolDialog(RText parent, SymbolIndexer indexer,
+			boolean ctagsConfigured) {
+
+		super(parent, Messages.getString("GoToSymbolDialog.Title"), true);
+		this.rtext = parent;
+		this.indexer = indexer;
+
+		createUI();
+		indexer.setUpdateListener(this::indexUpdated);
+		if (!ctagsConfigured) {
+			statusLabel.setText(Messages.getString("GoToSymbolDialog.NoCTags"));
+		}
+		else {
+			updateStatus();
+		}
+
+		pack();
+		setLocationRelativeTo(rtext);
+		setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+
+	}
+
+
+	/**
+	 * Creates the content of this dialog.
+	 */
+	private void createUI() {
+
+		Listener listener = new Listener();
+
+		JPanel cp = new ResizableFrameContentPane(new BorderLayout());
+		cp.setBorder(UIUtil.getEmpty5Border());
+		setContentPane(cp);
+
+		filterField = new JTextField(40);
+		filterField.getDocument().addDocumentListener(listener);
+		filterField.addKeyListener(listener);
+		cp.add(filterField, BorderLayout.NORTH);
+
+		okButton = new JButton(Messages.getString("Button.OK"));
+		okButton.setActionCommand("OK");
+		okButton.addActionListener(listener);
+		JButton cancelButton = new JButton(Messages.getString("Button.Cancel"));
+		cancelButton.setActionCommand("Cancel");
+		cancelButton.addActionListener(listener);
+
+		JPanel bottomPanel = new JPanel(new BorderLayout());
+		statusLabel = new JLabel(" ");
+		bottomPanel.add(statusLabel, BorderLayout.NORTH);
+		Container buttons = UIUtil.createButtonFooter(okButton, cancelButton);
+		bottomPanel.add(buttons, BorderLayout.SOUTH);
+		cp.add(bottomPanel, BorderLayout.SOUTH);
+
+		model = new DefaultListModel<>();
+		list = new JList<>(model);
+		list.setVisibleRowCount(15);
+		list.addMouseListener(listener);
+		list.setCellRenderer(new SymbolCellRenderer());
+		list.setSelectionModel(new RListSelectionModel());
+		RScrollPane sp = new RScrollPane(list);
+		cp.add(sp);
+
+		setFilter("");
+		getRootPane().setDefaultButton(okButton);
+
+	}
+
+
+	@Override
+	public void dispose() {
+		indexer.setUpdateListener(null);
+		super.dispose();
+	}
+
+
+	/**
+	 * Overridden to limit this dialog's width.
+	 */
+	@Override
+	public Dimension getPreferredSize() {
+		Dimension size = super.getPreferredSize();
+		if (size != null) {
+			size.width = Math.min(MAX_WIDTH, size.width);
+		}
+		return size;
+	}
+
+
+	/**
+	 * Called when the symbol index is updated.  The symbols listed are
+	 * refreshed.
+	 */
+	private void indexUpdated() {
+		Symbol selected = list.getSelectedValue();
+		setFilter(filterField.getText());
+		if (selected!=null && model.contains(selected)) {
+			list.setSelectedValue(selected, true);
+		}
+		updateStatus();
+	}
+
+
+	/**
+	 * Opens the file containing the selected symbol, and selects the line
+	 * it's on.
+	 */
+	private void openSelectedSymbol() {
+
+		Symbol symbol = list.getSelectedValue();
+		if (symbol==null) {
+			UIManager.getLookAndFeel().provideErrorFeedback(list);
+			return;
+		}
+
+		AbstractMainView mainView = rtext.getMainView();
+		escapePressed();
+		// "true" means reuse an already-opened copy of the file.
+		if (!mainView.openFile(symbol.path(), null, true)) {
+			return;
+		}
+
+		// The file may not have been read into its editor yet.
+		RTextEditorPane textArea = mainView.getCurrentTextArea();
+		mainView.runWhenLoaded(textArea, () -> {
+			int line = Math.min(symbol.line(), textArea.getLineCount()) - 1;
+			try {
+				int start = textArea.getLineStartOffset(line);
+				int end = textArea.getLineEndOffset(line) - 1;
+				textArea.setCaretPosition(Math.max(start, end));
+				textArea.moveCaretPosition(start);
+				textArea.getCaret().setSelectionVisible(true);
+				// The editor isn't visible initially, must wait to do this
+				SwingUtilities.invokeLater(() -> RTextUtilities.centerSelectionVertically(textArea));
+			} catch (Exception e) {
+				rtext.displayException(e);
+			}
+		});
+
+	}
+
+
+	/**
+	 * Selects the row a number of rows away from the selected row.
+	 *
+	 * @param delta The number of rows to move, which may be negative.
+	 */
+	private void selectRelativeRow(int delta) {
+		if (model.size() > 0) {
+			int index = list.getSelectedIndex() + delta;
+			index = (index + model.size()) % model.size();
+			list.setSelectedIndex(index);
+			list.ensureIndexIsVisible(index);
+		}
+	}
+
+
+	/**
+	 * Sets the filter for the symbol list.
+	 *
+	 * @param filter The new filter.
+	 */
+	private void setFilter(String filter) {
+
+		List<Symbol> symbols = indexer.getIndex().find(filter.trim(),
+				MAX_SYMBOLS);
+		model.clear();
+		model.addAll(symbols);
+
+		boolean modelNotEmpty = model.size() > 0;
+		if (modelNotEmpty) {
+			list.setSelectedIndex(0);
+			list.ensureIndexIsVisible(0);
+		}
+		okButton.setEnabled(modelNotEmpty);
+
+	}
+
+
+	/**
+	 * Toggles whether this dialog is visible.
+	 *
+	 * @param visible Whether this dialog should be visible.
+	 */
+	@Override
+	public void setVisible(boolean visible) {
+		super.setVisible(visible);
+		if (visible) {
+			filterField.requestFocusInWindow();
+		}
+	}
+
+
+	/**
+	 * Displays the state of the symbol index.
+	 */
+	private void updateStatus() {
+		String text;
+		if (indexer.isUpdating()) {
+			text = Messages.getString("GoToSymbolDialog.Indexing");
+		}
+		else if (indexer.getError()!=null) {
+			text = Messages.getString("GoToSymbolDialog.Error",
+					Integer.toString(indexer.getIndex().getSymbolCount()),
+					indexer.getError());
+		}
+		else {
+			text = Messages.getString("GoToSymbolDialog.SymbolCount",
+					Integer.toString(indexer.getIndex().getSymbolCount()));
+		}
+		statusLabel.setText(text);
+	}
+
+
+	/**
+	 * Listens for events in this dialog.
+	 */
+	private class Listener extends MouseAdapter implements ActionListener,
+			DocumentListener, KeyListener {
+
+		@Override
+		public void actionPerformed(ActionEvent e) {
+
+			String command = e.getActionCommand();
+
+			if ("OK".equals(command)) {
+				openSelectedSymbol();
+			}
+
+			else if ("Cancel".equals(command)) {
+				escapePressed();
+			}
+
+		}
+
+		@Override
+		public void changedUpdate(DocumentEvent e) {
+			handleDocumentEvent();
+		}
+
+		private void handleDocumentEvent() {
+			setFilter(filterField.getText());
+		}
+
+		@Override
+		public void insertUpdate(DocumentEvent e) {
+			handleDocumentEvent();
+		}
+
+		@Override
+		public void keyPressed(KeyEvent e) {
+			switch (e.getKeyCode()) {
+				case KeyEvent.VK_DOWN -> selectRelativeRow(1);
+				case KeyEvent.VK_UP -> selectRelativeRow(-1);
+			}
+		}
+
+		@Override
+		public void keyReleased(KeyEvent e) {
+		}
+
+		@Override
+		public void keyTyped(KeyEvent e) {
+		}
+
+		@Override
+		public void mouseClicked(MouseEvent e) {
+			if (e.getClickCount()==2) {
+				openSelectedSymbol();
+			}
+		}
+
+		@Override
+		public void removeUpdate(DocumentEvent e) {
+			handleDocumentEvent();
+		}
+
+	}
+
+
+	/**
+	 * Renders a symbol as its name, kind, and location.
+	 */
+	private static final class SymbolCellRenderer extends DefaultListCellRenderer {
+
+		@Override
+		public Component getListCellRendererComponent(JList<?> list,
+				Object value, int index, boolean selected, boolean hasFocus) {
+			super.getListCellRendererComponent(list, value, index, selected,
+					hasFocus);
+			Symbol symbol = (Symbol)value;
+			String file = new File(symbol.path()).getName();
+			String kind = symbol.kind().isEmpty() ? "" : "  [" + symbol.kind() + "]";
+			setText(symbol.name() + kind + "  - " + file + ":" + symbol.line());
+			setToolTipText(symbol.path());
+			return this;
+		}
+
+	}
+
+
+}
@@ -0,0 +1,62 @@
+/*
+ * 10/18/2026
+ *
+ * OpenFileByNameAction.java - Opens the "Open File by Name" dialog.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.project;
+
+import java.awt.event.ActionEvent;
+
+import org.fife.rtext.RText;
+import org.fife.ui.app.AppAction;
+
+
+/**
+ * Opens a dialog allowing the user to open any file in the active workspace
+ * by name.  Each time the dialog is opened, the workspace's file index is
+ * brought up to date in the background if the recent files or the
+ * workspace's folders have changed; refreshing a folder in the workspace
+ * tree makes it walk the folders again.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class OpenFileByNameAction extends AppAction<RText> {
+
+	/**
+	 * The parent plugin.
+	 */
+	private final ProjectPlugin plugin;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param owner The parent RText instance.
+	 * @param plugin The parent plugin.
+	 */
+	OpenFileByNameAction(RText owner, ProjectPlugin plugin) {
+		super(owner, Messages.getBundle(), "Action.OpenFileByName");
+		this.plugin = plugin;
+	}
+
+
+	/**
+	 * Called when this action is performed.
+	 *
+	 * @param e The event.
+	 */
+	@Override
+	public void actionPerformed(ActionEvent e) {
+		plugin.updateFileIndex();
+		OpenFileByNameDialog dialog = new OpenFileByNameDialog(getApplication(),
+				plugin.getFileIndexer());
+		dialog.setVisible(true);
+	}
+
+
+}
@@ -0,0 +1,86 @@
+/*
+ * 10/18/2026
+ *
+ * OpenFileByNameDialog.java - Lets the user open any file in the workspace.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.project;
+
+import java.text.NumberFormat;
+
+import org.fife.rtext.RText;
+import org.fife.rtext.RecentFileDialog;
+
+
+/**
+ * A dialog allowing the user to open any file in the active workspace, or
+ * any recently opened file, by typing part of its name.  The files are
+ * listed from the workspace's file index right away, and refreshed once the
+ * index is brought up to date.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class OpenFileByNameDialog extends RecentFileDialog {
+
+	private final ProjectFileIndexer indexer;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param parent The parent application.
+	 * @param indexer The index of the workspace's files.
+	 */
+	OpenFileByNameDialog(RText parent, ProjectFileIndexer indexer) {
+
+		super(parent, Messages.getString("OpenFileByNameDialog.Title"),
+				indexer.getIndex());
+		this.indexer = indexer;
+
+		indexer.setUpdateListener(this::indexUpdated);
+		updateStatus();
+
+		pack();
+		setLocationRelativeTo(parent);
+
+	}
+
+
+	@Override
+	public void dispose() {
+		indexer.setUpdateListener(null);
+		super.dispose();
+	}
+
+
+	/**
+	 * Called when the file index is updated.  The files listed are
+	 * refreshed.
+	 */
+	private void indexUpdated() {
+		setIndex(indexer.getIndex());
+		updateStatus();
+	}
+
+
+	/**
+	 * Displays the state of the file index.
+	 */
+	private void updateStatus() {
+		String text;
+		if (indexer.isUpdating()) {
+			text = Messages.getString("OpenFileByNameDialog.Indexing");
+		}
+		else {
+			text = Messages.getString("OpenFileByNameDialog.FileCount",
+					NumberFormat.getIntegerInstance().format(getIndex().size()));
+		}
+		setStatus(text);
+	}
+
+
+}
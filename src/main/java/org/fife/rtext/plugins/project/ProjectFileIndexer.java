@@ -0,0 +1,271 @@
+/*
+ * 10/18/2026
+ *
+ * ProjectFileIndexer.java - Keeps an index of a workspace's file names.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.project;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.swing.SwingUtilities;
+
+import org.fife.rtext.FileNameIndex;
+import org.fife.rtext.plugins.project.WorkspaceWalker.Root;
+import org.fife.rtext.plugins.project.model.FolderFilterInfo;
+
+
+/**
+ * Keeps an index of the names of the recently opened files and all of the
+ * files in a workspace's projects, for "Open File by Name".  The index is
+ * kept for as long as the workspace is open, so it's available immediately
+ * each time it's needed; updates walk the workspace's folders on a
+ * background thread.<p>
+ *
+ * The folders are only walked again if the workspace's folders or their
+ * filters have changed, or the index has been {@link #invalidate()
+ * invalidated}, since the last walk; if only the recent files changed, the
+ * index is rebuilt from the files already found.  Requests to update the
+ * index while an update is running are coalesced into a single update
+ * once it finishes.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class ProjectFileIndexer {
+
+	private final ExecutorService executor;
+	private volatile FileNameIndex index;
+	private volatile boolean updating;
+
+	/**
+	 * The next update to do, or <code>null</code> if no update is pending.
+	 */
+	private final AtomicReference<Update> pendingUpdate;
+
+	/**
+	 * The recent files and workspace folders last indexed, or
+	 * <code>null</code> if the index must be rebuilt.  This is only accessed
+	 * on the EDT.
+	 */
+	private List<String> lastRecentPaths;
+	private List<String> lastRoots;
+
+	/**
+	 * When the workspace's folders were last walked, from
+	 * <code>System.nanoTime()</code>.  This is only accessed on the EDT.
+	 */
+	private long lastWalkTime;
+
+	/**
+	 * Once the workspace's folders were walked longer ago than this, in
+	 * seconds, they're walked again the next time the index is updated, to
+	 * find files created by other programs.
+	 */
+	private static final int MAX_WALK_AGE = 10;
+
+	/**
+	 * The paths of the files found the last time the workspace's folders
+	 * were walked, or <code>null</code> if they haven't been.  This is only
+	 * accessed on the indexing thread.
+	 */
+	private List<String> workspacePaths;
+
+	/**
+	 * Notified on the EDT when an update completes.
+	 */
+	private Runnable listener;
+
+
+	/**
+	 * Constructor.
+	 */
+	ProjectFileIndexer() {
+		index = FileNameIndex.EMPTY;
+		pendingUpdate = new AtomicReference<>();
+		executor = Executors.newSingleThreadExecutor(r -> {
+			Thread t = new Thread(r, "ProjectFileIndexer");
+			t.setDaemon(true);
+			t.setPriority(Thread.MIN_PRIORITY);
+			return t;
+		});
+	}
+
+
+	/**
+	 * Stops updating the index.  This should be called when the workspace
+	 * is closed.
+	 */
+	void dispose() {
+		executor.shutdownNow();
+	}
+
+
+	/**
+	 * Returns the most recently built index.
+	 *
+	 * @return The index.  This may be empty, but will never be
+	 *         <code>null</code>.
+	 */
+	FileNameIndex getIndex() {
+		return index;
+	}
+
+
+	/**
+	 * Returns a description of the workspace's folders and their filters.
+	 * The folders must be walked again when it changes.
+	 *
+	 * @param roots The folders and files in the workspace.
+	 * @return The description.
+	 */
+	private static List<String> describe(List<Root> roots) {
+		List<String> description = new ArrayList<>(roots.size());
+		for (Root root : roots) {
+			StringBuilder sb = new StringBuilder(root.dir().getAbsolutePath());
+			FolderFilterInfo filter = root.filterInfo();
+			if (filter!=null) {
+				sb.append('\0').append(Arrays.toString(filter.getAllowedFileFilters())).
+					append('\0').append(Arrays.toString(filter.getHiddenFileFilters())).
+					append('\0').append(Arrays.toString(filter.getHiddenFolderFilters()));
+			}
+			description.add(sb.toString());
+		}
+		return description;
+	}
+
+
+	/**
+	 * Makes the next update walk the workspace's folders, even if they
+	 * haven't changed.  This should be called on the EDT when files may
+	 * have been added to or removed from them.
+	 */
+	void invalidate() {
+		lastRoots = null;
+	}
+
+
+	/**
+	 * Returns whether the index is being updated.
+	 *
+	 * @return Whether an update is running or pending.
+	 */
+	boolean isUpdating() {
+		return updating;
+	}
+
+
+	/**
+	 * Sets the callback to run on the EDT whenever an update completes.
+	 *
+	 * @param listener The callback, or <code>null</code> for none.
+	 */
+	void setUpdateListener(Runnable listener) {
+		this.listener = listener;
+	}
+
+
+	/**
+	 * Updates the index in the background, if the recent files or the
+	 * workspace have changed since it was last updated.  The workspace's
+	 * folders are also walked again if the last walk was more than a few
+	 * seconds ago.  Until the update completes, the current index is still
+	 * available.  If an update is already running, another will be done
+	 * when it finishes.  This should be called on the EDT.
+	 *
+	 * @param recentPaths The paths of the recently opened files.  These are
+	 *        ranked ahead of other files that match equally well.
+	 * @param roots The folders and files in the workspace.
+	 */
+	void update(List<String> recentPaths, List<Root> roots) {
+
+		List<String> description = describe(roots);
+		long now = System.nanoTime();
+		boolean walk = !description.equals(lastRoots) ||
+				now - lastWalkTime>TimeUnit.SECONDS.toNanos(MAX_WALK_AGE);
+		if (!walk && recentPaths.equals(lastRecentPaths)) {
+			return;
+		}
+		lastRecentPaths = recentPaths;
+		lastRoots = description;
+		if (walk) {
+			lastWalkTime = now;
+		}
+
+		// A pending walk must still be done if this update doesn't need one.
+		updating = true;
+		Update previous = pendingUpdate.getAndUpdate(pending -> new Update(
+				recentPaths, roots, walk || (pending!=null && pending.walk())));
+		if (previous==null) {
+			executor.execute(this::updateImpl);
+		}
+
+	}
+
+
+	/**
+	 * Updates the index.  This is called on the indexing thread.
+	 */
+	private void updateImpl() {
+
+		Update update = pendingUpdate.getAndSet(null);
+
+		try {
+
+			// Folders in different projects may overlap.
+			if (update.walk() || workspacePaths==null) {
+				Map<String, File> files = WorkspaceWalker.collectFiles(update.roots());
+				workspacePaths = new ArrayList<>(files.keySet());
+			}
+
+			List<String> paths = new ArrayList<>(update.recentPaths());
+			Set<String> recent = new HashSet<>(paths);
+			for (String path : workspacePaths) {
+				if (!recent.contains(path)) {
+					paths.add(path);
+				}
+			}
+			index = new FileNameIndex(paths);
+
+		} catch (InterruptedException ie) {
+			return; // Shutting down
+		} catch (RuntimeException re) {
+			re.printStackTrace();
+		} finally {
+			updating = pendingUpdate.get()!=null;
+		}
+
+		SwingUtilities.invokeLater(() -> {
+			if (listener!=null) {
+				listener.run();
+			}
+		});
+
+	}
+
+
+	/**
+	 * An update to do.
+	 *
+	 * @param recentPaths The paths of the recently opened files.
+	 * @param roots The folders and files in the workspace.
+	 * @param walk Whether the workspace's folders must be walked.
+	 */
+	private record Update(List<String> recentPaths, List<Root> roots,
+			boolean walk) {
+	}
+
+
+}
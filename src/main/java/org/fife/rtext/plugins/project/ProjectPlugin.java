@@ -12,7 +12,9 @@ package org.fife.rtext.plugins.project;
 import java.awt.*;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
@@ -21,6 +23,8 @@ import javax.swing.Icon;
 import javax.swing.ImageIcon;
 import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JMenu;
+import javax.swing.JMenuItem;
+import javax.swing.JSeparator;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 import javax.swing.tree.DefaultTreeModel;
@@ -28,13 +32,16 @@ import javax.swing.tree.MutableTreeNode;
 import javax.swing.tree.TreeNode;
 import javax.swing.tree.TreePath;
 
+import org.fife.rtext.CurrentTextAreaEvent;
 import org.fife.rtext.RText;
+import org.fife.rtext.RTextEditorPane;
 import org.fife.rtext.RTextMenuBar;
 import org.fife.rtext.RTextUtilities;
 import org.fife.rtext.plugins.project.model.Workspace;
 import org.fife.rtext.plugins.project.tree.AbstractWorkspaceTreeNode;
 import org.fife.rtext.plugins.project.tree.WorkspaceTree;
 import org.fife.ui.ImageTranscodingUtil;
+import org.fife.ui.rsyntaxtextarea.FileLocation;
 import org.fife.ui.app.GUIPlugin;
 import org.fife.ui.app.PluginOptionsDialogPanel;
 import org.fife.ui.app.AppAction;
@@ -62,8 +69,13 @@ public class ProjectPlugin extends GUIPlugin<RText> {
 	private Map<String, Icon> icons;
 	private Workspace workspace;
 	private ProjectPluginOptionPanel optionPanel;
+	private SymbolIndexer symbolIndexer;
+	private ProjectFileIndexer fileIndexer;
+	private boolean sourceBrowserMissing;
 
 	private static final String VIEW_CONSOLE_ACTION	= "viewProjectWindowAction";
+	private static final String GO_TO_SYMBOL_ACTION	= "goToSymbolAction";
+	private static final String OPEN_FILE_BY_NAME_ACTION	= "openFileByNameAction";
 	private static final String DOCKABLE_WINDOW_PROJECTS = "projectsDockableWindow";
 	private static final String VERSION_STRING = "6.0.0";
 
@@ -77,6 +89,8 @@ public class ProjectPlugin extends GUIPlugin<RText> {
 		AppAction<RText> a = new ViewProjectsAction(app, this);
 		a.setAccelerator(prefs.windowVisibilityAccelerator);
 		app.addAction(VIEW_CONSOLE_ACTION, a);
+		app.addAction(GO_TO_SYMBOL_ACTION, new GoToSymbolAction(app, this));
+		app.addAction(OPEN_FILE_BY_NAME_ACTION, new OpenFileByNameAction(app, this));
 
 		String workspaceOverride = System.getProperty(PROPERTY_INITIAL_WORKSPACE);
 		if (workspaceOverride!=null) {
@@ -99,6 +113,42 @@ public class ProjectPlugin extends GUIPlugin<RText> {
 	}
 
 
+	/**
+	 * Called when the current file is saved under a new name.  If it was
+	 * saved into the workspace, the index of the workspace's file names is
+	 * invalidated, so the file can be found.
+	 */
+	private void fileSaved() {
+		RTextEditorPane textArea = getApplication().getMainView().getCurrentTextArea();
+		if (workspace!=null && fileIndexer!=null && textArea.isLocal() &&
+				WorkspaceWalker.contains(WorkspaceWalker.getRoots(workspace),
+					new File(textArea.getFileFullPath()))) {
+			invalidateFileIndex();
+		}
+	}
+
+
+	/**
+	 * Returns the ctags executable used to index the symbols in the
+	 * workspace.  This is the executable configured in the Source Browser
+	 * plugin.
+	 *
+	 * @return The executable, or <code>null</code> if ctags isn't
+	 *         configured, isn't Exuberant (or Universal) ctags, or the
+	 *         Source Browser plugin isn't installed.
+	 */
+	private String getCTagsExecutable() {
+		if (!sourceBrowserMissing) {
+			try {
+				return SourceBrowserCTags.get(getApplication());
+			} catch (LinkageError le) { // Source Browser isn't installed
+				sourceBrowserMissing = true;
+			}
+		}
+		return null;
+	}
+
+
 	/**
 	 * Returns the dockable window for this plugin.
 	 *
@@ -153,6 +203,39 @@ public class ProjectPlugin extends GUIPlugin<RText> {
 	}
 
 
+	/**
+	 * Returns the index of the names of the files in the active workspace.
+	 *
+	 * @return The file indexer.
+	 * @see #updateFileIndex()
+	 */
+	ProjectFileIndexer getFileIndexer() {
+		if (fileIndexer==null) {
+			fileIndexer = new ProjectFileIndexer();
+		}
+		return fileIndexer;
+	}
+
+
+	/**
+	 * Returns the index of the symbols in the active workspace.
+	 *
+	 * @return The symbol indexer.
+	 * @see #updateSymbolIndex()
+	 */
+	SymbolIndexer getSymbolIndexer() {
+		File workspaceFile = new File(workspace.getFileFullPath());
+		if (symbolIndexer==null ||
+				!symbolIndexer.getWorkspaceFile().equals(workspaceFile)) {
+			if (symbolIndexer!=null) {
+				symbolIndexer.dispose();
+			}
+			symbolIndexer = new SymbolIndexer(workspaceFile);
+		}
+		return symbolIndexer;
+	}
+
+
 	/**
 	 * Returns the tree view of the active workspace.
 	 *
@@ -244,6 +327,44 @@ public class ProjectPlugin extends GUIPlugin<RText> {
 		item.applyComponentOrientation(app.getComponentOrientation());
 		menu.add(item);
 
+		// Add "Go to Symbol in Project" to the "Search" menu, with the other
+		// "Go to" items
+		JMenu searchMenu = mb.getMenuByName(RTextMenuBar.MENU_SEARCH);
+		for (int i=searchMenu.getMenuComponentCount()-1; i>=0; i--) {
+			Component c = searchMenu.getMenuComponent(i);
+			if (c instanceof JSeparator) {
+				JMenuItem symbolItem = new JMenuItem(app.getAction(GO_TO_SYMBOL_ACTION));
+				symbolItem.setToolTipText(null);
+				searchMenu.insert(symbolItem, i);
+				JMenuItem fileItem = new JMenuItem(app.getAction(OPEN_FILE_BY_NAME_ACTION));
+				fileItem.setToolTipText(null);
+				searchMenu.insert(fileItem, i + 1);
+				break;
+			}
+		}
+
+		// Files saved into the workspace's folders are new files to find
+		// by name.
+		app.getMainView().addCurrentTextAreaListener(e -> {
+			if (e.getType()==CurrentTextAreaEvent.FILE_NAME_CHANGED) {
+				fileSaved();
+			}
+		});
+
+	}
+
+
+	/**
+	 * Notes that files may have been added to or removed from the workspace's
+	 * folders, so they're walked again the next time the index of the
+	 * workspace's file names is updated.
+	 *
+	 * @see #updateFileIndex()
+	 */
+	public void invalidateFileIndex() {
+		if (fileIndexer!=null) {
+			fileIndexer.invalidate();
+		}
 	}
 
 
@@ -424,6 +545,7 @@ public class ProjectPlugin extends GUIPlugin<RText> {
 	 */
 	public void refreshTree(TreeNode fromNode) {
 		getDockableWindow().refreshTree(fromNode);
+		invalidateFileIndex();
 	}
 
 
@@ -479,6 +601,14 @@ public class ProjectPlugin extends GUIPlugin<RText> {
 	 * @param workspace The new active workspace.
 	 */
 	void setWorkspace(Workspace workspace) {
+		if (symbolIndexer!=null) {
+			symbolIndexer.dispose();
+			symbolIndexer = null;
+		}
+		if (fileIndexer!=null) {
+			fileIndexer.dispose();
+			fileIndexer = null;
+		}
 		this.workspace = workspace;
 		getTree().setWorkspace(workspace);
 		refreshWorkspaceName();
@@ -497,6 +627,43 @@ public class ProjectPlugin extends GUIPlugin<RText> {
 	}
 
 
+	/**
+	 * Brings the index of the names of the recently opened files and the
+	 * files in the active workspace up to date in the background.  The
+	 * workspace's folders are only walked if they've changed, or the index
+	 * was {@link #invalidateFileIndex() invalidated}.
+	 *
+	 * @see #getFileIndexer()
+	 */
+	void updateFileIndex() {
+		List<String> recentPaths = new ArrayList<>();
+		for (FileLocation loc : getApplication().getRecentFiles()) {
+			if (loc.isLocal()) {
+				recentPaths.add(loc.getFileFullPath());
+			}
+		}
+		getFileIndexer().update(recentPaths, WorkspaceWalker.getRoots(workspace));
+	}
+
+
+	/**
+	 * Brings the index of the symbols in the active workspace up to date in
+	 * the background.
+	 *
+	 * @return Whether ctags is configured.  If it isn't, the index can't be
+	 *         updated.
+	 * @see #getSymbolIndexer()
+	 */
+	boolean updateSymbolIndex() {
+		String ctags = getCTagsExecutable();
+		if (ctags==null) {
+			return false;
+		}
+		getSymbolIndexer().update(ctags, WorkspaceWalker.getRoots(workspace));
+		return true;
+	}
+
+
 	@Override
 	public boolean uninstall() {
 		return false;
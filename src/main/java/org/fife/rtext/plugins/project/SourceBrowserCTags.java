@@ -0,0 +1,60 @@
+/*
+ * 10/18/2026
+ *
+ * SourceBrowserCTags.java - Finds the ctags configured in the Source Browser.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.project;
+
+import java.io.File;
+
+import org.fife.rtext.RText;
+import org.fife.rtext.plugins.sourcebrowser.SourceBrowserPlugin;
+import org.fife.ui.app.Plugin;
+
+
+/**
+ * Returns the ctags executable configured in the Source Browser plugin.<p>
+ *
+ * This is the only class in this plugin that refers to the Source Browser
+ * plugin.  The plugins are installed separately, so callers should expect a
+ * <code>LinkageError</code> if it isn't installed.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class SourceBrowserCTags {
+
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private SourceBrowserCTags() {
+	}
+
+
+	/**
+	 * Returns the ctags executable configured in the Source Browser.
+	 *
+	 * @param rtext The parent application.
+	 * @return The executable, or <code>null</code> if ctags isn't
+	 *         configured, or isn't Exuberant (or Universal) ctags.
+	 */
+	static String get(RText rtext) {
+		for (Plugin<?> plugin : rtext.getPlugins()) {
+			if (plugin instanceof SourceBrowserPlugin sbp) {
+				String ctags = sbp.getCTagsExecutableLocation();
+				if (ctags!=null && new File(ctags).isFile() &&
+						SourceBrowserPlugin.CTAGS_TYPE_EXUBERANT.equals(sbp.getCTagsType())) {
+					return ctags;
+				}
+			}
+		}
+		return null;
+	}
+
+
+}
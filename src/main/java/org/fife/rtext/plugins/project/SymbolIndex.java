@@ -0,0 +1,702 @@
+/*
+ * 10/18/2026
+ *
+ * SymbolIndex.java - A sorted table of the symbols in a workspace.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.project;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * An immutable, sorted table of the symbols ctags found in a workspace's
+ * files.  The table is saved in a compact binary format and memory-mapped
+ * when loaded, so even very large workspaces cost little heap, and opening
+ * a workspace doesn't require re-reading every symbol.<p>
+ *
+ * The file consists of a header, a table of the indexed files, a table of
+ * symbol kinds, fixed-size symbol records sorted by name (ignoring ASCII
+ * case), a mask of the characters in each symbol's name, and finally a pool
+ * of UTF-8 strings the other tables refer to.
+ * Prefix lookups are a binary search over the records.  Fuzzy lookups
+ * scan the character masks, which are the only part of the index loaded
+ * into memory, so most names are ruled out without reading them.  The rest
+ * are matched against their bytes in place.<p>
+ *
+ * This class is thread-safe.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class SymbolIndex {
+
+	private final ByteBuffer buffer;
+	private final int fileCount;
+	private final int symbolCount;
+	private final int fileTable;
+	private final int kindTable;
+	private final int symbolTable;
+	private final int pool;
+
+	/**
+	 * The mask of the characters in each symbol's name.  These are copied
+	 * out of the buffer since every one is checked in a fuzzy lookup.
+	 */
+	private final long[] masks;
+
+	private static final int MAGIC = 0x52545359; // "RTSY"
+	private static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 40;
+	private static final int FILE_RECORD_SIZE = 24;
+	private static final int KIND_RECORD_SIZE = 8;
+	private static final int SYMBOL_RECORD_SIZE = 16;
+
+	/**
+	 * An index with no symbols.
+	 */
+	static final SymbolIndex EMPTY = create(List.of(), List.of());
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param buffer The contents of the index.
+	 */
+	private SymbolIndex(ByteBuffer buffer) {
+		this.buffer = buffer;
+		fileCount = buffer.getInt(8);
+		symbolCount = buffer.getInt(16);
+		fileTable = buffer.getInt(20);
+		kindTable = buffer.getInt(24);
+		symbolTable = buffer.getInt(28);
+		pool = buffer.getInt(36);
+		masks = new long[symbolCount];
+		buffer.duplicate().position(buffer.getInt(32)).slice().asLongBuffer()
+				.get(masks);
+	}
+
+
+	/**
+	 * Compares a record's name with a query, ignoring case.
+	 *
+	 * @param record The record.
+	 * @param query The query.
+	 * @return The comparison result.
+	 */
+	private int compareName(int record, byte[] query) {
+		int offset = pool + buffer.getInt(symbolTable + record*SYMBOL_RECORD_SIZE);
+		int length = buffer.getShort(symbolTable + record*SYMBOL_RECORD_SIZE + 4) & 0xffff;
+		int count = Math.min(length, query.length);
+		for (int i=0; i<count; i++) {
+			int diff = fold(buffer.get(offset + i)) - fold(query[i]);
+			if (diff!=0) {
+				return diff;
+			}
+		}
+		return length - query.length;
+	}
+
+
+	/**
+	 * Compares the UTF-8 bytes of two names, ignoring ASCII case.  This is
+	 * the order symbols are sorted in.
+	 *
+	 * @param name1 The first name.
+	 * @param name2 The second name.
+	 * @return The comparison result.
+	 */
+	private static int compareNames(byte[] name1, byte[] name2) {
+		int length = Math.min(name1.length, name2.length);
+		for (int i=0; i<length; i++) {
+			int diff = fold(name1[i]) - fold(name2[i]);
+			if (diff!=0) {
+				return diff;
+			}
+		}
+		return name1.length - name2.length;
+	}
+
+
+	/**
+	 * Creates an index in memory.
+	 *
+	 * @param files The indexed files.
+	 * @param symbols The symbols found in those files.
+	 * @return The index.
+	 * @see #save(File, String)
+	 */
+	static SymbolIndex create(List<IndexedFile> files, List<Symbol> symbols) {
+
+		Map<String, Integer> fileIndexes = new HashMap<>();
+		for (IndexedFile file : files) {
+			fileIndexes.put(file.path(), fileIndexes.size());
+		}
+		Map<String, Integer> kindIndexes = new LinkedHashMap<>();
+
+		// Symbols in files that aren't indexed can't be saved.
+		Symbol[] sorted = symbols.stream()
+				.filter(symbol -> fileIndexes.containsKey(symbol.path()))
+				.toArray(Symbol[]::new);
+		byte[][] names = new byte[sorted.length][];
+		Integer[] order = new Integer[sorted.length];
+		for (int i=0; i<sorted.length; i++) {
+			names[i] = sorted[i].name().getBytes(StandardCharsets.UTF_8);
+			order[i] = i;
+			kindIndexes.putIfAbsent(sorted[i].kind(), kindIndexes.size());
+		}
+		Comparator<Integer> byName = (i1, i2) -> compareNames(names[i1], names[i2]);
+		Arrays.sort(order, byName.thenComparing(i -> sorted[i].name())
+				.thenComparing(i -> sorted[i].path())
+				.thenComparingInt(i -> sorted[i].line()));
+
+		int fileTable = HEADER_SIZE;
+		int kindTable = fileTable + files.size()*FILE_RECORD_SIZE;
+		int symbolTable = kindTable + kindIndexes.size()*KIND_RECORD_SIZE;
+		int maskTable = symbolTable + sorted.length*SYMBOL_RECORD_SIZE;
+		int pool = maskTable + sorted.length*8;
+
+		ByteBuffer tables = ByteBuffer.allocate(pool);
+		tables.putInt(MAGIC).putInt(VERSION).putInt(files.size())
+				.putInt(kindIndexes.size()).putInt(sorted.length)
+				.putInt(fileTable).putInt(kindTable).putInt(symbolTable)
+				.putInt(maskTable).putInt(pool);
+
+		// Strings are pooled, since kinds and (for overloads) names repeat.
+		StringPool strings = new StringPool();
+		for (IndexedFile file : files) {
+			byte[] path = file.path().getBytes(StandardCharsets.UTF_8);
+			tables.putInt(strings.add(path)).putInt(path.length);
+			tables.putLong(file.lastModified()).putLong(file.length());
+		}
+		for (String kind : kindIndexes.keySet()) {
+			byte[] bytes = kind.getBytes(StandardCharsets.UTF_8);
+			tables.putInt(strings.add(bytes)).putInt(bytes.length);
+		}
+		for (int i : order) {
+			Symbol symbol = sorted[i];
+			tables.putInt(strings.add(names[i]));
+			tables.putShort((short)Math.min(names[i].length, 0xffff));
+			tables.putShort((short)(int)kindIndexes.get(symbol.kind()));
+			tables.putInt(fileIndexes.get(symbol.path()));
+			tables.putInt(symbol.line());
+		}
+		for (int i : order) {
+			tables.putLong(getCharMask(names[i]));
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(pool + strings.size);
+		buffer.put(tables.array());
+		for (byte[] string : strings.strings) {
+			buffer.put(string);
+		}
+		buffer.flip();
+		return new SymbolIndex(buffer.asReadOnlyBuffer());
+
+	}
+
+
+	/**
+	 * Returns the symbols whose names start with, or fuzzily match, a
+	 * string.  Prefix matches come first, in alphabetical order, followed by
+	 * the best fuzzy matches.  Case is ignored.
+	 *
+	 * @param text The text to search for.
+	 * @param max The maximum number of symbols to return.
+	 * @return The matching symbols.
+	 */
+	List<Symbol> find(String text, int max) {
+
+		List<Symbol> symbols = new ArrayList<>();
+		byte[] query = text.getBytes(StandardCharsets.UTF_8);
+		if (query.length==0 || max<=0) {
+			return symbols;
+		}
+
+		// Prefix matches are contiguous in the sorted records.
+		int first = findFirst(query);
+		int record = first;
+		while (record<symbolCount && symbols.size()<max &&
+				startsWith(record, query)) {
+			symbols.add(getSymbol(record++));
+		}
+		int prefixEnd = record;
+		if (symbols.size()==max) {
+			return symbols;
+		}
+
+		// Keep the best-scoring fuzzy matches that aren't prefix matches.
+		long queryMask = getCharMask(query);
+		int fuzzyMax = max - symbols.size();
+		int[] bestRecords = new int[fuzzyMax];
+		int[] bestScores = new int[fuzzyMax];
+		int bestCount = 0;
+		for (record=0; record<symbolCount; record++) {
+			if (record>=first && record<prefixEnd) {
+				continue;
+			}
+			// Most names are ruled out without looking at their characters.
+			if ((masks[record] & queryMask)!=queryMask) {
+				continue;
+			}
+			int score = fuzzyScore(record, query);
+			if (score>0 && (bestCount<fuzzyMax ||
+					score>bestScores[bestCount-1])) {
+				int pos = bestCount<fuzzyMax ? bestCount++ : bestCount-1;
+				while (pos>0 && bestScores[pos-1]<score) {
+					bestRecords[pos] = bestRecords[pos-1];
+					bestScores[pos] = bestScores[pos-1];
+					pos--;
+				}
+				bestRecords[pos] = record;
+				bestScores[pos] = score;
+			}
+		}
+		for (int i=0; i<bestCount; i++) {
+			symbols.add(getSymbol(bestRecords[i]));
+		}
+
+		return symbols;
+
+	}
+
+
+	/**
+	 * Returns the first record whose name is not less than a query, ignoring
+	 * case.
+	 *
+	 * @param query The query.
+	 * @return The record, or the number of records if there isn't one.
+	 */
+	private int findFirst(byte[] query) {
+		int low = 0;
+		int high = symbolCount;
+		while (low<high) {
+			int mid = (low + high) >>> 1;
+			if (compareName(mid, query)<0) {
+				low = mid + 1;
+			}
+			else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+
+	/**
+	 * Folds ASCII upper case letters to lower case.  Other bytes are
+	 * returned unsigned.
+	 *
+	 * @param b The byte.
+	 * @return The folded byte.
+	 */
+	private static int fold(byte b) {
+		return b>='A' && b<='Z' ? b + ('a'-'A') : b & 0xff;
+	}
+
+
+	/**
+	 * Scores how well a record's name matches a query, fzf-style.  All of
+	 * the query's characters must appear in the name, in order.  Matches at
+	 * the start of words and runs of consecutive matches score higher.
+	 *
+	 * @param record The record.
+	 * @param query The query.
+	 * @return The score, or <code>0</code> if the name doesn't match.
+	 */
+	private int fuzzyScore(int record, byte[] query) {
+
+		int base = symbolTable + record*SYMBOL_RECORD_SIZE;
+		int offset = pool + buffer.getInt(base);
+		int length = buffer.getShort(base + 4) & 0xffff;
+		if (length<query.length) {
+			return 0;
+		}
+
+		int score = 0;
+		int q = 0;
+		int prev = 0;
+		boolean consecutive = false;
+		for (int i=0; i<length && q<query.length; i++) {
+			byte b = buffer.get(offset + i);
+			if (fold(b)==fold(query[q])) {
+				score += 2;
+				if (i==0 || prev=='_' || prev=='.' || prev==':' || prev=='$' ||
+						(b>='A' && b<='Z' && prev>='a' && prev<='z')) {
+					score += 8; // Start of a word
+				}
+				if (consecutive) {
+					score += 4;
+				}
+				consecutive = true;
+				q++;
+			}
+			else {
+				consecutive = false;
+			}
+			prev = b;
+		}
+
+		// Prefer shorter names among otherwise equal matches.
+		return q==query.length ? score*64 + Math.max(0, 63-length) : 0;
+
+	}
+
+
+	/**
+	 * Returns a bit mask of the characters in a name, ignoring case.  A name
+	 * can only fuzzily match a query if its mask includes all of the bits in
+	 * the query's mask.
+	 *
+	 * @param name The UTF-8 bytes of the name.
+	 * @return The mask.
+	 */
+	private static long getCharMask(byte[] name) {
+		long mask = 0;
+		for (byte b : name) {
+			mask |= 1L << (fold(b) & 63);
+		}
+		return mask;
+	}
+
+
+	/**
+	 * Returns an indexed file.
+	 *
+	 * @param index The file's index in the file table.
+	 * @return The file.
+	 */
+	private IndexedFile getFile(int index) {
+		int base = fileTable + index*FILE_RECORD_SIZE;
+		return new IndexedFile(getString(base),
+				buffer.getLong(base + 8), buffer.getLong(base + 16));
+	}
+
+
+	/**
+	 * Returns the files in this index.
+	 *
+	 * @return The files, keyed by path.
+	 */
+	Map<String, IndexedFile> getFiles() {
+		Map<String, IndexedFile> files = new HashMap<>();
+		for (int i=0; i<fileCount; i++) {
+			IndexedFile file = getFile(i);
+			files.put(file.path(), file);
+		}
+		return files;
+	}
+
+
+	/**
+	 * Returns a string in the string pool.
+	 *
+	 * @param base The offset of the string's offset and length.
+	 * @return The string.
+	 */
+	private String getString(int base) {
+		int offset = pool + buffer.getInt(base);
+		int length = buffer.getInt(base + 4);
+		byte[] bytes = new byte[length];
+		buffer.get(offset, bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+
+	/**
+	 * Returns the symbol in a record.
+	 *
+	 * @param record The record.
+	 * @return The symbol.
+	 */
+	private Symbol getSymbol(int record) {
+		int base = symbolTable + record*SYMBOL_RECORD_SIZE;
+		int offset = pool + buffer.getInt(base);
+		byte[] name = new byte[buffer.getShort(base + 4) & 0xffff];
+		buffer.get(offset, name);
+		int kind = buffer.getShort(base + 6) & 0xffff;
+		String path = getString(fileTable + buffer.getInt(base + 8)*FILE_RECORD_SIZE);
+		return new Symbol(new String(name, StandardCharsets.UTF_8),
+				getString(kindTable + kind*KIND_RECORD_SIZE), path,
+				buffer.getInt(base + 12));
+	}
+
+
+	/**
+	 * Returns the number of symbols in this index.
+	 *
+	 * @return The number of symbols.
+	 */
+	int getSymbolCount() {
+		return symbolCount;
+	}
+
+
+	/**
+	 * Returns all symbols in this index, grouped by the file they're in.
+	 * This is used to carry over the symbols of unchanged files when the
+	 * index is updated.
+	 *
+	 * @return The symbols, keyed by file path.
+	 */
+	Map<String, List<Symbol>> getSymbolsByFile() {
+		Map<String, List<Symbol>> symbols = new HashMap<>();
+		for (int record=0; record<symbolCount; record++) {
+			Symbol symbol = getSymbol(record);
+			symbols.computeIfAbsent(symbol.path(), p -> new ArrayList<>())
+					.add(symbol);
+		}
+		return symbols;
+	}
+
+
+	/**
+	 * Returns the files an index has been saved to, newest first.
+	 *
+	 * @param dir The directory indexes are saved in.
+	 * @param name The index's name.
+	 * @return The files.
+	 * @see #save(File, String)
+	 */
+	private static List<File> getFiles(File dir, String name) {
+
+		File[] files = dir.listFiles((d, fileName) ->
+				getGeneration(fileName, name)>-1);
+		if (files==null) {
+			return List.of();
+		}
+
+		Arrays.sort(files, Comparator.comparingLong(
+				(File f) -> getGeneration(f.getName(), name)).reversed());
+		return Arrays.asList(files);
+
+	}
+
+
+	/**
+	 * Returns the generation of an index file.  Each time an index is
+	 * saved, it's written to a new file with the next generation.
+	 *
+	 * @param fileName The file's name.
+	 * @param name The index's name.
+	 * @return The generation, or <code>-1</code> if the file isn't a file
+	 *         the index was saved to.
+	 */
+	private static long getGeneration(String fileName, String name) {
+		if (!fileName.startsWith(name + ".") || !fileName.endsWith(".idx") ||
+				fileName.length()<=name.length() + 5) {
+			return -1;
+		}
+		String generation = fileName.substring(name.length() + 1,
+				fileName.length() - 4);
+		try {
+			return Long.parseLong(generation);
+		} catch (NumberFormatException nfe) {
+			return -1;
+		}
+	}
+
+
+	/**
+	 * Loads an index previously saved to disk.  The file is memory-mapped
+	 * rather than read.
+	 *
+	 * @param file The index file.
+	 * @return The index, or {@link #EMPTY} if the file doesn't exist or
+	 *         isn't a valid index.
+	 */
+	private static SymbolIndex load(File file) {
+
+		if (!file.isFile()) {
+			return EMPTY;
+		}
+
+		try (FileChannel channel = FileChannel.open(file.toPath(),
+				StandardOpenOption.READ)) {
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+					0, channel.size());
+			if (buffer.limit()<HEADER_SIZE || buffer.getInt(0)!=MAGIC ||
+					buffer.getInt(4)!=VERSION ||
+					buffer.getInt(36)>buffer.limit()) {
+				return EMPTY;
+			}
+			return new SymbolIndex(buffer);
+		} catch (IOException | RuntimeException e) {
+			// A corrupt or unreadable index is simply rebuilt.
+			e.printStackTrace();
+			return EMPTY;
+		}
+
+	}
+
+
+	/**
+	 * Loads the index most recently saved with a name.
+	 *
+	 * @param dir The directory indexes are saved in.
+	 * @param name The index's name.
+	 * @return The index, or {@link #EMPTY} if it hasn't been saved or
+	 *         isn't valid.
+	 * @see #save(File, String)
+	 */
+	static SymbolIndex load(File dir, String name) {
+		List<File> files = getFiles(dir, name);
+		return files.isEmpty() ? EMPTY : load(files.get(0));
+	}
+
+
+	/**
+	 * Saves this index and returns a copy of it mapped from the saved file.
+	 * <p>
+	 *
+	 * The index is written to a new file each time it's saved, since the
+	 * previous file may still be mapped by the previous index, and mapped
+	 * files can't be replaced on some platforms.  Files from older saves are
+	 * deleted once they can be.
+	 *
+	 * @param dir The directory indexes are saved in.
+	 * @param name The index's name.
+	 * @return The saved index.  If it can't be mapped, this index is
+	 *         returned.
+	 * @throws IOException If an IO error occurs.
+	 * @see #load(File, String)
+	 */
+	SymbolIndex save(File dir, String name) throws IOException {
+
+		if (!dir.isDirectory() && !dir.mkdirs()) {
+			throw new IOException("Couldn't create directory: " + dir);
+		}
+
+		List<File> oldFiles = getFiles(dir, name);
+		long generation = oldFiles.isEmpty() ? 1 :
+				getGeneration(oldFiles.get(0).getName(), name) + 1;
+		File file = new File(dir, name + "." + generation + ".idx");
+
+		// Write to a temporary file first, so a crash can't leave a
+		// corrupt index behind.
+		File temp = File.createTempFile("symbols", ".tmp", dir);
+		try {
+			try (FileChannel channel = FileChannel.open(temp.toPath(),
+					StandardOpenOption.WRITE)) {
+				ByteBuffer contents = buffer.duplicate();
+				contents.clear();
+				while (contents.hasRemaining()) {
+					channel.write(contents);
+				}
+			}
+			try {
+				Files.move(temp.toPath(), file.toPath(),
+						StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException amnse) {
+				Files.move(temp.toPath(), file.toPath());
+			}
+		} finally {
+			Files.deleteIfExists(temp.toPath());
+		}
+
+		// Files still mapped by an older index may not be deletable yet.
+		// They're tried again on the next save.
+		for (File oldFile : oldFiles) {
+			try {
+				Files.deleteIfExists(oldFile.toPath());
+			} catch (IOException ioe) {
+				// Try again next time
+			}
+		}
+
+		SymbolIndex saved = load(file);
+		return saved==EMPTY ? this : saved;
+
+	}
+
+
+	/**
+	 * Returns whether a record's name starts with a query, ignoring case.
+	 *
+	 * @param record The record.
+	 * @param query The query.
+	 * @return Whether the name starts with the query.
+	 */
+	private boolean startsWith(int record, byte[] query) {
+		int base = symbolTable + record*SYMBOL_RECORD_SIZE;
+		int offset = pool + buffer.getInt(base);
+		int length = buffer.getShort(base + 4) & 0xffff;
+		if (length<query.length) {
+			return false;
+		}
+		for (int i=0; i<query.length; i++) {
+			if (fold(buffer.get(offset + i))!=fold(query[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	/**
+	 * A file whose symbols are in the index.
+	 *
+	 * @param path The file's full path.
+	 * @param lastModified The file's modification time when it was indexed.
+	 * @param length The file's size when it was indexed.
+	 */
+	record IndexedFile(String path, long lastModified, long length) {
+	}
+
+
+	/**
+	 * The strings written to an index, each written only once.
+	 */
+	private static final class StringPool {
+
+		private final Map<String, Integer> offsets = new HashMap<>();
+		private final List<byte[]> strings = new ArrayList<>();
+		private int size;
+
+		int add(byte[] bytes) {
+			String key = new String(bytes, StandardCharsets.ISO_8859_1);
+			Integer offset = offsets.get(key);
+			if (offset==null) {
+				offset = size;
+				offsets.put(key, offset);
+				strings.add(bytes);
+				size += bytes.length;
+			}
+			return offset;
+		}
+
+	}
+
+
+	/**
+	 * A symbol in the index.
+	 *
+	 * @param name The symbol's name.
+	 * @param kind The kind of symbol, as ctags names it.
+	 * @param path The full path of the file the symbol is in.
+	 * @param line The line the symbol is on, 1-based.
+	 */
+	record Symbol(String name, String kind, String path, int line) {
+	}
+
+}
@@ -0,0 +1,407 @@
+/*
+ * 10/18/2026
+ *
+ * SymbolIndexer.java - Keeps a workspace's symbol index up to date.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.project;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.swing.SwingUtilities;
+
+import org.fife.rtext.RTextUtilities;
+import org.fife.rtext.plugins.project.SymbolIndex.IndexedFile;
+import org.fife.rtext.plugins.project.SymbolIndex.Symbol;
+import org.fife.rtext.plugins.project.WorkspaceWalker.Root;
+
+
+/**
+ * Keeps the symbol index of a workspace up to date.  Updates run on a
+ * background thread: the workspace's folders are walked, and ctags is run
+ * only on files that were added or changed since the last update.  The
+ * symbols of unchanged files are carried over from the previous index.<p>
+ *
+ * Requests to update the index while an update is running are coalesced
+ * into a single update once it finishes.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class SymbolIndexer {
+
+	private final File workspaceFile;
+	private final String indexName;
+	private final ExecutorService executor;
+	private volatile SymbolIndex index;
+	private volatile boolean updating;
+
+	/**
+	 * Why the last update failed, or only partly succeeded, or
+	 * <code>null</code> if it succeeded.
+	 */
+	private volatile String error;
+
+	/**
+	 * The folders to index in the next update, or <code>null</code> if no
+	 * update is pending.
+	 */
+	private final AtomicReference<List<Root>> pendingRoots;
+
+	/**
+	 * Notified on the EDT when an update completes.
+	 */
+	private Runnable listener;
+
+	/**
+	 * How long ctags may go without writing a tag, or take to exit once
+	 * it's done writing tags, before it's stopped, in seconds.
+	 */
+	private static final int CTAGS_TIMEOUT = 30;
+
+
+	/**
+	 * Constructor.  The previously saved index is loaded, if there is one.
+	 *
+	 * @param workspaceFile The workspace file.
+	 */
+	SymbolIndexer(File workspaceFile) {
+		this.workspaceFile = workspaceFile;
+		String path = workspaceFile.getAbsolutePath();
+		indexName = Integer.toHexString(path.hashCode());
+		index = SymbolIndex.load(getIndexDirectory(), indexName);
+		pendingRoots = new AtomicReference<>();
+		executor = Executors.newSingleThreadExecutor(r -> {
+			Thread t = new Thread(r, "SymbolIndexer");
+			t.setDaemon(true);
+			t.setPriority(Thread.MIN_PRIORITY);
+			return t;
+		});
+	}
+
+
+	/**
+	 * Stops updating the index.  This should be called when the workspace
+	 * is closed.
+	 */
+	void dispose() {
+		executor.shutdownNow();
+	}
+
+
+	/**
+	 * Returns the most recently built index.
+	 *
+	 * @return The index.  This may be empty, but will never be
+	 *         <code>null</code>.
+	 */
+	SymbolIndex getIndex() {
+		return index;
+	}
+
+
+	/**
+	 * Returns why the last update failed, or only indexed some files.
+	 *
+	 * @return A description of the error, or <code>null</code> if the
+	 *         last update succeeded.
+	 */
+	String getError() {
+		return error;
+	}
+
+
+	/**
+	 * Returns the directory indexes are saved in.
+	 *
+	 * @return The directory.
+	 */
+	private static File getIndexDirectory() {
+		return new File(RTextUtilities.getPreferencesDirectory(),
+				"symbolIndex");
+	}
+
+
+	/**
+	 * Returns the workspace file this indexer was created for.
+	 *
+	 * @return The workspace file.
+	 */
+	File getWorkspaceFile() {
+		return workspaceFile;
+	}
+
+
+	/**
+	 * Returns whether the index is being updated.
+	 *
+	 * @return Whether an update is running or pending.
+	 */
+	boolean isUpdating() {
+		return updating;
+	}
+
+
+	/**
+	 * Parses a line of ctags output, as produced with
+	 * <code>--excmd=number --fields=K</code>.
+	 *
+	 * @param line The line.
+	 * @return The symbol, or <code>null</code> if the line isn't a tag.
+	 */
+	static Symbol parseTag(String line) {
+
+		String[] fields = line.split("\t");
+		if (fields.length<3 || fields[0].isEmpty() || line.startsWith("!_TAG_")) {
+			return null;
+		}
+
+		String exCmd = fields[2];
+		int end = exCmd.indexOf(';');
+		try {
+			int lineNumber = Integer.parseInt(end>-1 ? exCmd.substring(0, end) : exCmd);
+			String kind = fields.length>3 ? fields[3] : "";
+			return new Symbol(fields[0], kind, fields[1], lineNumber);
+		} catch (NumberFormatException nfe) {
+			return null; // A search pattern, not a line number
+		}
+
+	}
+
+
+	/**
+	 * Returns the first line ctags wrote to stderr.
+	 *
+	 * @param errors The file stderr was redirected to.
+	 * @return The first error.
+	 * @throws IOException If an IO error occurs.
+	 */
+	private static String readErrors(File errors) throws IOException {
+		byte[] bytes = Files.readAllBytes(errors.toPath());
+		String text = new String(bytes, 0, Math.min(bytes.length, 1024),
+				StandardCharsets.UTF_8).trim();
+		int newline = text.indexOf('\n');
+		return newline>-1 ? text.substring(0, newline).trim() : text;
+	}
+
+
+	/**
+	 * Runs ctags on a list of files.
+	 *
+	 * @param ctags The ctags executable.
+	 * @param files The files to index.
+	 * @param symbols The list to add the symbols found to.
+	 * @return What ctags wrote to stderr if it exited with an error, or
+	 *         <code>null</code> if it succeeded.
+	 * @throws IOException If an IO error occurs.
+	 * @throws InterruptedException If this thread is interrupted.
+	 */
+	private static String runCTags(String ctags, List<File> files,
+			List<Symbol> symbols) throws IOException, InterruptedException {
+
+		// The files are passed in a list file, since there may be too many
+		// for the command line.  Errors go to a file so ctags can't block
+		// writing them.
+		File fileList = File.createTempFile("ctags", ".txt");
+		File errors = File.createTempFile("ctags", ".err");
+		Process p = null;
+		try {
+
+			List<String> paths = new ArrayList<>(files.size());
+			for (File file : files) {
+				paths.add(file.getAbsolutePath());
+			}
+			Files.write(fileList.toPath(), paths, StandardCharsets.UTF_8);
+
+			ProcessBuilder pb = new ProcessBuilder(ctags, "-f", "-",
+					"--excmd=number", "--sort=no", "--fields=K",
+					"-L", fileList.getAbsolutePath());
+			pb.redirectError(errors);
+			p = pb.start();
+
+			// Tags are read on another thread, so a hung ctags can be
+			// stopped, as can indexing while ctags is running.  Stopping
+			// ctags closes its output, which ends the reading thread.
+			TagReader reader = new TagReader(p);
+			reader.start();
+			long timeout = TimeUnit.SECONDS.toNanos(CTAGS_TIMEOUT);
+			while (reader.isAlive()) {
+				reader.join(1000);
+				if (reader.isAlive() &&
+						System.nanoTime() - reader.lastOutput>timeout) {
+					throw new IOException("ctags stopped responding: " + ctags);
+				}
+			}
+			if (reader.error!=null) {
+				throw reader.error;
+			}
+			symbols.addAll(reader.symbols);
+
+			if (!p.waitFor(CTAGS_TIMEOUT, TimeUnit.SECONDS)) {
+				throw new IOException("ctags didn't exit: " + ctags);
+			}
+			// An error may only affect some of the files, so the tags
+			// that were written are still kept.
+			if (p.exitValue()!=0) {
+				String message = readErrors(errors);
+				return message.isEmpty() ? "exit code " + p.exitValue() :
+						message;
+			}
+			return null;
+
+		} finally {
+			if (p!=null && p.isAlive()) {
+				p.destroyForcibly();
+			}
+			Files.deleteIfExists(fileList.toPath());
+			Files.deleteIfExists(errors.toPath());
+		}
+
+	}
+
+
+	/**
+	 * Sets the callback to run on the EDT whenever an update completes.
+	 *
+	 * @param listener The callback, or <code>null</code> for none.
+	 */
+	void setUpdateListener(Runnable listener) {
+		this.listener = listener;
+	}
+
+
+	/**
+	 * Updates the index in the background.  If an update is already
+	 * running, another will be done when it finishes.
+	 *
+	 * @param ctags The ctags executable.  This should be Exuberant or
+	 *        Universal ctags.
+	 * @param roots The folders to index.
+	 */
+	void update(String ctags, List<Root> roots) {
+		updating = true;
+		if (pendingRoots.getAndSet(roots)==null) {
+			executor.execute(() -> updateImpl(ctags));
+		}
+	}
+
+
+	/**
+	 * Updates the index.  This is called on the indexing thread.
+	 *
+	 * @param ctags The ctags executable.
+	 */
+	private void updateImpl(String ctags) {
+
+		List<Root> roots = pendingRoots.getAndSet(null);
+		String error = null;
+
+		try {
+
+			// Folders in different projects may overlap.
+			Map<String, File> allFiles = WorkspaceWalker.collectFiles(roots);
+
+			// Only files that are new or have changed are given to ctags.
+			SymbolIndex old = index;
+			Map<String, IndexedFile> oldFiles = old.getFiles();
+			Map<String, List<Symbol>> oldSymbols = null;
+			List<IndexedFile> files = new ArrayList<>(allFiles.size());
+			List<File> changed = new ArrayList<>();
+			List<Symbol> symbols = new ArrayList<>();
+			for (File file : allFiles.values()) {
+				IndexedFile current = new IndexedFile(file.getAbsolutePath(),
+						file.lastModified(), file.length());
+				files.add(current);
+				if (current.equals(oldFiles.get(current.path()))) {
+					if (oldSymbols==null) {
+						oldSymbols = old.getSymbolsByFile();
+					}
+					symbols.addAll(oldSymbols.getOrDefault(current.path(),
+							List.of()));
+				}
+				else {
+					changed.add(file);
+				}
+			}
+
+			if (!changed.isEmpty()) {
+				error = runCTags(ctags, changed, symbols);
+			}
+			if (!changed.isEmpty() || files.size()!=oldFiles.size()) {
+				index = SymbolIndex.create(files, symbols).save(
+						getIndexDirectory(), indexName);
+			}
+
+		} catch (InterruptedException ie) {
+			return; // Shutting down
+		} catch (IOException ioe) {
+			error = ioe.getMessage()!=null ? ioe.getMessage() : ioe.toString();
+		} catch (RuntimeException re) {
+			re.printStackTrace();
+		} finally {
+			this.error = error;
+			updating = pendingRoots.get()!=null;
+		}
+
+		SwingUtilities.invokeLater(() -> {
+			if (listener!=null) {
+				listener.run();
+			}
+		});
+
+	}
+
+
+
+	/**
+	 * Reads the tags ctags writes to stdout.
+	 */
+	private static final class TagReader extends Thread {
+
+		private final Process process;
+		private final List<Symbol> symbols;
+		private volatile long lastOutput;
+		private volatile IOException error;
+
+		TagReader(Process process) {
+			super("CTagsReader");
+			this.process = process;
+			symbols = new ArrayList<>();
+			lastOutput = System.nanoTime();
+			setDaemon(true);
+		}
+
+		@Override
+		public void run() {
+			try (BufferedReader r = new BufferedReader(new InputStreamReader(
+					process.getInputStream(), StandardCharsets.UTF_8))) {
+				String line;
+				while ((line=r.readLine())!=null) {
+					lastOutput = System.nanoTime();
+					Symbol symbol = parseTag(line);
+					if (symbol!=null) {
+						symbols.add(symbol);
+					}
+				}
+			} catch (IOException ioe) {
+				error = ioe;
+			}
+		}
+
+	}
+
+}
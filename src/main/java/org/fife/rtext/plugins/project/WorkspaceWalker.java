@@ -0,0 +1,232 @@
+/*
+ * 10/18/2026
+ *
+ * WorkspaceWalker.java - Finds the files in a workspace.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.project;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.fife.rtext.plugins.project.model.FileProjectEntry;
+import org.fife.rtext.plugins.project.model.FolderFilterInfo;
+import org.fife.rtext.plugins.project.model.FolderProjectEntry;
+import org.fife.rtext.plugins.project.model.LogicalFolderProjectEntry;
+import org.fife.rtext.plugins.project.model.Project;
+import org.fife.rtext.plugins.project.model.Workspace;
+import org.fife.rtext.plugins.project.model.WorkspaceVisitor;
+
+
+/**
+ * Finds the files in a workspace's projects.  The folders and files in the
+ * workspace are found on the EDT, and can then be walked on a background
+ * thread.  This is shared by everything that indexes or scans a workspace's
+ * files, so they all see the same files.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class WorkspaceWalker {
+
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private WorkspaceWalker() {
+	}
+
+
+	/**
+	 * Returns whether a file is in one of a workspace's folders, or is one
+	 * of its files.  Project filters aren't applied.
+	 *
+	 * @param roots The workspace's folders and files.
+	 * @param file The file.
+	 * @return Whether the file is in the workspace.
+	 * @see #getRoots(Workspace)
+	 */
+	public static boolean contains(List<Root> roots, File file) {
+		String path = file.getAbsolutePath();
+		for (Root root : roots) {
+			String rootPath = root.dir().getAbsolutePath();
+			if (path.equals(rootPath) ||
+					path.startsWith(rootPath.endsWith(File.separator) ?
+						rootPath : rootPath + File.separator)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	/**
+	 * Returns the files in folders, recursively, skipping those filtered out
+	 * of their projects.  Each folder is only visited once, so symbolic
+	 * links that form cycles are followed only once, and folders shared by
+	 * several roots are only walked for the first.  This may be called on
+	 * any thread.
+	 *
+	 * @param roots The folders and files to walk.
+	 * @return The files found, keyed by path, in the order found.
+	 * @throws InterruptedException If the thread is interrupted.
+	 * @see #getRoots(Workspace)
+	 */
+	public static Map<String, File> collectFiles(List<Root> roots)
+			throws InterruptedException {
+
+		Map<String, File> files = new LinkedHashMap<>();
+		Set<String> visited = new HashSet<>();
+		Deque<File> dirs = new ArrayDeque<>();
+
+		for (Root root : roots) {
+
+			if (root.dir().isFile()) {
+				files.putIfAbsent(root.dir().getAbsolutePath(), root.dir());
+				continue;
+			}
+			if (!visit(root.dir(), visited)) {
+				continue;
+			}
+
+			FolderFilterInfo filter = root.filterInfo();
+			dirs.push(root.dir());
+
+			while (!dirs.isEmpty()) {
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+				File[] children = dirs.pop().listFiles();
+				if (children==null) {
+					continue;
+				}
+				for (File child : children) {
+					boolean dir = child.isDirectory();
+					if (filter==null || filter.isAllowed(child, dir)) {
+						if (dir) {
+							if (visit(child, visited)) {
+								dirs.push(child);
+							}
+						}
+						else {
+							files.putIfAbsent(child.getAbsolutePath(), child);
+						}
+					}
+				}
+			}
+
+		}
+
+		return files;
+
+	}
+
+
+	/**
+	 * Returns the folders and files in a workspace.  This should be called
+	 * on the EDT.
+	 *
+	 * @param workspace The workspace.
+	 * @return The folders and files in all of the workspace's projects.
+	 * @see #collectFiles(List)
+	 */
+	public static List<Root> getRoots(Workspace workspace) {
+		RootCollector collector = new RootCollector();
+		workspace.accept(collector);
+		return collector.roots;
+	}
+
+
+	/**
+	 * Records that a folder is being visited.
+	 *
+	 * @param dir The folder.
+	 * @param visited The canonical paths of the folders already visited.
+	 * @return Whether the folder hasn't been visited before.  If its
+	 *         canonical path can't be determined, this is
+	 *         <code>false</code>.
+	 */
+	private static boolean visit(File dir, Set<String> visited) {
+		try {
+			return visited.add(dir.getCanonicalPath());
+		} catch (IOException ioe) {
+			return false;
+		}
+	}
+
+
+	/**
+	 * A folder in a workspace, or a single file.
+	 *
+	 * @param dir The folder or file.
+	 * @param filterInfo Filters out files and folders that aren't part of
+	 *        the project.  This may be <code>null</code>.
+	 */
+	public record Root(File dir, FolderFilterInfo filterInfo) {
+	}
+
+
+	/**
+	 * Collects the folders and files in a workspace.
+	 */
+	private static final class RootCollector implements WorkspaceVisitor {
+
+		private final List<Root> roots = new ArrayList<>();
+
+		@Override
+		public void postVisit(Workspace workspace) {
+		}
+
+		@Override
+		public void postVisit(Project project) {
+		}
+
+		@Override
+		public void postVisit(FileProjectEntry entry) {
+		}
+
+		@Override
+		public void postVisit(FolderProjectEntry entry) {
+		}
+
+		@Override
+		public void postVisit(LogicalFolderProjectEntry entry) {
+		}
+
+		@Override
+		public void visit(Workspace workspace) {
+		}
+
+		@Override
+		public void visit(Project project) {
+		}
+
+		@Override
+		public void visit(FileProjectEntry entry) {
+			roots.add(new Root(entry.getFile(), null));
+		}
+
+		@Override
+		public void visit(FolderProjectEntry entry) {
+			roots.add(new Root(entry.getFile(), entry.getFilterInfo()));
+		}
+
+		@Override
+		public void visit(LogicalFolderProjectEntry entry) {
+		}
+
+	}
+
+
+}
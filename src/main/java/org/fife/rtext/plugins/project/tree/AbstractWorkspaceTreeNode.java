@@ -510,6 +510,7 @@ public abstract class AbstractWorkspaceTreeNode extends DefaultMutableTreeNode {
 			Object obj = tree.getLastSelectedPathComponent();
 			if (obj instanceof PhysicalLocationTreeNode) {
 				((PhysicalLocationTreeNode)obj).handleRefresh();
+				plugin.invalidateFileIndex();
 			}
 			else {
 				UIManager.getLookAndFeel().provideErrorFeedback(tree);
@@ -12,7 +12,6 @@ package org.fife.rtext.plugins.project.tree;
 import java.awt.Window;
 import java.io.File;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import javax.swing.Icon;
 import javax.swing.JOptionPane;
@@ -50,59 +49,28 @@ public class FileTreeNode extends AbstractWorkspaceTreeNode
 
 
 	public FileTreeNode(ProjectPlugin plugin, File file) {
-		super(plugin);
-		setUserObject(file);
-		if (file.isDirectory()) {
-			add(new NotYetPopulatedChild(plugin));
-			filterInfo = new FolderFilterInfo();
-		}
-		icon = FileSystemView.getFileSystemView().getSystemIcon(file);
+		this(plugin, file, file.isDirectory());
 	}
 
 
 	/**
-	 * Filters and sorts the list of child files, and adds child tree nodes
-	 * for the children not filtered out.
+	 * Constructor for when it's already known whether the file is a folder,
+	 * such as when it was found by listing its parent.
 	 *
-	 * @param files The array of files to filter, and add (sorted) child tree
-	 *        nodes for those not filtered out.
+	 * @param plugin The parent plugin.
+	 * @param file The file or folder.
+	 * @param folder Whether <code>file</code> is a folder.
 	 */
-	private void addChildrenFilteredAndSorted(File[] files) {
-
-		ArrayList<File> dirList = new ArrayList<>();
-		ArrayList<File> fileList = new ArrayList<>();
-
-		// First, separate the directories from regular files so we can
-		// sort them individually.  This part could be made more compact,
-		// but it isn't just for a tad more speed.
-		for (File file1 : files) {
-			boolean isDir = file1.isDirectory();
-			if (filterInfo != null && filterInfo.isAllowed(file1, isDir)) {
-				if (isDir)
-					dirList.add(file1);
-				else
-					fileList.add(file1);
-			}
-		}
-
-		Collections.sort(dirList);
-		for (File dir : dirList) {
-			add(createFileTreeNode(dir, true));
-		}
-		Collections.sort(fileList);
-		for (File file : fileList) {
-			add(createFileTreeNode(file, false));
-		}
-
-	}
-
-
-	private FileTreeNode createFileTreeNode(File file, boolean folder) {
-		FileTreeNode ftn = new FileTreeNode(plugin, file);
+	FileTreeNode(ProjectPlugin plugin, File file, boolean folder) {
+		super(plugin);
+		setUserObject(file);
 		if (folder) {
-			ftn.setFilterInfo(filterInfo);
+			add(new NotYetPopulatedChild(plugin));
+			filterInfo = new FolderFilterInfo();
+		}
+		else {
+			setAllowsChildren(false);
 		}
-		return ftn;
 	}
 
 
@@ -118,6 +86,12 @@ public class FileTreeNode extends AbstractWorkspaceTreeNode
 	}
 
 
+	@Override
+	public FolderFilterInfo getFilterInfo() {
+		return filterInfo;
+	}
+
+
 	/**
 	 * Returns a string representation of the specified array of filters.
 	 *
@@ -180,6 +154,10 @@ public class FileTreeNode extends AbstractWorkspaceTreeNode
 
 	@Override
 	public Icon getIcon() {
+		// Looked up lazily, since this can be slow for large folders
+		if (icon==null) {
+			icon = FileSystemView.getFileSystemView().getSystemIcon(getFile());
+		}
 		return icon;
 	}
 
@@ -193,11 +171,13 @@ public class FileTreeNode extends AbstractWorkspaceTreeNode
 					Utilities.getFileSizeStringFor(file));
 		}
 		else if (file.isDirectory()) {
+			FolderFilterInfo info = filterInfo!=null ? filterInfo :
+					new FolderFilterInfo();
 			return Messages.getString("ProjectPlugin.ToolTip.Folder",
 				file.getAbsolutePath(),
-				getFilterString(filterInfo.getAllowedFileFilters(), "*"),
-				getFilterString(filterInfo.getHiddenFileFilters()),
-				getFilterString(filterInfo.getHiddenFolderFilters()));
+				getFilterString(info.getAllowedFileFilters(), "*"),
+				getFilterString(info.getHiddenFileFilters()),
+				getFilterString(info.getHiddenFolderFilters()));
 		}
 		return null; // File does not exist
 	}
@@ -248,7 +228,9 @@ public class FileTreeNode extends AbstractWorkspaceTreeNode
 
 	@Override
 	public void handleRefresh() {
-		plugin.getTree().refreshChildren(this);
+		if (getFile().isDirectory()) { // Files have no children to load
+			plugin.getTree().refreshChildren(this);
+		}
 	}
 
 
@@ -269,7 +251,7 @@ public class FileTreeNode extends AbstractWorkspaceTreeNode
 			boolean success = old.renameTo(newFile);
 			if (success) {
 				setUserObject(newFile);
-				icon = FileSystemView.getFileSystemView().getSystemIcon(newFile);
+				icon = null;
 				plugin.getTree().nodeChanged(this);
 			}
 			else {
@@ -286,18 +268,6 @@ public class FileTreeNode extends AbstractWorkspaceTreeNode
 	}
 
 
-	@Override
-	public void refreshChildren() {
-		File file = getFile();
-		if (file.isDirectory()) { // Should always be true
-			removeAllChildren();
-			FileSystemView fsv = FileSystemView.getFileSystemView();
-			File[] children = fsv.getFiles(file, false);
-			addChildrenFilteredAndSorted(children);
-		}
-	}
-
-
 	/**
 	 * Configures how this node should filter its children.
 	 *
@@ -0,0 +1,596 @@
+/*
+ * 10/18/2026
+ *
+ * FolderLoader.java - Populates folder nodes in the workspace tree.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.project.tree;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.swing.SwingUtilities;
+import javax.swing.tree.DefaultTreeModel;
+import javax.swing.tree.TreeNode;
+import javax.swing.tree.TreePath;
+
+import org.fife.rtext.plugins.project.ProjectPlugin;
+import org.fife.rtext.plugins.project.model.FolderFilterInfo;
+
+
+/**
+ * Populates the folder nodes of a workspace tree, and keeps them up to
+ * date.<p>
+ *
+ * Folders are listed on background threads, so slow network drives and huge
+ * folders don't hang the editor.  Until a folder has been listed for the
+ * first time, a "Loading..." placeholder is displayed as its only child.
+ * When a folder is listed again, the nodes of children that still exist are
+ * kept, along with their own children and expanded state.<p>
+ *
+ * Each populated folder is also registered with a <code>WatchService</code>,
+ * so files added to or removed from it outside the editor are added to or
+ * removed from the tree, without listing the folder again.  If the file
+ * system doesn't support watching, the tree is only updated when the user
+ * refreshes it.<p>
+ *
+ * Unless otherwise stated, methods of this class should be called on the
+ * EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class FolderLoader {
+
+	private final WorkspaceTree tree;
+	private final ProjectPlugin plugin;
+	private final ExecutorService executor;
+
+	/**
+	 * The populated nodes for each watched folder.  The same folder may be
+	 * displayed more than once in a workspace.
+	 */
+	private final Map<WatchKey, List<AbstractWorkspaceTreeNode>> watchedNodes;
+
+	/**
+	 * Changes to folders that are being watched, but whose listings haven't
+	 * been applied yet.  They're applied along with the listing, so changes
+	 * made while a folder is being listed aren't lost.  A <code>null</code>
+	 * value means events were lost, and the folder must be listed again.
+	 */
+	private final Map<WatchKey, List<Change>> bufferedChanges;
+
+	/**
+	 * The most recent request to load each node, so only the results of the
+	 * latest listing of a folder are used.
+	 */
+	private final Map<PhysicalLocationTreeNode, Integer> pendingLoads;
+	private int loadCount;
+
+	/**
+	 * Created lazily, and only accessed while synchronized on this object.
+	 */
+	private WatchService watchService;
+	private boolean watchServiceUnavailable;
+
+	private static final int THREAD_COUNT = 2;
+
+	/**
+	 * The maximum number of changes buffered for a folder before it's just
+	 * listed again.
+	 */
+	private static final int MAX_BUFFERED_CHANGES = 1000;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param tree The tree whose nodes are loaded.
+	 * @param plugin The parent plugin.
+	 */
+	FolderLoader(WorkspaceTree tree, ProjectPlugin plugin) {
+		this.tree = tree;
+		this.plugin = plugin;
+		watchedNodes = new HashMap<>();
+		bufferedChanges = new HashMap<>();
+		pendingLoads = new HashMap<>();
+		executor = Executors.newFixedThreadPool(THREAD_COUNT, r -> {
+			Thread t = new Thread(r, "ProjectTreeLoader");
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+
+	/**
+	 * Updates a node for files added to or removed from its folder.
+	 *
+	 * @param node The node.
+	 * @param changes The changes to the folder's contents.
+	 */
+	private void applyChanges(AbstractWorkspaceTreeNode node,
+			List<Change> changes) {
+
+		FolderFilterInfo filterInfo = ((PhysicalLocationTreeNode)node).getFilterInfo();
+		DefaultTreeModel model = getModel();
+
+		for (Change change : changes) {
+
+			File file = change.file();
+			int index = indexOf(node, file);
+
+			if (change.created()) {
+				if (index==-1 && (filterInfo==null ||
+						filterInfo.isAllowed(file, change.folder()))) {
+					FileTreeNode child = createChildNode(file,
+							change.folder(), filterInfo);
+					model.insertNodeInto(child, node,
+							getInsertionIndex(node, file, change.folder()));
+				}
+			}
+			else if (index>-1) {
+				model.removeNodeFromParent((FileTreeNode)node.getChildAt(index));
+			}
+
+		}
+
+	}
+
+
+	/**
+	 * Replaces the children of a node with those of a folder listing.  The
+	 * nodes of children that still exist are reused.
+	 *
+	 * @param node The node.
+	 * @param listing The folder's contents.
+	 */
+	private void applyListing(AbstractWorkspaceTreeNode node, Listing listing) {
+
+		FolderFilterInfo filterInfo = ((PhysicalLocationTreeNode)node).getFilterInfo();
+		Map<File, FileTreeNode> existing = new HashMap<>();
+		for (int i=0; i<node.getChildCount(); i++) {
+			if (node.getChildAt(i) instanceof FileTreeNode child) {
+				existing.put(child.getFile(), child);
+			}
+		}
+
+		// Changing the node's structure collapses everything below it.
+		TreePath path = new TreePath(node.getPath());
+		Enumeration<TreePath> expanded = tree.getExpandedDescendants(path);
+		List<TreePath> expandedPaths = expanded==null ?
+				Collections.emptyList() : Collections.list(expanded);
+
+		node.removeAllChildren();
+		for (File folder : listing.folders()) {
+			node.add(getChildNode(existing, folder, true, filterInfo));
+		}
+		for (File file : listing.files()) {
+			node.add(getChildNode(existing, file, false, filterInfo));
+		}
+		getModel().nodeStructureChanged(node);
+
+		for (TreePath expandedPath : expandedPaths) {
+			if (isInTree((TreeNode)expandedPath.getLastPathComponent())) {
+				tree.expandPath(expandedPath);
+			}
+		}
+
+		WatchKey key = listing.key();
+		if (key!=null && key.isValid()) {
+			List<AbstractWorkspaceTreeNode> nodes = watchedNodes.
+					computeIfAbsent(key, k -> new ArrayList<>());
+			if (!nodes.contains(node)) {
+				nodes.add(node);
+			}
+			if (bufferedChanges.containsKey(key)) {
+				List<Change> changes = bufferedChanges.remove(key);
+				if (changes==null) {
+					load((PhysicalLocationTreeNode)node);
+				}
+				else {
+					applyChanges(node, changes);
+				}
+			}
+		}
+
+	}
+
+
+	/**
+	 * Buffers changes to a folder whose listing hasn't been applied yet.
+	 *
+	 * @param key The watch key for the folder.
+	 * @param changes The changes, or <code>null</code> if events were lost.
+	 * @see #applyListing(AbstractWorkspaceTreeNode, Listing)
+	 */
+	private void bufferChanges(WatchKey key, List<Change> changes) {
+
+		if (bufferedChanges.containsKey(key) && bufferedChanges.get(key)==null) {
+			return; // Events were already lost
+		}
+
+		if (changes==null) {
+			bufferedChanges.put(key, null);
+			return;
+		}
+		List<Change> buffered = bufferedChanges.computeIfAbsent(key,
+				k -> new ArrayList<>());
+		buffered.addAll(changes);
+		if (buffered.size()>MAX_BUFFERED_CHANGES) {
+			bufferedChanges.put(key, null);
+		}
+
+	}
+
+
+	/**
+	 * Stops watching all folders, and discards any pending results.  This
+	 * should be called when the workspace displayed changes.
+	 */
+	void clear() {
+		for (WatchKey key : watchedNodes.keySet()) {
+			key.cancel();
+		}
+		watchedNodes.clear();
+		bufferedChanges.clear();
+		pendingLoads.clear();
+	}
+
+
+	/**
+	 * Creates the node for a child file.
+	 *
+	 * @param file The file.
+	 * @param folder Whether the file is a folder.
+	 * @param filterInfo The filters of the parent folder.
+	 * @return The node.
+	 */
+	private FileTreeNode createChildNode(File file, boolean folder,
+			FolderFilterInfo filterInfo) {
+		FileTreeNode node = new FileTreeNode(plugin, file, folder);
+		if (folder) {
+			node.setFilterInfo(filterInfo);
+		}
+		return node;
+	}
+
+
+	/**
+	 * Called when the listing of a folder is discarded, e.g. because the
+	 * folder was listed again or its node was removed.  The folder is no
+	 * longer watched, unless other nodes need it to be.
+	 *
+	 * @param dir The folder.
+	 * @param listing The discarded listing.
+	 */
+	private void discardListing(File dir, Listing listing) {
+		WatchKey key = listing.key();
+		if (key!=null && !watchedNodes.containsKey(key) &&
+				pendingLoads.keySet().stream().noneMatch(
+						node -> dir.equals(node.getFile()))) {
+			key.cancel();
+			bufferedChanges.remove(key);
+		}
+	}
+
+
+	/**
+	 * Returns the node for a child file, reusing an existing node if there
+	 * is one.
+	 *
+	 * @param existing The parent's existing child nodes.
+	 * @param file The file.
+	 * @param folder Whether the file is a folder.
+	 * @param filterInfo The filters of the parent folder.
+	 * @return The node.
+	 */
+	private FileTreeNode getChildNode(Map<File, FileTreeNode> existing,
+			File file, boolean folder, FolderFilterInfo filterInfo) {
+		FileTreeNode child = existing.get(file);
+		if (child==null || child.getAllowsChildren()!=folder) {
+			child = createChildNode(file, folder, filterInfo);
+		}
+		return child;
+	}
+
+
+	/**
+	 * Returns where a new child should be inserted to keep a node's
+	 * children sorted, with folders before files.
+	 *
+	 * @param node The parent node.
+	 * @param file The new child file.
+	 * @param folder Whether the new child is a folder.
+	 * @return The index to insert the child at.
+	 */
+	private static int getInsertionIndex(AbstractWorkspaceTreeNode node,
+			File file, boolean folder) {
+		int count = node.getChildCount();
+		for (int i=0; i<count; i++) {
+			if (node.getChildAt(i) instanceof FileTreeNode child) {
+				boolean childFolder = child.getAllowsChildren();
+				if (folder ? (!childFolder || child.getFile().compareTo(file)>0) :
+						(!childFolder && child.getFile().compareTo(file)>0)) {
+					return i;
+				}
+			}
+		}
+		return count;
+	}
+
+
+	private DefaultTreeModel getModel() {
+		return (DefaultTreeModel)tree.getModel();
+	}
+
+
+	/**
+	 * Called on the EDT when files are added to or removed from a watched
+	 * folder.
+	 *
+	 * @param key The watch key for the folder.
+	 * @param changes The changes, or <code>null</code> if events were lost
+	 *        and the folder must be listed again.
+	 * @param valid Whether the folder is still being watched.  This is
+	 *        <code>false</code> if it was deleted.
+	 */
+	private void handleWatchEvents(WatchKey key, List<Change> changes,
+			boolean valid) {
+
+		List<AbstractWorkspaceTreeNode> nodes = watchedNodes.get(key);
+		if (nodes==null) {
+			// The folder's listing hasn't been applied yet.
+			if (valid && key.isValid()) {
+				bufferChanges(key, changes);
+			}
+			else {
+				bufferedChanges.remove(key);
+			}
+			return;
+		}
+
+		// Stop watching folders no longer displayed.
+		nodes.removeIf(node -> !isInTree(node));
+		if (nodes.isEmpty() || !valid) {
+			watchedNodes.remove(key);
+			key.cancel();
+			return;
+		}
+
+		for (AbstractWorkspaceTreeNode node : new ArrayList<>(nodes)) {
+			if (changes==null) {
+				load((PhysicalLocationTreeNode)node);
+			}
+			else {
+				applyChanges(node, changes);
+			}
+		}
+
+	}
+
+
+	/**
+	 * Returns the index of the child node for a file.
+	 *
+	 * @param node The parent node.
+	 * @param file The file.
+	 * @return The index, or <code>-1</code> if there is no such child.
+	 */
+	private static int indexOf(AbstractWorkspaceTreeNode node, File file) {
+		for (int i=0; i<node.getChildCount(); i++) {
+			if (node.getChildAt(i) instanceof FileTreeNode child &&
+					child.getFile().equals(file)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+
+	private boolean isInTree(TreeNode node) {
+		while (node.getParent()!=null) {
+			node = node.getParent();
+		}
+		return node==getModel().getRoot();
+	}
+
+
+	/**
+	 * Lists the contents of a folder.  This is called on a background
+	 * thread.
+	 *
+	 * @param dir The folder.
+	 * @param filterInfo Filters the folder's contents.  This may be
+	 *        <code>null</code>.
+	 * @return The folder's contents.
+	 */
+	private Listing list(File dir, FolderFilterInfo filterInfo) {
+
+		// Watch before listing, so no changes are missed.
+		Path path = dir.toPath();
+		WatchKey key = watch(path);
+
+		List<File> folders = new ArrayList<>();
+		List<File> files = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
+			for (Path child : stream) {
+				File file = child.toFile();
+				// On Windows, the attributes read while listing are reused.
+				boolean folder = Files.isDirectory(child);
+				if (filterInfo==null || filterInfo.isAllowed(file, folder)) {
+					(folder ? folders : files).add(file);
+				}
+			}
+		} catch (IOException | DirectoryIteratorException e) {
+			// The folder was deleted or can't be read; it's shown as empty
+		}
+
+		Collections.sort(folders);
+		Collections.sort(files);
+		return new Listing(folders, files, key);
+
+	}
+
+
+	/**
+	 * Lists a node's folder in the background, and updates the node's
+	 * children when done.
+	 *
+	 * @param node The node.
+	 */
+	void load(PhysicalLocationTreeNode node) {
+
+		File dir = node.getFile();
+		FolderFilterInfo filterInfo = node.getFilterInfo();
+		int load = ++loadCount;
+		pendingLoads.put(node, load);
+
+		executor.execute(() -> {
+			Listing listing = list(dir, filterInfo);
+			SwingUtilities.invokeLater(() -> {
+				Integer latest = pendingLoads.get(node);
+				if (latest!=null && latest==load) {
+					pendingLoads.remove(node);
+					if (isInTree(node)) {
+						applyListing((AbstractWorkspaceTreeNode)node, listing);
+						return;
+					}
+				}
+				discardListing(dir, listing);
+			});
+		});
+
+	}
+
+
+	/**
+	 * Starts watching a folder.  This is called on a background thread.
+	 *
+	 * @param dir The folder.
+	 * @return The watch key, or <code>null</code> if the folder can't be
+	 *         watched.
+	 */
+	private synchronized WatchKey watch(Path dir) {
+
+		if (watchService==null && !watchServiceUnavailable) {
+			try {
+				watchService = FileSystems.getDefault().newWatchService();
+				Thread t = new Thread(new Watcher(watchService),
+						"ProjectTreeWatcher");
+				t.setDaemon(true);
+				t.start();
+			} catch (IOException | UnsupportedOperationException e) {
+				e.printStackTrace();
+				watchServiceUnavailable = true;
+			}
+		}
+
+		if (watchService!=null) {
+			try {
+				return dir.register(watchService,
+						StandardWatchEventKinds.ENTRY_CREATE,
+						StandardWatchEventKinds.ENTRY_DELETE);
+			} catch (IOException | RuntimeException e) {
+				// e.g. a file system that doesn't support watching, or the
+				// OS's limit on watched folders was reached
+			}
+		}
+		return null;
+
+	}
+
+
+	/**
+	 * A file added to or removed from a folder.
+	 *
+	 * @param file The file.
+	 * @param created Whether the file was created, as opposed to deleted.
+	 * @param folder Whether a created file is a folder.
+	 */
+	private record Change(File file, boolean created, boolean folder) {
+	}
+
+
+	/**
+	 * The contents of a folder.
+	 *
+	 * @param folders The sub-folders, sorted.
+	 * @param files The files, sorted.
+	 * @param key The key the folder is watched with, or <code>null</code>
+	 *        if it isn't watched.
+	 */
+	private record Listing(List<File> folders, List<File> files, WatchKey key) {
+	}
+
+
+	/**
+	 * Waits for changes to watched folders, and passes them to the EDT.
+	 */
+	private final class Watcher implements Runnable {
+
+		private final WatchService service;
+
+		Watcher(WatchService service) {
+			this.service = service;
+		}
+
+		@Override
+		public void run() {
+
+			while (true) {
+
+				WatchKey key;
+				try {
+					key = service.take();
+				} catch (InterruptedException | ClosedWatchServiceException e) {
+					return;
+				}
+
+				Path dir = (Path)key.watchable();
+				List<Change> changes = new ArrayList<>();
+				for (WatchEvent<?> event : key.pollEvents()) {
+					WatchEvent.Kind<?> kind = event.kind();
+					if (kind==StandardWatchEventKinds.OVERFLOW) {
+						changes = null;
+						break;
+					}
+					Path child = dir.resolve((Path)event.context());
+					boolean created = kind==StandardWatchEventKinds.ENTRY_CREATE;
+					// Checked here, since it may be slow on network drives.
+					boolean folder = created && Files.isDirectory(child);
+					changes.add(new Change(child.toFile(), created, folder));
+				}
+				boolean valid = key.reset();
+
+				List<Change> finalChanges = changes;
+				SwingUtilities.invokeLater(() ->
+						handleWatchEvents(key, finalChanges, valid));
+
+			}
+
+		}
+
+	}
+
+
+}
@@ -11,10 +11,7 @@ package org.fife.rtext.plugins.project.tree;
 
 import java.awt.event.ActionEvent;
 import java.io.File;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import javax.swing.filechooser.FileSystemView;
 import javax.swing.tree.TreeNode;
 
 import org.fife.rtext.plugins.project.BaseAction;
@@ -43,53 +40,6 @@ public class FolderProjectEntryTreeNode extends FileProjectEntryTreeNode
 	}
 
 
-	/**
-	 * Filters and sorts the list of child files, and adds child tree nodes
-	 * for the children not filtered out.
-	 *
-	 * @param files The array of files to filter, and add (sorted) child tree
-	 *        nodes for those not filtered out.
-	 */
-	private void addChildrenFilteredAndSorted(File[] files) {
-
-		ArrayList<File> dirList = new ArrayList<>();
-		ArrayList<File> fileList = new ArrayList<>();
-		FolderFilterInfo filterInfo = getFilterInfo();
-
-		// First, separate the directories from regular files so we can
-		// sort them individually.  This part could be made more compact,
-		// but it isn't just for a tad more speed.
-		for (File file1 : files) {
-			boolean isDir = file1.isDirectory();
-			if (filterInfo != null && filterInfo.isAllowed(file1, isDir)) {
-				if (isDir)
-					dirList.add(file1);
-				else
-					fileList.add(file1);
-			}
-		}
-
-		Collections.sort(dirList);
-		for (File dir : dirList) {
-			add(createFileTreeNode(dir, true));
-		}
-		Collections.sort(fileList);
-		for (File file : fileList) {
-			add(createFileTreeNode(file, false));
-		}
-
-	}
-
-
-	private FileTreeNode createFileTreeNode(File file, boolean folder) {
-		FileTreeNode ftn = new FileTreeNode(plugin, file);
-		if (folder) {
-			ftn.setFilterInfo(getFilterInfo());
-		}
-		return ftn;
-	}
-
-
 	@Override
 	public String getDisplayName() {
 		return ((FolderProjectEntry)entry).getDisplayName();
@@ -102,7 +52,8 @@ public class FolderProjectEntryTreeNode extends FileProjectEntryTreeNode
 	}
 
 
-	private FolderFilterInfo getFilterInfo() {
+	@Override
+	public FolderFilterInfo getFilterInfo() {
 		return ((FolderProjectEntry)entry).getFilterInfo();
 	}
 
@@ -166,18 +117,6 @@ public class FolderProjectEntryTreeNode extends FileProjectEntryTreeNode
 	}
 
 
-	@Override
-	public void refreshChildren() {
-		File file = getFile();
-		if (file.isDirectory()) { // Should always be true
-			removeAllChildren();
-			FileSystemView fsv = FileSystemView.getFileSystemView();
-			File[] children = fsv.getFiles(file, false);
-			addChildrenFilteredAndSorted(children);
-		}
-	}
-
-
 	private void setDisplayName(String displayName) {
 		((FolderProjectEntry)entry).setDisplayName(displayName);
 	}
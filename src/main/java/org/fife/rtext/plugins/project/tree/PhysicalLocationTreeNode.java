@@ -21,9 +21,11 @@ import javax.swing.tree.TreeNode;
 
 import org.fife.rtext.RText;
 import org.fife.rtext.plugins.project.BaseAction;
+import org.fife.rtext.plugins.project.Messages;
 import org.fife.rtext.plugins.project.NewFileOrFolderDialog;
 import org.fife.rtext.plugins.project.PopupContent;
 import org.fife.rtext.plugins.project.ProjectPlugin;
+import org.fife.rtext.plugins.project.model.FolderFilterInfo;
 import org.fife.rtext.plugins.project.tree.FileTreeNode.FileNameChecker;
 import org.fife.ui.app.icons.IconGroup;
 
@@ -45,6 +47,14 @@ public interface PhysicalLocationTreeNode extends TreeNode {
 	File getFile();
 
 
+	/**
+	 * Returns how the children of this node are filtered.
+	 *
+	 * @return The filters, or <code>null</code> if no filtering is done.
+	 */
+	FolderFilterInfo getFilterInfo();
+
+
 	/**
 	 * Returns the plugin.
 	 *
@@ -68,16 +78,9 @@ public interface PhysicalLocationTreeNode extends TreeNode {
 	boolean isNotPopulated();
 
 
-	/**
-	 * Refreshes the child nodes of this node.  The tree model will need to be
-	 * reloaded after making this call.
-	 */
-	void refreshChildren();
-
-
 	/**
 	 * Dummy class signifying that this tree node has not yet had its children
-	 * calculated.
+	 * calculated.  It is displayed while the children are loaded.
 	 */
 	class NotYetPopulatedChild extends AbstractWorkspaceTreeNode {
 
@@ -87,7 +90,7 @@ public interface PhysicalLocationTreeNode extends TreeNode {
 
 		@Override
 		public String getDisplayName() {
-			return null;
+			return Messages.getString("ProjectPlugin.Loading");
 		}
 
 		@Override
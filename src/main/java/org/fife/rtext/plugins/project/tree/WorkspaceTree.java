@@ -10,7 +10,6 @@
 package org.fife.rtext.plugins.project.tree;
 
 import java.awt.ComponentOrientation;
-import java.awt.Cursor;
 import java.awt.Point;
 import java.awt.Toolkit;
 import java.awt.datatransfer.StringSelection;
@@ -62,6 +61,7 @@ public class WorkspaceTree extends JTree implements FileSelector {
 
 	private final ProjectPlugin plugin;
 	private final DefaultTreeModel model;
+	private final FolderLoader folderLoader;
 	private JPopupMenu popup;
 
 
@@ -70,6 +70,7 @@ public class WorkspaceTree extends JTree implements FileSelector {
 		this.plugin = plugin;
 		WorkspaceRootTreeNode root = new WorkspaceRootTreeNode(plugin, workspace);
 		model = new DefaultTreeModel(root);
+		folderLoader = new FolderLoader(this, plugin);
 		installActions();
 		setModel(model);
 		setWorkspace(workspace);
@@ -217,7 +218,8 @@ public class WorkspaceTree extends JTree implements FileSelector {
 	/**
 	 * Called when a node is about to be expanded.  This method is overridden
 	 * so that the node that is being expanded will be populated with its
-	 * subdirectories, if necessary.
+	 * subdirectories, if necessary.  This is done in the background; until
+	 * then, the node displays a "Loading..." child.
 	 */
 	@Override
 	public void fireTreeWillExpand(TreePath e) throws ExpandVetoException {
@@ -231,13 +233,7 @@ public class WorkspaceTree extends JTree implements FileSelector {
 		// this node with true children yet.
 		if (awtn instanceof PhysicalLocationTreeNode pltn) {
 			if (pltn.isNotPopulated()) {
-				Cursor orig = getCursor();
-				setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
-				try {
-					refreshChildren(pltn);
-				} finally {
-					setCursor(orig);
-				}
+				refreshChildren(pltn);
 			}
 		}
 
@@ -462,13 +458,13 @@ public class WorkspaceTree extends JTree implements FileSelector {
 
 	/**
 	 * Refreshes the children of the specified node (representing a directory)
-	 * to accurately reflect the files inside of it.
+	 * to accurately reflect the files inside of it.  The directory is listed
+	 * in the background, and the node is updated when that completes.
 	 *
 	 * @param node The node whose children should be refreshed.
 	 */
 	void refreshChildren(PhysicalLocationTreeNode node) {
-		node.refreshChildren();
-		model.reload(node);
+		folderLoader.load(node);
 	}
 
 
@@ -478,6 +474,7 @@ public class WorkspaceTree extends JTree implements FileSelector {
 	 * @param workspace The new workspace to display.
 	 */
 	public void setWorkspace(Workspace workspace) {
+		folderLoader.clear();
 		WorkspaceTreeRootCreator creator = new WorkspaceTreeRootCreator(plugin);
 		workspace.accept(creator);
 		model.setRoot(creator.getRoot());
@@ -0,0 +1,129 @@
+/*
+ * 10/18/2026
+ *
+ * OutlineCache.java - Remembers the tags ctags found in recent files.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.sourcebrowser;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.fife.ctags.TagEntry;
+
+
+/**
+ * Remembers the tags ctags found in the most recently outlined files, so
+ * switching back to a tab whose file hasn't changed doesn't run ctags
+ * again.<p>
+ *
+ * Since ctags outlines the file on disk, not the editor's contents, an
+ * entry is valid as long as the file's modification time and size are
+ * unchanged, even if the file has unsaved changes in the editor.<p>
+ *
+ * This class is thread-safe.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class OutlineCache {
+
+	private final Map<Key, Entry> entries;
+
+	/**
+	 * The maximum number of files whose tags are remembered.
+	 */
+	private static final int MAX_SIZE = 64;
+
+
+	/**
+	 * Constructor.
+	 */
+	OutlineCache() {
+		entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+				return size()>MAX_SIZE;
+			}
+		};
+	}
+
+
+	/**
+	 * Forgets all remembered tags.  This should be called when the ctags
+	 * executable changes.
+	 */
+	synchronized void clear() {
+		entries.clear();
+	}
+
+
+	/**
+	 * Returns the tags found in a file, if they're known and the file
+	 * hasn't changed since.
+	 *
+	 * @param file The file.
+	 * @param style The syntax style the file was outlined as.
+	 * @return The tags, keyed by their kind, or <code>null</code> if the
+	 *         file must be outlined again.
+	 */
+	synchronized Map<String, List<TagEntry>> get(File file, String style) {
+		Key key = new Key(file.getAbsolutePath(), style);
+		Entry entry = entries.get(key);
+		if (entry!=null && (entry.lastModified()!=file.lastModified() ||
+				entry.length()!=file.length())) {
+			entries.remove(key);
+			entry = null;
+		}
+		return entry==null ? null : entry.tags();
+	}
+
+
+	/**
+	 * Remembers the tags found in a file.
+	 *
+	 * @param file The file.
+	 * @param style The syntax style the file was outlined as.
+	 * @param lastModified The file's modification time, as of before ctags
+	 *        was run on it.
+	 * @param length The file's size, as of before ctags was run on it.
+	 * @param tags The tags, keyed by their kind.  A copy is made.
+	 */
+	synchronized void put(File file, String style, long lastModified,
+			long length, Map<String, List<TagEntry>> tags) {
+		Map<String, List<TagEntry>> copy = new HashMap<>();
+		tags.forEach((kind, list) -> copy.put(kind, List.copyOf(list)));
+		entries.put(new Key(file.getAbsolutePath(), style),
+				new Entry(lastModified, length, copy));
+	}
+
+
+	/**
+	 * Identifies an outline.
+	 *
+	 * @param path The path of the outlined file.
+	 * @param style The syntax style the file was outlined as.
+	 */
+	private record Key(String path, String style) {
+	}
+
+
+	/**
+	 * An outline of a file.
+	 *
+	 * @param lastModified The file's modification time when outlined.
+	 * @param length The file's size when outlined.
+	 * @param tags The tags found, keyed by their kind.
+	 */
+	private record Entry(long lastModified, long length,
+						Map<String, List<TagEntry>> tags) {
+	}
+
+
+}
@@ -0,0 +1,298 @@
+/*
+ * 10/18/2026
+ *
+ * OutlineScanner.java - Finds the declarations on a line of code.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.sourcebrowser;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
+import org.fife.ui.rsyntaxtextarea.Token;
+
+
+/**
+ * Finds the declarations (functions, classes, etc.) on a line of code from
+ * its syntax highlighting tokens, so languages whose declarations start
+ * with a keyword can be outlined without running ctags.<p>
+ *
+ * Declarations are reported with the same "kind" letters Exuberant Ctags
+ * uses for the language, so the source tree looks the same either way.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class OutlineScanner implements SyntaxConstants {
+
+	/**
+	 * Maps keywords that start a declaration to the kind of declaration.
+	 */
+	private final Map<String, String> keywordKinds;
+
+	private boolean ignoreCase;
+
+	/**
+	 * If non-<code>null</code>, the kind of functions declared on an
+	 * indented line, e.g. methods in Python.
+	 */
+	private String indentedFunctionKind;
+
+	/**
+	 * If non-<code>null</code>, the kind of functions declared as
+	 * <code>self.name</code>, e.g. singleton methods in Ruby.
+	 */
+	private String selfFunctionKind;
+
+	/**
+	 * Whether functions can also be declared as <code>name()</code>, as in
+	 * shell scripts.
+	 */
+	private boolean parenFunctions;
+
+	private static final String FUNCTION_KIND = "f";
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param keywordsAndKinds Pairs of keywords starting declarations, and
+	 *        the kind of declaration they start.
+	 */
+	private OutlineScanner(String... keywordsAndKinds) {
+		keywordKinds = new HashMap<>();
+		for (int i=0; i<keywordsAndKinds.length; i+=2) {
+			keywordKinds.put(keywordsAndKinds[i], keywordsAndKinds[i+1]);
+		}
+	}
+
+
+	/**
+	 * Creates the tag for a declaration, given the tokens after the keyword
+	 * starting it.
+	 *
+	 * @param kind The kind of declaration.
+	 * @param t The token after the keyword.
+	 * @param indented Whether the line is indented.
+	 * @return The tag, or <code>null</code> if the declaration is
+	 *         anonymous (e.g. a JavaScript-style <code>function()</code>).
+	 */
+	private Tag createTag(String kind, Token t, boolean indented) {
+
+		while (t!=null && t.isWhitespace()) {
+			t = t.getNextToken();
+		}
+		if (!isNameStart(t)) {
+			return null;
+		}
+
+		String name = readName(t);
+		if (FUNCTION_KIND.equals(kind)) {
+			if (selfFunctionKind!=null && name.startsWith("self.")) {
+				name = name.substring(5);
+				kind = selfFunctionKind;
+			}
+			else if (indentedFunctionKind!=null && indented) {
+				kind = indentedFunctionKind;
+			}
+		}
+		return new Tag(name, kind);
+
+	}
+
+
+	/**
+	 * Returns the scanner for a syntax style.
+	 *
+	 * @param style The syntax style.
+	 * @return The scanner, or <code>null</code> if the language isn't
+	 *         supported (in which case ctags should be used).
+	 */
+	static OutlineScanner get(String style) {
+
+		OutlineScanner scanner;
+
+		switch (style) {
+			case SYNTAX_STYLE_DELPHI:
+				scanner = new OutlineScanner("function", "f",
+						"procedure", "p");
+				scanner.ignoreCase = true;
+				break;
+			case SYNTAX_STYLE_LISP:
+				scanner = new OutlineScanner("defun", "f", "defmacro", "f");
+				break;
+			case SYNTAX_STYLE_LUA:
+				scanner = new OutlineScanner("function", "f");
+				break;
+			case SYNTAX_STYLE_PERL:
+				scanner = new OutlineScanner("sub", "s");
+				break;
+			case SYNTAX_STYLE_PHP:
+				scanner = new OutlineScanner("class", "c", "interface", "i",
+						"function", "f");
+				scanner.ignoreCase = true;
+				break;
+			case SYNTAX_STYLE_PYTHON:
+				scanner = new OutlineScanner("class", "c", "def", "f");
+				scanner.indentedFunctionKind = "m";
+				break;
+			case SYNTAX_STYLE_RUBY:
+				scanner = new OutlineScanner("class", "c", "module", "m",
+						"def", "f");
+				scanner.selfFunctionKind = "F";
+				break;
+			case SYNTAX_STYLE_TCL:
+				scanner = new OutlineScanner("proc", "p", "class", "c",
+						"method", "m");
+				break;
+			case SYNTAX_STYLE_UNIX_SHELL:
+				scanner = new OutlineScanner("function", "f");
+				scanner.parenFunctions = true;
+				break;
+			default:
+				scanner = null;
+				break;
+		}
+
+		return scanner;
+
+	}
+
+
+	/**
+	 * Returns whether a token can be a keyword starting a declaration.
+	 * Tokens in comments and strings can't be.
+	 *
+	 * @param t The token.
+	 * @return Whether the token can be a keyword.
+	 */
+	private static boolean isKeywordCandidate(Token t) {
+		return switch (t.getType()) {
+			case Token.RESERVED_WORD, Token.RESERVED_WORD_2, Token.FUNCTION,
+				Token.IDENTIFIER, Token.DATA_TYPE -> true;
+			default -> false;
+		};
+	}
+
+
+	/**
+	 * Returns whether a token can start a declaration's name.
+	 *
+	 * @param t The token.
+	 * @return Whether the token can start a name.
+	 */
+	private static boolean isNameStart(Token t) {
+		if (t==null || t.isComment() || t.length()==0) {
+			return false;
+		}
+		char ch = t.charAt(0);
+		return Character.isLetter(ch) || ch=='_' || ch=='$';
+	}
+
+
+	/**
+	 * Returns the name of a declaration.  Qualified names, such as
+	 * <code>Module.function</code>, are returned in full.
+	 *
+	 * @param t The first token of the name.
+	 * @return The name.
+	 */
+	private static String readName(Token t) {
+
+		StringBuilder sb = new StringBuilder(t.getLexeme());
+		int end = t.getEndOffset();
+		t = t.getNextToken();
+
+		while (t!=null && t.isPaintable() && t.getOffset()==end) {
+			String lexeme = t.getLexeme();
+			if (isNameStart(t) || ".".equals(lexeme) || ":".equals(lexeme) ||
+					"::".equals(lexeme)) {
+				sb.append(lexeme);
+				end = t.getEndOffset();
+				t = t.getNextToken();
+			}
+			else {
+				break;
+			}
+		}
+
+		// Don't include any trailing separator.
+		int length = sb.length();
+		while (length>0 && (sb.charAt(length-1)=='.' ||
+				sb.charAt(length-1)==':')) {
+			length--;
+		}
+		sb.setLength(length);
+		return sb.toString();
+
+	}
+
+
+	/**
+	 * Returns the declaration on a line of code, if any.
+	 *
+	 * @param t The tokens on the line.
+	 * @return The declaration, or <code>null</code> if there isn't one.
+	 */
+	Tag scanLine(Token t) {
+
+		boolean indented = t!=null && t.isWhitespace();
+		Token first = null;
+
+		while (t!=null && t.isPaintable()) {
+
+			if (!t.isWhitespace() && !t.isComment()) {
+
+				if (first==null) {
+					first = t;
+				}
+
+				if (isKeywordCandidate(t)) {
+					String keyword = t.getLexeme();
+					if (ignoreCase) {
+						keyword = keyword.toLowerCase();
+					}
+					String kind = keywordKinds.get(keyword);
+					if (kind!=null) {
+						return createTag(kind, t.getNextToken(), indented);
+					}
+				}
+
+			}
+
+			t = t.getNextToken();
+
+		}
+
+		if (parenFunctions && first!=null &&
+				first.getType()==Token.IDENTIFIER) {
+			Token next = first.getNextToken();
+			while (next!=null && next.isWhitespace()) {
+				next = next.getNextToken();
+			}
+			if (next!=null && next.isPaintable() &&
+					next.getLexeme().startsWith("(")) {
+				return new Tag(readName(first), FUNCTION_KIND);
+			}
+		}
+
+		return null;
+
+	}
+
+
+	/**
+	 * A declaration found on a line.
+	 *
+	 * @param name The name of the declaration.
+	 * @param kind The kind of declaration, as a ctags "kind" letter.
+	 */
+	record Tag(String name, String kind) {
+	}
+
+
+}
@@ -18,6 +18,7 @@ import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Method;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
@@ -48,7 +49,12 @@ import org.fife.ui.rsyntaxtextarea.Token;
  * a list of all variables, functions, classes, methods, etc. defined in the
  * currently-opened source file.  Clicking on an item in the Source Browser
  * moves the cursor to that item's position in the source file; also, right-
- * clicking on an item displays a popup menu.
+ * clicking on an item displays a popup menu.<p>
+ *
+ * Languages whose declarations are easy to spot are outlined from the
+ * editor's syntax highlighting tokens instead (see {@link TokenOutline}),
+ * which is faster and picks up unsaved changes.  ctags is used for
+ * everything else.
  *
  * @author Robert Futrell
  * @version 1.2
@@ -68,6 +74,7 @@ public class SourceBrowserPlugin extends GUIPlugin<RText>
 	private Map<String, Icon> icons;
 	private boolean useHTMLToolTips;
 	private final SourceBrowserThread sourceBrowserThread;
+	private final OutlineCache outlineCache = new OutlineCache();
 	private final SourceTreeNode workingRoot;
 	private JToolBar dockableWindowTB;
 
@@ -92,6 +99,8 @@ public class SourceBrowserPlugin extends GUIPlugin<RText>
 
 	private static final String CACHED_SOURCE_TREE = "sourceBrowser.fileSystemTree";
 
+	private static final String TOKEN_OUTLINE = "sourceBrowser.tokenOutline";
+
 
 	/**
 	 * Creates a new <code>SourceBrowserPlugin</code>.
@@ -251,6 +260,17 @@ public class SourceBrowserPlugin extends GUIPlugin<RText>
 				textArea.putClientProperty(CACHED_SOURCE_TREE, sourceTree);
 			}
 
+			Icon fileIcon = owner.getMainView().getIconFor(textArea);
+			((DefaultSourceTree)sourceTree).setRootIcon(fileIcon);
+
+			// If we can outline this language ourselves, there's no need
+			// to run ctags.
+			TokenOutline outline = getTokenOutline(textArea, style);
+			if (outline!=null) {
+				((DefaultSourceTree)sourceTree).setRoot(outline.createTree());
+				return;
+			}
+
 			// If we cannot find the ctags executable, quit now.
 			if (ctagsFile==null || !ctagsFile.isFile()) {
 				setErrorMessage(msg.getString("Error.ExeNotFound"));
@@ -261,14 +281,23 @@ public class SourceBrowserPlugin extends GUIPlugin<RText>
 			// (via the text editor's syntax highlighting style).  We do
 			// it this way because the user may have some odd extension
 			// (like .abc) mapped to say C source files.
-			Icon fileIcon = owner.getMainView().getIconFor(textArea);
-			((DefaultSourceTree)sourceTree).setRootIcon(fileIcon);
 			String language = getLanguageForStyle(style);
 			if (language==null) {
 				// Language not supported by ctags.
 				((DefaultSourceTree)sourceTree).setRoot(null);
 				return;
 			}
+
+			// If ctags has already outlined this file as it is now, there's
+			// no need to run it again.
+			File file = new File(textArea.getFileFullPath());
+			Map<String, List<TagEntry>> tags = outlineCache.get(file, style);
+			if (tags!=null) {
+				((DefaultSourceTree)sourceTree).setRoot(SourceBrowserThread.
+						createRoot(textArea.getFileName(), style, tags));
+				return;
+			}
+
 			((DefaultSourceTree)sourceTree).setRoot(workingRoot);
 
 			// Start a new process in a separate thread to parse the
@@ -418,6 +447,16 @@ public class SourceBrowserPlugin extends GUIPlugin<RText>
 	}
 
 
+	/**
+	 * Returns the cache of tags found by ctags.
+	 *
+	 * @return The cache.
+	 */
+	OutlineCache getOutlineCache() {
+		return outlineCache;
+	}
+
+
 	/**
 	 * Returns the options panel for this source browser.
 	 *
@@ -492,6 +531,38 @@ public class SourceBrowserPlugin extends GUIPlugin<RText>
 	}
 
 
+	/**
+	 * Returns the outline built from a text area's tokens, creating it if
+	 * necessary.
+	 *
+	 * @param textArea The text area.
+	 * @param style The text area's syntax style.
+	 * @return The outline, or <code>null</code> if the language must be
+	 *         outlined with ctags.
+	 */
+	private TokenOutline getTokenOutline(RTextEditorPane textArea,
+										String style) {
+
+		Object value = textArea.getClientProperty(TOKEN_OUTLINE);
+		if (value instanceof TokenOutline outline) {
+			if (outline.getSyntaxStyle().equals(style)) {
+				return outline;
+			}
+			outline.uninstall();
+		}
+
+		OutlineScanner scanner = OutlineScanner.get(style);
+		TokenOutline outline = null;
+		if (scanner!=null) {
+			outline = new TokenOutline(textArea, style, scanner,
+									this::tokenOutlineChanged);
+		}
+		textArea.putClientProperty(TOKEN_OUTLINE, outline);
+		return outline;
+
+	}
+
+
 	/**
 	 * Return whether HTML tooltips are being used by the source browser.
 	 *
@@ -659,6 +730,7 @@ public class SourceBrowserPlugin extends GUIPlugin<RText>
 				!ctagsExecutableLocation.equals(location)) {
 			ctagsExecutableLocation = location;
 			ctagsFile = location==null ? null : new File(location);
+			outlineCache.clear();
 			refresh(); // Redo ctags list with new executable.
 		}
 	}
@@ -675,7 +747,11 @@ public class SourceBrowserPlugin extends GUIPlugin<RText>
 	 * @see SourceBrowserPlugin#CTAGS_TYPE_STANDARD
 	 */
 	public void setCTagsType(String type) {
-		this.ctagsType = ensureValidCTagsType(type);
+		type = ensureValidCTagsType(type);
+		if (!type.equals(ctagsType)) {
+			ctagsType = type;
+			outlineCache.clear();
+		}
 	}
 
 
@@ -714,6 +790,24 @@ public class SourceBrowserPlugin extends GUIPlugin<RText>
 	}
 
 
+	/**
+	 * Called when a text area's outline changes as the user types.  If it's
+	 * the outline being displayed, the tree is updated.
+	 *
+	 * @param outline The outline that changed.
+	 */
+	private void tokenOutlineChanged(TokenOutline outline) {
+		RTextEditorPane textArea = getApplication().getMainView().
+												getCurrentTextArea();
+		if (getDockableWindow(getPluginName()).isActive() &&
+				textArea!=null &&
+				textArea.getClientProperty(TOKEN_OUTLINE)==outline &&
+				sourceTree instanceof DefaultSourceTree tree) {
+			tree.setRoot(outline.createTree());
+		}
+	}
+
+
 	/**
 	 * Called just before this <code>Plugin</code> is removed from an
 	 * RText instance.  Here we uninstall any listeners we registered.
@@ -741,6 +835,11 @@ public class SourceBrowserPlugin extends GUIPlugin<RText>
 			((AbstractSourceTree)tree).uninstall();
 		}
 		textArea.putClientProperty(CACHED_SOURCE_TREE, null);
+		Object outline = textArea.getClientProperty(TOKEN_OUTLINE);
+		if (outline instanceof TokenOutline) {
+			((TokenOutline)outline).uninstall();
+		}
+		textArea.putClientProperty(TOKEN_OUTLINE, null);
 	}
 
 
@@ -113,152 +113,154 @@ class SourceBrowserThread extends GUIWorkerThread<SourceTreeNode> implements Syn
 	 *
 	 * @param root The root node to add children to.
 	 * @param style The syntax style.
+	 * @param tags The tags found, keyed by their kind.
 	 */
-	private void addChildNodesForStyle(SourceTreeNode root, String style) {
+	private static void addChildNodesForStyle(SourceTreeNode root,
+			String style, Map<String, List<TagEntry>> tags) {
 
 		// SYNTAX_STYLE_ACTIONSCRIPT is handled below with MXML
 
 		if (SYNTAX_STYLE_C.equals(style) ||
 				SYNTAX_STYLE_CPLUSPLUS.equals(style)) {
-			addTagTypeNode(root, "Classes", map.get("c"));
-			addTagTypeNode(root, "Macros", map.get("d"));
-			addTagTypeNode(root, "Functions", map.get("f"));
-			addTagTypeNode(root, "Enumerations", map.get("g"));
-			addTagTypeNode(root, "Class/Struct/Union members", map.get("m"));
-			addTagTypeNode(root, "Namespaces", map.get("n"));
-			addTagTypeNode(root, "Structs", map.get("s"));
-			addTagTypeNode(root, "Typedefs", map.get("t"));
-			addTagTypeNode(root, "Variables", map.get("v"));
+			addTagTypeNode(root, "Classes", tags.get("c"));
+			addTagTypeNode(root, "Macros", tags.get("d"));
+			addTagTypeNode(root, "Functions", tags.get("f"));
+			addTagTypeNode(root, "Enumerations", tags.get("g"));
+			addTagTypeNode(root, "Class/Struct/Union members", tags.get("m"));
+			addTagTypeNode(root, "Namespaces", tags.get("n"));
+			addTagTypeNode(root, "Structs", tags.get("s"));
+			addTagTypeNode(root, "Typedefs", tags.get("t"));
+			addTagTypeNode(root, "Variables", tags.get("v"));
 		}
 
 		else if (SYNTAX_STYLE_CSHARP.equals(style)) {
-			addTagTypeNode(root, "Classes", map.get("c"));
-			addTagTypeNode(root, "Macros", map.get("d"));
-			addTagTypeNode(root, "Events", map.get("E"));
-			addTagTypeNode(root, "Fields", map.get("f"));
-			addTagTypeNode(root, "Enumerations", map.get("g"));
-			addTagTypeNode(root, "Interfaces", map.get("i"));
-			addTagTypeNode(root, "Methods", map.get("m"));
-			addTagTypeNode(root, "Namespaces", map.get("n"));
-			addTagTypeNode(root, "Properties", map.get("p"));
-			addTagTypeNode(root, "Structs", map.get("s"));
-			addTagTypeNode(root, "Typedefs", map.get("t"));
+			addTagTypeNode(root, "Classes", tags.get("c"));
+			addTagTypeNode(root, "Macros", tags.get("d"));
+			addTagTypeNode(root, "Events", tags.get("E"));
+			addTagTypeNode(root, "Fields", tags.get("f"));
+			addTagTypeNode(root, "Enumerations", tags.get("g"));
+			addTagTypeNode(root, "Interfaces", tags.get("i"));
+			addTagTypeNode(root, "Methods", tags.get("m"));
+			addTagTypeNode(root, "Namespaces", tags.get("n"));
+			addTagTypeNode(root, "Properties", tags.get("p"));
+			addTagTypeNode(root, "Structs", tags.get("s"));
+			addTagTypeNode(root, "Typedefs", tags.get("t"));
 		}
 
 		else if (SYNTAX_STYLE_DELPHI.equals(style)) {
-			addTagTypeNode(root, "Functions", map.get("f"));
-			addTagTypeNode(root, "Procedures", map.get("p"));
+			addTagTypeNode(root, "Functions", tags.get("f"));
+			addTagTypeNode(root, "Procedures", tags.get("p"));
 		}
 
 		else if (SYNTAX_STYLE_FORTRAN.equals(style)) {
-			addTagTypeNode(root, "Block Data", map.get("b"));
-			addTagTypeNode(root, "Common Blocks", map.get("c"));
-			addTagTypeNode(root, "Entry Points", map.get("e"));
-			addTagTypeNode(root, "Functions", map.get("f"));
-			addTagTypeNode(root, "Type and Structure Components", map.get("k"));
-			addTagTypeNode(root, "Labels", map.get("l"));
-			addTagTypeNode(root, "Modules", map.get("m"));
-			addTagTypeNode(root, "Namelists", map.get("n"));
-			addTagTypeNode(root, "Programs", map.get("p"));
-			addTagTypeNode(root, "Subroutines", map.get("s"));
-			addTagTypeNode(root, "Derived Types/Structures", map.get("t"));
-			addTagTypeNode(root, "Global and Module Variables", map.get("v"));
+			addTagTypeNode(root, "Block Data", tags.get("b"));
+			addTagTypeNode(root, "Common Blocks", tags.get("c"));
+			addTagTypeNode(root, "Entry Points", tags.get("e"));
+			addTagTypeNode(root, "Functions", tags.get("f"));
+			addTagTypeNode(root, "Type and Structure Components", tags.get("k"));
+			addTagTypeNode(root, "Labels", tags.get("l"));
+			addTagTypeNode(root, "Modules", tags.get("m"));
+			addTagTypeNode(root, "Namelists", tags.get("n"));
+			addTagTypeNode(root, "Programs", tags.get("p"));
+			addTagTypeNode(root, "Subroutines", tags.get("s"));
+			addTagTypeNode(root, "Derived Types/Structures", tags.get("t"));
+			addTagTypeNode(root, "Global and Module Variables", tags.get("v"));
 		}
 
 		else if (SYNTAX_STYLE_HTML.equals(style)) {
-			addTagTypeNode(root, "Named Anchors", map.get("a"));
-			addTagTypeNode(root, "JavaScript functions", map.get("f"));
+			addTagTypeNode(root, "Named Anchors", tags.get("a"));
+			addTagTypeNode(root, "JavaScript functions", tags.get("f"));
 		}
 
 		else if (SYNTAX_STYLE_JAVA.equals(style)) {
-			addTagTypeNode(root, "Classes", map.get("c"));
-			addTagTypeNode(root, "Fields", map.get("f"));
-			addTagTypeNode(root, "Interfaces", map.get("i"));
-			addTagTypeNode(root, "Methods", map.get("m"));
-			addTagTypeNode(root, "Packages", map.get("p"));
+			addTagTypeNode(root, "Classes", tags.get("c"));
+			addTagTypeNode(root, "Fields", tags.get("f"));
+			addTagTypeNode(root, "Interfaces", tags.get("i"));
+			addTagTypeNode(root, "Methods", tags.get("m"));
+			addTagTypeNode(root, "Packages", tags.get("p"));
 		}
 
 		else if (SYNTAX_STYLE_JAVASCRIPT.equals(style)) {
-			addTagTypeNode(root, "Functions", map.get("f"));
+			addTagTypeNode(root, "Functions", tags.get("f"));
 		}
 
 		else if (SYNTAX_STYLE_LISP.equals(style)) {
-			addTagTypeNode(root, "Functions", map.get("f"));
+			addTagTypeNode(root, "Functions", tags.get("f"));
 		}
 
 		else if (SYNTAX_STYLE_LUA.equals(style)) {
-			addTagTypeNode(root, "Functions", map.get("f"));
+			addTagTypeNode(root, "Functions", tags.get("f"));
 		}
 
 		else if (SYNTAX_STYLE_MAKEFILE.equals(style)) {
-			addTagTypeNode(root, "Macros", map.get("m"));
+			addTagTypeNode(root, "Macros", tags.get("m"));
 		}
 
 		else if (SYNTAX_STYLE_MXML.equals(style) ||
 				SYNTAX_STYLE_ACTIONSCRIPT.equals(style)) {
-			addTagTypeNode(root, "Functions", map.get("f"));
-			addTagTypeNode(root, "Classes", map.get("c"));
-			addTagTypeNode(root, "Methods", map.get("m"));
-			addTagTypeNode(root, "Properties", map.get("p"));
-			addTagTypeNode(root, "Variables", map.get("v"));
-			addTagTypeNode(root, "MX Tags", map.get("x"));
+			addTagTypeNode(root, "Functions", tags.get("f"));
+			addTagTypeNode(root, "Classes", tags.get("c"));
+			addTagTypeNode(root, "Methods", tags.get("m"));
+			addTagTypeNode(root, "Properties", tags.get("p"));
+			addTagTypeNode(root, "Variables", tags.get("v"));
+			addTagTypeNode(root, "MX Tags", tags.get("x"));
 		}
 
 		else if (SYNTAX_STYLE_PERL.equals(style)) {
-			addTagTypeNode(root, "Classes", map.get("c"));
-			addTagTypeNode(root, "Labels", map.get("l"));
-			addTagTypeNode(root, "Subroutines", map.get("s"));
+			addTagTypeNode(root, "Classes", tags.get("c"));
+			addTagTypeNode(root, "Labels", tags.get("l"));
+			addTagTypeNode(root, "Subroutines", tags.get("s"));
 		}
 
 		else if (SYNTAX_STYLE_PHP.equals(style)) {
-			addTagTypeNode(root, "Classes", map.get("c"));
-			addTagTypeNode(root, "Interfaces", map.get("i"));
-			addTagTypeNode(root, "Constants", map.get("d"));
-			addTagTypeNode(root, "Functions", map.get("f"));
-			addTagTypeNode(root, "Variables", map.get("v"));
-			addTagTypeNode(root, "JavaScript Functions", map.get("j"));
+			addTagTypeNode(root, "Classes", tags.get("c"));
+			addTagTypeNode(root, "Interfaces", tags.get("i"));
+			addTagTypeNode(root, "Constants", tags.get("d"));
+			addTagTypeNode(root, "Functions", tags.get("f"));
+			addTagTypeNode(root, "Variables", tags.get("v"));
+			addTagTypeNode(root, "JavaScript Functions", tags.get("j"));
 		}
 
 		else if (SYNTAX_STYLE_PYTHON.equals(style)) {
-			addTagTypeNode(root, "Classes", map.get("c"));
-			addTagTypeNode(root, "Functions", map.get("f"));
-			addTagTypeNode(root, "Class Members", map.get("m"));
+			addTagTypeNode(root, "Classes", tags.get("c"));
+			addTagTypeNode(root, "Functions", tags.get("f"));
+			addTagTypeNode(root, "Class Members", tags.get("m"));
 		}
 
 		else if (SYNTAX_STYLE_RUBY.equals(style)) {
-			addTagTypeNode(root, "Classes", map.get("c"));
-			addTagTypeNode(root, "Methods", map.get("f"));
-			addTagTypeNode(root, "Modules", map.get("m"));
-			addTagTypeNode(root, "Singleton Methods", map.get("F"));
+			addTagTypeNode(root, "Classes", tags.get("c"));
+			addTagTypeNode(root, "Methods", tags.get("f"));
+			addTagTypeNode(root, "Modules", tags.get("m"));
+			addTagTypeNode(root, "Singleton Methods", tags.get("F"));
 		}
 
 		else if (SYNTAX_STYLE_SQL.equals(style)) {
-			addTagTypeNode(root, "Cursors", map.get("c"));
-			addTagTypeNode(root, "Functions", map.get("f"));
-			addTagTypeNode(root, "Record Fields", map.get("F"));
-			addTagTypeNode(root, "Block Label", map.get("L"));
-			addTagTypeNode(root, "Packages", map.get("P"));
-			addTagTypeNode(root, "Procedures", map.get("p"));
-			addTagTypeNode(root, "Records", map.get("r"));
-			addTagTypeNode(root, "Subtypes", map.get("s"));
-			addTagTypeNode(root, "Tables", map.get("t"));
-			addTagTypeNode(root, "Triggers", map.get("T"));
-			addTagTypeNode(root, "Variables", map.get("v"));
+			addTagTypeNode(root, "Cursors", tags.get("c"));
+			addTagTypeNode(root, "Functions", tags.get("f"));
+			addTagTypeNode(root, "Record Fields", tags.get("F"));
+			addTagTypeNode(root, "Block Label", tags.get("L"));
+			addTagTypeNode(root, "Packages", tags.get("P"));
+			addTagTypeNode(root, "Procedures", tags.get("p"));
+			addTagTypeNode(root, "Records", tags.get("r"));
+			addTagTypeNode(root, "Subtypes", tags.get("s"));
+			addTagTypeNode(root, "Tables", tags.get("t"));
+			addTagTypeNode(root, "Triggers", tags.get("T"));
+			addTagTypeNode(root, "Variables", tags.get("v"));
 		}
 
 		else if (SYNTAX_STYLE_TCL.equals(style)) {
-			addTagTypeNode(root, "Classes", map.get("c"));
-			addTagTypeNode(root, "Methods", map.get("m"));
-			addTagTypeNode(root, "Procedures", map.get("p"));
+			addTagTypeNode(root, "Classes", tags.get("c"));
+			addTagTypeNode(root, "Methods", tags.get("m"));
+			addTagTypeNode(root, "Procedures", tags.get("p"));
 		}
 
 		else if (SYNTAX_STYLE_UNIX_SHELL.equals(style)) {
-			addTagTypeNode(root, "Functions", map.get("f"));
+			addTagTypeNode(root, "Functions", tags.get("f"));
 		}
 
 		else if (SYNTAX_STYLE_WINDOWS_BATCH.equals(style)) {
-			addTagTypeNode(root, "Labels", map.get("l"));
-			addTagTypeNode(root, "Variables", map.get("v"));
+			addTagTypeNode(root, "Labels", tags.get("l"));
+			addTagTypeNode(root, "Variables", tags.get("v"));
 		}
 
 	}
@@ -329,6 +331,12 @@ class SourceBrowserThread extends GUIWorkerThread<SourceTreeNode> implements Syn
 			map.put(tagType, arrayListBuffer.get(i));
 		}
 
+		// Note the file's state before ctags reads it, so the tags found
+		// can be cached.
+		File sourceFile = new File(textArea.getFileFullPath());
+		long lastModified = sourceFile.lastModified();
+		long length = sourceFile.length();
+
 		// Create a command line to run ctags.
 		boolean exuberant = plugin.getCTagsType().equals(
 							SourceBrowserPlugin.CTAGS_TYPE_EXUBERANT);
@@ -400,17 +408,15 @@ class SourceBrowserThread extends GUIWorkerThread<SourceTreeNode> implements Syn
 				}
 			}
 			r.close();
+			plugin.getOutlineCache().put(sourceFile, style, lastModified,
+										length, map);
 		} catch (IOException ioe) {
 			ioe.printStackTrace();
 			// Don't return null, just return what we got.
 		}
 
 		// Sets the tree stuff.
-		SourceTreeNode root = new SourceTreeNode(textArea.getFileName());
-		root.setSortable(false);
-		addChildNodesForStyle(root, style);
-
-		return root;
+		return createRoot(textArea.getFileName(), style, map);
 
 	}
 
@@ -446,6 +452,23 @@ class SourceBrowserThread extends GUIWorkerThread<SourceTreeNode> implements Syn
 	}
 
 
+	/**
+	 * Creates the root of a source tree.
+	 *
+	 * @param fileName The name of the file the tags are for.
+	 * @param style The syntax style of the file.
+	 * @param tags The tags found in the file, keyed by their kind.
+	 * @return The root node.
+	 */
+	static SourceTreeNode createRoot(String fileName, String style,
+									Map<String, List<TagEntry>> tags) {
+		SourceTreeNode root = new SourceTreeNode(fileName);
+		root.setSortable(false);
+		addChildNodesForStyle(root, style, tags);
+		return root;
+	}
+
+
 	/**
 	 * Called on the event dispatching thread (not on the worker thread)
 	 * after the <code>construct</code> method has returned.<p>
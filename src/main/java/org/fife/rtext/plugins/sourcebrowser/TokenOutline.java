@@ -0,0 +1,269 @@
+/*
+ * 10/18/2026
+ *
+ * TokenOutline.java - The outline of a document, built from its tokens.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.sourcebrowser;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
+
+import org.fife.ctags.TagEntry;
+import org.fife.rtext.plugins.sourcebrowser.OutlineScanner.Tag;
+import org.fife.ui.rsyntaxtextarea.TextEditorPane;
+
+
+/**
+ * The outline of a document in a text area, built from the text area's
+ * syntax highlighting tokens rather than by running ctags on the file.
+ * This means the outline reflects unsaved changes, and no process has to be
+ * launched to create it.<p>
+ *
+ * The declaration found on each line is remembered, and only lines that
+ * change are scanned again, so keeping the outline up to date as the user
+ * types is cheap.  Listeners are notified shortly after the user stops
+ * typing if the outline has changed.<p>
+ *
+ * All methods of this class should be called on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class TokenOutline implements DocumentListener, PropertyChangeListener,
+		ActionListener {
+
+	private final TextEditorPane textArea;
+	private final String style;
+	private final OutlineScanner scanner;
+	private final Consumer<TokenOutline> listener;
+	private Document document;
+
+	/**
+	 * The declaration on each line, {@link #NO_TAG} if a line has none, or
+	 * <code>null</code> if a line needs to be scanned.
+	 */
+	private final List<Tag> lineTags;
+
+	/**
+	 * The tags in the tree most recently created, used to tell whether the
+	 * outline has changed.
+	 */
+	private List<String> lastTags;
+
+	private final Timer timer;
+
+	private static final Tag NO_TAG = new Tag(null, null);
+
+	/**
+	 * How long to wait after the user stops typing to check whether the
+	 * outline has changed.
+	 */
+	private static final int UPDATE_DELAY_MILLIS = 750;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param textArea The text area to outline.
+	 * @param style The text area's syntax style.
+	 * @param scanner Finds the declarations in the text area's language.
+	 * @param listener Notified when the outline changes after the text area
+	 *        is edited.
+	 */
+	TokenOutline(TextEditorPane textArea, String style,
+			OutlineScanner scanner, Consumer<TokenOutline> listener) {
+		this.textArea = textArea;
+		this.style = style;
+		this.scanner = scanner;
+		this.listener = listener;
+		lineTags = new ArrayList<>();
+		lastTags = Collections.emptyList();
+		timer = new Timer(UPDATE_DELAY_MILLIS, this);
+		timer.setRepeats(false);
+		textArea.addPropertyChangeListener("document", this);
+		setDocument(textArea.getDocument());
+	}
+
+
+	/**
+	 * Called a short time after the user stops typing.  Listeners are
+	 * notified if the outline has changed.
+	 *
+	 * @param e The event.
+	 */
+	@Override
+	public void actionPerformed(ActionEvent e) {
+		if (!getTags().equals(lastTags)) {
+			listener.accept(this);
+		}
+	}
+
+
+	@Override
+	public void changedUpdate(DocumentEvent e) {
+		// RSyntaxDocument fires these when a change alters the highlighting
+		// of later lines, e.g. when a multi-line comment is opened.
+		Element root = document.getDefaultRootElement();
+		int start = root.getElementIndex(e.getOffset());
+		int end = root.getElementIndex(e.getOffset() + e.getLength());
+		invalidate(start, end);
+	}
+
+
+	/**
+	 * Returns the tree displaying this outline.
+	 *
+	 * @return The root of the tree.
+	 */
+	SourceTreeNode createTree() {
+
+		lastTags = getTags();
+
+		Map<String, List<TagEntry>> tags = new HashMap<>();
+		for (String tag : lastTags) {
+			TagEntry entry = new SourceBrowserPlugin.ExtendedTagEntry(tag);
+			tags.computeIfAbsent(entry.kind, k -> new ArrayList<>()).add(entry);
+		}
+
+		return SourceBrowserThread.createRoot(textArea.getFileName(), style,
+				tags);
+
+	}
+
+
+	/**
+	 * Returns the syntax style this outline was created for.
+	 *
+	 * @return The syntax style.
+	 */
+	String getSyntaxStyle() {
+		return style;
+	}
+
+
+	/**
+	 * Returns the declarations in the document, as ctags would output them,
+	 * scanning any lines that have changed.
+	 *
+	 * @return The declarations.
+	 */
+	private List<String> getTags() {
+
+		List<String> tags = new ArrayList<>();
+		String file = textArea.getFileFullPath();
+
+		for (int line=0; line<lineTags.size(); line++) {
+			Tag tag = lineTags.get(line);
+			if (tag==null) {
+				tag = scanner.scanLine(textArea.getTokenListForLine(line));
+				if (tag==null) {
+					tag = NO_TAG;
+				}
+				lineTags.set(line, tag);
+			}
+			if (tag!=NO_TAG) {
+				// Line numbers are used rather than search patterns, since
+				// the file on disk may not match the editor.
+				tags.add(tag.name() + "\t" + file + "\t" + (line+1) + ";\"\t" +
+						tag.kind());
+			}
+		}
+
+		return tags;
+
+	}
+
+
+	@Override
+	public void insertUpdate(DocumentEvent e) {
+		Element root = document.getDefaultRootElement();
+		int line = root.getElementIndex(e.getOffset());
+		int added = root.getElementCount() - lineTags.size();
+		lineTags.addAll(line + 1, Collections.nCopies(added, null));
+		invalidate(line, line + added);
+	}
+
+
+	/**
+	 * Marks a range of lines as needing to be scanned again.
+	 *
+	 * @param start The first line.
+	 * @param end The last line, inclusive.
+	 */
+	private void invalidate(int start, int end) {
+		end = Math.min(end, lineTags.size() - 1);
+		for (int line=start; line<=end; line++) {
+			lineTags.set(line, null);
+		}
+		timer.restart();
+	}
+
+
+	/**
+	 * Called when the text area's document is replaced.
+	 *
+	 * @param e The event.
+	 */
+	@Override
+	public void propertyChange(PropertyChangeEvent e) {
+		setDocument(textArea.getDocument());
+		timer.restart();
+	}
+
+
+	@Override
+	public void removeUpdate(DocumentEvent e) {
+		Element root = document.getDefaultRootElement();
+		int line = root.getElementIndex(e.getOffset());
+		int removed = lineTags.size() - root.getElementCount();
+		lineTags.subList(line + 1, line + 1 + removed).clear();
+		invalidate(line, line);
+	}
+
+
+	/**
+	 * Starts outlining a document.
+	 *
+	 * @param document The document.
+	 */
+	private void setDocument(Document document) {
+		if (this.document!=null) {
+			this.document.removeDocumentListener(this);
+		}
+		this.document = document;
+		document.addDocumentListener(this);
+		lineTags.clear();
+		int lineCount = document.getDefaultRootElement().getElementCount();
+		lineTags.addAll(Collections.nCopies(lineCount, null));
+	}
+
+
+	/**
+	 * Stops listening for changes to the text area.  This should be called
+	 * when the outline is no longer needed.
+	 */
+	void uninstall() {
+		timer.stop();
+		textArea.removePropertyChangeListener("document", this);
+		document.removeDocumentListener(this);
+	}
+
+
+}
@@ -11,15 +11,25 @@
 package org.fife.rtext.plugins.tasks;
 
 import java.awt.BorderLayout;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import javax.swing.JTable;
 
 import org.fife.rtext.AbstractMainView;
 import org.fife.rtext.AbstractParserNoticeWindow;
 import org.fife.rtext.RText;
 import org.fife.rtext.RTextEditorPane;
+import org.fife.rtext.plugins.tasks.WorkspaceTaskScanner.FileSource;
+import org.fife.rtext.plugins.tasks.WorkspaceTaskScanner.Result;
+import org.fife.rtext.plugins.tasks.WorkspaceTaskScanner.Task;
 import org.fife.ui.RScrollPane;
 import org.fife.ui.UIUtil;
 import org.fife.ui.dockablewindows.DockableWindowScrollPane;
@@ -35,7 +45,11 @@ import org.fife.ui.rsyntaxtextarea.parser.TaskTagParser;
  * identifiers, such as "<code>FIXME</code>", "<code>TODO</code>" and
  * "<code>HACK</code>".<p>
  *
- * Parsing for tasks is only done if the tasks window is visible.
+ * Parsing for tasks is only done if the tasks window is visible.  Besides
+ * open files, the files in the Projects plugin's workspace are scanned
+ * for tasks in the background.  They are rescanned whenever RText is
+ * activated and whenever a file is closed, but only files that have
+ * changed since they were last scanned are read again.
  *
  * @author Robert Futrell
  * @version 1.0
@@ -46,12 +60,32 @@ class TaskWindow extends AbstractParserNoticeWindow
 	private final TaskNoticeTableModel model;
 	private final TaskTagParser taskParser;
 	private boolean installed;
+	private WorkspaceTaskScanner scanner;
+	private final WindowAdapter activationListener;
+
+	/**
+	 * Whether the Projects plugin was found not to be installed.
+	 */
+	private boolean projectsPluginMissing;
+
+	/**
+	 * The tasks found in workspace files, keyed by path.  The tasks of files
+	 * that are open are kept, but not displayed.
+	 */
+	private final Map<String, List<Task>> workspaceTasks;
 
 
 	TaskWindow(TasksPlugin plugin, RText rtext, String taskIdentifiers) {
 
 		super(rtext);
 		installed = false;
+		workspaceTasks = new HashMap<>();
+		activationListener = new WindowAdapter() {
+			@Override
+			public void windowActivated(WindowEvent e) {
+				scanWorkspace();
+			}
+		};
 
 		model = new TaskNoticeTableModel(rtext.getString("TaskList.Task"));
 		JTable table = createTable(model);
@@ -88,6 +122,21 @@ class TaskWindow extends AbstractParserNoticeWindow
 	}
 
 
+	/**
+	 * Returns the full paths of the files open in RText.
+	 *
+	 * @return The paths.
+	 */
+	private Set<String> getOpenFiles() {
+		AbstractMainView mainView = getRText().getMainView();
+		Set<String> files = new HashSet<>();
+		for (int i=0; i<mainView.getNumDocuments(); i++) {
+			files.add(mainView.getRTextEditorPaneAt(i).getFileFullPath());
+		}
+		return files;
+	}
+
+
 	/**
 	 * Returns the identifiers scanned for to identify "tasks" (e.g.
 	 * "<code>TODO</code>", "<code>FIXME</code>", "<code>IDEA</code>", etc.).
@@ -109,6 +158,24 @@ class TaskWindow extends AbstractParserNoticeWindow
 	}
 
 
+	/**
+	 * Returns the files in the active workspace of the Projects plugin.
+	 *
+	 * @return The files.  This finds no files if the Projects plugin isn't
+	 *         installed.
+	 */
+	private FileSource getWorkspaceFiles() {
+		if (!projectsPluginMissing) {
+			try {
+				return WorkspaceRoots.get(getRText());
+			} catch (LinkageError le) { // Projects plugin isn't installed
+				projectsPluginMissing = true;
+			}
+		}
+		return Map::of;
+	}
+
+
 	/**
 	 * @see #uninstallParser()
 	 */
@@ -122,7 +189,10 @@ class TaskWindow extends AbstractParserNoticeWindow
 				RTextEditorPane textArea = mainView.getRTextEditorPaneAt(i);
 				addTaskParser(textArea);
 			}
+			scanner = new WorkspaceTaskScanner(this::workspaceTasksChanged);
+			rtext.addWindowListener(activationListener);
 			installed = true;
+			scanWorkspace();
 		}
 	}
 
@@ -159,6 +229,11 @@ class TaskWindow extends AbstractParserNoticeWindow
 		if (AbstractMainView.TEXT_AREA_ADDED_PROPERTY.equals(prop)) {
 			RTextEditorPane textArea = (RTextEditorPane)e.getNewValue();
 			addTaskParser(textArea);
+			// The parser finds this file's tasks while it's open
+			String path = textArea.getFileFullPath();
+			if (workspaceTasks.containsKey(path)) {
+				model.replaceFileRows(Set.of(path), List.of());
+			}
 		}
 
 		else if (AbstractMainView.TEXT_AREA_REMOVED_PROPERTY.equals(prop)) {
@@ -166,6 +241,15 @@ class TaskWindow extends AbstractParserNoticeWindow
 			textArea.removeParser(taskParser);
 			textArea.removePropertyChangeListener(
 							RSyntaxTextArea.PARSER_NOTICES_PROPERTY, this);
+			// Display the file's tasks as of when it was last scanned until
+			// it's rescanned, in case it was modified.
+			List<Task> tasks = workspaceTasks.get(textArea.getFileFullPath());
+			if (tasks!=null) {
+				List<Object[]> rows = new ArrayList<>();
+				model.addTaskRows(tasks, rows);
+				model.replaceFileRows(Set.of(), rows);
+			}
+			scanWorkspace();
 		}
 
 	}
@@ -184,6 +268,24 @@ class TaskWindow extends AbstractParserNoticeWindow
 	}
 
 
+	/**
+	 * Scans the files in the workspace for tasks in the background, if the
+	 * task window is active.
+	 */
+	private void scanWorkspace() {
+		if (scanner!=null) {
+			String pattern = taskParser.getTaskPattern();
+			if (pattern!=null) {
+				String encoding = getRText().getMainView().getDefaultEncoding();
+				scanner.scan(getWorkspaceFiles(), pattern, encoding);
+			}
+			else { // No task identifiers
+				scanner.scan(Map::of, "", null);
+			}
+		}
+	}
+
+
 	/**
 	 * Overridden to disable the task parser when the task window isn't active
 	 * (visible).
@@ -218,6 +320,7 @@ class TaskWindow extends AbstractParserNoticeWindow
 		if (!identifiers.equals(getTaskIdentifiers())) {
 			identifiers = identifiers.replaceAll("\\?", "\\\\\\?");
 			taskParser.setTaskPattern(identifiers);
+			scanWorkspace();
 			return true;
 		}
 		return false;
@@ -237,18 +340,74 @@ class TaskWindow extends AbstractParserNoticeWindow
 				RTextEditorPane textArea = mainView.getRTextEditorPaneAt(i);
 				removeTaskParser(textArea);
 			}
-			model.setRowCount(0);
+			rtext.removeWindowListener(activationListener);
+			scanner.dispose();
+			scanner = null;
+			workspaceTasks.clear();
+			model.clear();
 			installed = false;
 		}
 	}
 
 
+	/**
+	 * Called on the EDT when the tasks in the workspace's files change.
+	 *
+	 * @param result The tasks that changed.
+	 */
+	private void workspaceTasksChanged(Result result) {
+
+		if (!installed) {
+			return; // Finished after the window was hidden
+		}
+
+		Set<String> replaced = new HashSet<>();
+		if (result.reset()) {
+			replaced.addAll(workspaceTasks.keySet());
+			workspaceTasks.clear();
+		}
+
+		Set<String> openFiles = getOpenFiles();
+		List<Object[]> rows = new ArrayList<>();
+		for (Map.Entry<String, List<Task>> entry : result.changes().entrySet()) {
+			String path = entry.getKey();
+			List<Task> tasks = entry.getValue();
+			if (tasks.isEmpty()) {
+				workspaceTasks.remove(path);
+			}
+			else {
+				workspaceTasks.put(path, tasks);
+			}
+			if (!openFiles.contains(path)) {
+				replaced.add(path);
+				model.addTaskRows(tasks, rows);
+			}
+		}
+
+		model.replaceFileRows(replaced, rows);
+
+	}
+
+
 	private class TaskNoticeTableModel extends ParserNoticeTableModel {
 
 		TaskNoticeTableModel(String lastColHeader) {
 			super(lastColHeader);
 		}
 
+		/**
+		 * Creates the rows for tasks found in a workspace file.
+		 *
+		 * @param tasks The tasks.
+		 * @param rows The list to add the rows to.
+		 */
+		void addTaskRows(List<Task> tasks, List<Object[]> rows) {
+			for (Task task : tasks) {
+				rows.add(new Object[] { getIcon(), task.path(), task.line(),
+						task.text() });
+			}
+		}
+
 		@Override
 		protected void addNoticesImpl(RTextEditorPane textArea, List<ParserNotice> notices) {
 			for (ParserNotice notice : notices) {
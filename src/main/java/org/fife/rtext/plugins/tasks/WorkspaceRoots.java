@@ -0,0 +1,67 @@
+/*
+ * 10/18/2026
+ *
+ * WorkspaceRoots.java - Finds the files in the Projects plugin's workspace.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.tasks;
+
+import java.util.List;
+import java.util.Map;
+
+import org.fife.rtext.RText;
+import org.fife.rtext.plugins.project.ProjectPlugin;
+import org.fife.rtext.plugins.project.WorkspaceWalker;
+import org.fife.rtext.plugins.project.model.Workspace;
+import org.fife.rtext.plugins.tasks.WorkspaceTaskScanner.FileSource;
+import org.fife.ui.app.Plugin;
+
+
+/**
+ * Finds the files in the Projects plugin's active workspace.<p>
+ *
+ * This is the only class in this plugin that refers to the Projects plugin.
+ * The plugins are installed separately, so callers should expect a
+ * <code>LinkageError</code> if it isn't installed.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class WorkspaceRoots {
+
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private WorkspaceRoots() {
+	}
+
+
+	/**
+	 * Returns the files in the active workspace.  This should be called
+	 * on the EDT.  The workspace's folders are found right away, but they
+	 * are only walked when the returned source is called.
+	 *
+	 * @param rtext The parent application.
+	 * @return The files in all of the workspace's projects.  This finds no
+	 *         files if there is no active workspace.
+	 */
+	static FileSource get(RText rtext) {
+		for (Plugin<?> plugin : rtext.getPlugins()) {
+			if (plugin instanceof ProjectPlugin projectPlugin) {
+				Workspace workspace = projectPlugin.getWorkspace();
+				if (workspace!=null) {
+					List<WorkspaceWalker.Root> roots =
+							WorkspaceWalker.getRoots(workspace);
+					return () -> WorkspaceWalker.collectFiles(roots);
+				}
+			}
+		}
+		return Map::of;
+	}
+
+
+}
@@ -0,0 +1,298 @@
+/*
+ * 10/18/2026
+ *
+ * WorkspaceTaskScanner.java - Finds tasks in all files in a workspace.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.tasks;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.swing.SwingUtilities;
+
+import org.fife.io.UnicodeReader;
+
+
+/**
+ * Finds tasks in the files of a workspace, on a background thread.  Files
+ * are read a line at a time, so they never need to be loaded into memory
+ * all at once.  The tasks found in each file are cached along with its
+ * modification time and size, so subsequent scans only read files that
+ * were added or changed.<p>
+ *
+ * Unlike the task parser used for open files, this scanner doesn't
+ * tokenize the files it reads, so task identifiers are found anywhere, not
+ * just in comments.<p>
+ *
+ * Requests to scan while a scan is running are coalesced into a single
+ * scan once it finishes.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class WorkspaceTaskScanner {
+
+	private final Consumer<Result> listener;
+	private final ExecutorService executor;
+
+	/**
+	 * The folders and pattern to use in the next scan, or <code>null</code>
+	 * if no scan is pending.
+	 */
+	private final AtomicReference<Request> pendingRequest;
+
+	/**
+	 * The files scanned, keyed by path.  This is only accessed on the
+	 * scanning thread.
+	 */
+	private final Map<String, ScannedFile> cache;
+
+	/**
+	 * The pattern used to find the tasks in <code>cache</code>.
+	 */
+	private String cachePattern;
+
+	/**
+	 * Files larger than this aren't scanned.
+	 */
+	private static final long MAX_FILE_SIZE = 10 * 1024 * 1024;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param listener Notified on the EDT of the tasks that changed after
+	 *        each scan.  It isn't notified if no tasks changed.
+	 */
+	WorkspaceTaskScanner(Consumer<Result> listener) {
+		this.listener = listener;
+		pendingRequest = new AtomicReference<>();
+		cache = new HashMap<>();
+		executor = Executors.newSingleThreadExecutor(r -> {
+			Thread t = new Thread(r, "WorkspaceTaskScanner");
+			t.setDaemon(true);
+			t.setPriority(Thread.MIN_PRIORITY);
+			return t;
+		});
+	}
+
+
+	/**
+	 * Stops scanning.  This should be called when this scanner is no longer
+	 * needed.
+	 */
+	void dispose() {
+		executor.shutdownNow();
+	}
+
+
+	/**
+	 * Scans the files in a workspace in the background.  If a scan is
+	 * already running, another will be done when it finishes.
+	 *
+	 * @param files Finds the files to scan.  Tasks previously found in
+	 *        files it doesn't find are removed.
+	 * @param taskPattern The regular expression matching task identifiers.
+	 * @param encoding The encoding of files without a BOM.
+	 */
+	void scan(FileSource files, String taskPattern, String encoding) {
+		Request request = new Request(files, taskPattern, encoding);
+		if (pendingRequest.getAndSet(request)==null) {
+			executor.execute(this::scanImpl);
+		}
+	}
+
+
+	/**
+	 * Returns the tasks in a file.
+	 *
+	 * @param file The file.
+	 * @param pattern The pattern matching task identifiers.
+	 * @param encoding The encoding to use if the file doesn't have a BOM.
+	 * @return The tasks.  If the file appears to be binary, this will be
+	 *         empty.
+	 * @throws IOException If an IO error occurs.
+	 */
+	static List<Task> scanFile(File file, Pattern pattern, String encoding)
+			throws IOException {
+
+		List<Task> tasks = new ArrayList<>(0);
+		String path = file.getAbsolutePath();
+		Matcher m = pattern.matcher("");
+
+		try (BufferedReader r = new BufferedReader(new UnicodeReader(
+				new FileInputStream(file), encoding))) {
+			String line;
+			int lineNumber = 0;
+			while ((line=r.readLine())!=null) {
+				lineNumber++;
+				if (line.indexOf('\0')>-1) {
+					return List.of(); // Binary file
+				}
+				if (m.reset(line).find()) {
+					String text = line.substring(m.start()).trim();
+					tasks.add(new Task(path, lineNumber, text));
+				}
+			}
+		}
+
+		return tasks;
+
+	}
+
+
+	/**
+	 * Scans the folders most recently requested.  This is called on the
+	 * scanning thread.
+	 */
+	private void scanImpl() {
+
+		Request request = pendingRequest.getAndSet(null);
+		Pattern pattern;
+		try {
+			pattern = Pattern.compile(request.taskPattern());
+		} catch (RuntimeException re) { // Invalid pattern
+			pattern = null;
+		}
+
+		Map<String, List<Task>> changes = new HashMap<>();
+		boolean reset = !request.taskPattern().equals(cachePattern);
+		if (reset) {
+			cache.clear();
+			cachePattern = request.taskPattern();
+		}
+
+		Map<String, File> files = Map.of();
+		if (pattern!=null) {
+			try {
+				files = request.files().collectFiles();
+			} catch (InterruptedException ie) {
+				return; // Shutting down
+			}
+		}
+
+		Iterator<Map.Entry<String, ScannedFile>> i = cache.entrySet().iterator();
+		while (i.hasNext()) {
+			Map.Entry<String, ScannedFile> entry = i.next();
+			if (!files.containsKey(entry.getKey())) {
+				i.remove();
+				if (!entry.getValue().tasks().isEmpty()) {
+					changes.put(entry.getKey(), List.of());
+				}
+			}
+		}
+
+		for (Map.Entry<String, File> entry : files.entrySet()) {
+
+			if (Thread.currentThread().isInterrupted()) {
+				return; // Shutting down
+			}
+
+			String path = entry.getKey();
+			File file = entry.getValue();
+			long lastModified = file.lastModified();
+			long length = file.length();
+			ScannedFile old = cache.get(path);
+			if (old!=null && old.lastModified()==lastModified &&
+					old.length()==length) {
+				continue;
+			}
+
+			List<Task> tasks = List.of();
+			if (length<=MAX_FILE_SIZE) {
+				try {
+					tasks = scanFile(file, pattern, request.encoding());
+				} catch (IOException ioe) {
+					// Unreadable - treat it as having no tasks
+				}
+			}
+			cache.put(path, new ScannedFile(lastModified, length, tasks));
+			if (!tasks.isEmpty() || (old!=null && !old.tasks().isEmpty())) {
+				changes.put(path, tasks);
+			}
+
+		}
+
+		if (reset || !changes.isEmpty()) {
+			Result result = new Result(reset, changes);
+			SwingUtilities.invokeLater(() -> listener.accept(result));
+		}
+
+	}
+
+
+	/**
+	 * The tasks that changed in a scan.
+	 *
+	 * @param reset Whether all previously found tasks should be discarded
+	 *        before applying the changes.  This is the case when the task
+	 *        identifiers change.
+	 * @param changes The tasks in each file whose tasks changed, keyed by
+	 *        path.  Files that no longer have any tasks are mapped to an
+	 *        empty list.
+	 */
+	record Result(boolean reset, Map<String, List<Task>> changes) {
+	}
+
+
+	/**
+	 * Finds the files to scan.
+	 */
+	@FunctionalInterface
+	interface FileSource {
+
+		/**
+		 * Returns the files to scan.  This is called on the scanning
+		 * thread.
+		 *
+		 * @return The files, keyed by path.
+		 * @throws InterruptedException If the thread is interrupted.
+		 */
+		Map<String, File> collectFiles() throws InterruptedException;
+
+	}
+
+
+	/**
+	 * A task found in a file.
+	 *
+	 * @param path The full path of the file.
+	 * @param line The 1-based line the task is on.
+	 * @param text The text of the task, starting with its identifier.
+	 */
+	record Task(String path, int line, String text) {
+	}
+
+
+	/**
+	 * A request to scan.
+	 */
+	private record Request(FileSource files, String taskPattern,
+			String encoding) {
+	}
+
+
+	/**
+	 * The tasks found in a file, along with the file's state at the time.
+	 */
+	private record ScannedFile(long lastModified, long length, List<Task> tasks) {
+	}
+
+
+}
@@ -9,78 +9,62 @@
  */
 package org.fife.rtext.plugins.tidy;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.StringReader;
-import java.io.StringWriter;
-import javax.swing.JOptionPane;
-
-import com.esotericsoftware.jsonbeans.Json;
-import com.esotericsoftware.jsonbeans.OutputType;
-import org.fife.rtext.RText;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.regex.Pattern;
 
 
 /**
- * Pretty-prints a JSON string.  Currently delegates to the
- * <a href="jsonbeans.googlecode.com">jsonbeans</a> library.
+ * Pretty-prints a JSON string.  The text is formatted in a single pass as
+ * it is tokenized, with the output written straight into one buffer, so no
+ * object tree or intermediate strings are created and very large files can
+ * be formatted.  Numbers and strings are copied as they appear in the
+ * input, so no precision or escapes are lost.<p>
+ *
+ * The output layout matches what RText has always produced: arrays of only
+ * numbers are kept on one line, and the members of the top-level object are
+ * only indented if the user asked for it.  Comments are dropped.<p>
+ *
+ * The options to format with are read when this printer is created, so it
+ * can be used on any thread afterward.
  *
  * @author Robert Futrell
- * @version 1.1
+ * @version 2.0
  */
 class JsonPrettyPrinter implements PrettyPrinter {
 
-	private final Plugin plugin;
-
-
-	JsonPrettyPrinter(Plugin plugin) {
-		this.plugin = plugin;
-	}
-
+	private final String outputStyle;
+	private final String indent;
+	private final boolean indentFirstLevel;
 
 	/**
-	 * Converts any leading tabs on each line of the specified text into
-	 * spaces, using a "tab replacement" string.
-	 *
-	 * @param text The text to scan for leading tabs.
-	 * @param tabReplacement The string of space characters to replace
-	 *        leading tabs with.
-	 * @return The new string.
+	 * Object names that needn't be quoted in the "javascript" output style.
 	 */
-	private static String convertLeadingTabs(String text,
-			String tabReplacement) {
+	private static final Pattern JAVASCRIPT_NAME_PATTERN =
+			Pattern.compile("[a-zA-Z_$][a-zA-Z_$0-9]*");
 
-		BufferedReader r = new BufferedReader(new StringReader(text));
-		StringWriter w = new StringWriter();
-
-		try {
-			String line;
-			while ((line=r.readLine())!=null) {
-				int index = 0;
-				while (index<line.length() && line.charAt(index)=='\t') {
-					w.write(tabReplacement);
-					index++;
-				}
-				w.write(line.substring(index));
-				w.write('\n');
-			}
-			r.close();
-		} catch (IOException ioe) { // Never happens
-			ioe.printStackTrace();
-		}
+	/**
+	 * Object names that needn't be quoted in the "minimal" output style.
+	 */
+	private static final Pattern MINIMAL_NAME_PATTERN =
+			Pattern.compile("[^{}\\[\\],\":\r\n\t ][^:\r\n\t ]*");
 
-		return w.toString();
+	/**
+	 * String values that needn't be quoted in the "minimal" output style.
+	 */
+	private static final Pattern MINIMAL_VALUE_PATTERN =
+			Pattern.compile("[^{}\\[\\],\":\r\n\t ][^}\\],\r\n\t ]*");
 
-	}
+	private static final String STYLE_JAVASCRIPT = "javascript";
+	private static final String STYLE_MINIMAL = "minimal";
 
 
-	/**
-	 * Creates a string of space characters of a specific length.
-	 *
-	 * @param spaceCount The number of spaces.
-	 * @return The string of space characters.
-	 */
-	private static String createSpacer(int spaceCount) {
-		return " ".repeat(spaceCount);
+	JsonPrettyPrinter(Plugin plugin) {
+		JsonOptions opts = plugin.getJsonOptions();
+		outputStyle = opts.getOutputStyle();
+		int spaceCount = opts.getSpaceCount();
+		indent = spaceCount>-1 ? " ".repeat(spaceCount) : "\t";
+		indentFirstLevel = opts.getIndentFirstLevel();
 	}
 
 
@@ -103,103 +87,433 @@ class JsonPrettyPrinter implements PrettyPrinter {
 
 
 	/**
-	 * Returns the output format to use.
+	 * Returns whether text is a JSON object or array, as opposed to a bare
+	 * value or list of members.  Only text that is can be pretty printed.
 	 *
-	 * @return The output format.
+	 * @param json The text.
+	 * @return Whether the text is an object or array.
 	 */
-	private OutputType getOutputType(String format) {
+	static boolean isObjectOrArray(String json) {
+		char ch = getFirstNonWhitespaceChar(json);
+		return ch=='{' || ch=='[';
+	}
+
 
+	/**
+	 * Pretty prints JSON.
+	 *
+	 * @param json The JSON to pretty print.  This should be an object or
+	 *        array; callers can use {@link #isObjectOrArray(String)} to check.
+	 * @return The result of pretty printing the text.
+	 */
+	@Override
+	public PrettyPrintResult prettyPrint(String json) {
 		try {
-			return OutputType.valueOf(format.toLowerCase());
-		} catch (IllegalArgumentException e) {
-			return OutputType.json;
+			String result = new Formatter(json).format();
+			return new PrettyPrintResult(RESULT_OK, result, null);
+		} catch (FormatException e) {
+			return new PrettyPrintResult(RESULT_ERRORS, null, e.getMessage());
 		}
 	}
 
 
 	/**
-	 * Indents the "first level" of the top-level JSON object.  This method
-	 * assumes that the text is already-formatted JSON, and is an object (as
-	 * opposed to an array).
-	 *
-	 * @param text The JSON to indent.
-	 * @param indenter The text to use as the indention (a tab or spaces).
-	 * @return The indented text.
+	 * Thrown when the text being formatted isn't valid JSON, or formatting
+	 * is interrupted.
 	 */
-	private static String indentFirstLevel(String text, String indenter) {
-		String[] lines = text.split("\n");
-		for (int i=1; i<lines.length-1; i++) {
-			lines[i] = indenter + lines[i];
-		}
-		StringBuilder sb = new StringBuilder();
-		for (String line : lines) {
-			sb.append(line).append('\n');
+	private static final class FormatException extends Exception {
+
+		private static final long serialVersionUID = 1L;
+
+		FormatException(String message) {
+			super(message);
 		}
-		return sb.toString();
+
 	}
 
 
-	@Override
-	public PrettyPrintResult prettyPrint(String json) {
+	/**
+	 * Formats one JSON string.  The nesting of objects and arrays is kept in
+	 * an explicit stack rather than by recursion, so deeply nested text can't
+	 * overflow the call stack.
+	 */
+	private final class Formatter {
+
+		private final String json;
+		private final StringBuilder out;
+		private int pos;
+
+		/**
+		 * Whether each open container is an object, as opposed to an array.
+		 */
+		private boolean[] objects;
+		private int depth;
+
+		/**
+		 * Whether the innermost open container is an array being written on
+		 * a single line.
+		 */
+		private boolean singleLine;
+
+		/**
+		 * Added to the depth of content to get its indentation level.
+		 */
+		private int levelOffset;
+
+		private static final int STATE_VALUE = 0;
+		private static final int STATE_NAME = 1;
+		private static final int STATE_COLON = 2;
+		private static final int STATE_AFTER_VALUE = 3;
+
+		Formatter(String json) {
+			this.json = json;
+			long capacity = json.length() + json.length()/2L + 16;
+			out = new StringBuilder((int)Math.min(capacity, Integer.MAX_VALUE - 8));
+			objects = new boolean[16];
+		}
 
-		// First, do a sanity check to ensure everything is wrapped in curlys.
-		char ch = getFirstNonWhitespaceChar(json);
-		if (ch!='{' && ch!='[') {
-			RText rtext = plugin.getApplication();
-			String msg = Plugin.MSG.getString("Dialog.Confirm.Json.WrapInCurlys");
-			String title = rtext.getString("ConfDialogTitle");
-			int rc = JOptionPane.showConfirmDialog(rtext, msg, title,
-					JOptionPane.YES_NO_OPTION);
-			if (rc!=JOptionPane.YES_OPTION) {
-				return new PrettyPrintResult(RESULT_ERRORS, null, null);
+		/**
+		 * Appends a newline and the indentation for a nesting depth.
+		 */
+		private void appendNewline(int depth) {
+			out.append('\n');
+			int level = depth + levelOffset;
+			for (int i=0; i<level; i++) {
+				out.append(indent);
 			}
-			json = '{' + json + '}';
 		}
 
-		// jsonbeans doesn't pretty-print arrays (only objects), see Issue 2
-		// at http://code.google.com/p/jsonbeans
-		boolean curlysAddedForParsingOnly = false;
-		if (ch=='[') {
-			curlysAddedForParsingOnly = true;
-			json = "{\"foo\":" + json + '}';
+		/**
+		 * Returns whether a string's quotes can be removed in the output
+		 * style being used.
+		 *
+		 * @param value The string, without its quotes.
+		 * @param name Whether it is an object member's name.
+		 */
+		private boolean canBeUnquoted(String value, boolean name) {
+
+			if (name && JAVASCRIPT_NAME_PATTERN.matcher(value).matches()) {
+				return true;
+			}
+			if (!STYLE_MINIMAL.equals(outputStyle) || value.indexOf('\\')>-1 ||
+					value.contains("//") || value.contains("/*")) {
+				return false;
+			}
+
+			if (name) {
+				return MINIMAL_NAME_PATTERN.matcher(value).matches();
+			}
+
+			// Unquoted values mustn't read as another type.
+			char first = value.isEmpty() ? 0 : value.charAt(0);
+			return !"true".equals(value) && !"false".equals(value) &&
+					!"null".equals(value) && first!='-' && first!='.' &&
+					(first<'0' || first>'9') &&
+					MINIMAL_VALUE_PATTERN.matcher(value).matches();
+
 		}
 
-		JsonOptions opts = plugin.getJsonOptions();
+		/**
+		 * Closes the innermost open container.
+		 */
+		private void close() {
+			char closer = objects[depth-1] ? '}' : ']';
+			if (singleLine) {
+				out.append(' ').append(closer);
+				singleLine = false;
+			}
+			else {
+				appendNewline(depth-1);
+				out.append(closer);
+			}
+			depth--;
+		}
 
-		Json jsonFormatter = new Json();
-		jsonFormatter.setOutputType(getOutputType(opts.getOutputStyle()));
+		private FormatException error(String key) {
+			return error(key, null);
+		}
 
-		try {
+		private FormatException error(String key, String token) {
+			int line = 1;
+			int lineStart = 0;
+			for (int i=0; i<pos; i++) {
+				if (json.charAt(i)=='\n') {
+					line++;
+					lineStart = i + 1;
+				}
+			}
+			String message = Plugin.MSG.getString(key);
+			return new FormatException(MessageFormat.format(message,
+					Integer.toString(line), Integer.toString(pos - lineStart + 1),
+					token));
+		}
+
+		/**
+		 * Formats the text.
+		 *
+		 * @return The formatted text.
+		 * @throws FormatException If the text isn't valid JSON, or this
+		 *         thread is interrupted.
+		 */
+		String format() throws FormatException {
+
+			int state = STATE_VALUE;
+			boolean done = false;
+
+			while (true) {
+
+				skipWhitespaceAndComments();
+				if (pos==json.length()) {
+					if (!done) {
+						throw error("Error.Json.UnexpectedEnd");
+					}
+					break;
+				}
+				char ch = json.charAt(pos);
+
+				if (done) {
+					throw unexpectedChar();
+				}
+
+				switch (state) {
+
+					case STATE_VALUE:
+						if (ch=='{' || ch=='[') {
+							state = open(ch=='{');
+						}
+						else if (ch==',' || ch==':' || ch=='}' || ch==']') {
+							throw unexpectedChar();
+						}
+						else {
+							writeScalar(false);
+							state = STATE_AFTER_VALUE;
+						}
+						break;
+
+					case STATE_NAME:
+						if (ch==',' || ch==':' || ch=='}' || ch==']' ||
+								ch=='{' || ch=='[') {
+							throw unexpectedChar();
+						}
+						writeScalar(true);
+						state = STATE_COLON;
+						break;
+
+					case STATE_COLON:
+						if (ch!=':') {
+							throw unexpectedChar();
+						}
+						pos++;
+						out.append(": ");
+						state = STATE_VALUE;
+						break;
+
+					default: // STATE_AFTER_VALUE
+						boolean object = objects[depth-1];
+						if (ch==',') {
+							pos++;
+							if (Thread.currentThread().isInterrupted()) {
+								throw new FormatException(null);
+							}
+							if (singleLine) {
+								out.append(", ");
+							}
+							else {
+								out.append(',');
+								appendNewline(depth);
+							}
+							state = object ? STATE_NAME : STATE_VALUE;
+						}
+						else if (ch==(object ? '}' : ']')) {
+							pos++;
+							close();
+						}
+						else {
+							throw unexpectedChar();
+						}
+						break;
+
+				}
+
+				done = depth==0 && state==STATE_AFTER_VALUE;
+
+			}
+
+			if (json.endsWith("\n")) {
+				out.append('\n');
+			}
+			return out.toString();
+
+		}
+
+		/**
+		 * Returns whether the array starting at the current position
+		 * contains only numbers.
+		 */
+		private boolean isNumberArray() {
+			int start = pos;
+			try {
+				while (true) {
+					skipWhitespaceAndComments();
+					if (pos==json.length()) {
+						return false;
+					}
+					char ch = json.charAt(pos);
+					if (ch!='-' && (ch<'0' || ch>'9')) {
+						return false;
+					}
+					pos = scanLiteral();
+					skipWhitespaceAndComments();
+					if (pos==json.length()) {
+						return false;
+					}
+					ch = json.charAt(pos++);
+					if (ch==']') {
+						return true;
+					}
+					else if (ch!=',') {
+						return false;
+					}
+				}
+			} finally {
+				pos = start;
+			}
+		}
+
+		/**
+		 * Opens an object or array at the current position.
+		 *
+		 * @return The state to continue in.
+		 */
+		private int open(boolean object) throws FormatException {
+
+			if (Thread.currentThread().isInterrupted()) {
+				throw new FormatException(null);
+			}
 
-			String result = jsonFormatter.prettyPrint(json);
+			pos++;
+			if (depth==0) {
+				// The top-level object's members are only indented if
+				// requested.  Top-level arrays' members always are.
+				levelOffset = object && !indentFirstLevel ? -1 : 0;
+			}
+
+			// Empty containers are written on one line.
+			char closer = object ? '}' : ']';
+			skipWhitespaceAndComments();
+			if (pos<json.length() && json.charAt(pos)==closer) {
+				pos++;
+				out.append(object ? '{' : '[').append(closer);
+				return STATE_AFTER_VALUE;
+			}
+
+			if (depth==objects.length) {
+				objects = Arrays.copyOf(objects, depth*2);
+			}
+			objects[depth++] = object;
+
+			if (!object && isNumberArray()) {
+				singleLine = true;
+				out.append("[ ");
+			}
+			else {
+				out.append(object ? '{' : '[');
+				appendNewline(depth);
+			}
+
+			return object ? STATE_NAME : STATE_VALUE;
+
+		}
 
-			int spaceCount = opts.getSpaceCount();
-			if (spaceCount>-1) {
-				String spacer = createSpacer(spaceCount);
-				result = convertLeadingTabs(result, spacer);
+		/**
+		 * Returns the end of the literal (number, <code>true</code>,
+		 * <code>false</code>, <code>null</code>, or unquoted string)
+		 * starting at the current position.
+		 */
+		private int scanLiteral() {
+			int end = pos;
+			while (end<json.length()) {
+				char ch = json.charAt(end);
+				if (Character.isWhitespace(ch) || ch==',' || ch==':' ||
+						ch=='{' || ch=='}' || ch=='[' || ch==']' || ch=='"') {
+					break;
+				}
+				end++;
 			}
+			return end;
+		}
 
-			// Complete the workaround for jsonbeans not formatting arrays
-			if (curlysAddedForParsingOnly) {
-				int arrayStart = result.indexOf('[');
-				if (arrayStart>-1) { // Should always be true
-					result = result.substring(arrayStart);
+		/**
+		 * Returns the end of the quoted string starting at the current
+		 * position.
+		 */
+		private int scanString() throws FormatException {
+			int end = pos + 1;
+			while (end<json.length()) {
+				char ch = json.charAt(end++);
+				if (ch=='"') {
+					return end;
 				}
-				int arrayEnd = result.lastIndexOf(']');
-				if (arrayEnd>-1) { // Should always be true too
-					result = result.substring(0, arrayEnd+1);
+				else if (ch=='\\') {
+					end++;
 				}
 			}
-			else if (opts.getIndentFirstLevel()) {
-				String indenter = spaceCount==-1 ? "\t" :
-					createSpacer(spaceCount);
-				result = indentFirstLevel(result, indenter);
+			pos = json.length();
+			throw error("Error.Json.UnexpectedEnd");
+		}
+
+		/**
+		 * Skips whitespace and <code>//</code> and <code>/* ... *&#47;</code>
+		 * comments.
+		 */
+		private void skipWhitespaceAndComments() {
+			int length = json.length();
+			while (pos<length) {
+				char ch = json.charAt(pos);
+				if (Character.isWhitespace(ch)) {
+					pos++;
+				}
+				else if (ch=='/' && json.startsWith("//", pos)) {
+					int end = json.indexOf('\n', pos);
+					pos = end>-1 ? end : length;
+				}
+				else if (ch=='/' && json.startsWith("/*", pos)) {
+					int end = json.indexOf("*/", pos + 2);
+					pos = end>-1 ? end + 2 : length;
+				}
+				else {
+					break;
+				}
 			}
+		}
 
-			return new PrettyPrintResult(RESULT_OK, result, null);
+		private FormatException unexpectedChar() {
+			return error("Error.Json.UnexpectedChar",
+					String.valueOf(json.charAt(pos)));
+		}
+
+		/**
+		 * Writes the string or literal at the current position.
+		 *
+		 * @param name Whether it is an object member's name.
+		 */
+		private void writeScalar(boolean name) throws FormatException {
+
+			int start = pos;
+			boolean quoted = json.charAt(pos)=='"';
+			pos = quoted ? scanString() : scanLiteral();
+
+			if (quoted && (STYLE_JAVASCRIPT.equals(outputStyle) ||
+					STYLE_MINIMAL.equals(outputStyle))) {
+				String value = json.substring(start + 1, pos - 1);
+				if (canBeUnquoted(value, name)) {
+					out.append(value);
+					return;
+				}
+			}
+
+			out.append(json, start, pos);
 
-		} catch (Throwable e) {
-			return new PrettyPrintResult(RESULT_ERRORS, null, e.getMessage());
 		}
 
 	}
@@ -0,0 +1,305 @@
+/*
+ * 10/18/2026
+ *
+ * LineDiff.java - Computes the line-based differences between two texts.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.tidy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Computes the edits that turn one text into another, a line at a time.
+ * This lets pretty printed text be applied to a document by replacing only
+ * the lines that changed, rather than all of its content, which keeps the
+ * caret, scroll position and syntax highlighting of unchanged lines intact.
+ * <p>
+ *
+ * Lines common to the start and end of both texts are skipped, and the
+ * remaining lines are compared with Myers' O(ND) algorithm.  Since its cost
+ * grows with the number of differences, comparison stops once there are
+ * more than {@link #MAX_DIFFERENCES}, and the differing lines are replaced
+ * as a whole.  This is what happens when every line is reformatted.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class LineDiff {
+
+	private final String oldText;
+	private final String newText;
+	private final int[] oldStarts;
+	private final int[] newStarts;
+	private final int[] oldHashes;
+	private final int[] newHashes;
+
+	/**
+	 * The maximum number of inserted plus deleted lines to look for
+	 * between the common start and end lines of the two texts.
+	 */
+	static final int MAX_DIFFERENCES = 1000;
+
+
+	/**
+	 * Private constructor; use {@link #diff(String, String)}.
+	 */
+	private LineDiff(String oldText, String newText) {
+		this.oldText = oldText;
+		this.newText = newText;
+		oldStarts = getLineStarts(oldText);
+		newStarts = getLineStarts(newText);
+		oldHashes = getLineHashes(oldText, oldStarts);
+		newHashes = getLineHashes(newText, newStarts);
+	}
+
+
+	/**
+	 * Adds an edit replacing a range of old lines with a range of new ones.
+	 *
+	 * @param edits The list to add to.
+	 * @param oldStart The first old line to replace.
+	 * @param oldEnd One past the last old line to replace.
+	 * @param newStart The first new line.
+	 * @param newEnd One past the last new line.
+	 */
+	private void addEdit(List<Edit> edits, int oldStart, int oldEnd,
+			int newStart, int newEnd) {
+		if (oldStart<oldEnd || newStart<newEnd) {
+			String text = newText.substring(newStarts[newStart], newStarts[newEnd]);
+			edits.add(new Edit(oldStarts[oldStart], oldStarts[oldEnd], text));
+		}
+	}
+
+
+	/**
+	 * Returns the edits that turn one text into another.
+	 *
+	 * @param oldText The original text.
+	 * @param newText The new text.
+	 * @return The edits, in increasing order of offset.  They don't
+	 *         overlap, and offsets are all into <code>oldText</code>, so
+	 *         they should be applied last to first.  This will be empty if
+	 *         the texts are the same.
+	 * @throws InterruptedException If the current thread is interrupted.
+	 */
+	static List<Edit> diff(String oldText, String newText)
+			throws InterruptedException {
+		return new LineDiff(oldText, newText).diffImpl();
+	}
+
+
+	private List<Edit> diffImpl() throws InterruptedException {
+
+		int oldCount = oldStarts.length - 1;
+		int newCount = newStarts.length - 1;
+
+		int prefix = 0;
+		while (prefix<oldCount && prefix<newCount && linesEqual(prefix, prefix)) {
+			prefix++;
+		}
+		int suffix = 0;
+		while (suffix<oldCount-prefix && suffix<newCount-prefix &&
+				linesEqual(oldCount-1-suffix, newCount-1-suffix)) {
+			suffix++;
+		}
+
+		List<Edit> edits = new ArrayList<>();
+		int oldEnd = oldCount - suffix;
+		int newEnd = newCount - suffix;
+		if (!myers(prefix, oldEnd, prefix, newEnd, edits)) {
+			addEdit(edits, prefix, oldEnd, prefix, newEnd);
+		}
+		return edits;
+
+	}
+
+
+	/**
+	 * Returns a hash of each line in a text.
+	 *
+	 * @param text The text.
+	 * @param starts The offsets of the lines' starts.
+	 * @return The hashes.
+	 */
+	private static int[] getLineHashes(String text, int[] starts) {
+		int[] hashes = new int[starts.length - 1];
+		for (int i=0; i<hashes.length; i++) {
+			int hash = 0;
+			for (int j=starts[i]; j<starts[i+1]; j++) {
+				hash = 31*hash + text.charAt(j);
+			}
+			hashes[i] = hash;
+		}
+		return hashes;
+	}
+
+
+	/**
+	 * Returns the offsets at which each line of a text starts.  Each line
+	 * includes its terminating newline, if any.
+	 *
+	 * @param text The text.
+	 * @return The offsets, followed by the text's length.
+	 */
+	private static int[] getLineStarts(String text) {
+
+		int count = 1;
+		for (int i=0; i<text.length(); i++) {
+			if (text.charAt(i)=='\n') {
+				count++;
+			}
+		}
+		if (text.isEmpty() || text.charAt(text.length()-1)=='\n') {
+			count--; // No partial last line
+		}
+
+		int[] starts = new int[count + 1];
+		int line = 1;
+		for (int i=0; i<text.length() && line<count; i++) {
+			if (text.charAt(i)=='\n') {
+				starts[line++] = i + 1;
+			}
+		}
+		starts[count] = text.length();
+		return starts;
+
+	}
+
+
+	private boolean linesEqual(int oldLine, int newLine) {
+		int start = oldStarts[oldLine];
+		int length = oldStarts[oldLine+1] - start;
+		return oldHashes[oldLine]==newHashes[newLine] &&
+				length==newStarts[newLine+1]-newStarts[newLine] &&
+				oldText.regionMatches(start, newText, newStarts[newLine], length);
+	}
+
+
+	/**
+	 * Compares ranges of lines with Myers' algorithm.
+	 *
+	 * @param oldStart The first old line.
+	 * @param oldEnd One past the last old line.
+	 * @param newStart The first new line.
+	 * @param newEnd One past the last new line.
+	 * @param edits The list to add edits to.
+	 * @return Whether the ranges were compared.  This is <code>false</code>
+	 *         if they have more than {@link #MAX_DIFFERENCES} differences.
+	 * @throws InterruptedException If the current thread is interrupted.
+	 */
+	private boolean myers(int oldStart, int oldEnd, int newStart, int newEnd,
+			List<Edit> edits) throws InterruptedException {
+
+		int n = oldEnd - oldStart;
+		int m = newEnd - newStart;
+		int max = Math.min(n + m, MAX_DIFFERENCES);
+		int offset = max + 1;
+		int[] v = new int[2*max + 3];
+		List<int[]> trace = new ArrayList<>();
+
+		// v[offset+k] is the furthest old line reached on diagonal k.
+		for (int d=0; d<=max; d++) {
+
+			if (Thread.currentThread().isInterrupted()) {
+				throw new InterruptedException();
+			}
+			trace.add(v.clone());
+
+			for (int k=-d; k<=d; k+=2) {
+				int x;
+				if (k==-d || (k!=d && v[offset+k-1]<v[offset+k+1])) {
+					x = v[offset+k+1]; // Insertion
+				}
+				else {
+					x = v[offset+k-1] + 1; // Deletion
+				}
+				int y = x - k;
+				while (x<n && y<m && linesEqual(oldStart+x, newStart+y)) {
+					x++;
+					y++;
+				}
+				v[offset+k] = x;
+				if (x>=n && y>=m) {
+					toEdits(trace, offset, oldStart, n, newStart, m, edits);
+					return true;
+				}
+			}
+
+		}
+
+		return false;
+
+	}
+
+
+	/**
+	 * Walks back through the furthest points reached by Myers' algorithm to
+	 * find the lines common to both ranges, and adds edits for the lines
+	 * between them.
+	 */
+	private void toEdits(List<int[]> trace, int offset, int oldStart, int n,
+			int newStart, int m, List<Edit> edits) {
+
+		List<Edit> reversed = new ArrayList<>();
+		int x = n;
+		int y = m;
+		int hunkOldEnd = n; // End of the edit being built
+		int hunkNewEnd = m;
+
+		for (int d=trace.size()-1; d>=0; d--) {
+
+			int[] v = trace.get(d);
+			int k = x - y;
+			int prevK;
+			if (k==-d || (k!=d && v[offset+k-1]<v[offset+k+1])) {
+				prevK = k + 1;
+			}
+			else {
+				prevK = k - 1;
+			}
+			int prevX = d==0 ? 0 : v[offset+prevK];
+			int prevY = d==0 ? 0 : prevX - prevK;
+
+			// Common lines end the edit after them.
+			if (x>prevX && y>prevY) {
+				addEdit(reversed, oldStart+x, oldStart+hunkOldEnd,
+						newStart+y, newStart+hunkNewEnd);
+				while (x>prevX && y>prevY) {
+					x--;
+					y--;
+				}
+				hunkOldEnd = x;
+				hunkNewEnd = y;
+			}
+
+			x = prevX;
+			y = prevY;
+
+		}
+
+		addEdit(reversed, oldStart, oldStart+hunkOldEnd, newStart,
+				newStart+hunkNewEnd);
+		for (int i=reversed.size()-1; i>=0; i--) {
+			edits.add(reversed.get(i));
+		}
+
+	}
+
+
+	/**
+	 * Replaces a range of the old text.
+	 *
+	 * @param start The start offset of the range.
+	 * @param end The end offset of the range.
+	 * @param text The text to replace the range with.
+	 */
+	record Edit(int start, int end, String text) {
+	}
+
+
+}
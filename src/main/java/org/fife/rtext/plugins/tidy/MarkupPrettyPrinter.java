@@ -14,10 +14,6 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.io.StringWriter;
 
-import org.fife.io.DocumentReader;
-import org.fife.rtext.RText;
-import org.fife.rtext.RTextEditorPane;
-import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
 import org.w3c.tidy.Tidy;
 import org.w3c.tidy.TidyMessage;
 import org.w3c.tidy.TidyMessageListener;
@@ -25,59 +21,31 @@ import org.w3c.tidy.TidyMessageListener;
 
 /**
  * Pretty printer for HTML and XML.  Currently simply delegates to
- * <a href="http://jtidy.sourceforge.net">JTidy</a>.
+ * <a href="http://jtidy.sourceforge.net">JTidy</a>.<p>
+ *
+ * The options to format with are read when this printer is created, so it
+ * can be used on any thread afterward.
  *
  * @author Robert Futrell
  * @version 1.0
  */
 class MarkupPrettyPrinter implements PrettyPrinter, TidyMessageListener {
 
-	private final RText rtext;
-	private final Plugin plugin;
+	private final Tidy tidy;
+	private final int spaces;
 	private int result;
 	private StringBuilder output;
 
 
-	MarkupPrettyPrinter(RText rtext, Plugin plugin) {
-		this.rtext = rtext;
-		this.plugin = plugin;
-	}
-
-
 	/**
-	 * Called when a message is received from the tidy parser.
+	 * Constructor.
 	 *
-	 * @param msg The message.
+	 * @param plugin The plugin.
+	 * @param xml Whether to pretty print XML, as opposed to HTML.
 	 */
-	@Override
-	public void messageReceived(TidyMessage msg) {
-
-		// Always remember the "worst" thing that has happened.
-		TidyMessage.Level level = msg.getLevel();
-		if (level==TidyMessage.Level.ERROR) {
-			result = RESULT_ERRORS;
-		}
-		else if (level==TidyMessage.Level.WARNING && result!=RESULT_ERRORS) {
-			result = RESULT_WARNINGS;
-		}
-		output.append(msg.getMessage()).append('\n');
-
-	}
+	MarkupPrettyPrinter(Plugin plugin, boolean xml) {
 
-
-	@Override
-	public PrettyPrintResult prettyPrint(String text) {
-
-		RTextEditorPane textArea = rtext.getMainView().getCurrentTextArea();
-		String style = textArea.getSyntaxEditingStyle();
-		boolean xml = SyntaxConstants.SYNTAX_STYLE_XML.equals(style);
-		DocumentReader dr = new DocumentReader(textArea.getDocument());
-		StringWriter sr = new StringWriter();
-
-		result = RESULT_OK;
-		output = new StringBuilder();
-		Tidy tidy = new Tidy();
-		int spaces;
+		tidy = new Tidy();
 
 		if (xml) {
 			XmlOptions opts = plugin.getXmlOptions();
@@ -111,7 +79,40 @@ class MarkupPrettyPrinter implements PrettyPrinter, TidyMessageListener {
 		tidy.setSmartIndent(true);
 		tidy.setMessageListener(this);
 		tidy.setTidyMark(false); // No meta tag saying "made by JTidy"
-		tidy.parse(dr, sr);
+
+	}
+
+
+	/**
+	 * Called when a message is received from the tidy parser.
+	 *
+	 * @param msg The message.
+	 */
+	@Override
+	public void messageReceived(TidyMessage msg) {
+
+		// Always remember the "worst" thing that has happened.
+		TidyMessage.Level level = msg.getLevel();
+		if (level==TidyMessage.Level.ERROR) {
+			result = RESULT_ERRORS;
+		}
+		else if (level==TidyMessage.Level.WARNING && result!=RESULT_ERRORS) {
+			result = RESULT_WARNINGS;
+		}
+		output.append(msg.getMessage()).append('\n');
+
+	}
+
+
+	@Override
+	public PrettyPrintResult prettyPrint(String text) {
+
+		StringReader r = new StringReader(text);
+		StringWriter sr = new StringWriter();
+
+		result = RESULT_OK;
+		output = new StringBuilder();
+		tidy.parse(r, sr);
 
 		// If they want to indent with tabs, convert leading spaces
 		text = sr.toString();
@@ -121,7 +122,7 @@ class MarkupPrettyPrinter implements PrettyPrinter, TidyMessageListener {
 
 		try {
 			sr.close();
-			dr.close();
+			r.close();
 		} catch (IOException ioe) { // Never happens
 			ioe.printStackTrace();
 		}
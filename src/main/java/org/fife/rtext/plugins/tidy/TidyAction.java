@@ -10,17 +10,32 @@
 package org.fife.rtext.plugins.tidy;
 
 import java.awt.event.ActionEvent;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.Document;
 
 import org.fife.rtext.RText;
 import org.fife.rtext.RTextEditorPane;
+import org.fife.rtext.StatusBar;
 import org.fife.ui.app.AppAction;
 import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
 
 
 /**
- * Action for tidying source code.
+ * Action for tidying source code.<p>
+ *
+ * Pretty printing is done on a background thread, so large files don't
+ * block the UI.  It's cancelled if the user runs this action again or edits
+ * the text before it finishes.  Rather than replacing all of the text, only
+ * the lines that changed are updated, in a single undoable edit, so the
+ * caret and scroll position are kept.
  *
  * @author Robert Futrell
  * @version 1.0
@@ -32,6 +47,17 @@ class TidyAction extends AppAction<RText> {
 	 */
 	private final Plugin plugin;
 
+	/**
+	 * Pretty prints text in the background.
+	 */
+	private final ExecutorService executor;
+
+	/**
+	 * The pretty printing being done, or <code>null</code> if none.  This
+	 * is only accessed on the EDT.
+	 */
+	private Job job;
+
 
 	/**
 	 * Constructor.
@@ -42,6 +68,11 @@ class TidyAction extends AppAction<RText> {
 	TidyAction(RText app, Plugin plugin) {
 		super(app, Plugin.MSG, "Action.Tidy");
 		this.plugin = plugin;
+		executor = Executors.newSingleThreadExecutor(r -> {
+			Thread t = new Thread(r, "PrettyPrinter");
+			t.setDaemon(true);
+			return t;
+		});
 	}
 
 
@@ -55,23 +86,45 @@ class TidyAction extends AppAction<RText> {
 
 		RText app = getApplication();
 		RTextEditorPane textArea = app.getMainView().getCurrentTextArea();
+
+		// Running this action again cancels pretty printing in progress.
+		if (job!=null) {
+			boolean sameTextArea = job.textArea==textArea;
+			job.cancel();
+			if (sameTextArea) {
+				return;
+			}
+		}
+
 		String style = textArea.getSyntaxEditingStyle();
-		PrettyPrintResult result = null;
+		String text = textArea.getText();
+		String toPrint = text;
+		PrettyPrinter printer;
 
 		if (SyntaxConstants.SYNTAX_STYLE_JSON.equals(style)) {
-			result = tidyJson();
+			if (!JsonPrettyPrinter.isObjectOrArray(text)) {
+				String msg = Plugin.MSG.getString("Dialog.Confirm.Json.WrapInCurlys");
+				String title = app.getString("ConfDialogTitle");
+				int rc = JOptionPane.showConfirmDialog(app, msg, title,
+						JOptionPane.YES_NO_OPTION);
+				if (rc!=JOptionPane.YES_OPTION) {
+					return;
+				}
+				toPrint = '{' + text + '}';
+			}
+			printer = new JsonPrettyPrinter(plugin);
 		}
 		else if (SyntaxConstants.SYNTAX_STYLE_HTML.equals(style) ||
 				SyntaxConstants.SYNTAX_STYLE_XML.equals(style)) {
-			result = tidyMarkup();
+			boolean xml = SyntaxConstants.SYNTAX_STYLE_XML.equals(style);
+			printer = new MarkupPrettyPrinter(plugin, xml);
 		}
 		else { // Never happens
 			UIManager.getLookAndFeel().provideErrorFeedback(textArea);
+			return;
 		}
 
-		if (result!=null) {
-			finish(textArea, result);
-		}
+		job = new Job(textArea, printer, text, toPrint);
 
 	}
 
@@ -87,8 +140,8 @@ class TidyAction extends AppAction<RText> {
 			summary = summary.substring(0, maxSummaryLength) + "...";
 		}
 
-		// jsonbeans will print arbitrarily-long JSON blocks in its exception
-		// messages, so keep it <= 5 lines.
+		// Parser messages may quote arbitrarily-long blocks of the input,
+		// so keep it <= 10 lines.
 		final int maxSummaryLineCount = 10;
 		int lineCount = 1;
 		int index = 0;
@@ -114,8 +167,12 @@ class TidyAction extends AppAction<RText> {
 	 *
 	 * @param textArea The text area whose content was pretty printed.
 	 * @param result A summary describing the pretty printing operation.
+	 * @param edits The edits that update the text area's content to the
+	 *        pretty printed text.  This is <code>null</code> if pretty
+	 *        printing failed.
 	 */
-	private void finish(RTextEditorPane textArea, PrettyPrintResult result) {
+	private void finish(RTextEditorPane textArea, PrettyPrintResult result,
+			List<LineDiff.Edit> edits) {
 
 		int icon = JOptionPane.INFORMATION_MESSAGE;
 
@@ -124,10 +181,16 @@ class TidyAction extends AppAction<RText> {
 				icon = JOptionPane.WARNING_MESSAGE;
 				// Fall through
 			case PrettyPrinter.RESULT_OK:
+				if (edits==null) { // The printer returned no text
+					break;
+				}
 				textArea.beginAtomicEdit();
-				try {
-					textArea.setText(result.text());
-				} finally { // Treat clear and set as 1 operation (!)
+				try { // Last to first, so offsets stay valid
+					for (int i=edits.size()-1; i>=0; i--) {
+						LineDiff.Edit edit = edits.get(i);
+						textArea.replaceRange(edit.text(), edit.start(), edit.end());
+					}
+				} finally { // Treat all edits as 1 operation
 					textArea.endAtomicEdit();
 				}
 				break;
@@ -152,28 +215,124 @@ class TidyAction extends AppAction<RText> {
 	}
 
 
-	private PrettyPrintResult tidyJson() {
+	/**
+	 * Updates the status bar.
+	 *
+	 * @param key The key of the message to display.
+	 */
+	private void setStatusMessage(String key) {
+		StatusBar statusBar = (StatusBar)getApplication().getStatusBar();
+		statusBar.setStatusMessage(Plugin.MSG.getString(key));
+	}
 
-		RText app = getApplication();
-		RTextEditorPane textArea = app.getMainView().getCurrentTextArea();
-		String json = textArea.getText();
-		PrettyPrinter printer = new JsonPrettyPrinter(plugin);
 
-		try {
-			return printer.prettyPrint(json);
-		} catch (Exception e) { // Never happens
-			app.displayException(e);
+	/**
+	 * Pretty prints the text of a text area in the background.  If the
+	 * text area's document changes before it finishes, it is cancelled.
+	 */
+	private final class Job implements DocumentListener {
+
+		private final RTextEditorPane textArea;
+		private final Document doc;
+		private final Future<?> future;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param textArea The text area to pretty print.
+		 * @param printer The pretty printer to use.
+		 * @param text The text area's text.
+		 * @param toPrint The text to pretty print.  This may differ from
+		 *        <code>text</code>, such as when JSON is wrapped in curly
+		 *        braces.
+		 */
+		Job(RTextEditorPane textArea, PrettyPrinter printer, String text,
+				String toPrint) {
+			this.textArea = textArea;
+			doc = textArea.getDocument();
+			doc.addDocumentListener(this);
+			setStatusMessage("Status.PrettyPrinting");
+			future = executor.submit(() -> run(printer, text, toPrint));
+		}
+
+		@Override
+		public void changedUpdate(DocumentEvent e) {
 		}
 
-		return null;
-	}
+		/**
+		 * Stops pretty printing.  This should be called on the EDT.
+		 */
+		void cancel() {
+			dispose();
+			future.cancel(true);
+			setStatusMessage("Status.PrettyPrintingCancelled");
+		}
+
+		private void dispose() {
+			doc.removeDocumentListener(this);
+			if (job==this) {
+				job = null;
+			}
+		}
 
+		@Override
+		public void insertUpdate(DocumentEvent e) {
+			cancel();
+		}
+
+		@Override
+		public void removeUpdate(DocumentEvent e) {
+			cancel();
+		}
+
+		/**
+		 * Pretty prints the text and computes the edits to apply.  This is
+		 * called on the pretty printing thread.
+		 *
+		 * @param printer The pretty printer to use.
+		 * @param text The text area's text.  The edits apply to this.
+		 * @param toPrint The text to pretty print.
+		 */
+		private void run(PrettyPrinter printer, String text, String toPrint) {
+
+			List<LineDiff.Edit> edits = null;
+			PrettyPrintResult result;
+			try {
+				result = printer.prettyPrint(toPrint);
+				if (result.text()!=null &&
+						result.result()!=PrettyPrinter.RESULT_ERRORS) {
+					edits = LineDiff.diff(text, result.text());
+				}
+			} catch (InterruptedException ie) {
+				return; // Cancelled
+			} catch (RuntimeException re) { // Never happens
+				SwingUtilities.invokeLater(() -> {
+					dispose();
+					getApplication().displayException(re);
+				});
+				return;
+			}
+
+			PrettyPrintResult result2 = result;
+			List<LineDiff.Edit> edits2 = edits;
+			SwingUtilities.invokeLater(() -> {
+				if (job!=this) { // Cancelled
+					return;
+				}
+				// The editor may now show a different document, e.g. if its
+				// file was reloaded, and the edits don't apply to it
+				if (textArea.getDocument()!=doc) {
+					cancel();
+				}
+				else {
+					dispose();
+					setStatusMessage("Status.PrettyPrintingDone");
+					finish(textArea, result2, edits2);
+				}
+			});
+
+		}
 
-	private PrettyPrintResult tidyMarkup() {
-		RText app = getApplication();
-		RTextEditorPane textArea = app.getMainView().getCurrentTextArea();
-		String text = textArea.getText();
-		return new MarkupPrettyPrinter(app, plugin).prettyPrint(text);
 	}
 
 
@@ -0,0 +1,548 @@
+/*
+ * 10/18/2026
+ *
+ * OutputBuffer.java - Bounded buffer for the output of external tools.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.tools;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
+
+
+/**
+ * Feeds the output of a tool into an {@link OutputTextPane}, keeping only
+ * its most recent lines in memory.  The text pane's document acts as a ring
+ * buffer: output is added to its end, and once it holds more than a
+ * configurable number of lines or characters, its oldest lines are removed
+ * in bulk.  Removed lines are written to a temporary "spill" file, so the
+ * complete output can still be searched or opened.<p>
+ *
+ * Output from other threads is queued and added to the document in batches
+ * on the EDT, so chatty tools don't flood it.  Output that would be removed
+ * as soon as it was added goes straight to the spill file.  If the EDT
+ * falls too far behind, threads adding output wait for it to catch up.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class OutputBuffer {
+
+	private final OutputTextPane textArea;
+
+	/**
+	 * Output not yet added to the document.  This is also the lock for
+	 * itself and <code>pendingChars</code>.
+	 */
+	private final List<Chunk> pending;
+
+	/**
+	 * The number of characters in <code>pending</code>.
+	 */
+	private int pendingChars;
+
+	/**
+	 * Adds pending output to the document.
+	 */
+	private final Timer flushTimer;
+
+	/**
+	 * Whether a flush of <code>pending</code> has been scheduled.
+	 */
+	private boolean flushScheduled;
+
+	/**
+	 * Writes to, and searches, the spill file.  Since there is only one
+	 * thread, searches see everything spilled before they were requested.
+	 */
+	private final ExecutorService spillExecutor;
+
+	private int maxLines;
+	private int maxChars;
+
+	/**
+	 * The spill file, or <code>null</code> if nothing has been spilled.
+	 * This is only accessed on the EDT.
+	 */
+	private File spillFile;
+
+	/**
+	 * Writes to <code>spillFile</code>.  This is only accessed on the
+	 * spilling thread.
+	 */
+	private Writer spillWriter;
+
+	/**
+	 * The default maximum number of lines kept in memory.
+	 */
+	static final int DEFAULT_MAX_LINES = 10000;
+
+	/**
+	 * The default maximum number of characters kept in memory.
+	 */
+	static final int DEFAULT_MAX_CHARS = 2 * 1024 * 1024;
+
+	/**
+	 * The delay between output arriving and it being added to the document.
+	 * All output arriving in this window is added at once.
+	 */
+	private static final int FLUSH_DELAY_MILLIS = 30;
+
+	/**
+	 * Threads adding output wait once this many characters are waiting to
+	 * be added to the document.
+	 */
+	private static final int MAX_PENDING_CHARS = 4 * 1024 * 1024;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param textArea The text area to display output in.
+	 */
+	OutputBuffer(OutputTextPane textArea) {
+		this.textArea = textArea;
+		pending = new ArrayList<>();
+		maxLines = DEFAULT_MAX_LINES;
+		maxChars = DEFAULT_MAX_CHARS;
+		flushTimer = new Timer(FLUSH_DELAY_MILLIS, e -> flush());
+		flushTimer.setRepeats(false);
+		spillExecutor = Executors.newSingleThreadExecutor(r -> {
+			Thread t = new Thread(r, "ToolOutputSpiller");
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+
+	/**
+	 * Appends a line of output.  This method is thread-safe.  If called
+	 * off the EDT while too much output is waiting to be added to the
+	 * document, this waits until the EDT adds it.
+	 *
+	 * @param text The text to append.  A newline is appended to it.
+	 * @param style The style for the text, such as
+	 *        {@link OutputTextPane#STYLE_STDOUT}.
+	 */
+	void append(String text, String style) {
+
+		if (SwingUtilities.isEventDispatchThread()) {
+			synchronized (pending) {
+				addPending(new Chunk(text + "\n", style));
+			}
+			flush();
+			return;
+		}
+
+		boolean scheduleFlush = false;
+		synchronized (pending) {
+			addPending(new Chunk(text + "\n", style));
+			if (!flushScheduled) {
+				flushScheduled = scheduleFlush = true;
+			}
+			if (pendingChars>MAX_PENDING_CHARS) {
+				SwingUtilities.invokeLater(this::flush);
+				try {
+					while (pendingChars>MAX_PENDING_CHARS) {
+						pending.wait();
+					}
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+		if (scheduleFlush) {
+			SwingUtilities.invokeLater(flushTimer::restart);
+		}
+
+	}
+
+
+	/**
+	 * Adds output to <code>pending</code>.  The caller should hold its
+	 * lock.
+	 *
+	 * @param chunk The output to add.
+	 */
+	private void addPending(Chunk chunk) {
+		pending.add(chunk);
+		pendingChars += chunk.text().length();
+	}
+
+
+	/**
+	 * Removes all output, including any that was spilled.  This should only
+	 * be called on the EDT.
+	 */
+	void clear() {
+		synchronized (pending) {
+			removePending();
+			flushScheduled = false;
+		}
+		textArea.setText(null);
+		File file = spillFile;
+		spillFile = null;
+		if (file!=null) {
+			spillExecutor.execute(() -> {
+				closeSpillWriter();
+				if (!file.delete()) {
+					file.deleteOnExit();
+				}
+			});
+		}
+	}
+
+
+	/**
+	 * Closes the spill file's writer, if it's open.  This is called on the
+	 * spilling thread.
+	 */
+	private void closeSpillWriter() {
+		if (spillWriter!=null) {
+			try {
+				spillWriter.close();
+			} catch (IOException ioe) {
+				ioe.printStackTrace();
+			}
+			spillWriter = null;
+		}
+	}
+
+
+	/**
+	 * Copies the spilled output to a new temporary file in the background,
+	 * so it can be opened while more output is spilled, or after this
+	 * buffer is cleared.
+	 *
+	 * @param callback Called on the EDT with the copy, which is encoded in
+	 *        UTF-8, or <code>null</code> if nothing was spilled or an error
+	 *        occurred.
+	 */
+	void copySpilledOutput(Consumer<File> callback) {
+
+		File file = spillFile;
+
+		spillExecutor.execute(() -> {
+			File copy = null;
+			if (file!=null) {
+				try {
+					if (spillWriter!=null) {
+						spillWriter.flush();
+					}
+					copy = File.createTempFile("toolOutput", ".txt");
+					copy.deleteOnExit();
+					Files.copy(file.toPath(), copy.toPath(),
+							StandardCopyOption.REPLACE_EXISTING);
+				} catch (IOException ioe) {
+					ioe.printStackTrace();
+					copy = null;
+				}
+			}
+			File copy2 = copy;
+			SwingUtilities.invokeLater(() -> callback.accept(copy2));
+		});
+
+	}
+
+
+	/**
+	 * Searches the spilled output for text in the background.
+	 *
+	 * @param text The text to search for.
+	 * @param matchCase Whether the search is case-sensitive.
+	 * @param afterLine Only lines after this 1-based line are searched.
+	 *        Use <code>0</code> to search all lines.
+	 * @param callback Called on the EDT with the first line after
+	 *        <code>afterLine</code> containing the text, or
+	 *        <code>null</code> if no such spilled line does.
+	 */
+	void findInSpilledOutput(String text, boolean matchCase, long afterLine,
+			Consumer<SpilledLine> callback) {
+
+		File file = spillFile;
+		String toFind = matchCase ? text : text.toLowerCase(Locale.ROOT);
+
+		spillExecutor.execute(() -> {
+			SpilledLine result = null;
+			if (file!=null) {
+				try {
+					if (spillWriter!=null) {
+						spillWriter.flush();
+					}
+					result = findInSpilledOutputImpl(file, toFind, matchCase,
+							afterLine);
+				} catch (IOException ioe) {
+					ioe.printStackTrace();
+				}
+			}
+			SpilledLine result2 = result;
+			SwingUtilities.invokeLater(() -> callback.accept(result2));
+		});
+
+	}
+
+
+	/**
+	 * Searches the spill file for text.  This is called on the spilling
+	 * thread.
+	 *
+	 * @param file The spill file.
+	 * @param toFind The text to search for.  If the search isn't
+	 *        case-sensitive, this should be lower case.
+	 * @param matchCase Whether the search is case-sensitive.
+	 * @param afterLine Only lines after this 1-based line are searched.
+	 * @return The first line after <code>afterLine</code> containing the
+	 *         text, or <code>null</code> if no such line does.
+	 * @throws IOException If an IO error occurs.
+	 */
+	private static SpilledLine findInSpilledOutputImpl(File file, String toFind,
+			boolean matchCase, long afterLine) throws IOException {
+		try (BufferedReader r = Files.newBufferedReader(file.toPath(),
+				StandardCharsets.UTF_8)) {
+			String line;
+			long lineNumber = 0;
+			while ((line=r.readLine())!=null) {
+				if (++lineNumber<=afterLine) {
+					continue;
+				}
+				String line2 = matchCase ? line : line.toLowerCase(Locale.ROOT);
+				if (line2.contains(toFind)) {
+					return new SpilledLine(lineNumber, line);
+				}
+			}
+		}
+		return null;
+	}
+
+
+	/**
+	 * Adds pending output to the document, removing old lines from it if it
+	 * grows too large.  This should only be called on the EDT.
+	 */
+	private void flush() {
+
+		List<Chunk> chunks;
+		synchronized (pending) {
+			flushScheduled = false;
+			if (pending.isEmpty()) {
+				return;
+			}
+			chunks = new ArrayList<>(pending);
+			removePending();
+		}
+
+		Document doc = textArea.getDocument();
+		String dropped = trim(chunks);
+		if (dropped!=null) {
+			// Everything in the document is older than the dropped output.
+			try {
+				spill(doc.getText(0, doc.getLength()));
+				doc.remove(0, doc.getLength());
+			} catch (BadLocationException ble) { // Never happens
+				ble.printStackTrace();
+			}
+			spill(dropped);
+		}
+
+		StringBuilder run = new StringBuilder();
+		for (int i=0; i<chunks.size(); i++) {
+			Chunk chunk = chunks.get(i);
+			run.append(chunk.text());
+			if (i==chunks.size()-1 || !chunks.get(i+1).style().equals(chunk.style())) {
+				try {
+					doc.insertString(doc.getLength(), run.toString(),
+							textArea.getStyle(chunk.style()));
+				} catch (BadLocationException ble) { // Never happens
+					ble.printStackTrace();
+				}
+				run.setLength(0);
+			}
+		}
+
+		// Remove the oldest lines if the limits are exceeded.
+		Element root = doc.getDefaultRootElement();
+		int toDelete = root.getElementCount() - 1 - maxLines;
+		if (doc.getLength()>maxChars) {
+			int line = root.getElementIndex(doc.getLength() - maxChars);
+			toDelete = Math.max(toDelete, line + 1);
+		}
+		toDelete = Math.min(toDelete, root.getElementCount() - 1);
+		if (toDelete>0) {
+			int endOffs = root.getElement(toDelete-1).getEndOffset();
+			try {
+				spill(doc.getText(0, endOffs));
+				doc.remove(0, endOffs);
+			} catch (BadLocationException ble) { // Never happens
+				ble.printStackTrace();
+			}
+		}
+
+		textArea.setCaretPosition(doc.getLength());
+
+	}
+
+
+	/**
+	 * Returns the maximum number of characters kept in memory.
+	 *
+	 * @return The maximum number of characters.
+	 * @see #setLimits(int, int)
+	 */
+	int getMaxChars() {
+		return maxChars;
+	}
+
+
+	/**
+	 * Returns the maximum number of lines kept in memory.
+	 *
+	 * @return The maximum number of lines.
+	 * @see #setLimits(int, int)
+	 */
+	int getMaxLines() {
+		return maxLines;
+	}
+
+
+	/**
+	 * Removes all output from <code>pending</code>, and wakes any threads
+	 * waiting for it to be added to the document.  The caller should hold
+	 * its lock.
+	 */
+	private void removePending() {
+		pending.clear();
+		pendingChars = 0;
+		pending.notifyAll();
+	}
+
+
+	/**
+	 * Sets the limits on the output kept in memory.  They take effect when
+	 * more output is added.
+	 *
+	 * @param maxLines The maximum number of lines.
+	 * @param maxChars The maximum number of characters.
+	 * @see #getMaxLines()
+	 * @see #getMaxChars()
+	 */
+	void setLimits(int maxLines, int maxChars) {
+		this.maxLines = Math.max(1, maxLines);
+		this.maxChars = Math.max(1, maxChars);
+	}
+
+
+	/**
+	 * Writes text removed from the document to the spill file.  This should
+	 * only be called on the EDT.
+	 *
+	 * @param text The text, which should end in a newline.
+	 */
+	private void spill(String text) {
+
+		if (text.isEmpty()) {
+			return;
+		}
+
+		if (spillFile==null) {
+			try {
+				spillFile = File.createTempFile("toolOutput", ".txt");
+				spillFile.deleteOnExit();
+			} catch (IOException ioe) {
+				ioe.printStackTrace();
+				return; // Old output is simply discarded
+			}
+		}
+
+		File file = spillFile;
+		spillExecutor.execute(() -> {
+			try {
+				if (spillWriter==null) {
+					spillWriter = Files.newBufferedWriter(file.toPath(),
+							StandardCharsets.UTF_8);
+				}
+				spillWriter.write(text);
+			} catch (IOException ioe) {
+				ioe.printStackTrace();
+			}
+		});
+
+	}
+
+
+	/**
+	 * Removes the oldest output from a list of chunks, if it exceeds the
+	 * limits on the output kept in memory.
+	 *
+	 * @param chunks The chunks.  This is modified in place.
+	 * @return The text removed, or <code>null</code> if nothing was removed.
+	 */
+	private String trim(List<Chunk> chunks) {
+
+		int lineCount = 0;
+		int charCount = 0;
+
+		for (int i=chunks.size()-1; i>=0; i--) {
+			Chunk chunk = chunks.get(i);
+			String text = chunk.text();
+			int index = text.length();
+			while ((index=text.lastIndexOf('\n', index-1))>-1) {
+				int chars = charCount + text.length() - index - 1;
+				if (++lineCount>maxLines || chars>maxChars) {
+					StringBuilder sb = new StringBuilder();
+					for (int j=0; j<i; j++) {
+						sb.append(chunks.get(j).text());
+					}
+					sb.append(text, 0, index+1);
+					chunks.set(i, new Chunk(text.substring(index+1), chunk.style()));
+					chunks.subList(0, i).clear();
+					return sb.toString();
+				}
+			}
+			charCount += text.length();
+		}
+
+		return null;
+
+	}
+
+
+	/**
+	 * Output waiting to be added to the document.
+	 *
+	 * @param text The text.
+	 * @param style The style to apply to the text.
+	 */
+	private record Chunk(String text, String style) {
+	}
+
+
+	/**
+	 * A line of output found in the spill file.
+	 *
+	 * @param line The 1-based line number in the spill file.
+	 * @param text The text of the line.
+	 */
+	record SpilledLine(long line, String text) {
+	}
+
+
+}
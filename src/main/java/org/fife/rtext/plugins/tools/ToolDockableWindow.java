@@ -11,23 +11,30 @@
 package org.fife.rtext.plugins.tools;
 
 import java.awt.*;
+import java.io.File;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.text.MessageFormat;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.Locale;
 import java.util.ResourceBundle;
 import javax.swing.Box;
 import javax.swing.JButton;
+import javax.swing.JLabel;
 import javax.swing.JOptionPane;
+import javax.swing.JTextField;
 import javax.swing.JToolBar;
 import javax.swing.SwingUtilities;
+import javax.swing.UIManager;
 import javax.swing.text.BadLocationException;
 import javax.swing.text.Style;
 import javax.swing.text.StyleConstants;
-import javax.swing.text.StyledDocument;
 
 import org.fife.io.ProcessRunnerOutputListener;
+import org.fife.rtext.AbstractMainView;
+import org.fife.rtext.RTextEditorPane;
+import org.fife.rtext.plugins.tools.OutputBuffer.SpilledLine;
 import org.fife.ui.UIUtil;
 import org.fife.ui.app.console.AbstractConsoleTextArea;
 import org.fife.ui.RScrollPane;
@@ -47,6 +54,8 @@ public class ToolDockableWindow extends DockableWindow
 	private static final String MSG_BUNDLE = "org.fife.rtext.plugins.tools.DockableWindow";
 	private static final ResourceBundle MSG = ResourceBundle.getBundle(MSG_BUNDLE);
 
+	private final ToolPlugin plugin;
+
 	/**
 	 * The tool currently running.  This should only be manipulated on the
 	 * EDT.
@@ -63,7 +72,21 @@ public class ToolDockableWindow extends DockableWindow
 	 */
 	private final OutputTextPane textArea;
 
+	/**
+	 * Keeps only the most recent output in <code>textArea</code>.
+	 */
+	private final OutputBuffer output;
+
 	private final JToolBar toolbar;
+	private final JTextField findField;
+
+	/**
+	 * The text last searched for, in lower case, and the line in the output
+	 * no longer in this window that it was last found on.  The line is
+	 * <code>0</code> if the last match wasn't in that output.
+	 */
+	private String spilledMatchText;
+	private long spilledMatchLine;
 
 	/**
 	 * Used by toolbar button to stop the currently running tool.
@@ -79,10 +102,12 @@ public class ToolDockableWindow extends DockableWindow
 	public ToolDockableWindow(ToolPlugin plugin) {
 
 		super(new BorderLayout());
+		this.plugin = plugin;
 		setIcon(plugin.getPluginIcon());
 		setDockableWindowName(MSG.getString("Window.Name"));
 
 		textArea = new OutputTextPane(plugin);
+		output = new OutputBuffer(textArea);
 		setPrimaryComponent(textArea);
 		RScrollPane sp = new RScrollPane(textArea);
 		UIUtil.removeTabbedPaneFocusTraversalKeyBindings(sp);
@@ -91,6 +116,11 @@ public class ToolDockableWindow extends DockableWindow
 		// Create a toolbar.
 		toolbar = new JToolBar();
 		toolbar.setFloatable(false);
+		toolbar.add(new JLabel(MSG.getString("Window.Find")));
+		findField = new JTextField(20);
+		findField.setMaximumSize(findField.getPreferredSize());
+		findField.addActionListener(e -> findNext());
+		toolbar.add(findField);
 		toolbar.add(Box.createHorizontalGlue());
 
 		stopAction = new StopAction(plugin, ToolPlugin.MSG);
@@ -109,26 +139,70 @@ public class ToolDockableWindow extends DockableWindow
 
 
 	/**
-	 * Appends text to the output text component with a given style.
+	 * Selects the next occurrence of the text in the find field in the
+	 * output.  After the last occurrence in this window, the occurrences in
+	 * output that no longer fits in this window are found, oldest first,
+	 * before wrapping to the top of this window.  The user is told where
+	 * those are, and can open the earlier output in an editor.
+	 */
+	private void findNext() {
+
+		String toFind = findField.getText().toLowerCase(Locale.ROOT);
+		if (toFind.isEmpty()) {
+			return;
+		}
+		if (!toFind.equals(spilledMatchText)) {
+			spilledMatchText = toFind;
+			spilledMatchLine = 0;
+		}
+
+		// Continue through the earlier output if we're in it.
+		if (spilledMatchLine>0) {
+			output.findInSpilledOutput(toFind, false, spilledMatchLine,
+					line -> foundInSpilledOutput(toFind, line));
+			return;
+		}
+
+		if (!selectInOutput(toFind, textArea.getSelectionEnd())) {
+			output.findInSpilledOutput(toFind, false, 0,
+					line -> foundInSpilledOutput(toFind, line));
+		}
+
+	}
+
+
+	/**
+	 * Called when searching output that has been removed from this window
+	 * completes.
 	 *
-	 * @param text The text to append.
-	 * @param style The style to apply to the text.
+	 * @param toFind The text searched for, in lower case.
+	 * @param line The next matching line, or <code>null</code> if none.
 	 */
-	private void appendWithStyle(String text, Style style) {
-
-		// The user can move the caret and type (stdin) so always append
-		// to the end of the document.
-		final StyledDocument doc = (StyledDocument)textArea.getDocument();
-		int end = doc.getLength();
-		try {
-			// Thread safe since we're using an AbstractDocument
-			doc.insertString(end, text + "\n", style);
-			//doc.setLogicalStyle(doc.getLength()-1, style);
-		} catch (BadLocationException ble) {
-			ble.printStackTrace();
+	private void foundInSpilledOutput(String toFind, SpilledLine line) {
+
+		if (!toFind.equals(spilledMatchText)) {
+			return; // The user has since searched for something else
 		}
 
-		SwingUtilities.invokeLater(() -> textArea.setCaretPosition(doc.getLength()));
+		if (line==null) {
+			spilledMatchLine = 0;
+			if (!selectInOutput(toFind, 0)) {
+				UIManager.getLookAndFeel().provideErrorFeedback(findField);
+			}
+			return;
+		}
+		spilledMatchLine = line.line();
+
+		String message = MessageFormat.format(
+				MSG.getString("Window.FoundInEarlierOutput"),
+				Long.toString(line.line()), line.text());
+		int rc = JOptionPane.showConfirmDialog(this, message,
+				MSG.getString("Window.Name"), JOptionPane.YES_NO_OPTION);
+		if (rc==JOptionPane.YES_OPTION) {
+			// Open a copy, since more output may be spilled, or the output
+			// cleared, while it's open.
+			output.copySpilledOutput(copy -> openSpilledOutput(copy, line));
+		}
 
 	}
 
@@ -163,6 +237,29 @@ public class ToolDockableWindow extends DockableWindow
 	}
 
 
+	/**
+	 * Returns the maximum number of characters of output kept in this
+	 * window.
+	 *
+	 * @return The maximum number of characters.
+	 * @see #setOutputLimits(int, int)
+	 */
+	int getMaxOutputChars() {
+		return output.getMaxChars();
+	}
+
+
+	/**
+	 * Returns the maximum number of lines of output kept in this window.
+	 *
+	 * @return The maximum number of lines.
+	 * @see #setOutputLimits(int, int)
+	 */
+	int getMaxOutputLines() {
+		return output.getMaxLines();
+	}
+
+
 	/**
 	 * Returns whether a special style is used for a given type of text in
 	 * the consoles.
@@ -175,6 +272,34 @@ public class ToolDockableWindow extends DockableWindow
 	}
 
 
+	/**
+	 * Opens a copy of the output that no longer fits in this window in an
+	 * editor.
+	 *
+	 * @param copy The copy, or <code>null</code> if it couldn't be made.
+	 * @param line The line to go to.
+	 */
+	private void openSpilledOutput(File copy, SpilledLine line) {
+
+		if (copy==null) {
+			UIManager.getLookAndFeel().provideErrorFeedback(findField);
+			return;
+		}
+
+		AbstractMainView mainView = plugin.getApplication().getMainView();
+		if (mainView.openFile(copy.getAbsolutePath(), "UTF-8", false)) {
+			RTextEditorPane editor = mainView.getCurrentTextArea();
+			try {
+				int lineIndex = (int)Math.min(line.line(), editor.getLineCount()) - 1;
+				editor.setCaretPosition(editor.getLineStartOffset(lineIndex));
+			} catch (BadLocationException ble) { // Never happens
+				ble.printStackTrace();
+			}
+		}
+
+	}
+
+
 	/**
 	 * Prints an exception to the output text component.  This is called
 	 * when an error occurs trying to launch or run a process.
@@ -182,20 +307,18 @@ public class ToolDockableWindow extends DockableWindow
 	 * @param e The throwable that occurred.
 	 */
 	private void outputStackTrace(Throwable e) {
-		Style style = textArea.getStyle(OutputTextPane.STYLE_STDERR);
 		StringWriter sw = new StringWriter();
 		PrintWriter pw = new PrintWriter(sw);
 		e.printStackTrace(pw);
 		pw.close();
-		appendWithStyle(sw.toString(), style);
+		output.append(sw.toString(), OutputTextPane.STYLE_STDERR);
 	}
 
 
 	@Override
 	public void outputWritten(Process p, String output, boolean stdout) {
-		Style style = textArea.getStyle(stdout ?
+		this.output.append(output, stdout ?
 				OutputTextPane.STYLE_STDOUT : OutputTextPane.STYLE_STDERR);
-		appendWithStyle(output, style); // thread safe Swing calls
 	}
 
 
@@ -218,8 +341,7 @@ public class ToolDockableWindow extends DockableWindow
 				title = MessageFormat.format(title, tool.getName());
 				setDockableWindowTitle(title);
 				String text = MSG.getString("Window.ProcessTerminated");
-				appendWithStyle(text,
-						textArea.getStyle(OutputTextPane.STYLE_STDERR));
+				output.append(text, OutputTextPane.STYLE_STDERR);
 			}
 			else {
 				String title = MSG.getString("Window.Title.ToolError");
@@ -236,6 +358,26 @@ public class ToolDockableWindow extends DockableWindow
 	}
 
 
+	/**
+	 * Selects the next occurrence of text in the output in this window.
+	 *
+	 * @param toFind The text to find, in lower case.
+	 * @param start The offset to start searching at.
+	 * @return Whether the text was found.
+	 */
+	private boolean selectInOutput(String toFind, int start) {
+		String text = textArea.getText().toLowerCase(Locale.ROOT);
+		int index = text.indexOf(toFind, start);
+		if (index>-1) {
+			textArea.setCaretPosition(index);
+			textArea.moveCaretPosition(index + toFind.length());
+			textArea.getCaret().setSelectionVisible(true);
+			return true;
+		}
+		return false;
+	}
+
+
 	/**
 	 * Changes all consoles to use the default colors for the current
 	 * application theme.
@@ -266,6 +408,20 @@ public class ToolDockableWindow extends DockableWindow
 	}
 
 
+	/**
+	 * Sets the limits on the output kept in this window.  Older output is
+	 * written to a temporary file.
+	 *
+	 * @param maxLines The maximum number of lines.
+	 * @param maxChars The maximum number of characters.
+	 * @see #getMaxOutputLines()
+	 * @see #getMaxOutputChars()
+	 */
+	void setOutputLimits(int maxLines, int maxChars) {
+		output.setLimits(maxLines, maxChars);
+	}
+
+
 	/**
 	 * Called just before a tool is launched.
 	 *
@@ -287,7 +443,8 @@ public class ToolDockableWindow extends DockableWindow
 		title = MessageFormat.format(title, tool.getName(),
 			new SimpleDateFormat().format(new Date()));
 		setDockableWindowTitle(title);
-		textArea.setText(null);
+		output.clear();
+		spilledMatchLine = 0;
 		stopAction.setEnabled(true);
 		return true;
 	}
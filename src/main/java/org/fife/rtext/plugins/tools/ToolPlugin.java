@@ -92,6 +92,7 @@ public class ToolPlugin extends GUIPlugin<RText> implements PropertyChangeListen
 		window = new ToolDockableWindow(this);
 		window.setPosition(prefs.windowPosition);
 		window.setActive(prefs.windowVisible);
+		window.setOutputLimits(prefs.maxOutputLines, prefs.maxOutputChars);
 		putDockableWindow(DOCKABLE_WINDOW_TOOLS, window);
 
 		rtext.addPropertyChangeListener(AbstractGUIApplication.THEME_PROPERTY, this);
@@ -398,6 +399,8 @@ public class ToolPlugin extends GUIPlugin<RText> implements PropertyChangeListen
 		prefs.newToolAccelerator = a.getAccelerator();
 		a = (AppAction<?>)app.getAction(EDIT_TOOLS_ACTION);
 		prefs.editToolsAccelerator = a.getAccelerator();
+		prefs.maxOutputLines = window.getMaxOutputLines();
+		prefs.maxOutputChars = window.getMaxOutputChars();
 
 		File prefsFile = getPrefsFile();
 		try {
@@ -51,6 +51,17 @@ public class ToolsPrefs extends Prefs {
 	 */
 	public KeyStroke editToolsAccelerator;
 
+	/**
+	 * The maximum number of lines of output kept in the tool output window.
+	 */
+	public int maxOutputLines;
+
+	/**
+	 * The maximum number of characters of output kept in the tool output
+	 * window.
+	 */
+	public int maxOutputChars;
+
 
 	/**
 	 * Overridden to validate the task identifiers value.
@@ -62,6 +73,12 @@ public class ToolsPrefs extends Prefs {
 		if (!DockableWindow.isValidPosition(windowPosition)) {
 			windowPosition = DockableWindowConstants.BOTTOM;
 		}
+		if (maxOutputLines<=0) {
+			maxOutputLines = OutputBuffer.DEFAULT_MAX_LINES;
+		}
+		if (maxOutputChars<=0) {
+			maxOutputChars = OutputBuffer.DEFAULT_MAX_CHARS;
+		}
 	}
 
 
@@ -72,6 +89,8 @@ public class ToolsPrefs extends Prefs {
 		windowVisibilityAccelerator = null;
 		newToolAccelerator = null;
 		editToolsAccelerator = null;
+		maxOutputLines = OutputBuffer.DEFAULT_MAX_LINES;
+		maxOutputChars = OutputBuffer.DEFAULT_MAX_CHARS;
 	}
 
 
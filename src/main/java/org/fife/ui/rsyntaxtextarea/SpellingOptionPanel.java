@@ -68,6 +68,7 @@ public class SpellingOptionPanel extends OptionsDialogPanel {
 	private RColorSwatchesButton spellingColorButton;
 	private JLabel errorsPerFileLabel;
 	private JTextField maxErrorsField;
+	private JCheckBox incrementalCB;
 	private JCheckBox viewSpellingWindowCB;
 
 	private Listener listener;
@@ -162,6 +163,11 @@ public class SpellingOptionPanel extends OptionsDialogPanel {
 		UIUtil.makeSpringCompactGrid(temp2, 5, 2, 0, 0, 5, 5);
 		addLeftAligned(temp, temp2, COMPONENT_VERTICAL_SPACING, 20);
 
+		incrementalCB = new JCheckBox(msg.getString("CheckIncrementally"));
+		incrementalCB.setActionCommand("Incremental");
+		incrementalCB.addActionListener(listener);
+		addLeftAligned(temp, incrementalCB, COMPONENT_VERTICAL_SPACING, 20);
+
 		viewSpellingWindowCB = new JCheckBox(msg.getString("ViewSpellingErrorWindow"));
 		viewSpellingWindowCB.setActionCommand("ViewSpellingWindow");
 		viewSpellingWindowCB.addActionListener(listener);
@@ -188,6 +194,7 @@ public class SpellingOptionPanel extends OptionsDialogPanel {
 		support.setUserDictionary(getUserDictionary());
 		support.setSpellCheckingColor(spellingColorButton.getColor());
 		support.setMaxSpellingErrors(getMaxSpellingErrors());
+		support.setIncrementalSpellChecking(incrementalCB.isSelected());
 		rtext.setSpellingWindowVisible(viewSpellingWindowCB.isSelected());
 	}
 
@@ -278,6 +285,7 @@ public class SpellingOptionPanel extends OptionsDialogPanel {
 		spellingColorButton.setEnabled(enabled);
 		errorsPerFileLabel.setEnabled(enabled);
 		maxErrorsField.setEnabled(enabled);
+		incrementalCB.setEnabled(enabled);
 		//viewSpellingWindowCB.setEnabled(enabled);
 	}
 
@@ -296,6 +304,7 @@ public class SpellingOptionPanel extends OptionsDialogPanel {
 		spellingColorButton.setColor(support.getSpellCheckingColor());
 		maxErrorsField.setText(Integer.toString(
 				support.getMaxSpellingErrors()));
+		incrementalCB.setSelected(support.isIncrementalSpellChecking());
 		viewSpellingWindowCB.setSelected(rtext.isSpellingWindowVisible());
 	}
 
@@ -335,7 +344,8 @@ public class SpellingOptionPanel extends OptionsDialogPanel {
 				}
 			}
 
-			else if ("ViewSpellingWindow".equals(command)) {
+			else if ("Incremental".equals(command) ||
+					"ViewSpellingWindow".equals(command)) {
 				setDirty(true);
 			}
 
@@ -354,6 +364,7 @@ public class SpellingOptionPanel extends OptionsDialogPanel {
 						!userDictField.getText().equals(userDictFileName) ||
 						!spellingColorButton.getColor().equals(defaultColor) ||
 						!defaultMaxErrors.equals(maxErrorsField.getText()) ||
+						incrementalCB.isSelected() ||
 						viewSpellingWindowCB.isSelected()) {
 
 					setSpellCheckingEnabled(false);
@@ -363,6 +374,7 @@ public class SpellingOptionPanel extends OptionsDialogPanel {
 					userDictField.setFileSystemAware(true);
 					spellingColorButton.setColor(defaultColor);
 					maxErrorsField.setText(defaultMaxErrors);
+					incrementalCB.setSelected(false);
 					viewSpellingWindowCB.setSelected(false);
 
 					setDirty(true);
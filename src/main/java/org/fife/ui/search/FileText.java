@@ -0,0 +1,573 @@
+/*
+ * 10/18/2026
+ *
+ * FileText.java - The text of a file being examined by Find in Files.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.ui.search;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import javax.swing.text.Segment;
+
+import org.fife.ui.rsyntaxtextarea.Token;
+import org.fife.ui.rsyntaxtextarea.TokenMaker;
+import org.fife.ui.rsyntaxtextarea.TokenMakerFactory;
+
+
+/**
+ * The text of a file being examined by Find in Files.<p>
+ *
+ * Files are decoded straight into a character array rather than into a
+ * text area.  Building a document and tokenizing every line of it is by far the
+ * most expensive part of a search, and is wasted effort for the vast
+ * majority of files, which don't contain a match.  Here, line offsets are
+ * only computed once a match is found, and only the lines needed to
+ * render matches are tokenized.<p>
+ *
+ * Line endings are normalized to <code>'\n'</code> as the file is read, so
+ * offsets, lines and regular expression matches are the same as they would
+ * be in an <code>RSyntaxTextArea</code>.<p>
+ *
+ * Instances of this class are meant to be reused for many files, but are
+ * not thread-safe.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class FileText implements CharSequence {
+
+	private char[] chars;
+	private int length;
+	private String encoding;
+
+	/**
+	 * Offsets of the starts of lines, computed lazily.
+	 */
+	private int[] lineStarts;
+	private int lineCount;
+
+	private TokenMaker tokenMaker;
+	private Map<String, TokenMaker> tokenMakers;
+
+	/**
+	 * The last token type on each line that's been tokenized so far.
+	 * Needed to tokenize a line that starts, e.g., inside a multi-line
+	 * comment.
+	 */
+	private int[] lastTokenTypes;
+	private int tokenizedLineCount;
+	private Segment segment;
+
+	private char[] readBuffer;
+	private ByteBuffer byteBuffer;
+	private Map<Charset, CharsetDecoder> decoders;
+
+	private static final int INITIAL_SIZE = 8192;
+
+	/**
+	 * Files at least this large are memory-mapped, when allowed, rather
+	 * than read onto the heap.
+	 */
+	private static final int MAPPING_THRESHOLD = 4 * 1024 * 1024;
+
+	private static final Charset DEFAULT_CHARSET = Charset.defaultCharset();
+
+	/**
+	 * The name <code>UnicodeReader</code> gives the default charset.  We
+	 * use the same name so files written back out are treated the same.
+	 */
+	private static final String DEFAULT_ENCODING =
+			new InputStreamReader(InputStream.nullInputStream()).getEncoding();
+
+	/**
+	 * Byte order marks, in the order <code>UnicodeReader</code> checks
+	 * for them, and the charsets they denote.
+	 */
+	private static final int[][] BYTE_ORDER_MARKS = {
+		{ 0x00, 0x00, 0xfe, 0xff },
+		{ 0xff, 0xfe, 0x00, 0x00 },
+		{ 0xef, 0xbb, 0xbf },
+		{ 0xfe, 0xff },
+		{ 0xff, 0xfe },
+	};
+	private static final String[] BOM_CHARSETS = {
+		"UTF-32BE", "UTF-32LE", "UTF-8", "UTF-16BE", "UTF-16LE",
+	};
+
+
+	/**
+	 * Constructor.
+	 */
+	FileText() {
+		chars = new char[INITIAL_SIZE];
+		lineStarts = new int[64];
+		lastTokenTypes = new int[64];
+		tokenMakers = new HashMap<>();
+		segment = new Segment();
+		readBuffer = new char[INITIAL_SIZE];
+		byteBuffer = ByteBuffer.allocate(INITIAL_SIZE);
+		decoders = new HashMap<>();
+	}
+
+
+	@Override
+	public char charAt(int index) {
+		if (index<0 || index>=length) {
+			throw new IndexOutOfBoundsException(index);
+		}
+		return chars[index];
+	}
+
+
+	/**
+	 * Builds the line index, if it hasn't been already.
+	 */
+	private void ensureLineIndex() {
+
+		if (lineCount>0) {
+			return;
+		}
+
+		lineStarts[lineCount++] = 0;
+		for (int i=0; i<length; i++) {
+			if (chars[i]=='\n') {
+				if (lineCount==lineStarts.length) {
+					lineStarts = Arrays.copyOf(lineStarts, lineCount*2);
+				}
+				lineStarts[lineCount++] = i + 1;
+			}
+		}
+
+	}
+
+
+	/**
+	 * Returns the array backing this text.  Only the first
+	 * {@link #length()} characters are valid.
+	 *
+	 * @return The array.
+	 */
+	char[] getArray() {
+		return chars;
+	}
+
+
+	/**
+	 * Returns the encoding the file was read with.
+	 *
+	 * @return The encoding.
+	 */
+	String getEncoding() {
+		return encoding;
+	}
+
+
+	/**
+	 * Returns the number of lines in this text.
+	 *
+	 * @return The line count.  This is always at least <code>1</code>.
+	 */
+	int getLineCount() {
+		ensureLineIndex();
+		return lineCount;
+	}
+
+
+	/**
+	 * Returns the offset just past the end of a line, including its
+	 * newline.  For the last line this is the length of the text.
+	 *
+	 * @param line The line.
+	 * @return The end offset.
+	 * @see #getLineStartOffset(int)
+	 */
+	int getLineEndOffset(int line) {
+		ensureLineIndex();
+		return line==lineCount-1 ? length : lineStarts[line+1];
+	}
+
+
+	/**
+	 * Returns the line containing the specified offset.
+	 *
+	 * @param offset The offset.
+	 * @return The line, 0-based.
+	 */
+	int getLineOfOffset(int offset) {
+		ensureLineIndex();
+		int index = Arrays.binarySearch(lineStarts, 0, lineCount, offset);
+		return index>=0 ? index : (-index - 2);
+	}
+
+
+	/**
+	 * Returns the text of a line, excluding its newline.
+	 *
+	 * @param line The line.
+	 * @param maxLength The maximum number of characters to return.  Longer
+	 *        lines are truncated.
+	 * @return The line's text.
+	 */
+	String getLineText(int line, int maxLength) {
+		setSegmentToLine(line);
+		return new String(chars, segment.offset,
+				Math.min(segment.count, maxLength));
+	}
+
+
+	/**
+	 * Returns the offset of the start of a line.
+	 *
+	 * @param line The line.
+	 * @return The start offset.
+	 * @see #getLineEndOffset(int)
+	 */
+	int getLineStartOffset(int line) {
+		ensureLineIndex();
+		return lineStarts[line];
+	}
+
+
+	/**
+	 * Returns the tokens for a line, as an <code>RSyntaxDocument</code>
+	 * would.  Only this line and those before it (to determine the state
+	 * at the start of this line) are tokenized.<p>
+	 *
+	 * The returned token list is only valid until the next call to this
+	 * method.
+	 *
+	 * @param line The line.
+	 * @return The first token on the line.
+	 * @see #setSyntaxStyle(String)
+	 */
+	Token getTokenListForLine(int line) {
+
+		ensureLineIndex();
+		if (lastTokenTypes.length<lineCount) {
+			lastTokenTypes = Arrays.copyOf(lastTokenTypes, lineCount);
+		}
+
+		while (tokenizedLineCount<line) {
+			int initialTokenType = tokenizedLineCount==0 ? Token.NULL :
+					lastTokenTypes[tokenizedLineCount-1];
+			setSegmentToLine(tokenizedLineCount);
+			lastTokenTypes[tokenizedLineCount] = tokenMaker.
+					getLastTokenTypeOnLine(segment, initialTokenType);
+			tokenizedLineCount++;
+		}
+
+		int initialTokenType = line==0 ? Token.NULL : lastTokenTypes[line-1];
+		setSegmentToLine(line);
+		return tokenMaker.getTokenList(segment, initialTokenType,
+				lineStarts[line]);
+
+	}
+
+
+	@Override
+	public int length() {
+		return length;
+	}
+
+
+	/**
+	 * Reads a file's contents, replacing any previous contents.
+	 *
+	 * @param file The file to read.
+	 * @throws IOException If an IO error occurs.
+	 * @see #decode(ByteBuffer)
+	 */
+	void read(File file) throws IOException {
+		decode(readBytes(file, true));
+	}
+
+
+	/**
+	 * Reads the raw bytes of a file.  Large files are memory-mapped rather
+	 * than read onto the heap, if allowed.<p>
+	 *
+	 * Note that on some platforms, most notably Windows, a mapped file
+	 * can't be written to or deleted until its buffer is garbage
+	 * collected, so mapping should only be allowed when the caller won't
+	 * be modifying the file.
+	 *
+	 * @param file The file to read.
+	 * @param allowMapping Whether the file may be memory-mapped.
+	 * @return The file's bytes.  This buffer is only valid until the next
+	 *         call to this method.
+	 * @throws IOException If an IO error occurs.
+	 * @see #decode(ByteBuffer)
+	 */
+	ByteBuffer readBytes(File file, boolean allowMapping) throws IOException {
+
+		try (FileChannel channel = FileChannel.open(file.toPath(),
+				StandardOpenOption.READ)) {
+
+			long size = channel.size();
+			if (size>Integer.MAX_VALUE) {
+				throw new IOException("File too large: " + size + " bytes");
+			}
+
+			// A mapping stays valid after its channel is closed.
+			if (allowMapping && size>=MAPPING_THRESHOLD) {
+				return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			}
+
+			ByteBuffer buffer = byteBuffer;
+			if (buffer.capacity()<size) {
+				buffer = ByteBuffer.allocate((int)size);
+				// Don't hang onto huge buffers between files.
+				if (size<MAPPING_THRESHOLD) {
+					byteBuffer = buffer;
+				}
+			}
+			buffer.clear().limit((int)size);
+			while (buffer.hasRemaining()) {
+				if (channel.read(buffer)==-1) {
+					break;
+				}
+			}
+			return buffer.flip();
+
+		}
+
+	}
+
+
+	/**
+	 * Decodes a file's raw bytes, replacing any previous contents.  The
+	 * charset is determined the same way as <code>UnicodeReader</code>
+	 * does it: from the byte order mark, if any, otherwise the platform
+	 * default charset is assumed.
+	 *
+	 * @param bytes The file's bytes.
+	 * @see #readBytes(File, boolean)
+	 */
+	void decode(ByteBuffer bytes) {
+
+		length = 0;
+		lineCount = 0;
+		tokenizedLineCount = 0;
+
+		// FIXME:  Allow the user to specify the default encoding,
+		// instead of assuming system default, somehow.
+		int bom = getByteOrderMark(bytes);
+		Charset charset = getCharset(bytes);
+		encoding = bom==-1 ? DEFAULT_ENCODING : charset.name();
+		CharsetDecoder decoder = decoders.computeIfAbsent(charset,
+				cs -> cs.newDecoder().
+						onMalformedInput(CodingErrorAction.REPLACE).
+						onUnmappableCharacter(CodingErrorAction.REPLACE));
+		decoder.reset();
+
+		ByteBuffer in = bytes.duplicate();
+		if (bom>-1) {
+			in.position(in.position() + BYTE_ORDER_MARKS[bom].length);
+		}
+		int estimate = (int)(in.remaining() * decoder.averageCharsPerByte());
+		if (estimate>chars.length) {
+			chars = new char[estimate];
+		}
+
+		CharBuffer out = CharBuffer.wrap(readBuffer);
+		boolean lastWasCR = false;
+		boolean endOfInput = false;
+		while (true) {
+			CoderResult result = endOfInput ? decoder.flush(out) :
+					decoder.decode(in, out, true);
+			out.flip();
+			lastWasCR = append(out, lastWasCR);
+			out.clear();
+			if (result.isUnderflow()) {
+				if (endOfInput) {
+					break;
+				}
+				endOfInput = true;
+			}
+		}
+
+	}
+
+
+	/**
+	 * Decodes a file's raw bytes as they are, without normalizing line
+	 * endings, for when the file will be written back out.  The charset is
+	 * determined the same way as in {@link #decode(ByteBuffer)}.
+	 *
+	 * @param bytes The file's bytes.  Its position is not modified.
+	 * @param sb The buffer to append the decoded text to.
+	 * @return The file's encoding, named as <code>UnicodeReader</code>
+	 *         names it.
+	 */
+	static String decodeAsIs(ByteBuffer bytes, StringBuilder sb) {
+
+		// FIXME:  Allow the user to specify the default encoding,
+		// instead of assuming system default, somehow.
+		int bom = getByteOrderMark(bytes);
+		Charset charset = getCharset(bytes);
+		ByteBuffer in = bytes.duplicate();
+		if (bom>-1) {
+			in.position(in.position() + BYTE_ORDER_MARKS[bom].length);
+		}
+
+		try {
+			sb.append(charset.newDecoder().
+					onMalformedInput(CodingErrorAction.REPLACE).
+					onUnmappableCharacter(CodingErrorAction.REPLACE).
+					decode(in));
+		} catch (CharacterCodingException cce) { // Never happens
+			throw new IllegalStateException(cce);
+		}
+		return bom==-1 ? DEFAULT_ENCODING : charset.name();
+
+	}
+
+
+	/**
+	 * Appends decoded characters, normalizing <code>"\r\n"</code> and
+	 * <code>"\r"</code> to <code>"\n"</code> as text areas do.
+	 *
+	 * @param decoded The characters to append.
+	 * @param lastWasCR Whether the last character previously appended was
+	 *        a <code>'\r'</code>.
+	 * @return Whether the last character appended was a <code>'\r'</code>.
+	 */
+	private boolean append(CharBuffer decoded, boolean lastWasCR) {
+
+		int count = decoded.remaining();
+		if (length+count>chars.length) {
+			chars = Arrays.copyOf(chars,
+					Math.max(chars.length*2, length+count));
+		}
+
+		char[] array = decoded.array();
+		for (int i=0; i<count; i++) {
+			char ch = array[i];
+			if (ch=='\r') {
+				chars[length++] = '\n';
+				lastWasCR = true;
+			}
+			else {
+				if (ch!='\n' || !lastWasCR) {
+					chars[length++] = ch;
+				}
+				lastWasCR = false;
+			}
+		}
+
+		return lastWasCR;
+
+	}
+
+
+	/**
+	 * Returns which byte order mark a file's bytes start with, if any.
+	 *
+	 * @param bytes The file's bytes.  Its position is not modified.
+	 * @return The index of the byte order mark in
+	 *         {@link #BYTE_ORDER_MARKS}, or <code>-1</code> if there isn't
+	 *         one.
+	 */
+	private static int getByteOrderMark(ByteBuffer bytes) {
+
+		int pos = bytes.position();
+		int remaining = bytes.remaining();
+
+		// Checked in the same order as UnicodeReader.
+		for (int i=0; i<BYTE_ORDER_MARKS.length; i++) {
+			int[] bom = BYTE_ORDER_MARKS[i];
+			if (remaining>=bom.length) {
+				int j = 0;
+				while (j<bom.length && (bytes.get(pos+j)&0xff)==bom[j]) {
+					j++;
+				}
+				if (j==bom.length) {
+					return i;
+				}
+			}
+		}
+
+		return -1;
+
+	}
+
+
+	/**
+	 * Returns the charset of a file, based on its byte order mark.
+	 *
+	 * @param bytes The file's bytes.  Its position is not modified.
+	 * @return The charset.  If there is no byte order mark, the platform
+	 *         default charset is returned.
+	 */
+	static Charset getCharset(ByteBuffer bytes) {
+		int bom = getByteOrderMark(bytes);
+		return bom==-1 ? DEFAULT_CHARSET : Charset.forName(BOM_CHARSETS[bom]);
+	}
+
+
+	/**
+	 * Points our segment at the text of a line, excluding its newline.
+	 *
+	 * @param line The line.
+	 */
+	private void setSegmentToLine(int line) {
+		int start = lineStarts[line];
+		int end = getLineEndOffset(line);
+		if (end>start && chars[end-1]=='\n') {
+			end--;
+		}
+		segment.array = chars;
+		segment.offset = start;
+		segment.count = end - start;
+	}
+
+
+	/**
+	 * Sets the syntax style used to tokenize lines.
+	 *
+	 * @param style The syntax style, e.g.
+	 *        <code>SyntaxConstants.SYNTAX_STYLE_JAVA</code>.
+	 * @see #getTokenListForLine(int)
+	 */
+	void setSyntaxStyle(String style) {
+		tokenMaker = tokenMakers.computeIfAbsent(style,
+				s -> TokenMakerFactory.getDefaultInstance().getTokenMaker(s));
+		tokenizedLineCount = 0;
+	}
+
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		if (start<0 || end>length || start>end) {
+			throw new IndexOutOfBoundsException(
+					"start=" + start + ", end=" + end + ", length=" + length);
+		}
+		return new String(chars, start, end-start);
+	}
+
+
+	@Override
+	public String toString() {
+		return new String(chars, 0, length);
+	}
+
+
+}
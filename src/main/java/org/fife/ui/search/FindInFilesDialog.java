@@ -14,7 +14,12 @@ import java.awt.*;
 import java.awt.event.*;
 import java.io.File;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Pattern;
 import javax.swing.*;
 import javax.swing.border.Border;
@@ -58,11 +63,29 @@ public class FindInFilesDialog extends AbstractSearchDialog {
 	private JRadioButton matchingLinesRadioButton;
 
 	protected JCheckBox verboseCheckBox;
+	protected JCheckBox parallelCheckBox;
+	protected JCheckBox indexCheckBox;
 
 	private StatusBar statusBar;
 
 	private ResultsComponent resultsComponent;
 
+	/**
+	 * Matches found by the search thread that haven't been added to the
+	 * results component yet.  These are added in batches by a timer.  The
+	 * queue is bounded, so if the search thread finds matches faster than
+	 * they can be displayed, it waits for the UI to catch up.
+	 */
+	private BlockingQueue<MatchData> pendingMatches;
+	private Timer pendingMatchesTimer;
+
+	/**
+	 * Whether the timer adding pending matches is running, or about to be
+	 * started on the EDT.  This lets the search thread start the timer
+	 * without touching it off the EDT.
+	 */
+	private AtomicBoolean pendingMatchesTimerStarted;
+
 	// This helps us work around the "bug" where JComboBox eats the first
 	// Enter press.
 	private String lastSearchString;
@@ -81,6 +104,10 @@ public class FindInFilesDialog extends AbstractSearchDialog {
 
 	static final int DECORATIVE_ICON_WIDTH = 12;
 
+	private static final int MAX_PENDING_MATCHES = 10000;
+	private static final int MAX_MATCHES_PER_BATCH = 2000;
+	private static final int PENDING_MATCHES_DELAY = 50; // ms
+
 	private static final String MSG_BUNDLE = "org.fife.ui.search.Search";
 	private static final ResourceBundle MSG = ResourceBundle.getBundle(MSG_BUNDLE);
 
@@ -211,6 +238,18 @@ public class FindInFilesDialog extends AbstractSearchDialog {
 
 		// Initialize some variables.
 		eventListenerList = new EventListenerList();
+		pendingMatches = new ArrayBlockingQueue<>(MAX_PENDING_MATCHES);
+		pendingMatchesTimerStarted = new AtomicBoolean();
+		pendingMatchesTimer = new Timer(PENDING_MATCHES_DELAY, e -> {
+			if (addPendingMatches(MAX_MATCHES_PER_BATCH)==0) {
+				stopPendingMatchesTimer();
+				// A match may have been queued after the queue was
+				// drained, but before the timer was marked as stopped.
+				if (!pendingMatches.isEmpty()) {
+					startPendingMatchesTimer();
+				}
+			}
+		});
 		defaultStatusText = getString2("DefaultStatusText");
 		searchingCompleteString = getString2("SearchingComplete");
 
@@ -310,6 +349,16 @@ public class FindInFilesDialog extends AbstractSearchDialog {
 			((FindInFilesSearchContext)context).setVerbose(verbose);
 		}
 
+		else if ("Parallel".equals(command)) {
+			boolean parallel = parallelCheckBox.isSelected();
+			((FindInFilesSearchContext)context).setSearchInParallel(parallel);
+		}
+
+		else if ("UseIndex".equals(command)) {
+			boolean useIndex = indexCheckBox.isSelected();
+			((FindInFilesSearchContext)context).setUseSearchIndex(useIndex);
+		}
+
 		// The superclass might care about this action.
 		else {
 			super.actionPerformed(e);
@@ -323,15 +372,41 @@ public class FindInFilesDialog extends AbstractSearchDialog {
 	 * search table.<p>
 	 *
 	 * We assume this method is being called by {@link FindInFilesThread},
-	 * not the EDT, so the match data is added via
-	 * <code>SwingUtilities.invokeLater</code>.  Match data should never be
-	 * gathered on the EDT since it is a potentially long process to gather it.
+	 * not the EDT, so the match data is queued up and added to the table
+	 * in batches on the EDT.  If too many matches are already waiting to
+	 * be added, this method blocks until the table catches up.  Match data
+	 * should never be gathered on the EDT since it is a potentially long
+	 * process to gather it.
 	 *
 	 * @param matchData Data about the found text.
 	 */
-	void addMatchData(final MatchData matchData) {
-		final String dirName = inFolderTextField.getText();
-		SwingUtilities.invokeLater(() -> getResultsComponent().addMatchData(matchData, dirName));
+	void addMatchData(MatchData matchData) {
+		try {
+			pendingMatches.put(matchData);
+		} catch (InterruptedException ie) {
+			// The search was canceled, so the match is no longer needed.
+			Thread.currentThread().interrupt();
+			return;
+		}
+		startPendingMatchesTimer();
+	}
+
+
+	/**
+	 * Adds queued-up matches to the results component.  This should only
+	 * be called on the EDT.
+	 *
+	 * @param max The maximum number of matches to add.
+	 * @return The number of matches added.
+	 * @see #addMatchData(MatchData)
+	 */
+	private int addPendingMatches(int max) {
+		List<MatchData> batch = new ArrayList<>(
+				Math.min(max, pendingMatches.size()));
+		pendingMatches.drainTo(batch, max);
+		getResultsComponent().addMatchData(batch,
+				inFolderTextField.getText());
+		return batch.size();
 	}
 
 
@@ -361,6 +436,7 @@ public class FindInFilesDialog extends AbstractSearchDialog {
 	 * threads other than the EDT.
 	 */
 	void clearSearchResults() {
+		pendingMatches.clear();
 		if (SwingUtilities.isEventDispatchThread()) {
 			getResultsComponent().clear();
 		}
@@ -418,6 +494,18 @@ public class FindInFilesDialog extends AbstractSearchDialog {
 		verboseCheckBox.addActionListener(this);
 		verboseCheckBox.setMnemonic((int)getString2("VerboseMnemonic").charAt(0));
 		temp.add(verboseCheckBox);
+		temp.add(Box.createHorizontalStrut(10));
+		parallelCheckBox = new JCheckBox(getString2("SearchInParallel"), true);
+		parallelCheckBox.setActionCommand("Parallel");
+		parallelCheckBox.addActionListener(this);
+		parallelCheckBox.setMnemonic((int)getString2("SearchInParallelMnemonic").charAt(0));
+		temp.add(parallelCheckBox);
+		temp.add(Box.createHorizontalStrut(10));
+		indexCheckBox = new JCheckBox(getString2("UseSearchIndex"));
+		indexCheckBox.setActionCommand("UseIndex");
+		indexCheckBox.addActionListener(this);
+		indexCheckBox.setMnemonic((int)getString2("UseSearchIndexMnemonic").charAt(0));
+		temp.add(indexCheckBox);
 		temp.add(Box.createHorizontalGlue());
 		return temp;
 	}
@@ -561,6 +649,11 @@ public class FindInFilesDialog extends AbstractSearchDialog {
 		// while we're searching.
 		setSearching(true);
 
+		// Match previews are highlighted with the editor's colors.
+		if (getResultsComponent() instanceof FindInFilesTable table) {
+			table.setSyntaxScheme(((RText)getOwner()).getSyntaxScheme());
+		}
+
 		// Start searching!
 		setWorkerThread(createWorkerThread(directory));
 		getWorkerThread().start();
@@ -717,6 +810,16 @@ public class FindInFilesDialog extends AbstractSearchDialog {
 	}
 
 
+	/**
+	 * Returns whether files should be searched on multiple threads at once.
+	 *
+	 * @return Whether to search in parallel.
+	 */
+	boolean getSearchInParallel() {
+		return parallelCheckBox!=null && parallelCheckBox.isSelected();
+	}
+
+
 	/**
 	 * Returns the patterns specified in the "Skip Folders:" combo box.
 	 *
@@ -727,6 +830,17 @@ public class FindInFilesDialog extends AbstractSearchDialog {
 	}
 
 
+	/**
+	 * Returns whether an index of the files being searched should be used,
+	 * to skip files that can't contain a match.
+	 *
+	 * @return Whether to use a search index.
+	 */
+	boolean getUseSearchIndex() {
+		return indexCheckBox!=null && indexCheckBox.isSelected();
+	}
+
+
 	/**
 	 * Returns whether regular expressions should be used in searches.
 	 *
@@ -816,6 +930,12 @@ public class FindInFilesDialog extends AbstractSearchDialog {
 		FindInFilesSearchContext fifsc = (FindInFilesSearchContext)context;
 		subfoldersCheckBox.setSelected(fifsc.getSearchSubfolders());
 		verboseCheckBox.setSelected(fifsc.getVerbose());
+		if (parallelCheckBox!=null) {
+			parallelCheckBox.setSelected(fifsc.getSearchInParallel());
+		}
+		if (indexCheckBox!=null) {
+			indexCheckBox.setSelected(fifsc.getUseSearchIndex());
+		}
 	}
 
 
@@ -851,6 +971,10 @@ public class FindInFilesDialog extends AbstractSearchDialog {
 
 		SwingUtilities.invokeLater(() -> {
 
+			// Display any matches not added by the timer yet.
+			addPendingMatches(Integer.MAX_VALUE);
+			stopPendingMatchesTimer();
+
 			setWorkerThread(null);
 
 			// Return the cursor to the regular one.
@@ -991,6 +1115,28 @@ public class FindInFilesDialog extends AbstractSearchDialog {
 	}
 
 
+	/**
+	 * Starts the timer adding pending matches to the results component, if
+	 * it isn't already running.  This method can be called from threads
+	 * other than the EDT.
+	 */
+	private void startPendingMatchesTimer() {
+		if (pendingMatchesTimerStarted.compareAndSet(false, true)) {
+			SwingUtilities.invokeLater(pendingMatchesTimer::start);
+		}
+	}
+
+
+	/**
+	 * Stops the timer adding pending matches to the results component.
+	 * This should only be called on the EDT.
+	 */
+	private void stopPendingMatchesTimer() {
+		pendingMatchesTimer.stop();
+		pendingMatchesTimerStarted.set(false);
+	}
+
+
 	private void updateIcons() {
 		RText rtext = (RText)getParent();
 		Image image = rtext.getMainView().getSearchManager().getLookAndFeelContentAssistImage();
@@ -23,10 +23,24 @@ public class FindInFilesSearchContext extends SearchContext {
 
 	private boolean searchSubfolders;
 	private boolean verbose;
+	private boolean searchInParallel;
+	private boolean useSearchIndex;
 
 
 	public FindInFilesSearchContext() {
 		searchSubfolders = true;
+		searchInParallel = true;
+	}
+
+
+	/**
+	 * Returns whether files should be searched on multiple threads at once.
+	 *
+	 * @return Whether to search in parallel.
+	 * @see #setSearchInParallel(boolean)
+	 */
+	public boolean getSearchInParallel() {
+		return searchInParallel;
 	}
 
 
@@ -52,6 +66,29 @@ public class FindInFilesSearchContext extends SearchContext {
 	}
 
 
+	/**
+	 * Returns whether an index of the files being searched should be used
+	 * and kept up to date, to skip files that can't contain a match.
+	 *
+	 * @return Whether to use a search index.
+	 * @see #setUseSearchIndex(boolean)
+	 */
+	public boolean getUseSearchIndex() {
+		return useSearchIndex;
+	}
+
+
+	/**
+	 * Sets whether files should be searched on multiple threads at once.
+	 *
+	 * @param parallel Whether to search in parallel.
+	 * @see #getSearchInParallel()
+	 */
+	public void setSearchInParallel(boolean parallel) {
+		searchInParallel = parallel;
+	}
+
+
 	/**
 	 * Sets whether subfolders should be searched.
 	 *
@@ -74,4 +111,16 @@ public class FindInFilesSearchContext extends SearchContext {
 	}
 
 
+	/**
+	 * Sets whether an index of the files being searched should be used and
+	 * kept up to date, to skip files that can't contain a match.
+	 *
+	 * @param useIndex Whether to use a search index.
+	 * @see #getUseSearchIndex()
+	 */
+	public void setUseSearchIndex(boolean useIndex) {
+		useSearchIndex = useIndex;
+	}
+
+
 }
@@ -33,6 +33,7 @@ import org.fife.ui.FileExplorerTableModel;
 import org.fife.ui.RListSelectionModel;
 import org.fife.ui.FileExplorerTableModel.SortableHeaderRenderer;
 import org.fife.ui.autocomplete.Util;
+import org.fife.ui.rsyntaxtextarea.SyntaxScheme;
 import org.fife.ui.rtextfilechooser.Actions;
 import org.fife.ui.rtextfilechooser.FileSelector;
 import org.fife.ui.rtextfilechooser.FileSystemTree;
@@ -54,6 +55,9 @@ public class FindInFilesTable extends JTable implements ResultsComponent, FileSe
 
 	private StandardCellRenderer defaultRenderer;
 	private VerboseCellRenderer verboseRenderer;
+	private PreviewCellRenderer previewRenderer;
+
+	private MatchPreviews previews;
 
 	private static final String MSG = "org.fife.ui.search.FindInFilesTable";
 
@@ -83,6 +87,7 @@ public class FindInFilesTable extends JTable implements ResultsComponent, FileSe
 
 		matchDatas = new ArrayList<>();
 		defaultRenderer = new StandardCellRenderer();
+		previews = new MatchPreviews(this::previewRendered);
 
 		// By default, tables are registered to give tool tips.  This causes
 		// Disable this so the renderer isn't asked for each time the mouse
@@ -106,24 +111,10 @@ public class FindInFilesTable extends JTable implements ResultsComponent, FileSe
 	@Override
 	public void addMatchData(MatchData matchData, String dirName) {
 
-		// Make the displayed filename be in a path relative to the
-		// directory typed into the Find in Files dialog.
-		int pos = 0;
-		String fileName = matchData.getFileName().toLowerCase();
-		dirName = dirName.toLowerCase();
-		int dirNameLength = dirName.length();
-		while (pos<dirNameLength &&
-					(fileName.charAt(pos)==dirName.charAt(pos) ||
-					isFileSeparatorChar(fileName.charAt(pos)))) {
-			pos++;
-		}
-		if (isFileSeparatorChar(fileName.charAt(pos)))
-			pos++;
-		fileName = matchData.getFileName().substring(pos);
-
 		// We create and pass a Vector since that's what DefaultTableModel
 		// uses internally anyway.  This saves, say, creating an Object[]
 		// array to pass in.
+		String fileName = getDisplayedFileName(matchData, dirName);
 		Vector<String> v = createMatchDataVector(fileName, matchData);
 		tableModel.addRow(v);
 		matchDatas.add(matchData);
@@ -131,6 +122,40 @@ public class FindInFilesTable extends JTable implements ResultsComponent, FileSe
 	}
 
 
+	/**
+	 * Adds data on several matches to the table at once.  Only a single
+	 * event is fired, so this is much faster than adding them one at a
+	 * time.
+	 *
+	 * @param matchDatas The data.
+	 * @param dirName The "root directory" searching was done in.  This is
+	 *        used so all file paths displayed in the table are abbreviated
+	 *        to be relative to this directory.
+	 * @see #addMatchData(MatchData, String)
+	 */
+	@Override
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public void addMatchData(List<MatchData> matchDatas, String dirName) {
+
+		if (matchDatas.isEmpty()) {
+			return;
+		}
+
+		int firstRow = tableModel.getRowCount();
+		Vector<Vector> rows = tableModel.getDataVector();
+		rows.ensureCapacity(firstRow + matchDatas.size());
+		for (MatchData matchData : matchDatas) {
+			String fileName = getDisplayedFileName(matchData, dirName);
+			rows.add(createMatchDataVector(fileName, matchData));
+		}
+		this.matchDatas.addAll(matchDatas);
+
+		tableModel.fireTableRowsInserted(firstRow,
+				tableModel.getRowCount() - 1);
+
+	}
+
+
 	/**
 	 * Overridden to ensure the table's header and cells are also rendered
 	 * correctly (RTL, LTR).  For some reason, Swing doesn't take care of
@@ -175,6 +200,9 @@ public class FindInFilesTable extends JTable implements ResultsComponent, FileSe
 		if (verboseRenderer!=null) {
 			verboseRenderer.applyComponentOrientation(o);
 		}
+		if (previewRenderer!=null) {
+			previewRenderer.applyComponentOrientation(o);
+		}
 
 	}
 
@@ -188,6 +216,7 @@ public class FindInFilesTable extends JTable implements ResultsComponent, FileSe
 	public void clear() {
 		tableModel.setRowCount(0);
 		matchDatas.clear();
+		previews.clear();
 	}
 
 
@@ -204,7 +233,10 @@ public class FindInFilesTable extends JTable implements ResultsComponent, FileSe
 		Vector<String> v = new Vector<>(3);
 		v.add(fileName);
 		v.add(data.getLineNumber());
-		v.add(data.getLineText());
+		// Previews are created when they are rendered.  The line's plain
+		// text is what rows are sorted by.
+		v.add(data.isPreviewDeferred() ? data.getLineText().stripLeading() :
+				data.getLineText());
 		return v;
 	}
 
@@ -239,6 +271,11 @@ public class FindInFilesTable extends JTable implements ResultsComponent, FileSe
 				verboseRenderer = new VerboseCellRenderer();
 			return verboseRenderer;
 		}
+		if (data.isPreviewDeferred() && isPreviewColumn(column)) {
+			if (previewRenderer==null)
+				previewRenderer = new PreviewCellRenderer();
+			return previewRenderer;
+		}
 		return defaultRenderer;
 	}
 
@@ -264,6 +301,35 @@ public class FindInFilesTable extends JTable implements ResultsComponent, FileSe
 	}
 
 
+	/**
+	 * Returns the file name to display for a match, relative to the
+	 * directory that was searched.
+	 *
+	 * @param matchData The match.
+	 * @param dirName The "root directory" searching was done in.
+	 * @return The file name to display.
+	 */
+	private static String getDisplayedFileName(MatchData matchData,
+										String dirName) {
+
+		// Make the displayed filename be in a path relative to the
+		// directory typed into the Find in Files dialog.
+		int pos = 0;
+		String fileName = matchData.getFileName().toLowerCase();
+		dirName = dirName.toLowerCase();
+		int dirNameLength = dirName.length();
+		while (pos<dirNameLength &&
+					(fileName.charAt(pos)==dirName.charAt(pos) ||
+					isFileSeparatorChar(fileName.charAt(pos)))) {
+			pos++;
+		}
+		if (isFileSeparatorChar(fileName.charAt(pos)))
+			pos++;
+		return matchData.getFileName().substring(pos);
+
+	}
+
+
 	/**
 	 * Returns the match data displayed in the specified row.
 	 *
@@ -362,6 +428,18 @@ public class FindInFilesTable extends JTable implements ResultsComponent, FileSe
 	}
 
 
+	/**
+	 * Returns whether a column displays match previews.  This is always the
+	 * last column in the model.
+	 *
+	 * @param column The column, in view coordinates.
+	 * @return Whether the column displays match previews.
+	 */
+	private boolean isPreviewColumn(int column) {
+		return convertColumnIndexToModel(column)==tableModel.getColumnCount()-1;
+	}
+
+
 	/**
 	 * Allows the results component to update its appearance after
 	 * having lots of data added to it.
@@ -373,6 +451,28 @@ public class FindInFilesTable extends JTable implements ResultsComponent, FileSe
 	}
 
 
+	/**
+	 * Called when a match's preview has been created.  The preview column
+	 * is widened if necessary, since previews weren't available when the
+	 * column widths were last computed.
+	 *
+	 * @param preview The preview.
+	 */
+	private void previewRendered(String preview) {
+		int column = convertColumnIndexToView(tableModel.getColumnCount()-1);
+		if (column>-1) {
+			TableColumn tableColumn = getColumnModel().getColumn(column);
+			Component c = defaultRenderer.getTableCellRendererComponent(
+								this, preview, false, false, 0, column);
+			int width = c.getPreferredSize().width + 20;
+			if (width>tableColumn.getPreferredWidth()) {
+				tableColumn.setPreferredWidth(width);
+			}
+		}
+		repaint();
+	}
+
+
 	@Override
 	protected void processMouseEvent(MouseEvent e) {
 
@@ -411,8 +511,15 @@ public class FindInFilesTable extends JTable implements ResultsComponent, FileSe
 			width = c.getPreferredSize().width;
 
 			// Loop through all cells in the column to find the longest.
+			boolean previewColumn = isPreviewColumn(j);
 			for (int i=0; i<rowCount; i++) {
 
+				// Don't create previews for every row just to size the
+				// column.  It's widened as they're displayed.
+				if (previewColumn && getMatchDataForRow(i).isPreviewDeferred()) {
+					continue;
+				}
+
 				TableCellRenderer renderer = getCellRenderer(i, j);
 
 				// If we're in the HTML column and there are a lot of results,
@@ -431,6 +538,9 @@ public class FindInFilesTable extends JTable implements ResultsComponent, FileSe
 
 			// Set the size of the column.
 			// NOTE: Why do we need to add a small amount to prevent "..."?
+			if (previewColumn) {
+				width = Math.max(width, column.getPreferredWidth() - 20);
+			}
 			column.setPreferredWidth(width + 20);
 
 		}
@@ -450,6 +560,16 @@ public class FindInFilesTable extends JTable implements ResultsComponent, FileSe
 	}
 
 
+	/**
+	 * Sets the colors used to syntax highlight match previews.
+	 *
+	 * @param scheme The syntax scheme.
+	 */
+	public void setSyntaxScheme(SyntaxScheme scheme) {
+		previews.setSyntaxScheme(scheme);
+	}
+
+
 	/**
 	 * Overridden to also update the UI of custom renderers.
 	 */
@@ -499,6 +619,9 @@ public class FindInFilesTable extends JTable implements ResultsComponent, FileSe
 		if (verboseRenderer!=null) {
 			verboseRenderer.updateUI();
 		}
+		if (previewRenderer!=null) {
+			previewRenderer.updateUI();
+		}
 
 	}
 
@@ -530,6 +653,24 @@ public class FindInFilesTable extends JTable implements ResultsComponent, FileSe
 	}
 
 
+	/**
+	 * Renderer for matches whose previews are created as they're
+	 * displayed.
+	 */
+	private class PreviewCellRenderer extends StandardCellRenderer {
+
+		@Override
+		public Component getTableCellRendererComponent(JTable table,
+								Object value, boolean selected,
+								boolean focused, int row, int column) {
+			String preview = previews.getPreview(getMatchDataForRow(row));
+			return super.getTableCellRendererComponent(table, preview,
+										selected, focused, row, column);
+		}
+
+	}
+
+
 	/**
 	 * Renderer for "verbose information" and "error" cells.
 	 */
@@ -10,34 +10,32 @@
  */
 package org.fife.ui.search;
 
-import java.awt.Font;
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.text.MessageFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
-import javax.swing.text.Document;
-import javax.swing.text.Element;
-
-import org.fife.io.UnicodeReader;
 import org.fife.rsta.ui.search.FindDialog;
 import org.fife.rtext.AbstractMainView;
 import org.fife.rtext.RText;
 import org.fife.ui.GUIWorkerThread;
 import org.fife.ui.OS;
-import org.fife.ui.rsyntaxtextarea.RSyntaxDocument;
-import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea;
-import org.fife.ui.rsyntaxtextarea.Token;
-import org.fife.ui.rtextarea.RTextArea;
 
 
 /**
@@ -62,6 +60,53 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 	protected String skipThisFolderString;
 	protected String newFilesToExamineString;
 	protected String occurrencesString;
+	private String searchingFileString;
+
+	// Search parameters, gathered from the dialog when the search starts.
+	protected AbstractMainView view;
+	protected String searchString;
+	protected Pattern[] filterStrings;
+	protected boolean checkSubfolders;
+	protected boolean matchingLines;
+	protected boolean matchCase;
+	protected boolean wholeWord;
+	protected boolean useRegex;
+	protected boolean doVerboseOutput;
+
+	/**
+	 * Used to search for the search string when not using regular
+	 * expressions.
+	 */
+	protected LiteralSearcher literalSearcher;
+
+	/**
+	 * If the user is using a search index, the index for the folder being
+	 * searched, and the trigrams files must contain to match.
+	 */
+	private TrigramIndex index;
+	private TrigramQuery trigramQuery;
+
+	private final ThreadLocal<FileText> fileTexts =
+			ThreadLocal.withInitial(FileText::new);
+
+	/**
+	 * Set if we run out of memory while examining a file, to stop the
+	 * search.
+	 */
+	protected volatile boolean outOfMemory;
+
+	/**
+	 * In a parallel search, the maximum number of files and folders queued
+	 * up per worker thread.  This keeps memory usage bounded when the
+	 * workers get far ahead of the results being published.
+	 */
+	private static final int MAX_QUEUED_PER_WORKER = 8;
+
+	/**
+	 * The maximum length of the text kept for each matching line.  This
+	 * is the most a preview can display anyway.
+	 */
+	static final int MAX_LINE_TEXT_LENGTH = 1280;
 
 	//private static final Pattern TAB_PATTERN	= Pattern.compile("\\t");
 
@@ -120,11 +165,11 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 	public Object construct() {
 
 		RText parent = (RText)dialog.getOwner();
-		AbstractMainView view = parent.getMainView();
+		view = parent.getMainView();
 
 		// Get the string to search for and filters for the files to search.
-		String searchString = dialog.getSearchString();
-		Pattern[] filterStrings = getFilterStrings();
+		searchString = dialog.getSearchString();
+		filterStrings = getFilterStrings();
 		if (filterStrings==null) {
 			dialog.searchCompleted("");
 			return null;
@@ -132,156 +177,44 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 
 		// Then, do the search.
 		dialog.clearSearchResults();
-		File[] files = directory.listFiles();
-		List<File> fileList = new ArrayList<>(Arrays.asList(files));
-
-		boolean checkSubfolders = dialog.getCheckSubfolders();
-		boolean matchingLines = dialog.getShowMatchingLines();
-		boolean matchCase = dialog.getMatchCase();
-		boolean wholeWord = dialog.getMatchWholeWord();
-		boolean useRegex = dialog.getUseRegEx();
-		boolean doVerboseOutput = dialog.getDoVerboseOutput();
-		String searchingFile = dialog.getString2("SearchingFile");
-
-		if (!useRegex && !matchCase)
-			searchString = searchString.toLowerCase();
-
-		RSyntaxTextArea textArea = new RSyntaxTextArea();
-		textArea.setSyntaxScheme(parent.getSyntaxScheme());
-		long startMillis = System.currentTimeMillis();
-
-		// Keep looping while there are more files to search.
-		int numFiles = fileList.size();
-		for (int i=0; i<numFiles; i++) {
-
-			// If the user canceled the search...
-			if (Thread.currentThread().isInterrupted()) {
-				dialog.searchCompleted(dialog.getString2("SearchTerminated"));
-				return null;
-			}
-
-			File temp = fileList.get(i);
-			String fileFullPath = temp.getAbsolutePath();
 
-			// If temp is a regular file (i.e., non-directory) AND exists...
-			if (temp.isFile()) {
-
-				// If the file doesn't match one of the filters from
-				// "In files:", skip it.
-				if (isFilteredOut(temp.getName(), filterStrings)) {
-					if (doVerboseOutput) {
-						MatchData data = createVerboseMatchData(
-								fileFullPath, verboseNoFiltMatchString);
-						dialog.addMatchData(data);
-					}
-					continue;
-				}
-
-				// Display the file we're searching in the status bar.
-				// Note that this method postpones the update to the EDT.
-				dialog.setStatusText(searchingFile + i + "/" + numFiles +
-								": " + fileFullPath);
-
-				try {
-					// Use a UnicodeReader to auto-detect whether this
-					// is a Unicode file.
-					// FIXME:  Allow the user to specify the default
-					// encoding, instead of assuming system default,
-					// somehow.
-					Reader r = new BufferedReader(new UnicodeReader(temp));
-					String style = view.getSyntaxStyleForFile(temp.getName());
-					textArea.read(r, null);	// Clears all old text.
-					// Important!  Clear undo history, or RSTA's undo manager
-					// will keep all old text (i.e. copies of ALL previous
-					// files searched)!
-					textArea.discardAllEdits();
-					if (!style.equals(textArea.getSyntaxEditingStyle())) {
-						textArea.setSyntaxEditingStyle(style);
-					}
-					r.close();
-				} catch (IOException ioe) {
-					MatchData data = createErrorMatchData(fileFullPath,
-								"IOException reading file: " + ioe);
-					dialog.addMatchData(data);
-					continue;
-				} catch (OutOfMemoryError oome) {
-					MatchData data = createErrorMatchData(fileFullPath,
-											"OutOfMemoryError");
-					dialog.addMatchData(data);
-					// Bail out.
-					dialog.searchCompleted(
-							System.currentTimeMillis() - startMillis);
-					return null;
-				}
-
-				String buffer = textArea.getText();
-
-				// If we got some text out of the file...
-				if (buffer!=null) {
-					try {
-						if (useRegex) {
-							doSearchRegex(buffer, searchString, textArea,
-								matchCase, wholeWord, matchingLines,
-								fileFullPath);
-						}
-						else {
-							doSearchNoRegex(buffer, searchString, textArea,
-								matchCase, wholeWord, matchingLines,
-								fileFullPath);
-						}
-					} catch (Exception e) {
-						// Shouldn't happen...
-						e.printStackTrace();
-						continue;
-					}
-				}
-
-			} // End of if (temp.isFile()).
-
-			// Otherwise, if the file is a directory...
-			else if (temp.isDirectory()) {
-
-				// Ignore this (sub)directory if the user doesn't want
-				// to search subdirectories.
-				if (!checkSubfolders) {
-					if (doVerboseOutput) {
-						MatchData data = createVerboseMatchData(
-							fileFullPath, dontSearchSubfoldersString);
-						dialog.addMatchData(data);
-					}
-					continue;
-				}
-
-				// Ignore if this folder is one the user wants to skip.
-				else if (shouldSkipFolder(temp)) {
-					if (doVerboseOutput) {
-						MatchData data = createVerboseMatchData(
-							fileFullPath, skipThisFolderString);
-						dialog.addMatchData(data);
-					}
-					continue;
-				}
+		checkSubfolders = dialog.getCheckSubfolders();
+		matchingLines = dialog.getShowMatchingLines();
+		matchCase = dialog.getMatchCase();
+		wholeWord = dialog.getMatchWholeWord();
+		useRegex = dialog.getUseRegEx();
+		doVerboseOutput = dialog.getDoVerboseOutput();
+		searchingFileString = dialog.getString2("SearchingFile");
+
+		literalSearcher = useRegex ? null :
+				new LiteralSearcher(searchString, matchCase);
+		if (dialog.getUseSearchIndex()) {
+			index = TrigramIndex.load(directory);
+			trigramQuery = useRegex ? TrigramQuery.forRegex(searchString) :
+					TrigramQuery.forLiteral(searchString);
+		}
 
-				// Add any files in this subdirectory to the master list
-				// of files to search.
-				List<File> moreFilesList = getFilesFromDirectory(temp);
-				int count = moreFilesList==null ? 0 : moreFilesList.size();
-				if (count>0) {
-					fileList.addAll(moreFilesList);
-					numFiles += count;
-				}
-				if (doVerboseOutput) {
-					MatchData data = createVerboseMatchData(
-						fileFullPath, newFilesToExamineString +
-						": " + count);
-					dialog.addMatchData(data);
-				}
+		long startMillis = System.currentTimeMillis();
 
-			} // End of else if (temp.isDirectory()).
+		List<File> fileList = new ArrayList<>(getFilesFromDirectory(directory));
+		boolean completed = dialog.getSearchInParallel() ?
+				searchInParallel(fileList) : searchSequentially(fileList);
 
-		} // End of for (int i=0; i<numFiles; i++).
+		// Files indexed by a canceled search are still worth keeping.
+		if (index!=null) {
+			try {
+				index.save();
+			} catch (IOException ioe) {
+				ioe.printStackTrace();
+			}
+		}
 
-		dialog.searchCompleted(System.currentTimeMillis() - startMillis);
+		if (completed) {
+			dialog.searchCompleted(System.currentTimeMillis() - startMillis);
+		}
+		else {
+			dialog.searchCompleted(dialog.getString2("SearchTerminated"));
+		}
 		return null;
 
 	}
@@ -290,44 +223,31 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 	/**
 	 * Performs a non-regex "Find in Files" operation on a single file.
 	 */
-	private void doSearchNoRegex(String buffer, String searchString,
-							RSyntaxTextArea textArea,
-							boolean matchCase, boolean wholeWord,
-							boolean matchingLines, String fileFullPath) {
-
-		// If search is not case-sensitive, lower-case text to search in
-		// (searchString is already done).
-		if (!matchCase)
-			buffer = buffer.toLowerCase();
+	private void doSearchNoRegex(FileText fileText, LiteralSearcher searcher,
+							boolean wholeWord,
+							boolean matchingLines, String fileFullPath,
+							String syntaxStyle, List<MatchData> matches) {
 
 		// Some stuff we'll use below.
-		String lineText;
-		RSyntaxDocument doc = (RSyntaxDocument)textArea.getDocument();
-		Element map = doc.getDefaultRootElement();
-		Element elem;
-		int lineCount = map.getElementCount();
 		int i = 0;
-		int len = searchString.length();
+		int len = searcher.getLength();
 		int numMatches = 0;
 
-		// Loop through all matches in the file.
-		while ((i=buffer.indexOf(searchString, i))!=-1) {
+		// Loop through all matches in the file.  Case is folded as we go,
+		// so no lower-cased copy of the file is needed.
+		while ((i=searcher.indexOf(fileText, i))!=-1) {
 
 			// If we found a match...
-			if (!wholeWord || FindDialog.isWholeWord(buffer, i, len)) {
+			if (!wholeWord || FindDialog.isWholeWord(fileText, i, len)) {
 
 				numMatches++;
 				if (matchingLines) {
-					int line;
-					int lineEnd;
-					line = map.getElementIndex(i);
-					elem = map.getElement(line);
-					lineEnd = line==lineCount-1 ? elem.getEndOffset()-1 :
-											elem.getEndOffset();
-					Token t = textArea.getTokenListForLine(line);
-					lineText = getHtml(t, textArea);
-					dialog.addMatchData(new MatchData(fileFullPath,
-									Integer.toString(line+1), lineText));
+					// The line's preview is created when it's displayed.
+					int line = fileText.getLineOfOffset(i);
+					int lineEnd = fileText.getLineEndOffset(line);
+					matches.add(new MatchData(fileFullPath, line, line,
+									fileText.getLineText(line, MAX_LINE_TEXT_LENGTH),
+									syntaxStyle));
 					// Since a single line may have more than one match,
 					// skip to the next line's start.
 					i = lineEnd/* + 1*/;
@@ -355,7 +275,7 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 		if (!matchingLines && numMatches>0) {
 			String text = MessageFormat.format(occurrencesString, numMatches);
 			MatchData data = new MatchData(fileFullPath, NO_LINE_NUMBER, text);
-			dialog.addMatchData(data);
+			matches.add(data);
 		}
 
 	}
@@ -364,20 +284,18 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 	/**
 	 * Performs a regex "Find in Files" operation on a single file.
 	 */
-	private void doSearchRegex(String buffer, String searchString,
-							RSyntaxTextArea textArea, boolean matchCase,
-							boolean wholeWord, boolean matchingLines,
-							String fileFullPath) {
+	private void doSearchRegex(FileText fileText, String searchString,
+							boolean matchCase, boolean wholeWord,
+							boolean matchingLines, String fileFullPath,
+							String syntaxStyle, List<MatchData> matches) {
 
-		Document doc = textArea.getDocument();
-		Element map = doc.getDefaultRootElement();
 		int numMatches = 0;
 		int lastStartLine = -1;
 
 		// Create a Matcher to find the text we're looking for.
 		int flags = matchCase ? 0 : (Pattern.CASE_INSENSITIVE|Pattern.UNICODE_CASE);
 		Pattern pattern = Pattern.compile(searchString, flags);
-		Matcher m = pattern.matcher(buffer);
+		Matcher m = pattern.matcher(fileText);
 
 		// Loop through all matches.
 		while (m.find()) {
@@ -386,7 +304,7 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 			int end = m.end();
 
 			// If we found a match...
-			if (!wholeWord || FindDialog.isWholeWord(buffer, start, end-start)) {
+			if (!wholeWord || FindDialog.isWholeWord(fileText, start, end-start)) {
 
 				numMatches++;
 
@@ -394,29 +312,22 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 				if (matchingLines) {
 
 					// Get the text of the first line of the match.
-					int startLine = map.getElementIndex(start);
+					int startLine = fileText.getLineOfOffset(start);
 					if (startLine==lastStartLine) {
 						// If a single line has > 1 match, don't show
 						// the same line multiple times.
 						continue;
 					}
 					lastStartLine = startLine;
-					int endLine = map.getElementIndex(end);
-					Token t = textArea.getTokenListForLine(startLine);
-					String text = getHtml(t, textArea);
-
-					// Add an item to our results.
-					boolean oneLine = startLine==endLine;
-					String lineStr = oneLine ? Integer.toString(startLine+1) :
-								((startLine+1) + "-" + (endLine+1));
-					if (!oneLine) {
-						text += " <em>" +
-								dialog.getString2("MultiLineMatch") +
-								"</em>";
-					}
-					MatchData data = new MatchData(
-										fileFullPath, lineStr, text);
-					dialog.addMatchData(data);
+					int endLine = fileText.getLineOfOffset(end);
+
+					// Add an item to our results.  The line's preview is
+					// created when it's displayed.
+					MatchData data = new MatchData(fileFullPath,
+									startLine, endLine,
+									fileText.getLineText(startLine, MAX_LINE_TEXT_LENGTH),
+									syntaxStyle);
+					matches.add(data);
 
 				} // End of if (matchingLines)
 
@@ -430,12 +341,22 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 			String text = MessageFormat.format(occurrencesString, numMatches);
 			MatchData data = new MatchData(fileFullPath,
 							NO_LINE_NUMBER, text);
-			dialog.addMatchData(data);
+			matches.add(data);
 		}
 
 	}
 
 
+	/**
+	 * Returns the buffer the calling thread reads files into.
+	 *
+	 * @return The buffer.
+	 */
+	protected FileText getFileText() {
+		return fileTexts.get();
+	}
+
+
 	/**
 	 * Returns the files contained in the specified directory as a list.
 	 *
@@ -483,40 +404,6 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 	}
 
 
-	/**
-	 * Gets an HTML string for a token list, stripping off leading whitespace.
-	 *
-	 * @param t The beginning of the token list.
-	 * @param textArea The text area to get the highlighting information from.
-	 * @return The HTML.
-	 */
-	private static String getHtml(Token t, RSyntaxTextArea textArea) {
-
-		// HTML rendering in Swing is very slow, and we've also seen OOME's
-		// from trying render lines that were too long in the Find in Files
-		// table, so we'll limit how much we display.
-		final int maxLen = 1280;
-
-		Font font = RTextArea.getDefaultFont();
-		String fontFamily = font.getFamily();
-		StringBuilder sb = new StringBuilder("<html><nobr><font face=\"" + fontFamily + "\">");
-		boolean firstNonWhitespace = false; // Skip leading whitespace
-
-		while (t!=null && t.isPaintable() && sb.length()<maxLen) {
-			if (firstNonWhitespace || (firstNonWhitespace |= !t.isWhitespace())) {
-				t.appendHTMLRepresentation(sb, textArea, false);
-			}
-			t = t.getNextToken();
-		}
-
-		if (sb.length()>=maxLen) {
-			sb.append("...");
-		}
-		return sb.toString();
-
-	}
-
-
 	/**
 	 * Converts a <code>String</code> representing a wildcard file filter into
 	 * another <code>String</code> containing a regular expression good for
@@ -561,6 +448,291 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 	}
 
 
+	/**
+	 * Examines a single file or folder found while walking the directory
+	 * tree.  Regular files are searched; folders are listed so their
+	 * contents can be examined next.<p>
+	 *
+	 * This method may be called from multiple threads at once when doing a
+	 * parallel search.
+	 *
+	 * @param file The file or folder to examine.
+	 * @param index The index of the file in the list of files to examine.
+	 * @param fileCount The number of files known to need examining.
+	 * @return The result of examining the file.
+	 */
+	protected FileResult processFile(File file, int index, int fileCount) {
+
+		List<MatchData> matches = new ArrayList<>(1);
+		String fileFullPath = file.getAbsolutePath();
+
+		// If file is a regular file (i.e., non-directory) AND exists...
+		if (file.isFile()) {
+
+			// If the file doesn't match one of the filters from
+			// "In files:", skip it.
+			if (isFilteredOut(file.getName(), filterStrings)) {
+				if (doVerboseOutput) {
+					matches.add(createVerboseMatchData(
+								fileFullPath, verboseNoFiltMatchString));
+				}
+				return new FileResult(matches, null);
+			}
+
+			// Display the file we're searching in the status bar.
+			// Note that this method postpones the update to the EDT.
+			dialog.setStatusText(searchingFileString + index + "/" +
+							fileCount + ": " + fileFullPath);
+
+			searchFile(file, fileFullPath, matches);
+			return new FileResult(matches, null);
+
+		}
+
+		// Otherwise, if the file is a directory...
+		else if (file.isDirectory()) {
+
+			// Ignore this (sub)directory if the user doesn't want
+			// to search subdirectories.
+			if (!checkSubfolders) {
+				if (doVerboseOutput) {
+					matches.add(createVerboseMatchData(
+						fileFullPath, dontSearchSubfoldersString));
+				}
+				return new FileResult(matches, null);
+			}
+
+			// Ignore if this folder is one the user wants to skip.
+			else if (shouldSkipFolder(file)) {
+				if (doVerboseOutput) {
+					matches.add(createVerboseMatchData(
+						fileFullPath, skipThisFolderString));
+				}
+				return new FileResult(matches, null);
+			}
+
+			// Any files in this subdirectory get added to the master list
+			// of files to search.
+			List<File> moreFilesList = getFilesFromDirectory(file);
+			if (doVerboseOutput) {
+				matches.add(createVerboseMatchData(
+					fileFullPath, newFilesToExamineString +
+					": " + moreFilesList.size()));
+			}
+			return new FileResult(matches, moreFilesList);
+
+		}
+
+		return new FileResult(matches, null);
+
+	}
+
+
+	/**
+	 * Adds the results of examining a file to the dialog, and any files
+	 * found in it (if it was a folder) to the list of files to examine.
+	 *
+	 * @param result The result of examining the file.
+	 * @param fileList The list of files to examine.
+	 */
+	private void publishResult(FileResult result, List<File> fileList) {
+		for (MatchData data : result.matches()) {
+			dialog.addMatchData(data);
+		}
+		if (result.children()!=null) {
+			fileList.addAll(result.children());
+		}
+	}
+
+
+	/**
+	 * Searches a single regular file.
+	 *
+	 * @param file The file to search.
+	 * @param fileFullPath The full path of the file.
+	 * @param matches Any matches found, as well as any errors, are added
+	 *        to this list.
+	 */
+	protected void searchFile(File file, String fileFullPath,
+							List<MatchData> matches) {
+
+		FileText fileText = getFileText();
+
+		// If the index says the file can't match, we're done.  Otherwise,
+		// files the index doesn't know about yet are fully read so they
+		// can be added to it.
+		long lastModified = 0;
+		long length = 0;
+		boolean indexed = false;
+		if (index!=null) {
+			try {
+				BasicFileAttributes attrs = Files.readAttributes(file.toPath(),
+						BasicFileAttributes.class);
+				lastModified = attrs.lastModifiedTime().toMillis();
+				length = attrs.size();
+				indexed = index.isCurrent(file, lastModified, length);
+			} catch (IOException ioe) {
+				// Just search the file
+			}
+		}
+		if (indexed && !index.mayContain(file, trigramQuery)) {
+			return;
+		}
+
+		try {
+			// Large files are memory-mapped.  If the search string is
+			// literal, files that can't contain it are ruled out before
+			// being decoded.
+			ByteBuffer bytes = fileText.readBytes(file, true);
+			if (literalSearcher!=null && (index==null || indexed) &&
+					!literalSearcher.mayOccurIn(bytes,
+					FileText.getCharset(bytes))) {
+				return;
+			}
+			fileText.decode(bytes);
+		} catch (IOException ioe) {
+			matches.add(createErrorMatchData(fileFullPath,
+						"IOException reading file: " + ioe));
+			return;
+		} catch (OutOfMemoryError oome) {
+			matches.add(createErrorMatchData(fileFullPath,
+									"OutOfMemoryError"));
+			// Bail out.
+			outOfMemory = true;
+			return;
+		}
+
+		if (index!=null && !indexed) {
+			index.update(file, lastModified, length, fileText);
+		}
+
+		String syntaxStyle = view.getSyntaxStyleForFile(file.getName());
+
+		try {
+			if (useRegex) {
+				doSearchRegex(fileText, searchString, matchCase,
+					wholeWord, matchingLines, fileFullPath, syntaxStyle,
+					matches);
+			}
+			else {
+				doSearchNoRegex(fileText, literalSearcher,
+					wholeWord, matchingLines, fileFullPath, syntaxStyle,
+					matches);
+			}
+		} catch (Exception e) {
+			// Shouldn't happen...
+			e.printStackTrace();
+		}
+
+	}
+
+
+	/**
+	 * Examines files on a pool of worker threads.  Both listing folders and
+	 * searching files is done by the workers, but results are still
+	 * published in the same order as a sequential search would produce.
+	 *
+	 * @param fileList The files to examine.  Files found in subfolders are
+	 *        appended to this list as the search progresses.
+	 * @return Whether the search ran to completion, as opposed to being
+	 *         canceled by the user.
+	 * @see #searchSequentially(List)
+	 */
+	private boolean searchInParallel(List<File> fileList) {
+
+		int workerCount = Runtime.getRuntime().availableProcessors();
+		int maxQueued = workerCount * MAX_QUEUED_PER_WORKER;
+		ExecutorService pool = Executors.newFixedThreadPool(workerCount,
+				r -> {
+					Thread t = new Thread(r, "FindInFilesWorker");
+					t.setDaemon(true);
+					return t;
+				});
+		Deque<Future<FileResult>> queued = new ArrayDeque<>();
+		int next = 0;
+
+		try {
+
+			while (next<fileList.size() || !queued.isEmpty()) {
+
+				// If the user canceled the search...
+				if (Thread.currentThread().isInterrupted()) {
+					return false;
+				}
+
+				// Keep the workers busy, but don't get too far ahead of
+				// the results we've published.
+				while (next<fileList.size() && queued.size()<maxQueued) {
+					File file = fileList.get(next);
+					int index = next++;
+					int fileCount = fileList.size();
+					queued.add(pool.submit(
+							() -> processFile(file, index, fileCount)));
+				}
+
+				// Results are consumed in the order the files were queued,
+				// so the results table is stable from run to run.
+				try {
+					publishResult(queued.removeFirst().get(), fileList);
+				} catch (ExecutionException ee) {
+					// processFile() handles its own errors, so this
+					// shouldn't happen...
+					ee.printStackTrace();
+				}
+				if (outOfMemory) {
+					break;
+				}
+
+			}
+
+		} catch (InterruptedException ie) {
+			// The user canceled the search while we were waiting.
+			return false;
+		} finally {
+			for (Future<FileResult> future : queued) {
+				future.cancel(true);
+			}
+			pool.shutdownNow();
+		}
+
+		return true;
+
+	}
+
+
+	/**
+	 * Examines files one at a time on this thread.
+	 *
+	 * @param fileList The files to examine.  Files found in subfolders are
+	 *        appended to this list as the search progresses.
+	 * @return Whether the search ran to completion, as opposed to being
+	 *         canceled by the user.
+	 * @see #searchInParallel(List)
+	 */
+	private boolean searchSequentially(List<File> fileList) {
+
+		// Keep looping while there are more files to search.
+		for (int i=0; i<fileList.size(); i++) {
+
+			// If the user canceled the search...
+			if (Thread.currentThread().isInterrupted()) {
+				return false;
+			}
+
+			FileResult result = processFile(fileList.get(i), i,
+											fileList.size());
+			publishResult(result, fileList);
+			if (outOfMemory) {
+				break;
+			}
+
+		}
+
+		return true;
+
+	}
+
+
 	/**
 	 * Returns whether this folder is one the user wants to skip.
 	 *
@@ -576,4 +748,16 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 	}
 
 
+	/**
+	 * The result of examining a single file or folder.
+	 *
+	 * @param matches Matches, verbose information and errors to add to the
+	 *        results table.
+	 * @param children If a folder was examined, the files in it that should
+	 *        be examined next.  Otherwise, this is <code>null</code>.
+	 */
+	protected record FileResult(List<MatchData> matches, List<File> children) {
+	}
+
+
 }
@@ -0,0 +1,278 @@
+/*
+ * 10/18/2026
+ *
+ * LiteralSearcher.java - Searches for a literal string in Find/Replace in
+ * Files.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.ui.search;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Searches for a literal (non-regex) string using the Boyer-Moore-Horspool
+ * algorithm.<p>
+ *
+ * Case-insensitive searches fold characters as they're compared, so unlike
+ * <code>toLowerCase().indexOf(...)</code>, no copy of the text being
+ * searched is made.<p>
+ *
+ * This class can also search the raw bytes of a file, in charsets where
+ * that is known to give the same answer as searching the decoded text.
+ * This lets files that don't contain the search string be ruled out
+ * without being decoded at all.<p>
+ *
+ * Instances of this class are immutable and can be shared among threads.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class LiteralSearcher {
+
+	private final char[] pattern;
+	private final boolean matchCase;
+	private final int[] shifts;
+
+	/**
+	 * Byte patterns for the search string, per charset.
+	 */
+	private final Map<Charset, BytePattern> bytePatterns;
+
+	/**
+	 * Marks charsets where the search string can't be searched for
+	 * byte-wise.
+	 */
+	private static final BytePattern UNSUPPORTED =
+			new BytePattern(new byte[1], true);
+
+	/**
+	 * Horspool shift tables are indexed by the low byte of a character.
+	 * Characters sharing a low byte share the smallest shift among them,
+	 * which is still correct, just occasionally less aggressive.
+	 */
+	private static final int SHIFT_TABLE_SIZE = 256;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param searchString The string to search for.  This should not be
+	 *        empty.
+	 * @param matchCase Whether the search is case-sensitive.
+	 */
+	LiteralSearcher(String searchString, boolean matchCase) {
+
+		this.matchCase = matchCase;
+		pattern = searchString.toCharArray();
+		if (!matchCase) {
+			for (int i=0; i<pattern.length; i++) {
+				pattern[i] = Character.toLowerCase(pattern[i]);
+			}
+		}
+
+		int last = pattern.length - 1;
+		shifts = new int[SHIFT_TABLE_SIZE];
+		Arrays.fill(shifts, pattern.length);
+		for (int i=0; i<last; i++) {
+			shifts[pattern[i] & 0xff] = last - i;
+		}
+
+		bytePatterns = new ConcurrentHashMap<>();
+
+	}
+
+
+	/**
+	 * Creates the byte pattern to use when searching text in a given
+	 * charset.
+	 *
+	 * @param charset The charset.
+	 * @return The pattern, or {@link #UNSUPPORTED} if the text must be
+	 *         decoded to be searched accurately.
+	 */
+	private BytePattern createBytePattern(Charset charset) {
+
+		// Only charsets where ASCII characters are single, unambiguous
+		// bytes and a character's encoding never depends on its
+		// neighbors.
+		if (!isAsciiCompatible(charset)) {
+			return UNSUPPORTED;
+		}
+
+		for (char ch : pattern) {
+			// Line ends are normalized when text is decoded, and malformed
+			// input is decoded as U+FFFD.
+			if (ch=='\r' || ch=='\n' || ch=='\uFFFD') { // U+FFFD = replacement char
+				return UNSUPPORTED;
+			}
+			// Case-insensitive searches only fold ASCII letters byte-wise.
+			// 'i' and 'k' are also excluded since there are non-ASCII
+			// characters that lower-case to them.
+			if (!matchCase && (ch>0x7f || ch=='i' || ch=='k')) {
+				return UNSUPPORTED;
+			}
+		}
+
+		String str = new String(pattern);
+		if (!charset.newEncoder().canEncode(str)) {
+			return UNSUPPORTED;
+		}
+		return new BytePattern(str.getBytes(charset), matchCase);
+
+	}
+
+
+	/**
+	 * Returns the length of the string being searched for.
+	 *
+	 * @return The length.
+	 */
+	int getLength() {
+		return pattern.length;
+	}
+
+
+	/**
+	 * Returns the index of the next occurrence of the search string.
+	 *
+	 * @param text The text to search.
+	 * @param fromIndex The index to start searching from.
+	 * @return The index of the next occurrence, or <code>-1</code> if
+	 *         there are none.
+	 */
+	int indexOf(CharSequence text, int fromIndex) {
+
+		int last = pattern.length - 1;
+		int end = text.length() - pattern.length;
+		int i = Math.max(fromIndex, 0);
+
+		while (i<=end) {
+			char ch = fold(text.charAt(i+last));
+			if (ch==pattern[last]) {
+				int j = last - 1;
+				while (j>=0 && fold(text.charAt(i+j))==pattern[j]) {
+					j--;
+				}
+				if (j<0) {
+					return i;
+				}
+			}
+			i += shifts[ch & 0xff];
+		}
+
+		return -1;
+
+	}
+
+
+	private char fold(char ch) {
+		return matchCase ? ch : Character.toLowerCase(ch);
+	}
+
+
+	/**
+	 * Returns whether a charset encodes ASCII characters as the same
+	 * single bytes, and is stateless, so that searching encoded bytes is
+	 * equivalent to searching decoded text.
+	 *
+	 * @param charset The charset.
+	 * @return Whether the charset is ASCII-compatible.
+	 */
+	private static boolean isAsciiCompatible(Charset charset) {
+
+		if (StandardCharsets.UTF_8.equals(charset)) {
+			return true;
+		}
+		if (!charset.canEncode() ||
+				charset.newEncoder().maxBytesPerChar()!=1f) {
+			return false;
+		}
+
+		byte[] ascii = new byte[0x80];
+		for (int i=0; i<ascii.length; i++) {
+			ascii[i] = (byte)i;
+		}
+		String str = new String(ascii, StandardCharsets.US_ASCII);
+		return Arrays.equals(ascii, str.getBytes(charset));
+
+	}
+
+
+	/**
+	 * Returns whether the search string might occur in encoded text.
+	 *
+	 * @param bytes The encoded text.  Its position and limit are not
+	 *        modified.
+	 * @param charset The charset the text is encoded in.
+	 * @return <code>false</code> if the search string definitely does not
+	 *         occur in the text.  <code>true</code> if it does, or if the
+	 *         text must be decoded to tell.
+	 */
+	boolean mayOccurIn(ByteBuffer bytes, Charset charset) {
+		BytePattern bytePattern = bytePatterns.computeIfAbsent(charset,
+				this::createBytePattern);
+		return bytePattern==UNSUPPORTED || bytePattern.occursIn(bytes);
+	}
+
+
+	/**
+	 * The search string, encoded in some charset.
+	 */
+	private static final class BytePattern {
+
+		private final byte[] pattern;
+		private final boolean matchCase;
+		private final int[] shifts;
+
+		BytePattern(byte[] pattern, boolean matchCase) {
+			this.pattern = pattern;
+			this.matchCase = matchCase;
+			int last = pattern.length - 1;
+			shifts = new int[SHIFT_TABLE_SIZE];
+			Arrays.fill(shifts, pattern.length);
+			for (int i=0; i<last; i++) {
+				shifts[pattern[i] & 0xff] = last - i;
+			}
+		}
+
+		private byte fold(byte b) {
+			return !matchCase && b>='A' && b<='Z' ? (byte)(b + ('a'-'A')) : b;
+		}
+
+		boolean occursIn(ByteBuffer bytes) {
+
+			int last = pattern.length - 1;
+			int end = bytes.limit() - pattern.length;
+			int i = bytes.position();
+
+			while (i<=end) {
+				byte b = fold(bytes.get(i+last));
+				if (b==pattern[last]) {
+					int j = last - 1;
+					while (j>=0 && fold(bytes.get(i+j))==pattern[j]) {
+						j--;
+					}
+					if (j<0) {
+						return true;
+					}
+				}
+				i += shifts[b & 0xff];
+			}
+
+			return false;
+
+		}
+
+	}
+
+
+}
@@ -12,7 +12,12 @@ package org.fife.ui.search;
 
 
 /**
- * Information on a match found when searching a document.
+ * Information on a match found when searching a document.<p>
+ *
+ * To keep large result sets small, matching lines found by Find in Files
+ * only store the plain text of the line, as it was when the match was
+ * found.  A syntax highlighted preview is created only when the match is
+ * displayed.  See {@link #isPreviewDeferred()}.
  *
  * @author Robert Futrell
  * @version 1.0
@@ -23,6 +28,9 @@ public class MatchData {
 	private String lineNumber;
 	private String lineText;
 	private int type;
+	private int line;
+	private int endLine;
+	private String syntaxStyle;
 
 	public static final int TYPE_MATCH		= 0;
 	public static final int TYPE_VERBOSE	= 1;
@@ -40,6 +48,31 @@ public class MatchData {
 		this.lineNumber = lineNumber;
 		this.lineText = lineText;
 		this.type = type;
+		line = endLine = -1;
+	}
+
+
+	/**
+	 * Creates match data for a matching line whose preview is created
+	 * lazily.
+	 *
+	 * @param fileName The file containing the match.
+	 * @param line The line the match starts on, 0-based.
+	 * @param endLine The line the match ends on, 0-based.
+	 * @param lineText The plain text of the line the match starts on, as
+	 *        it was when the match was found.  This may be truncated if the
+	 *        line is long.
+	 * @param syntaxStyle The syntax style to highlight the preview with.
+	 * @see #isPreviewDeferred()
+	 */
+	public MatchData(String fileName, int line, int endLine, String lineText,
+					String syntaxStyle) {
+		this.fileName = fileName;
+		this.line = line;
+		this.endLine = endLine;
+		this.lineText = lineText;
+		this.syntaxStyle = syntaxStyle;
+		type = TYPE_MATCH;
 	}
 
 
@@ -48,16 +81,51 @@ public class MatchData {
 	}
 
 
+	/**
+	 * Returns the line the match starts on.
+	 *
+	 * @return The line, 0-based, or <code>-1</code> if this data wasn't
+	 *         created for a deferred preview.
+	 * @see #isPreviewDeferred()
+	 */
+	public int getLine() {
+		return line;
+	}
+
+
 	public String getLineNumber() {
+		if (lineNumber==null && line>-1) {
+			return line==endLine ? Integer.toString(line+1) :
+					((line+1) + "-" + (endLine+1));
+		}
 		return lineNumber;
 	}
 
 
+	/**
+	 * Returns the text to display for this match.
+	 *
+	 * @return The text.  If the preview of this match is deferred, this
+	 *         is the plain text of the matching line.
+	 * @see #isPreviewDeferred()
+	 */
 	public String getLineText() {
 		return lineText;
 	}
 
 
+	/**
+	 * Returns the syntax style to highlight this match's preview with.
+	 *
+	 * @return The syntax style, or <code>null</code> if this data wasn't
+	 *         created for a deferred preview.
+	 * @see #isPreviewDeferred()
+	 */
+	public String getSyntaxStyle() {
+		return syntaxStyle;
+	}
+
+
 	public boolean isError() {
 		return type==TYPE_ERROR;
 	}
@@ -68,6 +136,29 @@ public class MatchData {
 	}
 
 
+	/**
+	 * Returns whether this match spans multiple lines.
+	 *
+	 * @return Whether the match spans multiple lines.
+	 */
+	public boolean isMultiLine() {
+		return endLine>line;
+	}
+
+
+	/**
+	 * Returns whether the syntax highlighted preview of this match is
+	 * created when it's displayed, as opposed to its text being displayed
+	 * as-is.
+	 *
+	 * @return Whether the preview is deferred.
+	 * @see #getLineText()
+	 */
+	public boolean isPreviewDeferred() {
+		return line>-1;
+	}
+
+
 	public boolean isVerboseSearchInfo() {
 		return type==TYPE_VERBOSE;
 	}
@@ -0,0 +1,358 @@
+/*
+ * 10/18/2026
+ *
+ * MatchPreviews.java - Lazily creates previews of Find in Files matches.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.ui.search;
+
+import java.awt.Font;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+import javax.swing.text.Segment;
+
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea;
+import org.fife.ui.rsyntaxtextarea.SyntaxScheme;
+import org.fife.ui.rsyntaxtextarea.Token;
+import org.fife.ui.rsyntaxtextarea.TokenMaker;
+import org.fife.ui.rsyntaxtextarea.TokenMakerFactory;
+import org.fife.ui.rtextarea.RTextArea;
+
+
+/**
+ * Creates the syntax highlighted previews of matching lines shown in a
+ * <code>FindInFilesTable</code>.<p>
+ *
+ * Previews are only created for matches that are actually displayed, on a
+ * background thread.  A preview always shows the text of the line as it
+ * was when the match was found.  If the file still contains that line,
+ * it's highlighted in the context of the file (e.g. inside a multi-line
+ * comment); otherwise the line is highlighted on its own.  Until a match's
+ * preview is ready, an empty string is displayed.  The most recently
+ * displayed previews are cached.<p>
+ *
+ * The background thread stops when the previews are cleared, or after it's
+ * been idle for a while.<p>
+ *
+ * All methods of this class should be called on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class MatchPreviews {
+
+	private final Consumer<String> listener;
+	private final Map<MatchData, String> cache;
+	private final BlockingDeque<Request> requests;
+
+	/**
+	 * The thread creating previews, or <code>null</code> if it isn't
+	 * running.
+	 */
+	private final AtomicReference<Thread> renderThread;
+	private volatile SyntaxScheme syntaxScheme;
+
+	/**
+	 * Incremented when the cache is cleared, so previews requested before
+	 * then are ignored.
+	 */
+	private int generation;
+
+	private static final int MAX_CACHED_PREVIEWS = 1000;
+
+	/**
+	 * The maximum number of previews waiting to be rendered.  If the user
+	 * scrolls quickly, requests for rows no longer visible are dropped.
+	 */
+	private static final int MAX_REQUESTS = 256;
+
+	/**
+	 * How long the render thread waits for requests before stopping, in
+	 * seconds.
+	 */
+	private static final int IDLE_TIMEOUT = 30;
+
+	private static final String MULTI_LINE_MATCH = ResourceBundle.getBundle(
+			"org.fife.ui.search.Search").getString("MultiLineMatch");
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param listener Notified, on the EDT, with the text of each preview
+	 *        as it becomes available.
+	 */
+	MatchPreviews(Consumer<String> listener) {
+		this.listener = listener;
+		cache = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<MatchData, String> eldest) {
+				return size()>MAX_CACHED_PREVIEWS;
+			}
+		};
+		requests = new LinkedBlockingDeque<>();
+		renderThread = new AtomicReference<>();
+	}
+
+
+	/**
+	 * Discards all cached previews and pending requests, and stops the
+	 * render thread.
+	 */
+	void clear() {
+		cache.clear();
+		requests.clear();
+		generation++;
+		Thread thread = renderThread.getAndSet(null);
+		if (thread!=null) {
+			thread.interrupt();
+		}
+	}
+
+
+	/**
+	 * Returns an HTML string for a token list, stripping off leading
+	 * whitespace.
+	 *
+	 * @param t The beginning of the token list.
+	 * @param textArea The text area to get the highlighting information from.
+	 * @return The HTML.
+	 */
+	private static String getHtml(Token t, RSyntaxTextArea textArea) {
+
+		// HTML rendering in Swing is very slow, and we've also seen OOME's
+		// from trying render lines that were too long in the Find in Files
+		// table, so we'll limit how much we display.
+		final int maxLen = 1280;
+
+		Font font = RTextArea.getDefaultFont();
+		String fontFamily = font.getFamily();
+		StringBuilder sb = new StringBuilder("<html><nobr><font face=\"" + fontFamily + "\">");
+		boolean firstNonWhitespace = false; // Skip leading whitespace
+
+		while (t!=null && t.isPaintable() && sb.length()<maxLen) {
+			if (firstNonWhitespace || (firstNonWhitespace |= !t.isWhitespace())) {
+				t.appendHTMLRepresentation(sb, textArea, false);
+			}
+			t = t.getNextToken();
+		}
+
+		if (sb.length()>=maxLen) {
+			sb.append("...");
+		}
+		return sb.toString();
+
+	}
+
+
+	/**
+	 * Returns the preview for a match.  If it isn't available yet, it is
+	 * created in the background, and the listener is notified when it's
+	 * ready.
+	 *
+	 * @param data The match.
+	 * @return The preview, or an empty string if it isn't ready yet.
+	 */
+	String getPreview(MatchData data) {
+
+		String preview = cache.get(data);
+		if (preview!=null) {
+			return preview;
+		}
+
+		// Most recent requests are rendered first, since those are what's
+		// scrolled into view.
+		Request request = new Request(data, generation);
+		if (!requests.contains(request)) {
+			requests.offerFirst(request);
+			while (requests.size()>MAX_REQUESTS) {
+				requests.pollLast();
+			}
+		}
+		if (renderThread.get()==null) {
+			Thread thread = new Thread(new Renderer(), "MatchPreviewRenderer");
+			thread.setDaemon(true);
+			renderThread.set(thread);
+			thread.start();
+		}
+		return "";
+
+	}
+
+
+	/**
+	 * Sets the colors used to highlight previews.
+	 *
+	 * @param scheme The syntax scheme.
+	 */
+	void setSyntaxScheme(SyntaxScheme scheme) {
+		syntaxScheme = scheme;
+	}
+
+
+	/**
+	 * A request for a match's preview.
+	 *
+	 * @param data The match.
+	 * @param generation The value of {@link #generation} when the request
+	 *        was made.
+	 */
+	private record Request(MatchData data, int generation) {
+	}
+
+
+	/**
+	 * Renders previews in the background.  The most recently read file is
+	 * kept around, since matches are usually displayed in runs from the
+	 * same file.
+	 */
+	private final class Renderer implements Runnable {
+
+		private final FileText fileText;
+		private final Map<String, TokenMaker> tokenMakers;
+		private RSyntaxTextArea textArea;
+		private String fileName;
+		private long lastModified;
+
+		Renderer() {
+			fileText = new FileText();
+			tokenMakers = new HashMap<>();
+		}
+
+		/**
+		 * Returns the tokens of a match's line, highlighted in the context
+		 * of the rest of its file.
+		 *
+		 * @param data The match.
+		 * @return The tokens, or <code>null</code> if the file can't be read
+		 *         or no longer has the same text on that line.
+		 */
+		private Token getTokensFromFile(MatchData data) {
+
+			File file = new File(data.getFileName());
+			if (!data.getFileName().equals(fileName) ||
+					file.lastModified()!=lastModified) {
+				fileName = null;
+				try {
+					lastModified = file.lastModified();
+					fileText.read(file);
+				} catch (IOException ioe) {
+					return null;
+				}
+				fileName = data.getFileName();
+				fileText.setSyntaxStyle(data.getSyntaxStyle());
+			}
+
+			int line = data.getLine();
+			if (line>=fileText.getLineCount() || !data.getLineText().equals(
+					fileText.getLineText(line, FindInFilesThread.MAX_LINE_TEXT_LENGTH))) {
+				return null;
+			}
+			return fileText.getTokenListForLine(line);
+
+		}
+
+		/**
+		 * Returns the tokens of a match's line, highlighted on its own.
+		 *
+		 * @param data The match.
+		 * @return The tokens.
+		 */
+		private Token getTokensFromMatch(MatchData data) {
+			TokenMaker tokenMaker = tokenMakers.computeIfAbsent(
+					data.getSyntaxStyle(),
+					s -> TokenMakerFactory.getDefaultInstance().getTokenMaker(s));
+			char[] text = data.getLineText().toCharArray();
+			return tokenMaker.getTokenList(new Segment(text, 0, text.length),
+					Token.NULL, 0);
+		}
+
+		private String render(MatchData data) {
+
+			// The file may have changed since it was searched.
+			Token tokens = getTokensFromFile(data);
+			if (tokens==null) {
+				tokens = getTokensFromMatch(data);
+			}
+
+			SyntaxScheme scheme = syntaxScheme;
+			if (scheme!=null && textArea.getSyntaxScheme()!=scheme) {
+				textArea.setSyntaxScheme(scheme);
+			}
+			String html = getHtml(tokens, textArea);
+			if (data.isMultiLine()) {
+				html += " <em>" + MULTI_LINE_MATCH + "</em>";
+			}
+			return html;
+
+		}
+
+		@Override
+		public void run() {
+
+			textArea = new RSyntaxTextArea();
+
+			Thread thread = Thread.currentThread();
+
+			while (true) {
+
+				Request request;
+				try {
+					request = requests.pollFirst(IDLE_TIMEOUT, TimeUnit.SECONDS);
+				} catch (InterruptedException ie) {
+					return; // Cleared
+				}
+
+				if (request==null) {
+					if (!renderThread.compareAndSet(thread, null)) {
+						return; // Cleared
+					}
+					// A request may have been made just as we stopped, in
+					// which case another thread may or may not have been
+					// started for it.
+					if (requests.isEmpty() ||
+							!renderThread.compareAndSet(null, thread)) {
+						return;
+					}
+					continue;
+				}
+
+				String preview;
+				try {
+					preview = render(request.data());
+				} catch (RuntimeException | OutOfMemoryError e) {
+					// Don't let one bad file kill the renderer.
+					e.printStackTrace();
+					fileName = null;
+					preview = "";
+				}
+
+				String html = preview;
+				SwingUtilities.invokeLater(() -> {
+					if (request.generation()==generation) {
+						cache.put(request.data(), html);
+						listener.accept(html);
+					}
+				});
+
+			}
+
+		}
+
+	}
+
+
+}
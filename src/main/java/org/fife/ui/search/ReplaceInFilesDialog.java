@@ -29,6 +29,7 @@ import org.fife.ui.*;
 public class ReplaceInFilesDialog extends FindInFilesDialog {
 
 	private SearchComboBox replaceCombo;
+	private JCheckBox dryRunCheckBox;
 
 
 	/**
@@ -56,6 +57,14 @@ public class ReplaceInFilesDialog extends FindInFilesDialog {
 		verboseCheckBox = new JCheckBox(getString2("Verbose"));
 		verboseCheckBox.setMnemonic((int)getString2("VerboseMnemonic").charAt(0));
 		panel.add(verboseCheckBox);
+		parallelCheckBox = new JCheckBox(getString2("ReplaceInParallel"), true);
+		parallelCheckBox.setActionCommand("Parallel");
+		parallelCheckBox.addActionListener(this);
+		parallelCheckBox.setMnemonic((int)getString2("ReplaceInParallelMnemonic").charAt(0));
+		panel.add(parallelCheckBox);
+		dryRunCheckBox = new JCheckBox(getString2("DryRun"));
+		dryRunCheckBox.setMnemonic((int)getString2("DryRunMnemonic").charAt(0));
+		panel.add(dryRunCheckBox);
 		panel.add(Box.createVerticalGlue());
 
 		return panel;
@@ -140,6 +149,17 @@ public class ReplaceInFilesDialog extends FindInFilesDialog {
 	}
 
 
+	/**
+	 * Returns whether the user only wants to see how many replacements
+	 * would be made in each file, without modifying any files.
+	 *
+	 * @return Whether this is a dry run.
+	 */
+	boolean getDryRun() {
+		return dryRunCheckBox.isSelected();
+	}
+
+
 	/**
 	 * Returns the text to replace with.
 	 *
@@ -10,6 +10,11 @@
 package org.fife.ui.search;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.text.MessageFormat;
 import java.util.*;
 import java.util.regex.*;
@@ -21,13 +26,23 @@ import org.fife.ui.rtextarea.SearchEngine;
 
 /**
  * A thread created by a <code>ReplaceInFilesDialog</code> to do the
- * replacing.
+ * replacing.<p>
+ *
+ * Files are rewritten through a temporary file that atomically replaces
+ * the original, so an interrupted replace never leaves a file partially
+ * written.  In a "dry run," the number of replacements that would be made
+ * in each file is reported, but no files are modified.
  *
  * @author Robert Futrell
  * @version 1.0
  */
 class ReplaceInFilesThread extends FindInFilesThread {
 
+	private String previewOccurrencesString;
+
+	// Replace parameters, gathered from the dialog when the replace starts.
+	private String replaceString;
+	private boolean dryRun;
 
 	/**
 	 * Constructor.
@@ -37,205 +52,168 @@ class ReplaceInFilesThread extends FindInFilesThread {
 	 */
 	ReplaceInFilesThread(FindInFilesDialog dialog, File directory) {
 		super(dialog, directory);
+		previewOccurrencesString = dialog.getString2("PreviewOccurrences");
 	}
 
 
 	/**
-	 * Runs the search.
+	 * Runs the replace.  Files are examined the same way as for a search,
+	 * possibly on several threads at once.
 	 */
 	@Override
 	public Object construct() {
+		ReplaceInFilesDialog replaceDialog = (ReplaceInFilesDialog)dialog;
+		replaceString = replaceDialog.getReplaceString();
+		dryRun = replaceDialog.getDryRun();
+		return super.construct();
+	}
 
-		// Get the string to search for and filters for the files to search.
-		String searchString = dialog.getSearchString();
-		Pattern[] filterStrings = getFilterStrings();
-		if (filterStrings==null) {
-			dialog.searchCompleted("");
-			return null;
-		}
 
-		// Then, do the search.
-		dialog.clearSearchResults();
-		File[] files = directory.listFiles();
-		List<File> fileList = new ArrayList<>(Arrays.asList(files));
+	/**
+	 * Replaces text in a single file.  This may be called from multiple
+	 * threads at once.
+	 *
+	 * @param file The file.
+	 * @param fileFullPath The full path of the file.
+	 * @param matches The number of replacements made, as well as any
+	 *        errors, are added to this list.
+	 */
+	@Override
+	protected void searchFile(File file, String fileFullPath,
+							List<MatchData> matches) {
 
-		boolean checkSubfolders = dialog.getCheckSubfolders();
-		boolean matchCase = dialog.getMatchCase();
-		boolean wholeWord = dialog.getMatchWholeWord();
-		boolean useRegex = dialog.getUseRegEx();
-		boolean doVerboseOutput = dialog.getDoVerboseOutput();
-		String replaceString = ((ReplaceInFilesDialog)dialog).getReplaceString();
-		String searchingFile = dialog.getString2("SearchingFile");
+		StringBuilder sb = new StringBuilder();
+		String encoding;
+
+		try {
+			// The file isn't mapped since on some platforms, that'd keep us
+			// from writing it back out.
+			ByteBuffer bytes = getFileText().readBytes(file, false);
+			// Rule out files that can't contain a literal search string
+			// without decoding them.
+			if (literalSearcher!=null && !literalSearcher.mayOccurIn(bytes,
+					FileText.getCharset(bytes))) {
+				if (doVerboseOutput) {
+					String text = MessageFormat.format(occurrencesString, 0);
+					matches.add(createVerboseMatchData(fileFullPath, text));
+				}
+				return;
+			}
+			// Line endings are left as they are, since the file will be
+			// written back out.
+			encoding = FileText.decodeAsIs(bytes, sb);
+		} catch (IOException ioe) {
+			matches.add(createErrorMatchData(fileFullPath,
+						"IOException reading file: " + ioe));
+			return;
+		} catch (OutOfMemoryError oome) {
+			matches.add(createErrorMatchData(fileFullPath,
+									"OutOfMemoryError"));
+			// Bail out.
+			outOfMemory = true;
+			return;
+		}
 
-		if (!useRegex && !matchCase)
-			searchString = searchString.toLowerCase();
+		// If we didn't get any text out of the file, there's nothing to do.
+		if (sb.length()==0) {
+			return;
+		}
 
-		long startMillis = System.currentTimeMillis();
-		StringBuilder sb = new StringBuilder();
-		char[] buf = new char[4096];
-		StringBuilder replaceSB = new StringBuilder();
+		try {
 
-		// Keep looping while there are more files to search.
-		int numFiles = fileList.size();
-		for (int i=0; i<numFiles; i++) {
+			int repCount;
+			StringBuilder replaceSB = new StringBuilder(sb.length());
 
-			// If the user canceled the search...
-			if (Thread.currentThread().isInterrupted()) {
-				dialog.searchCompleted(dialog.getString2("SearchTerminated"));
-				return null;
+			if (useRegex) {
+				repCount = doSearchRegex(sb, searchString, replaceString,
+								matchCase, wholeWord, replaceSB);
+			}
+			else {
+				repCount = doSearchNoRegex(sb, literalSearcher,
+								replaceString, wholeWord, replaceSB);
 			}
 
-			File temp = fileList.get(i);
-			String fileFullPath = temp.getAbsolutePath();
-
-			// If temp is a regular file (i.e., non-directory) AND exists...
-			if (temp.isFile()) {
-
-				// If the file doesn't match one of the filters from
-				// "In files:", skip it.
-				if (isFilteredOut(temp.getName(), filterStrings)) {
-					if (doVerboseOutput) {
-						MatchData data = createVerboseMatchData(
-								fileFullPath, verboseNoFiltMatchString);
-						dialog.addMatchData(data);
-					}
-					continue;
-				}
-
-				// Display the file we're searching in the status bar.
-				// Note that this method postpones the update to the EDT.
-				dialog.setStatusText(searchingFile + i + "/" + numFiles +
-								": " + fileFullPath);
-				String encoding;
-
-				try {
-					// Use a UnicodeReader to auto-detect whether this
-					// is a Unicode file.
-					// FIXME:  Allow the user to specify the default
-					// encoding, instead of assuming system default,
-					// somehow.
-					UnicodeReader ur = new UnicodeReader(temp);
-					encoding = ur.getEncoding();
-					try (Reader r = new BufferedReader(ur)) {
-						int count;
-						sb.setLength(0);
-						while ((count = r.read(buf)) != -1) {
-							sb.append(buf, 0, count);
-						}
-					}
-				} catch (IOException ioe) {
-					MatchData data = createErrorMatchData(fileFullPath,
-								"IOException reading file: " + ioe);
-					dialog.addMatchData(data);
-					continue;
-				} catch (OutOfMemoryError oome) {
-					MatchData data = createErrorMatchData(fileFullPath,
-											"OutOfMemoryError");
-					dialog.addMatchData(data);
-					// Bail out.
-					dialog.searchCompleted(
-							System.currentTimeMillis() - startMillis);
-					return null;
+			// If text was replaced, rewrite the file with its new contents,
+			// unless the user only wants to know what would be replaced.
+			if (repCount>0) {
+				if (!dryRun) {
+					writeFile(file, replaceSB, encoding);
 				}
+				String text = MessageFormat.format(dryRun ?
+						previewOccurrencesString : occurrencesString,
+						repCount);
+				matches.add(new MatchData(fileFullPath, NO_LINE_NUMBER,
+									text));
+			}
+			else if (doVerboseOutput) { // repCount==0
+				String text = MessageFormat.format(occurrencesString, repCount);
+				matches.add(createVerboseMatchData(fileFullPath, text));
+			}
 
-				// If we got some text out of the file...
-				if (sb.length()>0) {
-
-					try {
-
-						int repCount;
-						replaceSB.setLength(0);
-
-						if (useRegex) {
-							repCount = doSearchRegex(sb, searchString,
-								replaceString, matchCase, wholeWord,
-								replaceSB);
-						}
-						else {
-							repCount = doSearchNoRegex(sb, searchString,
-								replaceString, matchCase, wholeWord,
-								replaceSB);
-						}
-
-						// If text was replaced, rewrite the file with
-						// its new contents.
-						if (repCount>0) {
-
-							PrintWriter w = new PrintWriter(new BufferedWriter(
-								new UnicodeWriter(fileFullPath, encoding)));
-							w.print(replaceSB);
-							w.close();
-
-							String text = MessageFormat.format(occurrencesString, repCount);
-							MatchData data = new MatchData(fileFullPath,
-											NO_LINE_NUMBER, text);
-							dialog.addMatchData(data);
-
-						}
-						else if (doVerboseOutput) { // repCount==0
-							String text = MessageFormat.format(occurrencesString, repCount);
-							MatchData data = createVerboseMatchData(
-											fileFullPath, text);
-							dialog.addMatchData(data);
-						}
-
-					} catch (/*IO*/Exception ioe) {
-						ioe.printStackTrace();
-						String desc = ioe.getMessage();
-						MatchData data = createErrorMatchData(
-										fileFullPath, desc);
-						dialog.addMatchData(data);
-					}
+		} catch (OutOfMemoryError oome) {
+			matches.add(createErrorMatchData(fileFullPath,
+									"OutOfMemoryError"));
+			outOfMemory = true;
+		} catch (/*IO*/Exception ioe) {
+			ioe.printStackTrace();
+			String desc = ioe.getMessage();
+			matches.add(createErrorMatchData(fileFullPath, desc));
+		}
 
-				}
+	}
 
-			} // End of if (temp.isFile()).
 
-			// Otherwise, if the file is a directory...
-			else if (temp.isDirectory()) {
+	/**
+	 * Writes a file's new contents.  The text is written to a temporary
+	 * file in the same folder, which then replaces the original, so that
+	 * a crash or full disk can't leave the file half-written.
+	 *
+	 * @param file The file to write.
+	 * @param text The file's new contents.
+	 * @param encoding The encoding to write the file in.
+	 * @throws IOException If an IO error occurs.
+	 */
+	private static void writeFile(File file, CharSequence text,
+						String encoding) throws IOException {
 
-				// Ignore this (sub)directory if the user doesn't want
-				// to search subdirectories.
-				if (!checkSubfolders) {
-					if (doVerboseOutput) {
-						MatchData data = createVerboseMatchData(
-							fileFullPath, dontSearchSubfoldersString);
-						dialog.addMatchData(data);
-					}
-					continue;
-				}
+		// Replace the file a symbolic link points to, not the link.
+		Path target = file.toPath().toRealPath();
+		if (!Files.isWritable(target)) {
+			throw new IOException("File is read-only: " + target);
+		}
 
-				// Ignore if this folder is one the user wants to skip.
-				else if (shouldSkipFolder(temp)) {
-					if (doVerboseOutput) {
-						MatchData data = createVerboseMatchData(
-							fileFullPath, skipThisFolderString);
-						dialog.addMatchData(data);
-					}
-					continue;
-				}
+		Path dir = target.getParent();
+		Path temp = Files.createTempFile(dir, "." + target.getFileName(),
+									".tmp");
+		try {
 
-				// Add any files in this subdirectory to the master list
-				// of files to search.
-				List<File> moreFilesList = getFilesFromDirectory(temp);
-				int count = moreFilesList==null ? 0 : moreFilesList.size();
-				if (count>0) {
-					fileList.addAll(moreFilesList);
-					numFiles += count;
-				}
-				if (doVerboseOutput) {
-					MatchData data = createVerboseMatchData(
-						fileFullPath, newFilesToExamineString +
-						": " + count);
-					dialog.addMatchData(data);
+			try (PrintWriter w = new PrintWriter(new BufferedWriter(
+					new UnicodeWriter(temp.toFile(), encoding)))) {
+				w.print(text);
+				if (w.checkError()) {
+					throw new IOException("Error writing " + temp);
 				}
+			}
 
-			} // End of else if (temp.isDirectory()).
+			// The temporary file was created readable only by us.
+			try {
+				Files.setPosixFilePermissions(temp,
+						Files.getPosixFilePermissions(target));
+			} catch (UnsupportedOperationException uoe) {
+				// Not a POSIX file system, e.g. Windows.
+			}
 
-		} // End of for (int i=0; i<numFiles; i++).
+			try {
+				Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE,
+						StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException amnse) {
+				Files.move(temp, target,
+						StandardCopyOption.REPLACE_EXISTING);
+			}
 
-		dialog.searchCompleted(System.currentTimeMillis() - startMillis);
-		return null;
+		} finally {
+			Files.deleteIfExists(temp);
+		}
 
 	}
 
@@ -246,31 +224,23 @@ class ReplaceInFilesThread extends FindInFilesThread {
 	 * @return The number of replacements.
 	 */
 	private static int doSearchNoRegex(CharSequence sb,
-			String searchString, String replaceString, boolean matchCase,
+			LiteralSearcher searcher, String replaceString,
 			boolean wholeWord, StringBuilder replaceSB) {
 
-		String origBuffer = sb.toString();
-		String buffer = origBuffer;
-
-		// If search is not case-sensitive, lower-case text to search in
-		// (searchString is already done).
-		if (!matchCase) {
-			buffer = buffer.toLowerCase();
-		}
-
 		// Some stuff we'll use below.
 		int i = 0;
 		int start = 0;
-		int len = searchString.length();
+		int len = searcher.getLength();
 		int numMatches = 0;
 
-		// Loop through all matches in the file.
-		while ((i=buffer.indexOf(searchString, i))!=-1) {
+		// Loop through all matches in the file.  Case is folded as we go,
+		// so no lower-cased copy of the file is needed.
+		while ((i=searcher.indexOf(sb, i))!=-1) {
 
 			// If we found a match...
-			if (!wholeWord || FindDialog.isWholeWord(buffer, i, len)) {
+			if (!wholeWord || FindDialog.isWholeWord(sb, i, len)) {
 
-				replaceSB.append(origBuffer, start, i);
+				replaceSB.append(sb, start, i);
 				replaceSB.append(replaceString);
 
 				numMatches++;
@@ -292,8 +262,8 @@ class ReplaceInFilesThread extends FindInFilesThread {
 		}
 
 		// Any characters at the end.
-		if (start!=buffer.length()) {
-			replaceSB.append(origBuffer, start, buffer.length());
+		if (start!=sb.length()) {
+			replaceSB.append(sb, start, sb.length());
 		}
 
 		return numMatches;
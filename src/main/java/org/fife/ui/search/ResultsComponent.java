@@ -9,6 +9,8 @@
  */
 package org.fife.ui.search;
 
+import java.util.List;
+
 
 /**
  * Interface that identifies a component that displays search or
@@ -32,6 +34,19 @@ interface ResultsComponent {
 	void addMatchData(MatchData matchData, String dirName);
 
 
+	/**
+	 * Adds data on several matches to the component at once.  This is
+	 * much faster than adding them one at a time.
+	 *
+	 * @param matchDatas The data.
+	 * @param dirName The "root directory" searching was done in.  This is
+	 *        used so all file paths displayed in are abbreviated to be
+	 *        relative to this directory.
+	 * @see #addMatchData(MatchData, String)
+	 */
+	void addMatchData(List<MatchData> matchDatas, String dirName);
+
+
 	/**
 	 * Clears all match results from the table.
 	 *
@@ -0,0 +1,610 @@
+/*
+ * 10/18/2026
+ *
+ * TrigramIndex.java - An on-disk index of the trigrams in a folder's files.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.ui.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.fife.rtext.RTextUtilities;
+
+
+/**
+ * An index of the trigrams (runs of three characters) in the files under
+ * a folder, used to rule out files in Find in Files without reading them.<p>
+ *
+ * Each file gets a small Bloom filter of the trigrams in its (case-folded)
+ * text, sized to the number of distinct trigrams it has, so a file whose
+ * filter is missing any trigram of a {@link TrigramQuery} can't contain a
+ * match.  Filters can give false positives but never false negatives, so
+ * candidate files are still searched normally.<p>
+ *
+ * Files are indexed as they're searched, and an entry is only trusted
+ * while the file's modification time and size are unchanged, so the index
+ * updates itself incrementally.  Indexes are saved per folder under the
+ * preferences directory.  New and updated entries are appended to the
+ * index file; it's only rewritten when entries are dropped or too many of
+ * its records are out of date.  Recently used indexes are kept in memory,
+ * and only read again if their file changes.<p>
+ *
+ * This class is thread-safe.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class TrigramIndex {
+
+	private final File root;
+	private final File indexFile;
+	private final Map<String, Entry> entries;
+
+	/**
+	 * Paths of entries known to still exist, since they were looked up
+	 * or added since the index was last saved.
+	 */
+	private final Set<String> seen;
+
+	/**
+	 * Paths of entries added or updated since the index was last saved.
+	 */
+	private final Set<String> changed;
+
+	/**
+	 * The number of records in the index file, including records for
+	 * entries that have since been updated.
+	 */
+	private int recordCount;
+
+	/**
+	 * Whether the index file must be rewritten rather than appended to.
+	 */
+	private boolean rewrite;
+
+	/**
+	 * The index file's modification time and size when it was last read or
+	 * written, to tell whether it's changed since.
+	 */
+	private long fileModified;
+	private long fileLength;
+
+	/**
+	 * Recently used indexes, keyed by the folder they index.
+	 */
+	private static final Map<File, TrigramIndex> CACHE =
+			new LinkedHashMap<>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(
+						Map.Entry<File, TrigramIndex> eldest) {
+					return size()>MAX_CACHED;
+				}
+			};
+
+	private static final int MAX_CACHED = 4;
+
+	private static final int MAGIC = 0x52544958; // "RTIX"
+	private static final int VERSION = 2;
+
+	/**
+	 * The smallest and largest filters, in bits.  The largest is 8 KB.
+	 */
+	private static final int MIN_BITS = 64;
+	private static final int MAX_BITS = 1 << 16;
+
+	/**
+	 * Filters are shrunk while no more than this fraction of their bits
+	 * are set, and dropped if more than {@link #MAX_FILL} are set
+	 * (e.g. for very large files), since they'd rule little out.
+	 */
+	private static final double TARGET_FILL = 0.35;
+	private static final double MAX_FILL = 0.6;
+
+	/**
+	 * The index file is rewritten once it holds more than this many
+	 * out-of-date records per entry.
+	 */
+	private static final int MAX_RECORDS_PER_ENTRY = 2;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param root The folder being indexed.
+	 * @param indexFile The file the index is saved in.
+	 */
+	private TrigramIndex(File root, File indexFile) {
+		this.root = root;
+		this.indexFile = indexFile;
+		entries = new ConcurrentHashMap<>();
+		seen = ConcurrentHashMap.newKeySet();
+		changed = ConcurrentHashMap.newKeySet();
+		rewrite = true;
+	}
+
+
+	/**
+	 * Returns a Bloom filter of the trigrams in some text.
+	 *
+	 * @param text The text.
+	 * @return The filter, or <code>null</code> if the text has so many
+	 *         distinct trigrams that a filter wouldn't be useful.
+	 */
+	static long[] createFilter(CharSequence text) {
+
+		// Start with room for every trigram to be distinct, then shrink the
+		// filter to fit the trigrams actually found.
+		int length = text.length();
+		int bits = Integer.highestOneBit(Math.min(length, MAX_BITS/16)) * 16;
+		bits = Math.max(bits, MIN_BITS);
+		long[] filter = new long[bits/64];
+
+		if (length>=3) {
+			char c1 = fold(text.charAt(0));
+			char c2 = fold(text.charAt(1));
+			for (int i=2; i<length; i++) {
+				char c3 = fold(text.charAt(i));
+				long hash = hash(((long)c1<<32) | ((long)c2<<16) | c3);
+				setBit(filter, (int)hash & (bits-1));
+				setBit(filter, (int)(hash>>>32) & (bits-1));
+				c1 = c2;
+				c2 = c3;
+			}
+		}
+
+		// Text with few distinct trigrams (e.g. repetitive text) gets a
+		// smaller filter.  Since bit positions are masked, folding a
+		// filter in half gives the same filter as hashing into half as
+		// many bits.
+		while (filter.length>MIN_BITS/64) {
+			long[] half = new long[filter.length/2];
+			for (int i=0; i<half.length; i++) {
+				half[i] = filter[i] | filter[i+half.length];
+			}
+			if (getFill(half)>TARGET_FILL) {
+				break;
+			}
+			filter = half;
+		}
+
+		return getFill(filter)>MAX_FILL ? null : filter;
+
+	}
+
+
+	/**
+	 * Returns a character with its case folded, so that characters a
+	 * case-insensitive search considers equal fold to the same character.
+	 *
+	 * @param ch The character.
+	 * @return The folded character.
+	 */
+	static char fold(char ch) {
+		if (ch<0x80) {
+			return ch>='A' && ch<='Z' ? (char)(ch + ('a'-'A')) : ch;
+		}
+		return Character.toLowerCase(Character.toUpperCase(ch));
+	}
+
+
+	/**
+	 * Returns the fraction of bits set in a filter.
+	 *
+	 * @param filter The filter.
+	 * @return The fraction of bits set.
+	 */
+	private static double getFill(long[] filter) {
+		int count = 0;
+		for (long word : filter) {
+			count += Long.bitCount(word);
+		}
+		return count / (filter.length * 64.0);
+	}
+
+
+	/**
+	 * Returns the directory indexes are saved in.
+	 *
+	 * @return The directory.
+	 */
+	private static File getIndexDirectory() {
+		return new File(RTextUtilities.getPreferencesDirectory(),
+				"searchIndex");
+	}
+
+
+	/**
+	 * Returns the prefix of the paths of files in the indexed folder.
+	 *
+	 * @return The prefix, ending with a separator.
+	 */
+	private String getPathPrefix() {
+		String path = root.getPath();
+		return path.endsWith(File.separator) ? path : path + File.separator;
+	}
+
+
+	/**
+	 * Returns the key for a trigram.
+	 *
+	 * @param c1 The first character.
+	 * @param c2 The second character.
+	 * @param c3 The third character.
+	 * @return The key.  Case is folded.
+	 */
+	static long getTrigram(char c1, char c2, char c3) {
+		return ((long)fold(c1)<<32) | ((long)fold(c2)<<16) | fold(c3);
+	}
+
+
+	/**
+	 * Mixes the bits of a trigram key, so the high and low halves of the
+	 * result can be used as two independent hash values.
+	 *
+	 * @param key The trigram key.
+	 * @return The hash.
+	 */
+	private static long hash(long key) {
+		long h = key * 0x9e3779b97f4a7c15L;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+
+	/**
+	 * Returns whether the index has an up-to-date entry for a file.
+	 *
+	 * @param file The file.
+	 * @param lastModified The file's modification time.
+	 * @param length The file's size.
+	 * @return Whether the file's entry is current.  If this is
+	 *         <code>false</code>, the caller should search the file and
+	 *         then call {@link #update(File, long, long, CharSequence)}.
+	 */
+	boolean isCurrent(File file, long lastModified, long length) {
+		String path = file.getAbsolutePath();
+		seen.add(path);
+		Entry entry = entries.get(path);
+		return entry!=null && entry.lastModified()==lastModified &&
+				entry.length()==length;
+	}
+
+
+	private static boolean isSet(long[] filter, int bit) {
+		return (filter[bit>>>6] & (1L<<bit))!=0;
+	}
+
+
+	/**
+	 * Returns whether the index file is unchanged since this index last
+	 * read or wrote it.
+	 *
+	 * @return Whether the file is unchanged.
+	 */
+	private boolean isFileUnchanged() {
+		return indexFile.lastModified()==fileModified &&
+				indexFile.length()==fileLength;
+	}
+
+
+	/**
+	 * Loads the index for a folder.  If it was loaded recently and its file
+	 * hasn't changed since, the index already in memory is returned.  If
+	 * there isn't one yet, or it can't be read, an empty index is returned.
+	 *
+	 * @param root The folder.
+	 * @return The index.
+	 */
+	static TrigramIndex load(File root) {
+
+		File dir = root.getAbsoluteFile();
+
+		synchronized (CACHE) {
+			TrigramIndex index = CACHE.get(dir);
+			if (index==null || !index.isFileUnchanged()) {
+				File indexFile = new File(getIndexDirectory(),
+						Integer.toHexString(dir.getPath().hashCode()) + ".idx");
+				index = new TrigramIndex(dir, indexFile);
+				index.read();
+				CACHE.put(dir, index);
+			}
+			return index;
+		}
+
+	}
+
+
+	/**
+	 * Returns whether a file may match a query.  This should only be called
+	 * for files whose entry is current.
+	 *
+	 * @param file The file.
+	 * @param query The query.
+	 * @return <code>false</code> if the file definitely doesn't match,
+	 *         <code>true</code> if it might.
+	 * @see #isCurrent(File, long, long)
+	 */
+	boolean mayContain(File file, TrigramQuery query) {
+
+		Entry entry = entries.get(file.getAbsolutePath());
+		long[] filter = entry==null ? null : entry.filter();
+		if (filter==null) {
+			return true;
+		}
+
+		int mask = filter.length*64 - 1;
+		for (long trigram : query.getTrigrams()) {
+			long hash = hash(trigram);
+			if (!isSet(filter, (int)hash & mask) ||
+					!isSet(filter, (int)(hash>>>32) & mask)) {
+				return false;
+			}
+		}
+		return true;
+
+	}
+
+
+	/**
+	 * Reads this index's file, if it exists.
+	 */
+	private void read() {
+
+		if (!indexFile.isFile()) {
+			return;
+		}
+		fileModified = indexFile.lastModified();
+		fileLength = indexFile.length();
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+				new FileInputStream(indexFile)))) {
+
+			if (in.readInt()!=MAGIC || in.readInt()!=VERSION ||
+					!root.getPath().equals(readString(in, in.readUnsignedShort()))) {
+				return;
+			}
+			rewrite = false;
+
+			// Later records for a file replace earlier ones.
+			String prefix = getPathPrefix();
+			int b;
+			while ((b = in.read())!=-1) {
+				String path = readString(in, (b<<8) | in.readUnsignedByte());
+				if (!new File(path).isAbsolute()) {
+					path = prefix + path;
+				}
+				long lastModified = in.readLong();
+				long length = in.readLong();
+				int size = in.readUnsignedByte();
+				long[] filter = null;
+				if (size>0) {
+					if (size>Integer.numberOfTrailingZeros(MAX_BITS/64) + 1) {
+						throw new IOException("Invalid filter size: " + size);
+					}
+					filter = new long[1<<(size-1)];
+					for (int i=0; i<filter.length; i++) {
+						filter[i] = in.readLong();
+					}
+				}
+				entries.put(path, new Entry(lastModified, length, filter));
+				recordCount++;
+			}
+
+		} catch (EOFException eofe) {
+			// The last record was only partly written, e.g. because of a
+			// crash.  The records before it are fine.
+			rewrite = true;
+		} catch (IOException | RuntimeException e) {
+			// A corrupt index is simply rebuilt.
+			e.printStackTrace();
+			entries.clear();
+			recordCount = 0;
+			rewrite = true;
+		}
+
+	}
+
+
+	private static String readString(DataInputStream in, int length)
+			throws IOException {
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+
+	/**
+	 * Rewrites the index file with just the current entries.
+	 *
+	 * @throws IOException If an IO error occurs.
+	 */
+	private void rewriteFile() throws IOException {
+
+		// Write to a temporary file first, so a crash can't leave a
+		// corrupt index behind.
+		File temp = File.createTempFile("index", ".tmp",
+				indexFile.getParentFile());
+		try {
+			Map<String, Entry> snapshot = Map.copyOf(entries);
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(new FileOutputStream(temp)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				writeString(out, root.getPath());
+				String prefix = getPathPrefix();
+				for (Map.Entry<String, Entry> e : snapshot.entrySet()) {
+					writeEntry(out, prefix, e.getKey(), e.getValue());
+				}
+			}
+			try {
+				Files.move(temp.toPath(), indexFile.toPath(),
+						StandardCopyOption.ATOMIC_MOVE,
+						StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException amnse) {
+				Files.move(temp.toPath(), indexFile.toPath(),
+						StandardCopyOption.REPLACE_EXISTING);
+			}
+			recordCount = snapshot.size();
+			rewrite = false;
+		} finally {
+			Files.deleteIfExists(temp.toPath());
+		}
+
+	}
+
+
+	/**
+	 * Saves this index, if it has changed since it was last saved.  Entries
+	 * for files that no longer exist are dropped.
+	 *
+	 * @throws IOException If an IO error occurs.
+	 */
+	synchronized void save() throws IOException {
+
+		if (entries.keySet().removeIf(path ->
+				!seen.contains(path) && !new File(path).isFile())) {
+			rewrite = true;
+		}
+		seen.clear();
+		if (!rewrite && changed.isEmpty()) {
+			return;
+		}
+
+		File dir = getIndexDirectory();
+		if (!dir.isDirectory() && !dir.mkdirs()) {
+			throw new IOException("Couldn't create directory: " + dir);
+		}
+
+		// Entries updated while saving are saved next time.
+		List<String> paths = List.copyOf(changed);
+		changed.removeAll(paths);
+
+		try {
+			if (rewrite || !isFileUnchanged() || recordCount + paths.size()>
+					(entries.size() + 1) * MAX_RECORDS_PER_ENTRY) {
+				rewriteFile();
+			}
+			else {
+				String prefix = getPathPrefix();
+				try (DataOutputStream out = new DataOutputStream(
+						new BufferedOutputStream(
+						new FileOutputStream(indexFile, true)))) {
+					for (String path : paths) {
+						Entry entry = entries.get(path);
+						if (entry!=null) {
+							writeEntry(out, prefix, path, entry);
+							recordCount++;
+						}
+					}
+				}
+			}
+		} catch (IOException ioe) {
+			changed.addAll(paths);
+			rewrite = true; // In case a record was only partly appended
+			throw ioe;
+		}
+
+		fileModified = indexFile.lastModified();
+		fileLength = indexFile.length();
+
+	}
+
+
+	private static void setBit(long[] filter, int bit) {
+		filter[bit>>>6] |= 1L<<bit;
+	}
+
+
+	/**
+	 * Updates the entry for a file.
+	 *
+	 * @param file The file.
+	 * @param lastModified The file's modification time, as of before it was
+	 *        read.
+	 * @param length The file's size, as of before it was read.
+	 * @param text The file's text.
+	 */
+	void update(File file, long lastModified, long length,
+				CharSequence text) {
+		String path = file.getAbsolutePath();
+		entries.put(path, new Entry(lastModified, length, createFilter(text)));
+		seen.add(path);
+		changed.add(path);
+	}
+
+
+	/**
+	 * Writes an entry to the index file.
+	 *
+	 * @param out The stream to write to.
+	 * @param prefix The path prefix of files in the indexed folder.  It's
+	 *        left off of their paths, to keep the index small.
+	 * @param path The file's path.
+	 * @param entry The file's entry.
+	 * @throws IOException If an IO error occurs.
+	 */
+	private static void writeEntry(DataOutputStream out, String prefix,
+			String path, Entry entry) throws IOException {
+		writeString(out, path.startsWith(prefix) ?
+				path.substring(prefix.length()) : path);
+		out.writeLong(entry.lastModified());
+		out.writeLong(entry.length());
+		long[] filter = entry.filter();
+		if (filter==null) {
+			out.writeByte(0);
+		}
+		else {
+			out.writeByte(Integer.numberOfTrailingZeros(filter.length) + 1);
+			for (long word : filter) {
+				out.writeLong(word);
+			}
+		}
+	}
+
+
+	private static void writeString(DataOutputStream out, String s)
+			throws IOException {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		if (bytes.length>0xffff) {
+			throw new IOException("Path too long: " + s);
+		}
+		out.writeShort(bytes.length);
+		out.write(bytes);
+	}
+
+
+	/**
+	 * An indexed file.
+	 *
+	 * @param lastModified The file's modification time when indexed.
+	 * @param length The file's size when indexed.
+	 * @param filter The Bloom filter of the file's trigrams, or
+	 *        <code>null</code> if the file can't be ruled out.
+	 */
+	private record Entry(long lastModified, long length, long[] filter) {
+	}
+
+
+}
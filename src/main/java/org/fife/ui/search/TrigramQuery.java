@@ -0,0 +1,416 @@
+/*
+ * 10/18/2026
+ *
+ * TrigramQuery.java - The trigrams a file must contain to match a search.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.ui.search;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+
+/**
+ * The trigrams (runs of three characters) a file must contain to possibly
+ * match a search.  These are used to rule out files with a
+ * {@link TrigramIndex} before searching them.<p>
+ *
+ * For literal searches, this is every trigram in the search string.  For
+ * regular expressions, the pattern is scanned for literal text that every
+ * match must contain; anything that's hard to reason about is simply
+ * ignored, so a query may have fewer trigrams than it could, but never one
+ * that a match doesn't contain.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class TrigramQuery {
+
+	private final long[] trigrams;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param literals Strings every match contains.
+	 */
+	private TrigramQuery(List<String> literals) {
+		Set<Long> set = new LinkedHashSet<>();
+		for (String literal : literals) {
+			for (int i=2; i<literal.length(); i++) {
+				set.add(TrigramIndex.getTrigram(literal.charAt(i-2),
+						literal.charAt(i-1), literal.charAt(i)));
+			}
+		}
+		trigrams = set.stream().mapToLong(Long::longValue).toArray();
+	}
+
+
+	/**
+	 * Returns the query for a literal search string.
+	 *
+	 * @param searchString The search string.
+	 * @return The query.
+	 */
+	static TrigramQuery forLiteral(String searchString) {
+		return new TrigramQuery(List.of(searchString));
+	}
+
+
+	/**
+	 * Returns the query for a regular expression.
+	 *
+	 * @param regex The regular expression.
+	 * @return The query.  This will have no trigrams if nothing can be
+	 *         determined about what the regex matches.
+	 */
+	static TrigramQuery forRegex(String regex) {
+		List<String> literals = new ArrayList<>();
+		if (!getRequiredLiterals(regex, literals)) {
+			literals.clear();
+		}
+		return new TrigramQuery(literals);
+	}
+
+
+	/**
+	 * Returns the index of the character after a character class.
+	 *
+	 * @param regex The regular expression.
+	 * @param start The index of the <code>'['</code> starting the class.
+	 * @return The index after the matching <code>']'</code>, or
+	 *         <code>-1</code> if the class is never closed.
+	 */
+	private static int getEndOfClass(String regex, int start) {
+		int depth = 0;
+		int i = start;
+		while (i<regex.length()) {
+			char ch = regex.charAt(i);
+			if (ch=='\\') {
+				i++;
+			}
+			else if (ch=='[') {
+				depth++;
+			}
+			else if (ch==']' && !isLiteralBracket(regex, start, i)) {
+				if (--depth==0) {
+					return i + 1;
+				}
+			}
+			i++;
+		}
+		return -1;
+	}
+
+
+	/**
+	 * Returns the index of the character after a group.
+	 *
+	 * @param regex The regular expression.
+	 * @param start The index of the <code>'('</code> starting the group.
+	 * @return The index after the matching <code>')'</code>, or
+	 *         <code>-1</code> if the group is never closed.
+	 */
+	private static int getEndOfGroup(String regex, int start) {
+		int depth = 0;
+		int i = start;
+		while (i<regex.length()) {
+			char ch = regex.charAt(i);
+			if (ch=='\\') {
+				i++;
+			}
+			else if (ch=='[') {
+				i = getEndOfClass(regex, i);
+				if (i==-1) {
+					return -1;
+				}
+				continue;
+			}
+			else if (ch=='(') {
+				depth++;
+			}
+			else if (ch==')') {
+				if (--depth==0) {
+					return i + 1;
+				}
+			}
+			i++;
+		}
+		return -1;
+	}
+
+
+	/**
+	 * Returns the character an escape sequence matches, if it matches
+	 * exactly one literal character.
+	 *
+	 * @param ch The character after the backslash.
+	 * @return The literal character, or <code>0</code> if the escape
+	 *         matches something else (a character class, a boundary,
+	 *         etc.).
+	 */
+	private static char getEscapedLiteral(char ch) {
+		switch (ch) {
+			case 't':
+				return '\t';
+			case 'n':
+				return '\n';
+			case 'f':
+				return '\f';
+			case 'e':
+				return '\u001b'; // Escape
+			case 'a':
+				return '\u0007'; // Bell
+			default:
+				return Character.isLetterOrDigit(ch) ? 0 : ch;
+		}
+	}
+
+
+	/**
+	 * Scans a regular expression for literal strings every match must
+	 * contain.
+	 *
+	 * @param regex The regular expression.
+	 * @param literals The literals found are added to this list.
+	 * @return Whether the literals found can be relied on.  If this is
+	 *         <code>false</code>, the regex uses a construct (such as
+	 *         alternation) that this method doesn't understand.
+	 */
+	private static boolean getRequiredLiterals(String regex,
+										List<String> literals) {
+
+		StringBuilder run = new StringBuilder();
+		int i = 0;
+
+		while (i<regex.length()) {
+
+			char ch = regex.charAt(i);
+			int atomStart = run.length();
+			i++;
+
+			switch (ch) {
+				case '|':
+					// Either side could match, so nothing is required.
+					return false;
+				case '\\':
+					if (i==regex.length()) {
+						return false;
+					}
+					char next = regex.charAt(i++);
+					if (next=='Q') {
+						int end = regex.indexOf("\\E", i);
+						if (end==-1) {
+							end = regex.length();
+						}
+						run.append(regex, i, end);
+						atomStart = Math.max(run.length() - 1, 0);
+						i = Math.min(end + 2, regex.length());
+					}
+					else {
+						char literal = getEscapedLiteral(next);
+						if (literal==0) {
+							i = skipEscapeArguments(regex, next, i);
+							addLiteral(run, literals);
+							atomStart = -1;
+						}
+						else {
+							run.append(literal);
+						}
+					}
+					break;
+				case '[':
+					i = getEndOfClass(regex, i-1);
+					if (i==-1) {
+						return false;
+					}
+					addLiteral(run, literals);
+					atomStart = -1;
+					break;
+				case '(':
+					if (regex.startsWith("?", i) &&
+							(i+1==regex.length() ||
+							Character.isLetter(regex.charAt(i+1)) ||
+							regex.charAt(i+1)=='-')) {
+						// Inline flags, e.g. "(?x)", can change what
+						// everything after them means.
+						return false;
+					}
+					i = getEndOfGroup(regex, i-1);
+					if (i==-1) {
+						return false;
+					}
+					addLiteral(run, literals);
+					atomStart = -1;
+					break;
+				case '.':
+				case '^':
+				case '$':
+					addLiteral(run, literals);
+					atomStart = -1;
+					break;
+				default:
+					run.append(ch);
+					break;
+			}
+
+			// Handle any quantifier on the atom just scanned.
+			if (i<regex.length()) {
+				char quantifier = regex.charAt(i);
+				boolean optional = quantifier=='?' || quantifier=='*' ||
+						regex.startsWith("{0", i);
+				boolean repeated = quantifier=='+' || quantifier=='{';
+				if (optional || repeated) {
+					if (atomStart>-1) {
+						// Only the literal's last char is quantified.
+						int keep = run.length() - 1;
+						if (optional) {
+							run.setLength(Math.max(keep, atomStart));
+						}
+						addLiteral(run, literals);
+					}
+					i = skipQuantifier(regex, i);
+				}
+			}
+
+		}
+
+		addLiteral(run, literals);
+		return true;
+
+	}
+
+
+	/**
+	 * Adds a run of literal text to a list and clears it, if it's long
+	 * enough to contain a trigram.
+	 *
+	 * @param run The literal text.
+	 * @param literals The list to add to.
+	 */
+	private static void addLiteral(StringBuilder run, List<String> literals) {
+		if (run.length()>=3) {
+			literals.add(run.toString());
+		}
+		run.setLength(0);
+	}
+
+
+	/**
+	 * Returns whether a <code>']'</code> in a character class is a
+	 * literal rather than the end of the class, as in <code>"[]a]"</code>
+	 * or <code>"[^]a]"</code>.
+	 *
+	 * @param regex The regular expression.
+	 * @param start The index of the <code>'['</code> starting the class.
+	 * @param index The index of the <code>']'</code>.
+	 * @return Whether the bracket is a literal.
+	 */
+	private static boolean isLiteralBracket(String regex, int start,
+										int index) {
+		return index==start+1 ||
+				(index==start+2 && regex.charAt(start+1)=='^');
+	}
+
+
+	/**
+	 * Returns the trigrams a file must contain to match.
+	 *
+	 * @return The trigrams.  This may be empty, in which case any file
+	 *         may match.
+	 */
+	long[] getTrigrams() {
+		return trigrams;
+	}
+
+
+	/**
+	 * Returns whether this query can rule out any files.
+	 *
+	 * @return Whether this query has no trigrams.
+	 */
+	boolean isEmpty() {
+		return trigrams.length==0;
+	}
+
+
+	/**
+	 * Returns the index after any arguments to an escape sequence, such as
+	 * the hex digits in <code>"\x41"</code> or the property name in
+	 * <code>"\p{L}"</code>.
+	 *
+	 * @param regex The regular expression.
+	 * @param escape The character after the backslash.
+	 * @param start The index after that character.
+	 * @return The index after the escape's arguments.
+	 */
+	private static int skipEscapeArguments(String regex, char escape,
+										int start) {
+
+		int i = start;
+
+		switch (escape) {
+			case 'x':
+			case 'p':
+			case 'P':
+			case 'N':
+			case 'b':
+				if (regex.startsWith("{", i)) {
+					int end = regex.indexOf('}', i);
+					return end==-1 ? regex.length() : end + 1;
+				}
+				return escape=='b' ? i : Math.min(i + (escape=='x' ? 2 : 1),
+						regex.length());
+			case 'u':
+				return Math.min(i + 4, regex.length());
+			case 'c':
+				return Math.min(i + 1, regex.length());
+			case 'k':
+				int end = regex.indexOf('>', i);
+				return end==-1 ? regex.length() : end + 1;
+			default:
+				// Octal escapes and back references are followed by
+				// digits.  Skip them all, to be safe.
+				if (Character.isDigit(escape)) {
+					while (i<regex.length() &&
+							Character.isDigit(regex.charAt(i))) {
+						i++;
+					}
+				}
+				return i;
+		}
+
+	}
+
+
+	/**
+	 * Returns the index after a quantifier, including any trailing
+	 * "lazy" or "possessive" modifier.
+	 *
+	 * @param regex The regular expression.
+	 * @param start The index of the quantifier.
+	 * @return The index after it.
+	 */
+	private static int skipQuantifier(String regex, int start) {
+		int i = start;
+		if (regex.charAt(i)=='{') {
+			int end = regex.indexOf('}', i);
+			i = end==-1 ? regex.length() : end + 1;
+		}
+		else {
+			i++;
+		}
+		if (i<regex.length() &&
+				(regex.charAt(i)=='?' || regex.charAt(i)=='+')) {
+			i++;
+		}
+		return i;
+	}
+
+
+}
@@ -0,0 +1,193 @@
+/*
+ * 10/18/2026
+ *
+ * FileNameIndexTest.java - Unit tests for FileNameIndex.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Unit tests for the {@link FileNameIndex} class.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class FileNameIndexTest {
+
+	/**
+	 * Returns the paths of many made-up source files.
+	 */
+	private static List<String> createPaths(int count) {
+		String[] words = { "main", "util", "test", "io", "model", "view",
+			"parser", "impl", "abstract", "factory", "event", "ui", "net" };
+		String[] extensions = { ".java", ".c", ".h", ".xml", ".txt", ".py" };
+		Random random = new Random(0);
+		List<String> paths = new ArrayList<>(count);
+		for (int i=0; i<count; i++) {
+			StringBuilder sb = new StringBuilder("/home/user/src");
+			for (int j=random.nextInt(5); j>=0; j--) {
+				sb.append('/').append(words[random.nextInt(words.length)]);
+			}
+			sb.append('/');
+			for (int j=random.nextInt(3); j>=0; j--) {
+				String word = words[random.nextInt(words.length)];
+				sb.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+			}
+			sb.append(i).append(extensions[random.nextInt(extensions.length)]);
+			paths.add(sb.toString());
+		}
+		return paths;
+	}
+
+
+	/**
+	 * Returns the paths of the best-ranked matches of a query.
+	 */
+	private static List<String> find(FileNameIndex index, String query) {
+		FileNameIndex.Matches matches = index.find(query, null, 10);
+		List<String> paths = new ArrayList<>();
+		for (int entry : matches.best()) {
+			paths.add(index.getPath(entry));
+		}
+		return paths;
+	}
+
+
+	@Test
+	void testFind_caseIgnored() {
+		FileNameIndex index = new FileNameIndex(List.of("/src/README.md"));
+		Assertions.assertEquals(List.of("/src/README.md"), find(index, "readme"));
+		Assertions.assertEquals(List.of("/src/README.md"), find(index, "ReAdMe"));
+	}
+
+
+	@Test
+	void testFind_cancelled() {
+		FileNameIndex index = new FileNameIndex(createPaths(10000));
+		Thread.currentThread().interrupt();
+		try {
+			Assertions.assertNull(index.find("main", null, 10));
+		} finally {
+			Thread.interrupted();
+		}
+	}
+
+
+	@Test
+	void testFind_charactersInOrder() {
+		FileNameIndex index = new FileNameIndex(List.of("/src/abc.txt", "/src/cba.txt"));
+		Assertions.assertEquals(List.of("/src/abc.txt"), find(index, "ac"));
+		Assertions.assertEquals(List.of("/src/cba.txt"), find(index, "ca"));
+		Assertions.assertEquals(List.of(), find(index, "xyz"));
+	}
+
+
+	@Test
+	void testFind_emptyQuery() {
+		FileNameIndex index = new FileNameIndex(List.of("/b.txt", "/a.txt", "/c.txt"));
+		Assertions.assertEquals(List.of("/b.txt", "/a.txt", "/c.txt"), find(index, ""));
+		Assertions.assertEquals(List.of("/b.txt", "/a.txt", "/c.txt"), find(index, "*"));
+	}
+
+
+	@Test
+	void testFind_fullPathWithSeparator() {
+		FileNameIndex index = new FileNameIndex(List.of(
+				"/src/model/Main.java", "/src/view/Main.java"));
+		Assertions.assertEquals(List.of("/src/model/Main.java", "/src/view/Main.java"),
+				find(index, "main"));
+		Assertions.assertEquals(List.of("/src/view/Main.java"), find(index, "view/main"));
+		Assertions.assertEquals(List.of("/src/view/Main.java"), find(index, "view\\main"));
+		Assertions.assertEquals(List.of(), find(index, "view"));
+	}
+
+
+	@Test
+	void testFind_fullPathWithBackslashes() {
+		FileNameIndex index = new FileNameIndex(List.of("C:\\src\\view\\Main.java"));
+		Assertions.assertEquals(List.of("C:\\src\\view\\Main.java"), find(index, "main"));
+		Assertions.assertEquals(List.of("C:\\src\\view\\Main.java"), find(index, "view/main"));
+	}
+
+
+	@Test
+	void testFind_laterMatchAtWordStart() {
+		// The earliest match of "main" is in "domain", but the one at the
+		// start of a word should be scored.
+		FileNameIndex index = new FileNameIndex(List.of(
+				"/src/domainmain.c", "/src/domain_main.c"));
+		Assertions.assertEquals(List.of("/src/domain_main.c", "/src/domainmain.c"),
+				find(index, "main"));
+	}
+
+
+	@Test
+	void testFind_maxLessThanOne() {
+		FileNameIndex index = new FileNameIndex(List.of("/src/main.c"));
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> index.find("main", null, 0));
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> index.find("main", null, -1));
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> index.find("", null, 0));
+	}
+
+
+	@Test
+	void testFind_previousMatchesSearched() {
+		FileNameIndex index = new FileNameIndex(createPaths(20000));
+		FileNameIndex.Matches previous = index.find("ma", null, 50);
+		FileNameIndex.Matches narrowed = index.find("main", previous, 50);
+		FileNameIndex.Matches full = index.find("main", null, 50);
+		Assertions.assertArrayEquals(full.entries(), narrowed.entries());
+		Assertions.assertArrayEquals(full.best(), narrowed.best());
+	}
+
+
+	@Test
+	void testFind_shorterNamesAndEarlierFilesWinTies() {
+		FileNameIndex index = new FileNameIndex(List.of(
+				"/a/Mainly.java", "/b/Main.java", "/c/Main.java"));
+		Assertions.assertEquals(List.of("/b/Main.java", "/c/Main.java", "/a/Mainly.java"),
+				find(index, "main"));
+	}
+
+
+	@Test
+	void testFind_wordStartsRankedHigher() {
+		FileNameIndex index = new FileNameIndex(List.of(
+				"/src/abstractfactory.java", "/src/AbstractFactory.java"));
+		Assertions.assertEquals("/src/AbstractFactory.java", find(index, "af").get(0));
+	}
+
+
+	@Test
+	void testFind_500000PathsNarrowedAsTyped() {
+
+		FileNameIndex index = new FileNameIndex(createPaths(500000));
+		String[] queries = { "m", "ma", "mai", "main", "mainu", "mainut" };
+
+		// As the user types, each query extends the previous one, and
+		// searching only the previous matches finds the same files.
+		FileNameIndex.Matches previous = null;
+		for (String query : queries) {
+			FileNameIndex.Matches full = index.find(query, null, 200);
+			previous = index.find(query, previous, 200);
+			Assertions.assertArrayEquals(full.best(), previous.best(), query);
+		}
+
+	}
+
+
+}
@@ -0,0 +1,142 @@
+/*
+ * 10/18/2026
+ *
+ * LineDiffTest.java - Unit tests for LineDiff.
+ * Copyright (C) 2026 Robert Futrell
+ * https://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.tidy;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Unit tests for the {@link LineDiff} class.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class LineDiffTest {
+
+
+	/**
+	 * Applies edits to a text, last to first.
+	 */
+	private static String apply(String text, List<LineDiff.Edit> edits) {
+		StringBuilder sb = new StringBuilder(text);
+		for (int i=edits.size()-1; i>=0; i--) {
+			LineDiff.Edit edit = edits.get(i);
+			sb.replace(edit.start(), edit.end(), edit.text());
+		}
+		return sb.toString();
+	}
+
+
+	/**
+	 * Asserts that the edits turning one text into another are in order,
+	 * don't overlap, and produce the new text.
+	 */
+	private static List<LineDiff.Edit> assertDiff(String oldText, String newText)
+			throws InterruptedException {
+		List<LineDiff.Edit> edits = LineDiff.diff(oldText, newText);
+		int prevEnd = 0;
+		for (LineDiff.Edit edit : edits) {
+			Assertions.assertTrue(edit.start()>=prevEnd);
+			Assertions.assertTrue(edit.end()>=edit.start());
+			prevEnd = edit.end();
+		}
+		Assertions.assertEquals(newText, apply(oldText, edits));
+		return edits;
+	}
+
+
+	@Test
+	void testDiff_changedLine() throws InterruptedException {
+		List<LineDiff.Edit> edits = assertDiff("a\nb\nc\n", "a\nB\nc\n");
+		Assertions.assertEquals(List.of(new LineDiff.Edit(2, 4, "B\n")), edits);
+	}
+
+
+	@Test
+	void testDiff_emptyTexts() throws InterruptedException {
+		Assertions.assertTrue(assertDiff("", "").isEmpty());
+		assertDiff("", "a\nb");
+		assertDiff("a\nb", "");
+	}
+
+
+	@Test
+	void testDiff_insertedAndDeletedLines() throws InterruptedException {
+		List<LineDiff.Edit> edits = assertDiff("a\nb\nc\nd\n", "x\na\nc\nd\ny\n");
+		Assertions.assertEquals(3, edits.size());
+	}
+
+
+	@Test
+	void testDiff_lastLineWithoutNewline() throws InterruptedException {
+		assertDiff("a\nb", "a\nb\n");
+		assertDiff("a\nb\n", "a\nb");
+		assertDiff("a\nb", "a\nc");
+	}
+
+
+	@Test
+	void testDiff_manyDifferences() throws InterruptedException {
+
+		StringBuilder oldText = new StringBuilder("first\n");
+		StringBuilder newText = new StringBuilder("first\n");
+		for (int i=0; i<LineDiff.MAX_DIFFERENCES; i++) {
+			oldText.append("old").append(i).append('\n');
+			newText.append("new").append(i).append('\n');
+		}
+		oldText.append("last\n");
+		newText.append("last\n");
+
+		// Too many differences - everything between the common first and
+		// last lines is replaced.
+		List<LineDiff.Edit> edits = assertDiff(oldText.toString(), newText.toString());
+		Assertions.assertEquals(1, edits.size());
+		Assertions.assertEquals("first\n".length(), edits.get(0).start());
+
+	}
+
+
+	@Test
+	void testDiff_randomTexts() throws InterruptedException {
+		Random random = new Random(42);
+		for (int i=0; i<500; i++) {
+			assertDiff(randomText(random), randomText(random));
+		}
+	}
+
+
+	@Test
+	void testDiff_sameText() throws InterruptedException {
+		Assertions.assertTrue(assertDiff("a\nb\nc\n", "a\nb\nc\n").isEmpty());
+	}
+
+
+	/**
+	 * Returns a short text whose lines are drawn from a small set, so
+	 * random texts share many lines.
+	 */
+	private static String randomText(Random random) {
+		StringBuilder sb = new StringBuilder();
+		int lineCount = random.nextInt(20);
+		for (int i=0; i<lineCount; i++) {
+			sb.append((char)('a' + random.nextInt(4)));
+			if (i<lineCount-1 || random.nextBoolean()) {
+				sb.append('\n');
+			}
+		}
+		return sb.toString();
+	}
+
+
+}